@@ -27,6 +27,7 @@ import android.bluetooth.BluetoothGattCharacteristic;
 import android.bluetooth.BluetoothGattService;
 import android.content.Context;
 
+import java.util.List;
 import java.util.UUID;
 
 import javax.inject.Inject;
@@ -34,6 +35,7 @@ import javax.inject.Singleton;
 
 import androidx.annotation.NonNull;
 import dagger.hilt.android.qualifiers.ApplicationContext;
+import no.nordicsemi.android.ble.RequestQueue;
 import no.nordicsemi.android.ble.callback.DataReceivedCallback;
 import no.nordicsemi.android.ble.callback.DataSentCallback;
 
@@ -210,6 +212,34 @@ public class BleMeshManager extends LoggableBleManager<BleMeshManagerCallbacks>
                 .enqueue();
     }
 
+    /**
+     * Sends the mesh pdus of a message.
+     * <p>
+     * The writes are queued atomically, so that they are sent back to back without waiting for
+     * the callback of each write and without other requests in between.
+     *
+     * @param pdus mesh pdus.
+     */
+    public void sendPdus(@NonNull final List<byte[]> pdus) {
+        if (!mIsDeviceReady)
+            return;
+
+        // This callback will be called each time the data were sent.
+        final DataSentCallback callback = (device, data) ->
+                mCallbacks.onDataSent(device, getMaximumPacketSize(), data.getValue());
+
+        // Write the right characteristic.
+        final BluetoothGattCharacteristic characteristic = isProvisioningComplete ?
+                mMeshProxyDataInCharacteristic : mMeshProvisioningDataInCharacteristic;
+        final RequestQueue queue = beginAtomicRequestQueue();
+        for (byte[] pdu : pdus) {
+            queue.add(writeCharacteristic(characteristic, pdu, BluetoothGattCharacteristic.WRITE_TYPE_NO_RESPONSE)
+                    .split()
+                    .with(callback));
+        }
+        queue.enqueue();
+    }
+
     public int getMaximumPacketSize() {
         return super.getMtu() - 3;
     }
@@ -49,6 +49,7 @@ public class GroupControlsViewModel extends BaseViewModel {
     protected void onCleared() {
         super.onCleared();
         mScannerRepository.unregisterBroadcastReceivers();
+        mScannerRepository.quit();
     }
 
     /**
@@ -649,6 +649,11 @@ public class NrfMeshRepository implements MeshProvisioningStatusCallbacks, MeshS
         mBleMeshManager.sendPdu(pdu);
     }
 
+    @Override
+    public void onMeshPdusCreated(@NonNull final List<byte[]> pdus) {
+        mBleMeshManager.sendPdus(pdus);
+    }
+
     @Override
     public int getMtu() {
         return mBleMeshManager.getMaximumPacketSize();
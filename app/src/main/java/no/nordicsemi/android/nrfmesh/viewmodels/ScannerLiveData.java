@@ -23,7 +23,9 @@
 package no.nordicsemi.android.nrfmesh.viewmodels;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -36,52 +38,53 @@ import no.nordicsemi.android.support.v18.scanner.ScanResult;
  * This class keeps the current list of discovered Bluetooth LE devices matching filter.
  * If a new device has been found it is added to the list and the LiveData in observers are
  * notified. If a packet from a device that's already in the list is found, the RSSI and name
- * are updated and observers are also notified. Observer may check {@link #getUpdatedDeviceIndex()}
- * to find out the index of the updated device.
+ * are updated. Scan results are applied in batches and observers are notified once per batch.
+ * Observer may check {@link #getUpdatedDeviceIndex()} to find out the index of the updated device
+ * when a batch only updated a single device.
  */
 public class ScannerLiveData extends LiveData<ScannerLiveData> {
     private final List<ExtendedBluetoothDevice> mDevices = new ArrayList<>();
+    private final Map<String, Integer> mDeviceIndexes = new HashMap<>();
     private Integer mUpdatedDeviceIndex;
 
     ScannerLiveData() {
     }
 
-    void deviceDiscovered(final ScanResult result) {
-        ExtendedBluetoothDevice device;
-
-        final int index = indexOf(result);
-        if (index == -1) {
-            device = new ExtendedBluetoothDevice(result);
-            mDevices.add(device);
-            mUpdatedDeviceIndex = null;
-        } else {
-            device = mDevices.get(index);
-            mUpdatedDeviceIndex = index;
-        }
-        // Update RSSI and name
-        device.setRssi(result.getRssi());
-        device.setName(getDeviceName(result));
-
-        postValue(this);
-    }
-
-    void deviceDiscovered(final ScanResult result, final MeshBeacon beacon) {
-        ExtendedBluetoothDevice device;
-
-        final int index = indexOf(result);
-        if (index == -1) {
-            device = new ExtendedBluetoothDevice(result, beacon);
-            mDevices.add(device);
-            mUpdatedDeviceIndex = null;
-        } else {
-            device = mDevices.get(index);
-            mUpdatedDeviceIndex = index;
+    /**
+     * Applies a batch of discovered devices and notifies the observers once.
+     * <p>
+     * Must be called on the main thread.
+     * </p>
+     *
+     * @param discoveredDevices devices discovered in a scan batch, one entry per device
+     */
+    void devicesDiscovered(@NonNull final List<DiscoveredDevice> discoveredDevices) {
+        if (discoveredDevices.isEmpty())
+            return;
+
+        Integer updatedIndex = null;
+        boolean added = false;
+        for (DiscoveredDevice discoveredDevice : discoveredDevices) {
+            final ScanResult result = discoveredDevice.result;
+            ExtendedBluetoothDevice device;
+
+            final Integer index = mDeviceIndexes.get(result.getDevice().getAddress());
+            if (index == null) {
+                device = new ExtendedBluetoothDevice(result, discoveredDevice.beacon);
+                mDeviceIndexes.put(result.getDevice().getAddress(), mDevices.size());
+                mDevices.add(device);
+                added = true;
+            } else {
+                device = mDevices.get(index);
+                updatedIndex = index;
+            }
+            // Update RSSI and name
+            device.setRssi(discoveredDevice.rssi);
+            device.setName(discoveredDevice.name);
         }
-        // Update RSSI and name
-        device.setRssi(result.getRssi());
-        device.setName(getDeviceName(result));
-
-        postValue(this);
+        // Observers may only refresh a single item if that was the only change in this batch
+        mUpdatedDeviceIndex = !added && discoveredDevices.size() == 1 ? updatedIndex : null;
+        setValue(this);
     }
 
     /**
@@ -90,7 +93,7 @@ public class ScannerLiveData extends LiveData<ScannerLiveData> {
      * @param result ScanResult
      * @return Device name found in the scan record or unknown
      */
-    private String getDeviceName(final ScanResult result) {
+    static String getDeviceName(final ScanResult result) {
         if (result.getScanRecord() != null)
             return result.getScanRecord().getDeviceName();
         return "Unknown";
@@ -101,6 +104,7 @@ public class ScannerLiveData extends LiveData<ScannerLiveData> {
      */
     void clear() {
         mDevices.clear();
+        mDeviceIndexes.clear();
         mUpdatedDeviceIndex = null;
         postValue(this);
     }
@@ -133,18 +137,19 @@ public class ScannerLiveData extends LiveData<ScannerLiveData> {
     }
 
     /**
-     * Finds the index of existing devices on the scan results list.
-     *
-     * @param result scan result
-     * @return index of -1 if not found
+     * A device discovered in a scan batch with its parsed beacon, name and smoothed RSSI.
      */
-    private int indexOf(final ScanResult result) {
-        int i = 0;
-        for (final ExtendedBluetoothDevice device : mDevices) {
-            if (device.matches(result))
-                return i;
-            i++;
+    static final class DiscoveredDevice {
+        final ScanResult result;
+        final MeshBeacon beacon;
+        final String name;
+        final int rssi;
+
+        DiscoveredDevice(@NonNull final ScanResult result, @Nullable final MeshBeacon beacon, final int rssi) {
+            this.result = result;
+            this.beacon = beacon;
+            this.name = getDeviceName(result);
+            this.rssi = rssi;
         }
-        return -1;
     }
 }
@@ -28,20 +28,27 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
 import android.location.LocationManager;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
 import android.os.ParcelUuid;
 import android.util.Log;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import javax.inject.Inject;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import dagger.hilt.android.qualifiers.ApplicationContext;
 import no.nordicsemi.android.mesh.MeshManagerApi;
-import no.nordicsemi.android.mesh.MeshNetwork;
-import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
 import no.nordicsemi.android.nrfmesh.ble.BleMeshManager;
 import no.nordicsemi.android.nrfmesh.utils.Utils;
 import no.nordicsemi.android.support.v18.scanner.BluetoothLeScannerCompat;
@@ -57,6 +64,11 @@ import no.nordicsemi.android.support.v18.scanner.ScanSettings;
 public class ScannerRepository {
 
     private static final String TAG = ScannerRepository.class.getSimpleName();
+    /**
+     * Report delay in milliseconds used to batch the scan results.
+     */
+    private static final long REPORT_DELAY = 500;
+    private static final float RSSI_SMOOTHING_FACTOR = 0.3f;
     private final Context mContext;
     private final MeshManagerApi mMeshManagerApi;
 
@@ -66,41 +78,28 @@ public class ScannerRepository {
     private final ScannerLiveData mScannerLiveData;
     private final ScannerStateLiveData mScannerStateLiveData;
 
-    private UUID mFilterUuid;
+    private volatile UUID mFilterUuid;
+
+    /**
+     * Scan results are delivered and processed on this thread, the main thread only applies the batches.
+     */
+    private final HandlerThread mScanThread;
+    private final Handler mScanHandler;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    // Smoothed RSSI per device address, only accessed on the scan thread
+    private final Map<String, Float> mSmoothedRssi = new HashMap<>();
 
     private final ScanCallback mScanCallbacks = new ScanCallback() {
 
         @Override
         public void onScanResult(final int callbackType, @NonNull final ScanResult result) {
-            try {
-                if (mFilterUuid.equals(BleMeshManager.MESH_PROVISIONING_UUID)) {
-                    // If the packet has been obtained while Location was disabled, mark Location as not required
-                    if (Utils.isLocationRequired(mContext) && !Utils.isLocationEnabled(mContext))
-                        Utils.markLocationNotRequired(mContext);
-
-                    updateScannerLiveData(result);
-                } else if (mFilterUuid.equals(BleMeshManager.MESH_PROXY_UUID)) {
-                    final byte[] serviceData = Utils.getServiceData(result, BleMeshManager.MESH_PROXY_UUID);
-                    if (mMeshManagerApi != null) {
-                        if (mMeshManagerApi.isAdvertisingWithNetworkIdentity(serviceData)) {
-                            if (mMeshManagerApi.networkIdMatches(serviceData)) {
-                                updateScannerLiveData(result);
-                            }
-                        } else if (mMeshManagerApi.isAdvertisedWithNodeIdentity(serviceData)) {
-                            if (checkIfNodeIdentityMatches(serviceData)) {
-                                updateScannerLiveData(result);
-                            }
-                        }
-                    }
-                }
-            } catch (Exception ex) {
-                Log.e(TAG, "Error: " + ex.getMessage());
-            }
+            // Report delay = 0, every result is a batch of its own
+            processScanResults(Collections.singletonList(result));
         }
 
         @Override
         public void onBatchScanResults(@NonNull final List<ScanResult> results) {
-            // Batch scan is disabled (report delay = 0)
+            processScanResults(results);
         }
 
         @Override
@@ -149,6 +148,9 @@ public class ScannerRepository {
         this.mMeshManagerApi = meshManagerApi;
         mScannerStateLiveData = new ScannerStateLiveData(Utils.isBleEnabled(), Utils.isLocationEnabled(context));
         mScannerLiveData = new ScannerLiveData();
+        mScanThread = new HandlerThread(TAG);
+        mScanThread.start();
+        mScanHandler = new Handler(mScanThread.getLooper());
     }
 
     public ScannerStateLiveData getScannerState() {
@@ -159,19 +161,104 @@ public class ScannerRepository {
         return mScannerLiveData;
     }
 
-    private void updateScannerLiveData(final ScanResult result) {
-        final ScanRecord scanRecord = result.getScanRecord();
-        if (scanRecord != null) {
-            if (scanRecord.getBytes() != null) {
-                final byte[] beaconData = mMeshManagerApi.getMeshBeaconData(scanRecord.getBytes());
-                if (beaconData != null) {
-                    mScannerLiveData.deviceDiscovered(result, mMeshManagerApi.getMeshBeacon(beaconData));
-                } else {
-                    mScannerLiveData.deviceDiscovered(result);
+    /**
+     * Filters, deduplicates and parses a batch of scan results and posts it to the scanner results.
+     * <p>
+     * Only the latest matching advertisement of each device is kept while the RSSI is smoothed over
+     * all advertisements received from the device. This runs on the scan thread.
+     * </p>
+     *
+     * @param results scan results
+     */
+    private void processScanResults(@NonNull final List<ScanResult> results) {
+        final UUID filterUuid = mFilterUuid;
+        if (filterUuid == null || results.isEmpty())
+            return;
+
+        final Map<String, Integer> rssis = new HashMap<>();
+        for (ScanResult result : results) {
+            rssis.put(result.getDevice().getAddress(), smoothRssi(result));
+        }
+
+        final Set<String> addresses = new HashSet<>();
+        final List<ScannerLiveData.DiscoveredDevice> discoveredDevices = new ArrayList<>();
+        // Walk the batch from the latest result so that each device is checked and parsed once
+        for (int i = results.size() - 1; i >= 0; i--) {
+            final ScanResult result = results.get(i);
+            final String address = result.getDevice().getAddress();
+            if (addresses.contains(address))
+                continue;
+            try {
+                if (matchesFilter(filterUuid, result)) {
+                    addresses.add(address);
+                    final ScannerLiveData.DiscoveredDevice discoveredDevice = parseScanResult(result, rssis.get(address));
+                    if (discoveredDevice != null) {
+                        discoveredDevices.add(discoveredDevice);
+                    }
                 }
+            } catch (Exception ex) {
+                Log.e(TAG, "Error: " + ex.getMessage());
+            }
+        }
+        if (discoveredDevices.isEmpty())
+            return;
+
+        // Keep the order in which the devices were discovered
+        Collections.reverse(discoveredDevices);
+        if (filterUuid.equals(BleMeshManager.MESH_PROVISIONING_UUID)) {
+            // If the packet has been obtained while Location was disabled, mark Location as not required
+            if (Utils.isLocationRequired(mContext) && !Utils.isLocationEnabled(mContext))
+                Utils.markLocationNotRequired(mContext);
+        }
+        mMainHandler.post(() -> {
+            // Results of a stopped scan may still be in flight
+            if (mScannerStateLiveData.isScanning()) {
+                mScannerLiveData.devicesDiscovered(discoveredDevices);
                 mScannerStateLiveData.deviceFound();
             }
+        });
+    }
+
+    private boolean matchesFilter(@NonNull final UUID filterUuid, @NonNull final ScanResult result) {
+        if (filterUuid.equals(BleMeshManager.MESH_PROVISIONING_UUID)) {
+            return true;
+        } else if (filterUuid.equals(BleMeshManager.MESH_PROXY_UUID)) {
+            final byte[] serviceData = Utils.getServiceData(result, BleMeshManager.MESH_PROXY_UUID);
+            if (mMeshManagerApi != null) {
+                if (mMeshManagerApi.isAdvertisingWithNetworkIdentity(serviceData)) {
+                    return mMeshManagerApi.networkIdMatches(serviceData);
+                } else if (mMeshManagerApi.isAdvertisedWithNodeIdentity(serviceData)) {
+                    return checkIfNodeIdentityMatches(serviceData);
+                }
+            }
         }
+        return false;
+    }
+
+    @Nullable
+    private ScannerLiveData.DiscoveredDevice parseScanResult(@NonNull final ScanResult result, final int smoothedRssi) {
+        final ScanRecord scanRecord = result.getScanRecord();
+        if (scanRecord == null || scanRecord.getBytes() == null)
+            return null;
+
+        final byte[] beaconData = mMeshManagerApi.getMeshBeaconData(scanRecord.getBytes());
+        if (beaconData != null) {
+            return new ScannerLiveData.DiscoveredDevice(result, mMeshManagerApi.getMeshBeacon(beaconData), smoothedRssi);
+        }
+        return new ScannerLiveData.DiscoveredDevice(result, null, smoothedRssi);
+    }
+
+    /**
+     * Updates the exponential moving average of the RSSI of the device that sent the scan result.
+     *
+     * @return smoothed RSSI of the device
+     */
+    private int smoothRssi(@NonNull final ScanResult result) {
+        final String address = result.getDevice().getAddress();
+        final Float rssi = mSmoothedRssi.get(address);
+        final float smoothedRssi = rssi == null ? result.getRssi() : rssi + RSSI_SMOOTHING_FACTOR * (result.getRssi() - rssi);
+        mSmoothedRssi.put(address, smoothedRssi);
+        return Math.round(smoothedRssi);
     }
 
     /**
@@ -194,6 +281,17 @@ public class ScannerRepository {
         }
     }
 
+    /**
+     * Stops scanning and quits the thread the scan results are processed on.
+     * The repository may not be used afterwards.
+     */
+    void quit() {
+        if (mScannerStateLiveData.isScanning()) {
+            BluetoothLeScannerCompat.getScanner().stopScan(mScanCallbacks);
+        }
+        mScanThread.quitSafely();
+    }
+
     /**
      * Start scanning for Bluetooth devices.
      *
@@ -207,11 +305,14 @@ public class ScannerRepository {
         }
 
         mScannerStateLiveData.scanningStarted();
+        // Each scan starts with a fresh RSSI history
+        mScanHandler.post(mSmoothedRssi::clear);
         //Scanning settings
         final ScanSettings settings = new ScanSettings.Builder()
                 .setScanMode(ScanSettings.SCAN_MODE_LOW_LATENCY)
-                // Refresh the devices list every second
-                .setReportDelay(0)
+                // Batch the results to refresh the devices list once per report delay. Batching is
+                // done by the controller if supported or emulated by the scanner library otherwise
+                .setReportDelay(REPORT_DELAY)
                 // Hardware filtering has some issues on selected devices
                 .setUseHardwareFilteringIfSupported(false)
                 // Samsung S6 and S6 Edge report equal value of RSSI for all devices. In this app we ignore the RSSI.
@@ -223,7 +324,7 @@ public class ScannerRepository {
         filters.add(new ScanFilter.Builder().setServiceUuid(new ParcelUuid((filterUuid))).build());
 
         final BluetoothLeScannerCompat scanner = BluetoothLeScannerCompat.getScanner();
-        scanner.startScan(filters, settings, mScanCallbacks);
+        scanner.startScan(filters, settings, mScanCallbacks, mScanHandler);
     }
 
     /**
@@ -243,14 +344,6 @@ public class ScannerRepository {
      * @return true if the node identity matches or false otherwise
      */
     private boolean checkIfNodeIdentityMatches(final byte[] serviceData) {
-        final MeshNetwork network = mMeshManagerApi.getMeshNetwork();
-        if (network != null) {
-            for (ProvisionedMeshNode node : network.getNodes()) {
-                if (mMeshManagerApi.nodeIdentityMatches(node, serviceData)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return mMeshManagerApi.resolveNodeIdentity(serviceData) != null;
     }
 }
\ No newline at end of file
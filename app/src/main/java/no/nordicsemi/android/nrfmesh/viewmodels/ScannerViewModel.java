@@ -47,6 +47,7 @@ public class ScannerViewModel extends BaseViewModel {
     protected void onCleared() {
         super.onCleared();
         mScannerRepository.unregisterBroadcastReceivers();
+        mScannerRepository.quit();
     }
 
     /**
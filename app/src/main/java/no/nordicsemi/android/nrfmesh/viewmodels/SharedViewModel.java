@@ -56,6 +56,7 @@ public class SharedViewModel extends BaseViewModel implements NetworkExportUtils
         super.onCleared();
         mNrfMeshRepository.disconnect();
         mScannerRepository.unregisterBroadcastReceivers();
+        mScannerRepository.quit();
     }
 
     /**
@@ -0,0 +1,133 @@
+package no.nordicsemi.android.mesh;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A set of addresses stored as sorted, non-overlapping and non-adjacent intervals, so that lookups
+ * and updates take O(log n) where n is the number of intervals rather than the number of addresses.
+ */
+final class AddressSet {
+
+    // Lower bound of each interval mapped to its upper bound, both inclusive
+    private final TreeMap<Integer, Integer> intervals = new TreeMap<>();
+
+    /**
+     * Adds the addresses between low and high, inclusive.
+     *
+     * @param low  lowest address
+     * @param high highest address
+     */
+    void add(final int low, final int high) {
+        if (low > high)
+            return;
+        int start = low;
+        int end = high;
+        final Map.Entry<Integer, Integer> floor = intervals.floorEntry(low);
+        if (floor != null && floor.getValue() >= low - 1) {
+            start = floor.getKey();
+            end = Math.max(end, floor.getValue());
+        }
+        Map.Entry<Integer, Integer> next;
+        while ((next = intervals.ceilingEntry(start)) != null && next.getKey() <= end + 1) {
+            end = Math.max(end, next.getValue());
+            intervals.remove(next.getKey());
+        }
+        intervals.put(start, end);
+    }
+
+    /**
+     * Removes the addresses between low and high, inclusive.
+     *
+     * @param low  lowest address
+     * @param high highest address
+     */
+    void remove(final int low, final int high) {
+        if (low > high)
+            return;
+        final Map.Entry<Integer, Integer> floor = intervals.floorEntry(low);
+        if (floor != null && floor.getValue() >= low) {
+            intervals.remove(floor.getKey());
+            if (floor.getKey() < low) {
+                intervals.put(floor.getKey(), low - 1);
+            }
+            if (floor.getValue() > high) {
+                intervals.put(high + 1, floor.getValue());
+            }
+        }
+        Map.Entry<Integer, Integer> next;
+        while ((next = intervals.ceilingEntry(low)) != null && next.getKey() <= high) {
+            intervals.remove(next.getKey());
+            if (next.getValue() > high) {
+                intervals.put(high + 1, next.getValue());
+            }
+        }
+    }
+
+    /**
+     * Returns a copy of the set.
+     */
+    AddressSet copy() {
+        final AddressSet copy = new AddressSet();
+        copy.intervals.putAll(intervals);
+        return copy;
+    }
+
+    /**
+     * Removes all addresses.
+     */
+    void clear() {
+        intervals.clear();
+    }
+
+    /**
+     * Returns true if the set contains the given address.
+     *
+     * @param address address
+     */
+    boolean contains(final int address) {
+        final Map.Entry<Integer, Integer> floor = intervals.floorEntry(address);
+        return floor != null && floor.getValue() >= address;
+    }
+
+    /**
+     * Returns true if the set contains any of the addresses between low and high, inclusive.
+     *
+     * @param low  lowest address
+     * @param high highest address
+     */
+    boolean intersects(final int low, final int high) {
+        final Map.Entry<Integer, Integer> floor = intervals.floorEntry(high);
+        return floor != null && floor.getValue() >= low;
+    }
+
+    /**
+     * Returns the first address of a block of consecutive addresses that are not in the set.
+     *
+     * @param low  lowest address the block may start at
+     * @param high highest address the block may end at
+     * @param size number of addresses in the block
+     * @return first address of the block or -1 if there is no such block between low and high
+     */
+    int nextFree(final int low, final int high, final int size) {
+        int address = low;
+        final Map.Entry<Integer, Integer> floor = intervals.floorEntry(address);
+        if (floor != null && floor.getValue() >= address) {
+            address = floor.getValue() + 1;
+        }
+        while (address + size - 1 <= high) {
+            final Map.Entry<Integer, Integer> next = intervals.ceilingEntry(address);
+            if (next == null || next.getKey() > address + size - 1)
+                return address;
+            address = next.getValue() + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of intervals in the set.
+     */
+    int intervalCount() {
+        return intervals.size();
+    }
+}
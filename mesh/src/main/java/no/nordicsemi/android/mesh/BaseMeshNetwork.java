@@ -58,6 +58,13 @@ abstract class BaseMeshNetwork {
     @Ignore
     protected MeshNetworkCallbacks mCallbacks;
     @Ignore
+    final UsedAddressIndex usedAddresses = new UsedAddressIndex();
+    // Addresses reserved for devices being provisioned in sessions, skipped by the unicast address allocator
+    @Ignore
+    AddressSet reservedUnicastAddresses;
+    @Ignore
+    final SubscriptionIndex subscriptions = new SubscriptionIndex();
+    @Ignore
     @SerializedName("$schema")
     @Expose
     String schema = "http://json-schema.org/draft-04/schema#";
@@ -117,6 +124,10 @@ abstract class BaseMeshNetwork {
     @ColumnInfo(name = "network_exclusions", defaultValue = "{}")
     @Expose
     protected Map<Integer, List<Integer>> networkExclusions = new HashMap<>();
+    @TypeConverters(MeshTypeConverters.class)
+    @NonNull
+    @ColumnInfo(name = "change_log", defaultValue = "'{}'")
+    MeshNetworkChangeLog changeLog = new MeshNetworkChangeLog();
     //Library related attributes
     @Ignore
     @ColumnInfo(name = "unicast_address")
@@ -135,12 +146,6 @@ abstract class BaseMeshNetwork {
     protected final Comparator<ProvisionedMeshNode> nodeComparator = (node1, node2) ->
             Integer.compare(node1.getUnicastAddress(), node2.getUnicastAddress());
     @Ignore
-    protected final Comparator<Group> groupComparator = (group1, group2) ->
-            Integer.compare(group1.getAddress(), group2.getAddress());
-    @Ignore
-    protected final Comparator<Scene> sceneComparator = (scene1, scene2) ->
-            Integer.compare(scene1.getNumber(), scene2.getNumber());
-    @Ignore
     protected final Comparator<AllocatedUnicastRange> unicastRangeComparator = (range1, range2) ->
             Integer.compare(range1.getLowAddress(), range2.getLowAddress());
     @Ignore
@@ -1245,6 +1250,8 @@ abstract class BaseMeshNetwork {
         }
         if(node != null && nodes.remove(node)) {
             excludeNode(node);
+            usedAddresses.removeNode(node);
+            subscriptions.removeNode(node);
             if(provisioner != null){
                 if(provisioners.remove(provisioner)){
                     notifyProvisionerDeleted(provisioner);
@@ -1368,6 +1375,23 @@ abstract class BaseMeshNetwork {
         this.networkExclusions = networkExclusions;
     }
 
+    /**
+     * Getter required by room db and is restricted for internal use.
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    @NonNull
+    public MeshNetworkChangeLog getChangeLog() {
+        return changeLog;
+    }
+
+    /**
+     * Setter required by room db and is restricted for internal use.
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public void setChangeLog(@NonNull final MeshNetworkChangeLog changeLog) {
+        this.changeLog = changeLog;
+    }
+
 
     /**
      * Returns the {@link ProxyFilter} set on the proxy
@@ -1430,114 +1454,145 @@ abstract class BaseMeshNetwork {
     }
 
     final void notifyNetKeyAdded(@NonNull final NetworkKey networkKey) {
+        changeLog.record(networkKey, false);
         if (mCallbacks != null) {
             mCallbacks.onNetworkKeyAdded(networkKey);
         }
     }
 
     final void notifyNetKeyUpdated(@NonNull final NetworkKey networkKey) {
+        changeLog.record(networkKey, false);
         if (mCallbacks != null) {
             mCallbacks.onNetworkKeyUpdated(networkKey);
         }
     }
 
     final void notifyNetKeyDeleted(@NonNull final NetworkKey networkKey) {
+        changeLog.record(networkKey, true);
         if (mCallbacks != null) {
             mCallbacks.onNetworkKeyDeleted(networkKey);
         }
     }
 
     final void notifyAppKeyAdded(@NonNull final ApplicationKey appKey) {
+        changeLog.record(appKey, false);
         if (mCallbacks != null) {
             mCallbacks.onApplicationKeyAdded(appKey);
         }
     }
 
     final void notifyAppKeyUpdated(@NonNull final ApplicationKey appKey) {
+        changeLog.record(appKey, false);
         if (mCallbacks != null) {
             mCallbacks.onApplicationKeyUpdated(appKey);
         }
     }
 
     final void notifyAppKeyDeleted(@NonNull final ApplicationKey appKey) {
+        changeLog.record(appKey, true);
         if (mCallbacks != null) {
             mCallbacks.onApplicationKeyDeleted(appKey);
         }
     }
 
     final void notifyProvisionerAdded(@NonNull final Provisioner provisioner) {
+        changeLog.record(provisioner, false);
         if (mCallbacks != null) {
             mCallbacks.onProvisionerAdded(provisioner);
         }
     }
 
     final void notifyProvisionerUpdated(@NonNull final Provisioner provisioner) {
+        changeLog.record(provisioner, false);
         if (mCallbacks != null) {
             mCallbacks.onProvisionerUpdated(provisioner);
         }
     }
 
     final void notifyProvisionersUpdated(@NonNull final List<Provisioner> provisioner) {
+        for (Provisioner p : provisioner) {
+            changeLog.record(p, false);
+        }
         if (mCallbacks != null) {
             mCallbacks.onProvisionersUpdated(provisioner);
         }
     }
 
     final void notifyProvisionerDeleted(@NonNull final Provisioner provisioner) {
+        changeLog.record(provisioner, true);
         if (mCallbacks != null) {
             mCallbacks.onProvisionerDeleted(provisioner);
         }
     }
 
     final void notifyNodeAdded(@NonNull final ProvisionedMeshNode node) {
+        changeLog.record(node, false);
+        usedAddresses.putNode(node);
+        subscriptions.putNode(node);
         if (mCallbacks != null) {
             mCallbacks.onNodeAdded(node);
         }
     }
 
     final void notifyNodeUpdated(@NonNull final ProvisionedMeshNode node) {
+        changeLog.record(node, false);
+        usedAddresses.putNode(node);
+        subscriptions.putNode(node);
         if (mCallbacks != null) {
             mCallbacks.onNodeUpdated(node);
         }
     }
 
     final void notifyNodeDeleted(@NonNull final ProvisionedMeshNode meshNode) {
+        changeLog.record(meshNode, true);
+        usedAddresses.removeNode(meshNode);
+        subscriptions.removeNode(meshNode);
         if (mCallbacks != null) {
             mCallbacks.onNodeDeleted(meshNode);
         }
     }
 
     final void notifySceneAdded(@NonNull final Scene scene) {
+        changeLog.record(scene, false);
+        usedAddresses.putScene(scene);
         if (mCallbacks != null) {
             mCallbacks.onSceneAdded(scene);
         }
     }
 
     final void notifySceneUpdated(@NonNull final Scene scene) {
+        changeLog.record(scene, false);
         if (mCallbacks != null) {
             mCallbacks.onSceneUpdated(scene);
         }
     }
 
     final void notifySceneDeleted(@NonNull final Scene scene) {
+        changeLog.record(scene, true);
+        usedAddresses.removeScene(scene);
         if (mCallbacks != null) {
             mCallbacks.onSceneDeleted(scene);
         }
     }
 
     final void notifyGroupAdded(@NonNull final Group group) {
+        changeLog.record(group, false);
+        usedAddresses.putGroup(group);
         if (mCallbacks != null) {
             mCallbacks.onGroupAdded(group);
         }
     }
 
     final void notifyGroupUpdated(@NonNull final Group group) {
+        changeLog.record(group, false);
         if (mCallbacks != null) {
             mCallbacks.onGroupUpdated(group);
         }
     }
 
     final void notifyGroupDeleted(@NonNull final Group group) {
+        changeLog.record(group, true);
+        usedAddresses.removeGroup(group);
         if (mCallbacks != null) {
             mCallbacks.onGroupDeleted(group);
         }
@@ -0,0 +1,369 @@
+package no.nordicsemi.android.mesh;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.logger.MeshLogger;
+import no.nordicsemi.android.mesh.transport.AccessMessage;
+import no.nordicsemi.android.mesh.transport.ConfigCompositionDataStatus;
+import no.nordicsemi.android.mesh.transport.MeshMessage;
+import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.mesh.utils.MeshAddress;
+
+/**
+ * Reads the composition data of many nodes, several nodes at a time.
+ * <p>
+ * Up to {@link #getMaxConcurrency()} Config Composition Data Get messages are outstanding at once, a message
+ * that is not answered is sent again until the node is given up. Nodes whose company, product and version
+ * identifiers are already known share the composition data of the first node with the same identifiers: that
+ * node is asked, the others get a copy of its composition data without a message being sent. Each copy has its
+ * own elements and models, as the configuration of the models differs between nodes.
+ * </p>
+ * <p>
+ * The crawler does not send messages itself, send a {@link no.nordicsemi.android.mesh.transport.ConfigCompositionDataGet}
+ * to the addresses returned by {@link #nextRequests(long)} and pass the messages received to
+ * {@link #onMessageReceived(MeshMessage)}. {@link MeshManagerApi#discoverCompositionData(List, Callbacks)} does both.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class CompositionDataCrawler {
+
+    private static final String TAG = CompositionDataCrawler.class.getSimpleName();
+
+    public static final int DEFAULT_MAX_CONCURRENCY = 4;
+    public static final long DEFAULT_TIMEOUT = 10000;
+    public static final int MAX_RETRIES = 2;
+
+    /**
+     * Callbacks notifying the composition data of each node.
+     */
+    public interface Callbacks {
+
+        /**
+         * Invoked when the composition data of a node is known.
+         *
+         * @param node   node
+         * @param status composition data of the node
+         * @param reused true if the composition data was copied from a node with the same identifiers
+         */
+        void onCompositionDataReceived(@NonNull final ProvisionedMeshNode node,
+                                       @NonNull final ConfigCompositionDataStatus status,
+                                       final boolean reused);
+
+        /**
+         * Invoked when a node did not respond.
+         *
+         * @param node node
+         */
+        void onCompositionDataFailed(@NonNull final ProvisionedMeshNode node);
+
+        /**
+         * Invoked each time a node is done.
+         *
+         * @param completed number of nodes whose composition data is known or that failed
+         * @param total     number of nodes added
+         */
+        void onProgress(final int completed, final int total);
+    }
+
+    private static final class Job {
+        final ProvisionedMeshNode node;
+        final String key;
+        long sent;
+        int retries;
+
+        Job(@NonNull final ProvisionedMeshNode node, @Nullable final String key) {
+            this.node = node;
+            this.key = key;
+        }
+    }
+
+    private final Callbacks callbacks;
+    private final ArrayDeque<Job> pending = new ArrayDeque<>();
+    private final List<Job> active = new ArrayList<>();
+    // Composition data received, by company, product and version identifiers
+    private final Map<String, ConfigCompositionDataStatus> compositions = new HashMap<>();
+    private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+    private long timeout = DEFAULT_TIMEOUT;
+    private int total;
+    private int received;
+    private int reused;
+    private int failed;
+    private int sentMessages;
+
+    /**
+     * Constructs a crawler.
+     *
+     * @param callbacks callbacks notifying the composition data of each node, may be null
+     */
+    public CompositionDataCrawler(@Nullable final Callbacks callbacks) {
+        this.callbacks = callbacks;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Sets the number of nodes asked for their composition data at the same time.
+     *
+     * @param maxConcurrency number of nodes
+     * @throws IllegalArgumentException if the number is not positive
+     */
+    public void setMaxConcurrency(final int maxConcurrency) {
+        if (maxConcurrency <= 0)
+            throw new IllegalArgumentException("Concurrency must be greater than 0");
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Sets the time after which a message without a response is sent again.
+     *
+     * @param timeout timeout in milliseconds
+     */
+    public void setTimeout(final long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Adds a node whose composition data is to be read.
+     *
+     * @param node provisioned node
+     */
+    public void add(@NonNull final ProvisionedMeshNode node) {
+        pending.add(new Job(node, getKey(node.getCompanyIdentifier(), node.getProductIdentifier(), node.getVersionIdentifier())));
+        total++;
+    }
+
+    /**
+     * Removes a node, for example after it was reset.
+     *
+     * @param address unicast address of the node
+     */
+    public void remove(final int address) {
+        total -= removeJob(pending.iterator(), address) + removeJob(active.iterator(), address);
+    }
+
+    /**
+     * Returns true if the composition data of every node added is known or the node failed.
+     */
+    public boolean isComplete() {
+        return pending.isEmpty() && active.isEmpty();
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Returns the number of nodes whose composition data is known or that failed.
+     */
+    public int getCompleted() {
+        return received + reused + failed;
+    }
+
+    /**
+     * Returns the number of nodes that sent their composition data.
+     */
+    public int getReceived() {
+        return received;
+    }
+
+    /**
+     * Returns the number of nodes that were given the composition data of a node with the same identifiers.
+     */
+    public int getReused() {
+        return reused;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    /**
+     * Returns the share of the nodes whose composition data is known, from 0 to 1.
+     */
+    public float getCoverage() {
+        return total == 0 ? 1 : (float) (received + reused) / total;
+    }
+
+    /**
+     * Returns the number of messages returned by {@link #nextRequests(long)}, including the retries.
+     */
+    public int getSentMessages() {
+        return sentMessages;
+    }
+
+    /**
+     * Returns the addresses of the nodes to be sent a Config Composition Data Get now, the messages that
+     * timed out included. Nodes sharing the composition data of a node already read are completed here.
+     *
+     * @param now current time in milliseconds
+     */
+    @NonNull
+    public List<Integer> nextRequests(final long now) {
+        final List<Integer> requests = new ArrayList<>();
+        final Iterator<Job> iterator = active.iterator();
+        final List<Job> lost = new ArrayList<>();
+        while (iterator.hasNext()) {
+            final Job job = iterator.next();
+            if (now - job.sent < timeout)
+                continue;
+            if (job.retries++ >= MAX_RETRIES) {
+                iterator.remove();
+                lost.add(job);
+            } else {
+                job.sent = now;
+                requests.add(job.node.getUnicastAddress());
+            }
+        }
+        for (Job job : lost) {
+            fail(job);
+        }
+        final Iterator<Job> pendingIterator = pending.iterator();
+        while (pendingIterator.hasNext()) {
+            final Job job = pendingIterator.next();
+            final ConfigCompositionDataStatus composition = job.key == null ? null : compositions.get(job.key);
+            if (composition != null && isReusable(job.node, composition)) {
+                pendingIterator.remove();
+                reuse(job, composition);
+            } else if (active.size() < maxConcurrency && (composition != null || !isRequested(job.key))) {
+                pendingIterator.remove();
+                job.sent = now;
+                job.retries = 0;
+                active.add(job);
+                requests.add(job.node.getUnicastAddress());
+            }
+        }
+        sentMessages += requests.size();
+        return requests;
+    }
+
+    /**
+     * Returns the time the next message times out, {@link Long#MAX_VALUE} if no message is outstanding.
+     */
+    public long getNextTimeout() {
+        long next = Long.MAX_VALUE;
+        for (Job job : active) {
+            next = Math.min(next, job.sent + timeout);
+        }
+        return next;
+    }
+
+    /**
+     * Processes a message received from a node.
+     *
+     * @param message message received
+     * @return true if the message was the composition data of a node being read, {@link #nextRequests(long)}
+     * should then be called to read the next nodes
+     */
+    public boolean onMessageReceived(@NonNull final MeshMessage message) {
+        if (!(message instanceof ConfigCompositionDataStatus))
+            return false;
+        final ConfigCompositionDataStatus status = (ConfigCompositionDataStatus) message;
+        for (int i = 0; i < active.size(); i++) {
+            final Job job = active.get(i);
+            if (job.node.getUnicastAddress() != status.getSrc())
+                continue;
+            active.remove(i);
+            final String key = getKey(status.getCompanyIdentifier(), status.getProductIdentifier(), status.getVersionIdentifier());
+            if (!compositions.containsKey(key)) {
+                compositions.put(key, status);
+            }
+            received++;
+            if (callbacks != null) {
+                callbacks.onCompositionDataReceived(job.node, status, false);
+            }
+            notifyProgress();
+            return true;
+        }
+        return false;
+    }
+
+    private void reuse(@NonNull final Job job, @NonNull final ConfigCompositionDataStatus composition) {
+        final ConfigCompositionDataStatus status = copy(composition, job.node.getUnicastAddress());
+        job.node.setCompositionData(status);
+        reused++;
+        if (callbacks != null) {
+            callbacks.onCompositionDataReceived(job.node, status, true);
+        }
+        notifyProgress();
+    }
+
+    private void fail(@NonNull final Job job) {
+        failed++;
+        MeshLogger.error(TAG, "No composition data from node " + MeshAddress.formatAddress(job.node.getUnicastAddress(), true));
+        if (callbacks != null) {
+            callbacks.onCompositionDataFailed(job.node);
+        }
+        notifyProgress();
+    }
+
+    private void notifyProgress() {
+        if (callbacks != null) {
+            callbacks.onProgress(getCompleted(), total);
+        }
+    }
+
+    /**
+     * Returns true if the composition data fits the elements already known of the node.
+     */
+    private static boolean isReusable(@NonNull final ProvisionedMeshNode node, @NonNull final ConfigCompositionDataStatus composition) {
+        final int elementCount = node.getNumberOfElements();
+        return elementCount == 0 || elementCount == composition.getElements().size();
+    }
+
+    /**
+     * Returns true if a node with the given identifiers is being asked for its composition data.
+     */
+    private boolean isRequested(@Nullable final String key) {
+        if (key == null)
+            return false;
+        for (Job job : active) {
+            if (key.equals(job.key))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Parses the composition data again as if sent by the node at the given address, giving the node
+     * elements and models of its own.
+     */
+    @NonNull
+    private static ConfigCompositionDataStatus copy(@NonNull final ConfigCompositionDataStatus status, final int address) {
+        final AccessMessage source = (AccessMessage) status.getMessage();
+        final AccessMessage message = new AccessMessage();
+        message.setSrc(address);
+        message.setDst(source.getDst());
+        message.setOpCode(source.getOpCode());
+        message.setParameters(source.getParameters());
+        message.setAccessPdu(source.getAccessPdu());
+        return new ConfigCompositionDataStatus(message);
+    }
+
+    @Nullable
+    private static String getKey(@Nullable final Integer cid, @Nullable final Integer pid, @Nullable final Integer vid) {
+        if (cid == null || pid == null || vid == null)
+            return null;
+        return String.format(Locale.US, "%04X%04X%04X", cid, pid, vid);
+    }
+
+    private static int removeJob(@NonNull final Iterator<Job> iterator, final int address) {
+        int removed = 0;
+        while (iterator.hasNext()) {
+            if (iterator.next().node.getUnicastAddress() == address) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,417 @@
+package no.nordicsemi.android.mesh;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.logger.MeshLogger;
+import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.mesh.transport.ConfigAppKeyAdd;
+import no.nordicsemi.android.mesh.transport.ConfigCompositionDataGet;
+import no.nordicsemi.android.mesh.transport.ConfigModelAppBind;
+import no.nordicsemi.android.mesh.transport.ConfigModelPublicationSet;
+import no.nordicsemi.android.mesh.transport.ConfigModelPublicationVirtualAddressSet;
+import no.nordicsemi.android.mesh.transport.ConfigModelSubscriptionAdd;
+import no.nordicsemi.android.mesh.transport.ConfigModelSubscriptionVirtualAddressAdd;
+import no.nordicsemi.android.mesh.transport.ConfigStatusMessage;
+import no.nordicsemi.android.mesh.transport.Element;
+import no.nordicsemi.android.mesh.transport.MeshMessage;
+import no.nordicsemi.android.mesh.transport.MeshModel;
+import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.mesh.utils.MeshAddress;
+
+/**
+ * Applies a {@link ConfigurationTemplate} to a number of nodes.
+ * <p>
+ * For each node the pipeline compares the template with the configuration known for the node and only
+ * sends the configuration messages needed to complete it, after reading the composition data if it is
+ * not known yet. A node processes one configuration message at a time, so the messages of a node are
+ * sent one after the other while up to {@link #getMaxConcurrency()} nodes are configured in parallel.
+ * A message without a response within the timeout is sent again up to {@link #MAX_RETRIES} times before
+ * the configuration of the node fails.
+ * </p>
+ * <p>
+ * The pipeline does not send messages itself, send the messages returned by {@link #nextRequests(long)}
+ * to their destinations and pass the messages received to {@link #onMessageReceived(MeshMessage)}.
+ * {@link MeshManagerApi#configureNodes(ConfigurationTemplate, List, Callbacks)} does both.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class ConfigurationPipeline {
+
+    private static final String TAG = ConfigurationPipeline.class.getSimpleName();
+
+    public static final int DEFAULT_MAX_CONCURRENCY = 4;
+    public static final long DEFAULT_TIMEOUT = 10000;
+    public static final int MAX_RETRIES = 2;
+
+    /**
+     * Callbacks notifying the result of configuring each node.
+     */
+    public interface Callbacks {
+
+        /**
+         * Invoked when a node has the configuration of the template.
+         *
+         * @param node configured node
+         */
+        void onNodeConfigured(@NonNull final ProvisionedMeshNode node);
+
+        /**
+         * Invoked when the configuration of a node failed.
+         *
+         * @param node   node
+         * @param reason reason of the failure
+         */
+        void onNodeConfigurationFailed(@NonNull final ProvisionedMeshNode node, @NonNull final String reason);
+    }
+
+    /**
+     * Message to be sent to a node.
+     */
+    public static final class Request {
+        public final int address;
+        public final MeshMessage message;
+
+        Request(final int address, @NonNull final MeshMessage message) {
+            this.address = address;
+            this.message = message;
+        }
+    }
+
+    static final class Step {
+        final MeshMessage message;
+        final int statusOpCode;
+
+        Step(@NonNull final MeshMessage message, final int statusOpCode) {
+            this.message = message;
+            this.statusOpCode = statusOpCode;
+        }
+    }
+
+    private static final class Job {
+        final ProvisionedMeshNode node;
+        final ArrayDeque<Step> steps = new ArrayDeque<>();
+        Step current;
+        long sent;
+        int retries;
+
+        Job(@NonNull final ProvisionedMeshNode node) {
+            this.node = node;
+        }
+    }
+
+    private final MeshNetwork network;
+    private final ConfigurationTemplate template;
+    private final Callbacks callbacks;
+    private final ArrayDeque<Job> pending = new ArrayDeque<>();
+    private final List<Job> active = new ArrayList<>();
+    private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+    private long timeout = DEFAULT_TIMEOUT;
+    private int configured;
+    private int failed;
+    private int sentMessages;
+
+    /**
+     * Constructs a pipeline applying a template to the nodes of a network.
+     *
+     * @param network   mesh network the keys are taken from
+     * @param template  configuration template
+     * @param callbacks callbacks notifying the result of each node, may be null
+     */
+    public ConfigurationPipeline(@NonNull final MeshNetwork network,
+                                 @NonNull final ConfigurationTemplate template,
+                                 @Nullable final Callbacks callbacks) {
+        this.network = network;
+        this.template = template;
+        this.callbacks = callbacks;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Sets the number of nodes configured in parallel.
+     *
+     * @param maxConcurrency number of nodes
+     * @throws IllegalArgumentException if the number is not positive
+     */
+    public void setMaxConcurrency(final int maxConcurrency) {
+        if (maxConcurrency <= 0)
+            throw new IllegalArgumentException("Concurrency must be greater than 0");
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Sets the time after which a message without a response is sent again.
+     *
+     * @param timeout timeout in milliseconds
+     */
+    public void setTimeout(final long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Adds a node to be configured.
+     *
+     * @param node provisioned node
+     * @throws IllegalArgumentException if the template refers to an application key that is not in the network
+     */
+    public void add(@NonNull final ProvisionedMeshNode node) {
+        final Job job = new Job(node);
+        job.steps.addAll(diff(node));
+        pending.add(job);
+    }
+
+    /**
+     * Removes a node, for example after it was reset.
+     *
+     * @param address unicast address of the node
+     */
+    public void remove(final int address) {
+        removeJob(pending.iterator(), address);
+        removeJob(active.iterator(), address);
+    }
+
+    /**
+     * Returns true if every node added has been configured or failed.
+     */
+    public boolean isComplete() {
+        return pending.isEmpty() && active.isEmpty();
+    }
+
+    /**
+     * Returns the number of nodes waiting to be configured or being configured.
+     */
+    public int getRemaining() {
+        return pending.size() + active.size();
+    }
+
+    public int getConfigured() {
+        return configured;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    /**
+     * Returns the number of messages returned by {@link #nextRequests(long)}, including the retries.
+     */
+    public int getSentMessages() {
+        return sentMessages;
+    }
+
+    /**
+     * Returns the messages to be sent now, the next message of each node being configured and the messages that timed out.
+     *
+     * @param now current time in milliseconds
+     */
+    @NonNull
+    public List<Request> nextRequests(final long now) {
+        final List<Request> requests = new ArrayList<>();
+        final Iterator<Job> iterator = active.iterator();
+        while (iterator.hasNext()) {
+            final Job job = iterator.next();
+            if (now - job.sent < timeout)
+                continue;
+            if (job.retries++ >= MAX_RETRIES) {
+                iterator.remove();
+                fail(job, "No response to " + job.current.message.getClass().getSimpleName());
+            } else {
+                job.sent = now;
+                requests.add(new Request(job.node.getUnicastAddress(), job.current.message));
+            }
+        }
+        while (active.size() < maxConcurrency && !pending.isEmpty()) {
+            final Job job = pending.poll();
+            if (next(job, now)) {
+                active.add(job);
+                requests.add(new Request(job.node.getUnicastAddress(), job.current.message));
+            }
+        }
+        sentMessages += requests.size();
+        return requests;
+    }
+
+    /**
+     * Returns the time the next message times out, {@link Long#MAX_VALUE} if no message is outstanding.
+     */
+    public long getNextTimeout() {
+        long next = Long.MAX_VALUE;
+        for (Job job : active) {
+            next = Math.min(next, job.sent + timeout);
+        }
+        return next;
+    }
+
+    /**
+     * Processes a message received from a node.
+     *
+     * @param message message received
+     * @return true if the message was the response expected from a node being configured,
+     * {@link #nextRequests(long)} should then be called to send the next messages
+     */
+    public boolean onMessageReceived(@NonNull final MeshMessage message) {
+        for (int i = 0; i < active.size(); i++) {
+            final Job job = active.get(i);
+            if (job.node.getUnicastAddress() != message.getSrc() || job.current.statusOpCode != message.getOpCode())
+                continue;
+            if (message instanceof ConfigStatusMessage && !isSuccessful((ConfigStatusMessage) message)) {
+                active.remove(i);
+                fail(job, job.current.message.getClass().getSimpleName() + " failed: "
+                        + ((ConfigStatusMessage) message).getStatusCodeName());
+                return true;
+            }
+            if (job.current.statusOpCode == ConfigMessageOpCodes.CONFIG_COMPOSITION_DATA_STATUS) {
+                try {
+                    job.steps.addAll(diff(job.node));
+                } catch (IllegalArgumentException ex) {
+                    active.remove(i);
+                    fail(job, ex.getMessage());
+                    return true;
+                }
+            }
+            job.current = null;
+            if (job.steps.isEmpty()) {
+                active.remove(i);
+                finish(job);
+            } else {
+                // The next message of the node is sent by the next call to nextRequests
+                active.remove(i);
+                pending.addFirst(job);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the messages needed to give the node the configuration of the template, the Composition Data Get
+     * message only if the composition data of the node is not known.
+     */
+    @NonNull
+    List<Step> diff(@NonNull final ProvisionedMeshNode node) {
+        final List<Step> steps = new ArrayList<>();
+        if (node.getCompanyIdentifier() == null) {
+            steps.add(new Step(new ConfigCompositionDataGet(), ConfigMessageOpCodes.CONFIG_COMPOSITION_DATA_STATUS));
+            return steps;
+        }
+        final Set<Integer> addedAppKeys = new HashSet<>();
+        for (NodeKey key : node.getAddedAppKeys()) {
+            addedAppKeys.add(key.getIndex());
+        }
+        for (Integer index : template.getAppKeyIndexes()) {
+            if (!addedAppKeys.contains(index)) {
+                final ApplicationKey appKey = network.getAppKey(index);
+                final NetworkKey networkKey = appKey == null ? null : network.getNetKey(appKey.getBoundNetKeyIndex());
+                if (networkKey == null)
+                    throw new IllegalArgumentException("Application key index " + index + " is not in the network");
+                steps.add(new Step(new ConfigAppKeyAdd(networkKey, appKey), ConfigMessageOpCodes.CONFIG_APPKEY_STATUS));
+            }
+        }
+        for (Element element : node.getElements().values()) {
+            final int address = element.getElementAddress();
+            for (MeshModel model : element.getMeshModels().values()) {
+                final ConfigurationTemplate.ModelConfiguration configuration = template.getModelConfiguration(model.getModelId());
+                if (configuration == null)
+                    continue;
+                for (Integer index : configuration.appKeyIndexes) {
+                    if (!model.getBoundAppKeyIndexes().contains(index)) {
+                        steps.add(new Step(new ConfigModelAppBind(address, model.getModelId(), index),
+                                ConfigMessageOpCodes.CONFIG_MODEL_APP_STATUS));
+                    }
+                }
+                for (Integer subscription : configuration.subscriptions) {
+                    if (!model.getSubscribedAddresses().contains(subscription)) {
+                        steps.add(new Step(new ConfigModelSubscriptionAdd(address, subscription, model.getModelId()),
+                                ConfigMessageOpCodes.CONFIG_MODEL_SUBSCRIPTION_STATUS));
+                    }
+                }
+                for (UUID labelUuid : configuration.labelSubscriptions) {
+                    if (!model.getLabelUUID().contains(labelUuid)) {
+                        steps.add(new Step(new ConfigModelSubscriptionVirtualAddressAdd(address, labelUuid, model.getModelId()),
+                                ConfigMessageOpCodes.CONFIG_MODEL_SUBSCRIPTION_STATUS));
+                    }
+                }
+                final ConfigurationTemplate.Publication publication = configuration.publication;
+                if (publication != null && !publication.matches(model.getPublicationSettings())) {
+                    steps.add(new Step(createPublicationSet(address, model.getModelId(), publication),
+                            ConfigMessageOpCodes.CONFIG_MODEL_PUBLICATION_STATUS));
+                }
+            }
+        }
+        return steps;
+    }
+
+    @NonNull
+    private static MeshMessage createPublicationSet(final int address, final int modelId,
+                                                    @NonNull final ConfigurationTemplate.Publication publication) {
+        if (publication.labelUuid != null) {
+            return new ConfigModelPublicationVirtualAddressSet(address, publication.labelUuid, publication.appKeyIndex,
+                    publication.credentialFlag, publication.ttl, publication.steps, publication.resolution,
+                    publication.retransmitCount, publication.retransmitIntervalSteps, modelId);
+        }
+        return new ConfigModelPublicationSet(address, publication.address, publication.appKeyIndex,
+                publication.credentialFlag, publication.ttl, publication.steps, publication.resolution,
+                publication.retransmitCount, publication.retransmitIntervalSteps, modelId);
+    }
+
+    private static boolean isSuccessful(@NonNull final ConfigStatusMessage status) {
+        final int statusCode = status.getStatusCode();
+        // Adding a key the node already has is not an error
+        return statusCode == ConfigStatusMessage.StatusCodeNames.SUCCESS.getStatusCode()
+                || (status.getOpCode() == ConfigMessageOpCodes.CONFIG_APPKEY_STATUS
+                && statusCode == ConfigStatusMessage.StatusCodeNames.KEY_INDEX_ALREADY_STORED.getStatusCode());
+    }
+
+    /**
+     * Moves the job to its next step, finishing it if there is none.
+     *
+     * @return true if there is a message to be sent
+     */
+    private boolean next(@NonNull final Job job, final long now) {
+        job.current = job.steps.poll();
+        if (job.current == null) {
+            finish(job);
+            return false;
+        }
+        if (!MeshAddress.isValidUnicastAddress(job.node.getUnicastAddress())) {
+            fail(job, "Invalid unicast address");
+            return false;
+        }
+        job.sent = now;
+        job.retries = 0;
+        return true;
+    }
+
+    private void finish(@NonNull final Job job) {
+        configured++;
+        if (callbacks != null) {
+            callbacks.onNodeConfigured(job.node);
+        }
+    }
+
+    private void fail(@NonNull final Job job, @NonNull final String reason) {
+        failed++;
+        MeshLogger.error(TAG, "Configuring node " + MeshAddress.formatAddress(job.node.getUnicastAddress(), true) + " failed: " + reason);
+        if (callbacks != null) {
+            callbacks.onNodeConfigurationFailed(job.node, reason);
+        }
+    }
+
+    private static void removeJob(@NonNull final Iterator<Job> iterator, final int address) {
+        while (iterator.hasNext()) {
+            if (iterator.next().node.getUnicastAddress() == address) {
+                iterator.remove();
+            }
+        }
+    }
+}
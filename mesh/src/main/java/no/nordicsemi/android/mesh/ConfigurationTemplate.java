@@ -0,0 +1,255 @@
+package no.nordicsemi.android.mesh;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.transport.PublicationSettings;
+import no.nordicsemi.android.mesh.utils.MeshAddress;
+
+/**
+ * Desired configuration of a node, applied to nodes by a {@link ConfigurationPipeline}.
+ * <p>
+ * The template lists the application keys to be added to the node and, per model identifier, the
+ * application keys bound to the model, the addresses the model subscribes to and its publication. The
+ * configuration of a model applies to every element of the node containing that model. Anything else
+ * already configured on the node is left as it is.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class ConfigurationTemplate {
+
+    private final List<Integer> appKeyIndexes;
+    private final Map<Integer, ModelConfiguration> models;
+
+    private ConfigurationTemplate(@NonNull final Builder builder) {
+        appKeyIndexes = Collections.unmodifiableList(new ArrayList<>(builder.appKeyIndexes));
+        final Map<Integer, ModelConfiguration> models = new LinkedHashMap<>();
+        for (Map.Entry<Integer, ModelConfiguration> entry : builder.models.entrySet()) {
+            models.put(entry.getKey(), entry.getValue().copy());
+        }
+        this.models = Collections.unmodifiableMap(models);
+    }
+
+    /**
+     * Returns the indexes of the application keys added to the node.
+     */
+    @NonNull
+    public List<Integer> getAppKeyIndexes() {
+        return appKeyIndexes;
+    }
+
+    /**
+     * Returns the identifiers of the models configured by the template.
+     */
+    @NonNull
+    public Set<Integer> getModelIds() {
+        return models.keySet();
+    }
+
+    /**
+     * Returns the configuration of a model or null if the template does not configure the model.
+     *
+     * @param modelId model identifier
+     */
+    @Nullable
+    ModelConfiguration getModelConfiguration(final int modelId) {
+        return models.get(modelId);
+    }
+
+    /**
+     * Configuration of the models with the same identifier.
+     */
+    static final class ModelConfiguration {
+        final Set<Integer> appKeyIndexes = new LinkedHashSet<>();
+        final Set<Integer> subscriptions = new LinkedHashSet<>();
+        final Set<UUID> labelSubscriptions = new LinkedHashSet<>();
+        Publication publication;
+
+        @NonNull
+        ModelConfiguration copy() {
+            final ModelConfiguration copy = new ModelConfiguration();
+            copy.appKeyIndexes.addAll(appKeyIndexes);
+            copy.subscriptions.addAll(subscriptions);
+            copy.labelSubscriptions.addAll(labelSubscriptions);
+            copy.publication = publication;
+            return copy;
+        }
+    }
+
+    /**
+     * Publication of a model.
+     */
+    public static final class Publication {
+        final int address;
+        final UUID labelUuid;
+        final int appKeyIndex;
+        final boolean credentialFlag;
+        final int ttl;
+        final int steps;
+        final int resolution;
+        final int retransmitCount;
+        final int retransmitIntervalSteps;
+
+        /**
+         * Constructs a publication to a unicast or group address.
+         *
+         * @param address                 address the model publishes to
+         * @param appKeyIndex             index of the application key used for publishing
+         * @param credentialFlag          true to publish with friendship credentials
+         * @param ttl                     publish ttl
+         * @param steps                   publication steps
+         * @param resolution              publication resolution
+         * @param retransmitCount         publish retransmit count
+         * @param retransmitIntervalSteps publish retransmit interval steps
+         * @throws IllegalArgumentException if the address is a virtual address
+         */
+        public Publication(final int address, final int appKeyIndex, final boolean credentialFlag, final int ttl,
+                           final int steps, final int resolution, final int retransmitCount, final int retransmitIntervalSteps) {
+            this(address, null, appKeyIndex, credentialFlag, ttl, steps, resolution, retransmitCount, retransmitIntervalSteps);
+            if (MeshAddress.isValidVirtualAddress(address))
+                throw new IllegalArgumentException("Use the label uuid to publish to a virtual address");
+        }
+
+        /**
+         * Constructs a publication to a virtual address.
+         *
+         * @param labelUuid               label uuid of the virtual address the model publishes to
+         * @param appKeyIndex             index of the application key used for publishing
+         * @param credentialFlag          true to publish with friendship credentials
+         * @param ttl                     publish ttl
+         * @param steps                   publication steps
+         * @param resolution              publication resolution
+         * @param retransmitCount         publish retransmit count
+         * @param retransmitIntervalSteps publish retransmit interval steps
+         */
+        public Publication(@NonNull final UUID labelUuid, final int appKeyIndex, final boolean credentialFlag, final int ttl,
+                           final int steps, final int resolution, final int retransmitCount, final int retransmitIntervalSteps) {
+            this(MeshAddress.generateVirtualAddress(labelUuid), labelUuid, appKeyIndex, credentialFlag, ttl,
+                    steps, resolution, retransmitCount, retransmitIntervalSteps);
+        }
+
+        private Publication(final int address, @Nullable final UUID labelUuid, final int appKeyIndex, final boolean credentialFlag,
+                            final int ttl, final int steps, final int resolution, final int retransmitCount, final int retransmitIntervalSteps) {
+            this.address = address;
+            this.labelUuid = labelUuid;
+            this.appKeyIndex = appKeyIndex;
+            this.credentialFlag = credentialFlag;
+            this.ttl = ttl;
+            this.steps = steps;
+            this.resolution = resolution;
+            this.retransmitCount = retransmitCount;
+            this.retransmitIntervalSteps = retransmitIntervalSteps;
+        }
+
+        /**
+         * Returns true if the publication settings of a model match this publication.
+         *
+         * @param settings publication settings of the model, may be null
+         */
+        boolean matches(@Nullable final PublicationSettings settings) {
+            return settings != null
+                    && settings.getPublishAddress() == address
+                    && settings.getAppKeyIndex() == appKeyIndex
+                    && settings.getCredentialFlag() == credentialFlag
+                    && settings.getPublishTtl() == ttl
+                    && settings.getPublicationSteps() == steps
+                    && settings.getPublicationResolution() == resolution
+                    && settings.getPublishRetransmitCount() == retransmitCount
+                    && settings.getPublishRetransmitIntervalSteps() == retransmitIntervalSteps;
+        }
+    }
+
+    /**
+     * Builds a {@link ConfigurationTemplate}.
+     */
+    public static final class Builder {
+        private final Set<Integer> appKeyIndexes = new LinkedHashSet<>();
+        private final Map<Integer, ModelConfiguration> models = new LinkedHashMap<>();
+
+        /**
+         * Adds an application key to the node.
+         *
+         * @param appKeyIndex index of the application key in the network
+         */
+        @NonNull
+        public Builder addAppKey(final int appKeyIndex) {
+            appKeyIndexes.add(appKeyIndex);
+            return this;
+        }
+
+        /**
+         * Binds an application key to the models with the given identifier, adding the key to the node.
+         *
+         * @param modelId     model identifier
+         * @param appKeyIndex index of the application key in the network
+         */
+        @NonNull
+        public Builder bindAppKey(final int modelId, final int appKeyIndex) {
+            addAppKey(appKeyIndex);
+            model(modelId).appKeyIndexes.add(appKeyIndex);
+            return this;
+        }
+
+        /**
+         * Subscribes the models with the given identifier to a group address.
+         *
+         * @param modelId model identifier
+         * @param address group address
+         * @throws IllegalArgumentException if the address is not a group address
+         */
+        @NonNull
+        public Builder subscribe(final int modelId, final int address) {
+            if (!MeshAddress.isValidGroupAddress(address))
+                throw new IllegalArgumentException("Models may only subscribe to group addresses or label uuids");
+            model(modelId).subscriptions.add(address);
+            return this;
+        }
+
+        /**
+         * Subscribes the models with the given identifier to a virtual address.
+         *
+         * @param modelId   model identifier
+         * @param labelUuid label uuid of the virtual address
+         */
+        @NonNull
+        public Builder subscribe(final int modelId, @NonNull final UUID labelUuid) {
+            model(modelId).labelSubscriptions.add(labelUuid);
+            return this;
+        }
+
+        /**
+         * Sets the publication of the models with the given identifier.
+         *
+         * @param modelId     model identifier
+         * @param publication {@link Publication}
+         */
+        @NonNull
+        public Builder publish(final int modelId, @NonNull final Publication publication) {
+            model(modelId).publication = publication;
+            return this;
+        }
+
+        @NonNull
+        public ConfigurationTemplate build() {
+            return new ConfigurationTemplate(this);
+        }
+
+        @NonNull
+        private ModelConfiguration model(final int modelId) {
+            ModelConfiguration model = models.get(modelId);
+            if (model == null) {
+                model = new ModelConfiguration();
+                models.put(modelId, model);
+            }
+            return model;
+        }
+    }
+}
@@ -1,21 +1,39 @@
 package no.nordicsemi.android.mesh;
 
-import android.content.ContentResolver;
-import android.net.Uri;
-
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSerializationContext;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Locale;
+import java.util.Set;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -26,8 +44,11 @@ import no.nordicsemi.android.mesh.transport.MeshModel;
 import no.nordicsemi.android.mesh.transport.MeshModelListDeserializer;
 import no.nordicsemi.android.mesh.transport.NodeDeserializer;
 import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.mesh.transport.PublicationSettings;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 
 import static no.nordicsemi.android.mesh.utils.MeshAddress.isValidGroupAddress;
+import static no.nordicsemi.android.mesh.utils.MeshAddress.isValidVirtualAddress;
 
 /**
  * Utility class to handle network imports and exports
@@ -35,10 +56,31 @@ import static no.nordicsemi.android.mesh.utils.MeshAddress.isValidGroupAddress;
 class ImportExportUtils {
 
     private static final String TAG = ImportExportUtils.class.getSimpleName();
+    private final NodeDeserializer mNodeDeserializer = new NodeDeserializer();
+    private final MeshNetworkDeserializer mMeshNetworkDeserializer = new MeshNetworkDeserializer();
     private final Gson mGson;
+    private final JsonDeserializationContext mDeserializationContext;
+    private final JsonSerializationContext mSerializationContext;
 
     ImportExportUtils() {
         mGson = initGson();
+        mDeserializationContext = new JsonDeserializationContext() {
+            @Override
+            public <T> T deserialize(final JsonElement json, final Type typeOfT) throws JsonParseException {
+                return mGson.fromJson(json, typeOfT);
+            }
+        };
+        mSerializationContext = new JsonSerializationContext() {
+            @Override
+            public JsonElement serialize(final Object src) {
+                return mGson.toJsonTree(src);
+            }
+
+            @Override
+            public JsonElement serialize(final Object src, final Type typeOfSrc) {
+                return mGson.toJsonTree(src, typeOfSrc);
+            }
+        };
     }
 
     /**
@@ -66,10 +108,10 @@ class ImportExportUtils {
                 .registerTypeAdapter(allocatedUnicastRange, new AllocatedUnicastRangeDeserializer())
                 .registerTypeAdapter(allocatedGroupRange, new AllocatedGroupRangeDeserializer())
                 .registerTypeAdapter(allocatedSceneRange, new AllocatedSceneRangeDeserializer())
-                .registerTypeAdapter(nodeList, new NodeDeserializer())
+                .registerTypeAdapter(nodeList, mNodeDeserializer)
                 .registerTypeAdapter(elementList, new InternalElementListDeserializer())
                 .registerTypeAdapter(meshModelList, new MeshModelListDeserializer())
-                .registerTypeAdapter(MeshNetwork.class, new MeshNetworkDeserializer())
+                .registerTypeAdapter(MeshNetwork.class, mMeshNetworkDeserializer)
                 .serializeNulls()
                 .setPrettyPrinting()
                 .create();
@@ -83,26 +125,54 @@ class ImportExportUtils {
     }
 
     /**
-     * Reads and returns the json string from URI.
+     * Imports the network from a stream containing the Mesh Provisioning/Configuration Database json.
+     * Unlike {@link #importNetwork(String)} the document is never held in memory as a whole.
      *
-     * @param contentResolver ContentResolver
-     * @param uri             URI
+     * @param inputStream stream containing the configuration database, closed once read.
      * @throws IOException in case of failure
      */
-    protected String readJsonStringFromUri(@NonNull final ContentResolver contentResolver, @NonNull final Uri uri) throws IOException {
-        final StringBuilder stringBuilder = new StringBuilder();
-        final InputStream inputStream = contentResolver.openInputStream(uri);
-        if (inputStream != null) {
-            final BufferedReader reader = new BufferedReader(new InputStreamReader(
-                    inputStream));
-            String line;
-            while ((line = reader.readLine()) != null) {
-                stringBuilder.append(line);
-            }
-            reader.close();
-            inputStream.close();
+    protected MeshNetwork importNetwork(@NonNull final InputStream inputStream) throws IOException, JsonParseException {
+        try (JsonReader reader = new JsonReader(new BufferedReader(
+                new InputStreamReader(inputStream, StandardCharsets.UTF_8)))) {
+            return mMeshNetworkDeserializer.deserialize(reader, mDeserializationContext, mNodeDeserializer);
+        } catch (IllegalStateException | NumberFormatException ex) {
+            throw new JsonSyntaxException(ex);
+        }
+    }
+
+    /**
+     * Exports the changes made to the network since the given sync token.
+     *
+     * @param network      Mesh network
+     * @param syncToken    Sync token of a previously imported delta or null to export all entities.
+     * @param outputStream Stream to write the delta to, left open once written.
+     * @throws IOException in case of failure
+     */
+    protected void exportDelta(@NonNull final MeshNetwork network,
+                               @Nullable final String syncToken,
+                               @NonNull final OutputStream outputStream) throws IOException {
+        final MeshNetworkDelta delta = MeshNetworkDelta.create(network, syncToken);
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        mGson.toJson(mMeshNetworkDeserializer.serializeDelta(mSerializationContext, delta), writer);
+        writer.flush();
+    }
+
+    /**
+     * Imports a network delta created by {@link #exportDelta(MeshNetwork, String, OutputStream)}.
+     *
+     * @param inputStream stream containing the delta, closed once read.
+     * @throws IOException in case of failure
+     */
+    protected MeshNetworkDelta importDelta(@NonNull final InputStream inputStream) throws IOException, JsonParseException {
+        try (JsonReader reader = new JsonReader(new BufferedReader(
+                new InputStreamReader(inputStream, StandardCharsets.UTF_8)))) {
+            final JsonElement json = JsonParser.parseReader(reader);
+            if (!json.isJsonObject())
+                throw new JsonSyntaxException("Invalid mesh network delta.");
+            return mMeshNetworkDeserializer.deserializeDelta(mDeserializationContext, json.getAsJsonObject());
+        } catch (IllegalArgumentException | IllegalStateException | NullPointerException ex) {
+            throw new JsonSyntaxException(ex);
         }
-        return stringBuilder.toString();
     }
 
     /**
@@ -125,6 +195,17 @@ class ImportExportUtils {
         }
     }
 
+    /**
+     * Exports a partial mesh network to a json String with the provided export configuration.
+     *
+     * @param network               Mesh network to be exported.
+     * @param networkKeysConfig     Network Keys configuration.
+     * @param applicationKeysConfig Application Keys configuration.
+     * @param nodesConfig           Nodes configuration.
+     * @param provisionersConfig    Provisioners configuration.
+     * @param groupsConfig          Groups configuration.
+     * @param scenesConfig          Scenes configuration.
+     */
     @Nullable
     protected String export(@NonNull final MeshNetwork network,
                             @NonNull final NetworkKeysConfig networkKeysConfig,
@@ -133,14 +214,96 @@ class ImportExportUtils {
                             @NonNull final ProvisionersConfig provisionersConfig,
                             @NonNull final GroupsConfig groupsConfig,
                             @NonNull final ScenesConfig scenesConfig) {
-        //Let's use Gson to make a temporary copy of the network and apply the export configurations.
-        final MeshNetwork temp = mGson.fromJson(mGson.toJson(network), MeshNetwork.class);
-        return export(prepareNetwork(temp, networkKeysConfig, applicationKeysConfig, nodesConfig,
-                provisionersConfig, groupsConfig, scenesConfig), true);
+        try {
+            final StringWriter writer = new StringWriter();
+            export(network, networkKeysConfig, applicationKeysConfig, nodesConfig,
+                    provisionersConfig, groupsConfig, scenesConfig, writer);
+            return writer.toString();
+        } catch (final Exception e) {
+            MeshLogger.error(TAG, "Error: " + e.getMessage());
+            return null;
+        }
     }
 
     /**
-     * Configures and returns a network with the export configuration provided.
+     * Exports a partial mesh network as json to the given stream with the provided export configuration.
+     *
+     * @param network               Mesh network to be exported.
+     * @param networkKeysConfig     Network Keys configuration.
+     * @param applicationKeysConfig Application Keys configuration.
+     * @param nodesConfig           Nodes configuration.
+     * @param provisionersConfig    Provisioners configuration.
+     * @param groupsConfig          Groups configuration.
+     * @param scenesConfig          Scenes configuration.
+     * @param outputStream          Stream to write to, flushed but not closed.
+     * @throws IOException in case of failure
+     */
+    protected void export(@NonNull final MeshNetwork network,
+                          @NonNull final NetworkKeysConfig networkKeysConfig,
+                          @NonNull final ApplicationKeysConfig applicationKeysConfig,
+                          @NonNull final NodesConfig nodesConfig,
+                          @NonNull final ProvisionersConfig provisionersConfig,
+                          @NonNull final GroupsConfig groupsConfig,
+                          @NonNull final ScenesConfig scenesConfig,
+                          @NonNull final OutputStream outputStream) throws IOException {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        export(network, networkKeysConfig, applicationKeysConfig, nodesConfig,
+                provisionersConfig, groupsConfig, scenesConfig, writer);
+        writer.flush();
+    }
+
+    /**
+     * Streams the network as json applying the export configurations on the fly. Nothing in the
+     * network is copied or modified, the selected nodes are serialized one at a time and filtered
+     * before being written.
+     */
+    private void export(@NonNull final MeshNetwork network,
+                        @NonNull final NetworkKeysConfig networkKeysConfig,
+                        @NonNull final ApplicationKeysConfig applicationKeysConfig,
+                        @NonNull final NodesConfig nodesConfig,
+                        @NonNull final ProvisionersConfig provisionersConfig,
+                        @NonNull final GroupsConfig groupsConfig,
+                        @NonNull final ScenesConfig scenesConfig,
+                        @NonNull final Writer out) throws IOException {
+        final ExportSelection selection = select(network, networkKeysConfig, applicationKeysConfig,
+                nodesConfig, provisionersConfig, groupsConfig, scenesConfig);
+        final JsonWriter writer = new JsonWriter(out);
+        writer.setIndent("  ");
+        writer.setHtmlSafe(true);
+        writer.setSerializeNulls(true);
+
+        writer.beginObject();
+        writer.name("$schema").value(network.getSchema());
+        writer.name("id").value(network.getId());
+        writer.name("version").value(network.getVersion());
+        writer.name("meshUUID").value(network.getMeshUUID().toUpperCase(Locale.US));
+        writer.name("meshName").value(network.getMeshName());
+        writer.name("timestamp").value(MeshParserUtils.formatTimeStamp(network.getTimestamp()));
+        writer.name("partial").value(true);
+        writer.name("netKeys");
+        mGson.toJson(mMeshNetworkDeserializer.serializeNetKeys(mSerializationContext, selection.netKeys), writer);
+        writer.name("appKeys");
+        mGson.toJson(mMeshNetworkDeserializer.serializeAppKeys(mSerializationContext, selection.appKeys), writer);
+        writer.name("provisioners");
+        mGson.toJson(mMeshNetworkDeserializer.serializeProvisioners(mSerializationContext, selection.provisioners), writer);
+        writer.name("nodes");
+        writer.beginArray();
+        for (ProvisionedMeshNode node : selection.nodes) {
+            mGson.toJson(filterNode(node, mNodeDeserializer.serializeNode(node, mSerializationContext), selection), writer);
+        }
+        writer.endArray();
+        writer.name("groups");
+        mGson.toJson(mMeshNetworkDeserializer.serializeGroups(selection.groups), writer);
+        writer.name("scenes");
+        mGson.toJson(mMeshNetworkDeserializer.serializeScenes(selection.scenes), writer);
+        writer.name("networkExclusions");
+        mGson.toJson(mMeshNetworkDeserializer.serializeExclusionList(network.getNetworkExclusions()), writer);
+        writer.endObject();
+        writer.flush();
+    }
+
+    /**
+     * Selects what is to be exported with the export configuration provided.
      *
      * @param network               MeshNetwork.
      * @param networkKeysConfig     Network Keys configuration.
@@ -150,246 +313,263 @@ class ImportExportUtils {
      * @param groupsConfig          Groups configuration.
      * @param scenesConfig          Scenes configuration.
      */
-    private MeshNetwork prepareNetwork(@NonNull final MeshNetwork network,
-                                       @NonNull final NetworkKeysConfig networkKeysConfig,
-                                       @NonNull final ApplicationKeysConfig applicationKeysConfig,
-                                       @NonNull final NodesConfig nodesConfig,
-                                       @NonNull final ProvisionersConfig provisionersConfig,
-                                       @NonNull final GroupsConfig groupsConfig,
-                                       @NonNull final ScenesConfig scenesConfig) {
+    private ExportSelection select(@NonNull final MeshNetwork network,
+                                   @NonNull final NetworkKeysConfig networkKeysConfig,
+                                   @NonNull final ApplicationKeysConfig applicationKeysConfig,
+                                   @NonNull final NodesConfig nodesConfig,
+                                   @NonNull final ProvisionersConfig provisionersConfig,
+                                   @NonNull final GroupsConfig groupsConfig,
+                                   @NonNull final ScenesConfig scenesConfig) {
+        final ExportSelection selection = new ExportSelection();
 
         // Initial list of nodes to export
         if (nodesConfig.getConfig() instanceof NodesConfig.ExportWithoutDeviceKey) {
-            for (ProvisionedMeshNode node : network.nodes)
-                node.setDeviceKey(null);
+            selection.nodes.addAll(network.nodes);
+            selection.withoutDeviceKey.addAll(network.nodes);
         } else if (nodesConfig.getConfig() instanceof NodesConfig.ExportSome) {
-            network.nodes.clear();
             final List<ProvisionedMeshNode> withDeviceKey = ((NodesConfig.ExportSome) nodesConfig.getConfig()).getWithDeviceKey();
             final List<ProvisionedMeshNode> withoutDeviceKey = ((NodesConfig.ExportSome) nodesConfig.getConfig()).getWithoutDeviceKey();
-            for (ProvisionedMeshNode node : withoutDeviceKey)
-                node.setDeviceKey(null);
-            network.nodes.addAll(withDeviceKey);
-            network.nodes.addAll(withoutDeviceKey);
+            selection.nodes.addAll(withDeviceKey);
+            selection.nodes.addAll(withoutDeviceKey);
+            selection.withoutDeviceKey.addAll(withoutDeviceKey);
 
             // Add any missing provisioner nodes if they were not selected when selecting nodes.
             for (Provisioner provisioner : network.provisioners) {
-                if (!isProvisionerExistsInNodes(provisioner, network.nodes)) {
-                    network.nodes.add(new ProvisionedMeshNode(provisioner, network.netKeys, network.appKeys));
+                if (!isProvisionerExistsInNodes(provisioner, selection.nodes)) {
+                    selection.nodes.add(new ProvisionedMeshNode(provisioner, network.netKeys, network.appKeys));
                 }
             }
+        } else {
+            selection.nodes.addAll(network.nodes);
         }
 
-        // Include the selected provisioners
         // List of provisioners to export
         if (provisionersConfig.getConfig() instanceof ProvisionersConfig.ExportSome) {
-            // First Let's exclude provisioners that are not nodes
-            final ListIterator<Provisioner> provisionerListIterator = network.provisioners.listIterator();
-            while (provisionerListIterator.hasNext()) {
-                final Provisioner provisioner = provisionerListIterator.next();
-                if (!isProvisionerExistsInNodes(provisioner, network.nodes)) {
-                    provisionerListIterator.remove();
+            // First Let's include the provisioners that are nodes
+            for (Provisioner provisioner : network.provisioners) {
+                if (isProvisionerExistsInNodes(provisioner, selection.nodes)) {
+                    selection.provisioners.add(provisioner);
                 }
             }
 
-            // Now let's add the selected ones
-            // We must go through all items to ensure there are no duplicates
+            // Now let's add the selected ones, ensuring there are no duplicates
             final List<Provisioner> selectedProvisioners = ((ProvisionersConfig.ExportSome) provisionersConfig.getConfig()).getProvisioners();
             for (Provisioner provisioner : selectedProvisioners) {
-                if (!network.isProvisionerUuidInUse(provisioner.getProvisionerUuid())) {
-                    network.provisioners.add(provisioner);
+                if (!isProvisionerUuidInUse(provisioner.getProvisionerUuid(), selection.provisioners)) {
+                    selection.provisioners.add(provisioner);
                 }
             }
+        } else {
+            selection.provisioners.addAll(network.provisioners);
         }
 
         // List of Network Keys to export
         if (networkKeysConfig.getConfig() instanceof NetworkKeysConfig.ExportSome) {
-            network.setNetKeys(((NetworkKeysConfig.ExportSome) networkKeysConfig.getConfig()).getKeys());
+            selection.netKeys.addAll(((NetworkKeysConfig.ExportSome) networkKeysConfig.getConfig()).getKeys());
+        } else {
+            selection.netKeys.addAll(network.netKeys);
         }
 
-        // List of Application Keys to export
+        // List of Application Keys to export, we must only export the keys that are bound to an exported network key.
         if (applicationKeysConfig.getConfig() instanceof ApplicationKeysConfig.ExportSome) {
-            network.appKeys.clear();
-            // List of application keys set in the configuration, but we must only export the keys that are bound to that network key.
             final List<ApplicationKey> keys = ((ApplicationKeysConfig.ExportSome) applicationKeysConfig.getConfig()).getKeys();
             for (ApplicationKey key : keys) {
-                if (isApplicationKeyBound(network.getNetKeys(), key)) {
-                    network.appKeys.add(key);
+                if (isNetworkKeyExported(key.getBoundNetKeyIndex(), selection.netKeys)) {
+                    selection.appKeys.add(key);
                 }
             }
+        } else {
+            selection.appKeys.addAll(network.appKeys);
+        }
+        for (ApplicationKey key : selection.appKeys) {
+            selection.appKeyIndexes.add(key.getKeyIndex());
         }
 
         // Exclude nodes unknown to network keys
-        // TODO what will happen to the provisioner if the node is to excluded due to an unknown network key?
-        final ListIterator<ProvisionedMeshNode> nodeListIterator = network.nodes.listIterator();
+        final ListIterator<ProvisionedMeshNode> nodeListIterator = selection.nodes.listIterator();
         while (nodeListIterator.hasNext()) {
-            final ProvisionedMeshNode node = nodeListIterator.next();
-            if (!isNetworkKeyAdded(node, network.getNetKeys())) {
+            if (!isNetworkKeyAdded(nodeListIterator.next(), selection.netKeys)) {
                 nodeListIterator.remove();
-                continue;
             }
-            excludeAppKeys(node, network.appKeys);
         }
 
         if (groupsConfig.getConfig() instanceof GroupsConfig.ExportRelated) {
-            excludeNonRelatedGroups(network);
-        } else if (groupsConfig.getConfig() instanceof GroupsConfig.ExportSome) {
-            network.groups = ((GroupsConfig.ExportSome) groupsConfig.getConfig()).getGroups();
-            // If subscriptions/publications uses any excluded group addresses, let's remove them.
-            for (ProvisionedMeshNode node : network.getNodes()) {
-                for (Element element : node.getElements().values()) {
-                    for (MeshModel model : element.getMeshModels().values()) {
-                        for (Group group : network.groups) {
-                            if (model.getPublicationSettings() != null &&
-                                    isValidGroupAddress(model.getPublicationSettings().getPublishAddress()) &&
-                                    model.getPublicationSettings().getPublishAddress() != group.getAddress()) {
-                                model.setPublicationSettings(null);
-                            }
-                            model.getSubscribedAddresses().remove((Integer) group.getAddress());
-                        }
-                    }
+            final Set<Integer> usedAddresses = getUsedAddresses(selection);
+            for (Group group : network.groups) {
+                if (usedAddresses.contains(group.getAddress())) {
+                    selection.groups.add(group);
                 }
             }
+        } else if (groupsConfig.getConfig() instanceof GroupsConfig.ExportSome) {
+            // Excluded groups will also be excluded from subscriptions and publications.
+            selection.groups.addAll(((GroupsConfig.ExportSome) groupsConfig.getConfig()).getGroups());
+            selection.groupAddresses = new HashSet<>();
+            for (Group group : selection.groups) {
+                selection.groupAddresses.add(group.getAddress());
+            }
+        } else {
+            selection.groups.addAll(network.groups);
         }
 
+        final List<Scene> scenes;
         if (scenesConfig.getConfig() instanceof ScenesConfig.ExportSome) {
-            network.scenes = ((ScenesConfig.ExportSome) scenesConfig.getConfig()).getScenes();
+            scenes = ((ScenesConfig.ExportSome) scenesConfig.getConfig()).getScenes();
+        } else {
+            scenes = network.scenes;
+        }
+        // Remove excluded nodes from the scenes
+        final Set<Integer> nodeAddresses = new HashSet<>();
+        for (ProvisionedMeshNode node : selection.nodes) {
+            nodeAddresses.add(node.getUnicastAddress());
+        }
+        for (Scene scene : scenes) {
+            final List<Integer> addresses = new ArrayList<>();
+            for (Integer address : scene.getAddresses()) {
+                if (nodeAddresses.contains(address)) {
+                    addresses.add(address);
+                }
+            }
+            final Scene exported = new Scene(scene.getNumber(), addresses, scene.getMeshUuid());
+            exported.setName(scene.getName());
+            selection.scenes.add(exported);
         }
-        removeExcludedNodesFromScenes(network.nodes, network.scenes);
-        return network;
+        return selection;
     }
 
     /**
-     * Check if the provisioner exists in the nodes list
+     * Removes the excluded device key, application keys and groups from the serialized node.
      *
-     * @param provisioner Provisioner
-     * @param nodes       List of nodes
-     * @return returns true if the provisioner exists in the selected list of nodes or false otherwise.
+     * @param node      Mesh node.
+     * @param nodeJson  Serialized node.
+     * @param selection Export selection.
+     * @return the filtered json object.
      */
-    private boolean isProvisionerExistsInNodes(@NonNull final Provisioner provisioner, @NonNull final List<ProvisionedMeshNode> nodes) {
-        if (provisioner.getProvisionerAddress() != null) {
-            for (ProvisionedMeshNode node : nodes) {
-                if (node.getUuid().equalsIgnoreCase(provisioner.getProvisionerUuid()))
-                    return true;
+    private JsonObject filterNode(@NonNull final ProvisionedMeshNode node,
+                                  @NonNull final JsonObject nodeJson,
+                                  @NonNull final ExportSelection selection) {
+        if (selection.withoutDeviceKey.contains(node)) {
+            nodeJson.addProperty("deviceKey", MeshParserUtils.bytesToHex(null, false));
+        }
+        // Elements and models are serialized in the same order as they are stored in the node.
+        final Iterator<JsonElement> elementsJson = nodeJson.getAsJsonArray("elements").iterator();
+        for (Element element : node.getElements().values()) {
+            final Iterator<JsonElement> modelsJson = elementsJson.next().getAsJsonObject().getAsJsonArray("models").iterator();
+            for (MeshModel model : element.getMeshModels().values()) {
+                final JsonObject modelJson = modelsJson.next().getAsJsonObject();
+                final JsonArray bind = new JsonArray();
+                for (Integer index : model.getBoundAppKeyIndexes()) {
+                    if (selection.appKeyIndexes.contains(index)) {
+                        bind.add(index);
+                    }
+                }
+                modelJson.add("bind", bind);
+
+                if (model.getPublicationSettings() != null && !isPublicationExported(model.getPublicationSettings(), selection)) {
+                    modelJson.remove("publish");
+                }
+
+                if (selection.groupAddresses != null) {
+                    final JsonArray subscribe = new JsonArray();
+                    final Iterator<JsonElement> subscriptionsJson = modelJson.getAsJsonArray("subscribe").iterator();
+                    for (Integer address : model.getSubscribedAddresses()) {
+                        final JsonElement subscriptionJson = subscriptionsJson.next();
+                        if (isGroupExported(address, selection)) {
+                            subscribe.add(subscriptionJson);
+                        }
+                    }
+                    modelJson.add("subscribe", subscribe);
+                }
             }
         }
-        return false;
+        return nodeJson;
     }
 
     /**
-     * Excludes groups that are not related tot he list of nodes.
+     * Returns the addresses the exported models are subscribed or publishing to.
      *
-     * @param network Mesh network.
+     * @param selection Export selection.
      */
-    private void excludeNonRelatedGroups(@NonNull final MeshNetwork network) {
-        final List<Group> groups = new ArrayList<>();
-        for (Group group : network.getGroups()) {
-            for (ProvisionedMeshNode node : network.getNodes()) {
-                if (isGroupInUse(node, group)) {
-                    groups.add(group);
+    private Set<Integer> getUsedAddresses(@NonNull final ExportSelection selection) {
+        final Set<Integer> addresses = new HashSet<>();
+        for (ProvisionedMeshNode node : selection.nodes) {
+            for (Element element : node.getElements().values()) {
+                for (MeshModel model : element.getMeshModels().values()) {
+                    final PublicationSettings publicationSettings = model.getPublicationSettings();
+                    if (publicationSettings != null && isPublicationExported(publicationSettings, selection)) {
+                        addresses.add(publicationSettings.getPublishAddress());
+                    }
+                    addresses.addAll(model.getSubscribedAddresses());
                 }
             }
         }
-        network.groups = groups;
+        return addresses;
     }
 
     /**
-     * Checks if the node has subscribed or publishes to the group.
+     * Checks if the publication uses an exported application key and an exported group address.
      *
-     * @param node  Node
-     * @param group Group
-     * @return true if is in use or false otherwise.
+     * @param publicationSettings Publication settings.
+     * @param selection           Export selection.
      */
-    private boolean isGroupInUse(@NonNull final ProvisionedMeshNode node, @NonNull final Group group) {
-        for (final Element element : node.getElements().values()) {
-            for (final MeshModel model : element.getMeshModels().values()) {
-                if (model.getPublicationSettings().getPublishAddress() == group.getAddress() ||
-                        model.getSubscribedAddresses().contains((Integer) group.getAddress())) {
-                    return true;
-                }
-            }
-        }
-        return false;
+    private boolean isPublicationExported(@NonNull final PublicationSettings publicationSettings,
+                                          @NonNull final ExportSelection selection) {
+        return selection.appKeyIndexes.contains(publicationSettings.getAppKeyIndex()) &&
+                isGroupExported(publicationSettings.getPublishAddress(), selection);
     }
 
     /**
-     * Removes excluded node from a scene addresses.
+     * Checks if the address is not a group or virtual address excluded from the export.
      *
-     * @param nodes  List of nodes in the network.
-     * @param scenes List of scenes in the network.
+     * @param address   Publication or subscription address.
+     * @param selection Export selection.
      */
-    private void removeExcludedNodesFromScenes(@NonNull List<ProvisionedMeshNode> nodes, @NonNull List<Scene> scenes) {
-        ListIterator<Integer> addresses;
-        Integer address;
-        for (Scene scene : scenes) {
-            addresses = scene.getAddresses().listIterator();
-            while (addresses.hasNext()) {
-                address = addresses.next();
-                if (!isNodeAddressExistsInScene(nodes, address)) {
-                    addresses.remove();
-                }
-            }
-        }
+    private boolean isGroupExported(final int address, @NonNull final ExportSelection selection) {
+        if (selection.groupAddresses == null || !(isValidGroupAddress(address) || isValidVirtualAddress(address)))
+            return true;
+        return selection.groupAddresses.contains(address);
     }
 
     /**
-     * Checks if a scene address exists exists in the list of nodes in the network.
+     * Check if the provisioner exists in the nodes list
      *
-     * @param nodes   List of nodes in the network.
-     * @param address Scene address.
-     * @return true if node address is included in scene.
+     * @param provisioner Provisioner
+     * @param nodes       List of nodes
+     * @return returns true if the provisioner exists in the selected list of nodes or false otherwise.
      */
-    private boolean isNodeAddressExistsInScene(@NonNull final List<ProvisionedMeshNode> nodes, @NonNull final Integer address) {
-        for (ProvisionedMeshNode node : nodes) {
-            if (address == node.getUnicastAddress()) {
-                return true;
+    private boolean isProvisionerExistsInNodes(@NonNull final Provisioner provisioner, @NonNull final List<ProvisionedMeshNode> nodes) {
+        if (provisioner.getProvisionerAddress() != null) {
+            for (ProvisionedMeshNode node : nodes) {
+                if (node.getUuid().equalsIgnoreCase(provisioner.getProvisionerUuid()))
+                    return true;
             }
         }
         return false;
     }
 
     /**
-     * Exclude application keys that may be bound or used for publication by the models in the node that are not in the list.
+     * Checks if the provisioner UUID is used by a provisioner in the list
      *
-     * @param node            Mesh node.
-     * @param applicationKeys Selected Application keys.
+     * @param uuid         Provisioner UUID
+     * @param provisioners List of provisioners
      */
-    private void excludeAppKeys(@NonNull final ProvisionedMeshNode node, @NonNull final List<ApplicationKey> applicationKeys) {
-        int index;
-        for (Element element : node.getElements().values()) {
-            for (MeshModel model : element.getMeshModels().values()) {
-                final ListIterator<Integer> boundKeyIndexes = model.getBoundAppKeyIndexes().listIterator();
-                while (boundKeyIndexes.hasNext()) {
-                    index = boundKeyIndexes.next();
-                    if (!isApplicationKeyBound(index, applicationKeys)) {
-                        boundKeyIndexes.remove();
-                        if (model.getPublicationSettings() != null && model.getPublicationSettings().getAppKeyIndex() == index) {
-                            model.setPublicationSettings(null);
-                        }
-                    }
-
-                }
-            }
+    private boolean isProvisionerUuidInUse(@NonNull final String uuid, @NonNull final List<Provisioner> provisioners) {
+        for (Provisioner provisioner : provisioners) {
+            if (provisioner.getProvisionerUuid().equalsIgnoreCase(uuid))
+                return true;
         }
+        return false;
     }
 
     /**
-     * Checks if the given Application Key is bound to the network keys in the list
+     * Checks if the given Network Key index is in the list of network keys
      *
-     * @param networkKeys    List of Network keys.
-     * @param applicationKey Application key.
-     * @return true if bound and false otherwise
+     * @param netKeyIndex Network key index.
+     * @param networkKeys List of Network keys.
+     * @return true if exported and false otherwise
      */
-    private boolean isApplicationKeyBound(@NonNull final List<NetworkKey> networkKeys, @NonNull final ApplicationKey applicationKey) {
+    private boolean isNetworkKeyExported(final int netKeyIndex, @NonNull final List<NetworkKey> networkKeys) {
         for (NetworkKey networkKey : networkKeys) {
-            if (networkKey.keyIndex == applicationKey.keyIndex) return true;
-        }
-        return false;
-    }
-
-    private boolean isApplicationKeyBound(@NonNull final Integer index, @NonNull final List<ApplicationKey> keys) {
-        for (ApplicationKey key : keys) {
-            if (index == key.getKeyIndex())
-                return true;
+            if (networkKey.getKeyIndex() == netKeyIndex) return true;
         }
         return false;
     }
@@ -409,4 +589,20 @@ class ImportExportUtils {
         }
         return false;
     }
+
+    /**
+     * Contents of a partial export.
+     */
+    private static final class ExportSelection {
+        final List<NetworkKey> netKeys = new ArrayList<>();
+        final List<ApplicationKey> appKeys = new ArrayList<>();
+        final Set<Integer> appKeyIndexes = new HashSet<>();
+        final List<Provisioner> provisioners = new ArrayList<>();
+        final List<ProvisionedMeshNode> nodes = new ArrayList<>();
+        final Set<ProvisionedMeshNode> withoutDeviceKey = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<Group> groups = new ArrayList<>();
+        // Addresses of the exported groups, null if subscriptions and publications are not filtered.
+        Set<Integer> groupAddresses;
+        final List<Scene> scenes = new ArrayList<>();
+    }
 }
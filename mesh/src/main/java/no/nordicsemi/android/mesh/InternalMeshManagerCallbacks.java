@@ -22,6 +22,7 @@
 
 package no.nordicsemi.android.mesh;
 
+import no.nordicsemi.android.mesh.provisionerstates.UnprovisionedMeshNode;
 import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
 
 interface InternalMeshManagerCallbacks {
@@ -33,4 +34,11 @@ interface InternalMeshManagerCallbacks {
      * @param numberOfElements  Number of expected elements that is available in the node based on the capabilities.
      */
     void onNodeProvisioned(final ProvisionedMeshNode meshNode, final int numberOfElements);
+
+    /**
+     * Internal callback to notify the {@link MeshManagerApi} of a provisioning that failed
+     *
+     * @param meshNode Node that failed to be provisioned
+     */
+    void onProvisioningFailed(final UnprovisionedMeshNode meshNode);
 }
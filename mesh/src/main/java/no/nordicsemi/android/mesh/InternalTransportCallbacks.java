@@ -27,6 +27,7 @@ import java.util.List;
 import androidx.annotation.NonNull;
 import androidx.annotation.RestrictTo;
 import no.nordicsemi.android.mesh.provisionerstates.UnprovisionedMeshNode;
+import no.nordicsemi.android.mesh.sensorutils.SensorDataStore;
 import no.nordicsemi.android.mesh.transport.MeshMessage;
 import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
 import no.nordicsemi.android.mesh.utils.ProxyFilter;
@@ -73,6 +74,15 @@ public interface InternalTransportCallbacks {
     @RestrictTo(RestrictTo.Scope.LIBRARY)
     void onMeshPduCreated(final int dst, final byte[] pdu);
 
+    /**
+     * Callback that is invoked when the mesh pdus of a message are created
+     *
+     * @param dst  Destination address to be sent
+     * @param pdus mesh pdus to be sent in order
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    void onMeshPdusCreated(final int dst, @NonNull final List<byte[]> pdus);
+
 
     ProxyFilter getProxyFilter();
 
@@ -97,6 +107,12 @@ public interface InternalTransportCallbacks {
      */
     MeshNetwork getMeshNetwork();
 
+    /**
+     * Returns the store the values of the received sensor statuses are added to
+     */
+    @NonNull
+    SensorDataStore getSensorDataStore();
+
     void addGroup(final Group group);
 
     void storeScene(final int address, final int currentScene, final List<Integer> scenes);
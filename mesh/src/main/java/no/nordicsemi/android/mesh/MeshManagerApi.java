@@ -27,17 +27,23 @@ import android.net.Uri;
 import android.os.Handler;
 import android.os.Looper;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.security.Security;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map.Entry;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -55,10 +61,31 @@ import no.nordicsemi.android.mesh.data.ProvisionersDao;
 import no.nordicsemi.android.mesh.data.SceneDao;
 import no.nordicsemi.android.mesh.data.ScenesDao;
 import no.nordicsemi.android.mesh.logger.MeshLogger;
+import no.nordicsemi.android.mesh.provisionerstates.ProvisioningKeyPairPool;
 import no.nordicsemi.android.mesh.provisionerstates.UnprovisionedMeshNode;
+import no.nordicsemi.android.mesh.sensorutils.SensorDataStore;
+import no.nordicsemi.android.mesh.sensorutils.SensorPollingScheduler;
+import no.nordicsemi.android.mesh.transport.ConfigAppKeyStatus;
+import no.nordicsemi.android.mesh.transport.ConfigBeaconStatus;
+import no.nordicsemi.android.mesh.transport.ConfigCompositionDataGet;
+import no.nordicsemi.android.mesh.transport.ConfigCompositionDataStatus;
+import no.nordicsemi.android.mesh.transport.ConfigDefaultTtlStatus;
+import no.nordicsemi.android.mesh.transport.ConfigFriendStatus;
+import no.nordicsemi.android.mesh.transport.ConfigGattProxyStatus;
+import no.nordicsemi.android.mesh.transport.ConfigHeartbeatPublicationStatus;
+import no.nordicsemi.android.mesh.transport.ConfigHeartbeatSubscriptionStatus;
+import no.nordicsemi.android.mesh.transport.ConfigModelAppStatus;
+import no.nordicsemi.android.mesh.transport.ConfigModelPublicationStatus;
+import no.nordicsemi.android.mesh.transport.ConfigModelSubscriptionStatus;
+import no.nordicsemi.android.mesh.transport.ConfigNetKeyStatus;
+import no.nordicsemi.android.mesh.transport.ConfigNetworkTransmitStatus;
+import no.nordicsemi.android.mesh.transport.ConfigRelayStatus;
 import no.nordicsemi.android.mesh.transport.MeshMessage;
 import no.nordicsemi.android.mesh.transport.NetworkLayerCallbacks;
 import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.mesh.transport.SensorCadenceStatus;
+import no.nordicsemi.android.mesh.transport.SensorDescriptorStatus;
+import no.nordicsemi.android.mesh.transport.SensorStatus;
 import no.nordicsemi.android.mesh.transport.UpperTransportLayerCallbacks;
 import no.nordicsemi.android.mesh.utils.ExtendedInvalidCipherTextException;
 import no.nordicsemi.android.mesh.utils.InputOOBAction;
@@ -81,15 +108,19 @@ public class MeshManagerApi implements MeshMngrApi {
     public static final byte PDU_TYPE_NETWORK = 0x00;
     public static final byte PDU_TYPE_MESH_BEACON = 0x01;
     public static final byte PDU_TYPE_PROXY_CONFIGURATION = 0x02;
+    /**
+     * Id of the proxy connection used by the methods that do not take a connection id.
+     */
+    public static final int DEFAULT_PROXY_CONNECTION = 0;
     //GATT level segmentation
     private static final byte GATT_SAR_COMPLETE = 0b00;
-    private static final byte GATT_SAR_START = 0b01;
-    private static final byte GATT_SAR_CONTINUATION = 0b10;
-    private static final byte GATT_SAR_END = 0b11;
+    static final byte GATT_SAR_START = 0b01;
+    static final byte GATT_SAR_CONTINUATION = 0b10;
+    static final byte GATT_SAR_END = 0b11;
     //GATT level segmentation mask
     private static final int GATT_SAR_MASK = 0xC0;
     private static final int GATT_SAR_UNMASK = 0x3F;
-    private static final int SAR_BIT_OFFSET = 6;
+    static final int SAR_BIT_OFFSET = 6;
 
     private static final long PROXY_SAR_TRANSFER_TIME_OUT = 20 * 1000; // According to the spec the proxy protocol must contain an SAR timeout of 20 seconds.
     private final static int HASH_RANDOM_NUMBER_LENGTH = 64; // Length of the random number required to calculate the hash containing the node id in bits
@@ -108,10 +139,19 @@ public class MeshManagerApi implements MeshMngrApi {
     private final MeshProvisioningHandler mMeshProvisioningHandler;
     private final MeshMessageHandler mMeshMessageHandler;
     private final ImportExportUtils mImportExportUtils;
-    private byte[] mIncomingBuffer;
-    private int mIncomingBufferOffset;
-    private byte[] mOutgoingBuffer;
-    private int mOutgoingBufferOffset;
+    private final NodeIdentityResolver mNodeIdentityResolver = new NodeIdentityResolver();
+    private final ProxyRouter mProxyRouter;
+    private final ProvisioningSessionRegistry mProvisioningSessions = new ProvisioningSessionRegistry();
+    private MeshProvisioningStatusCallbacks mProvisioningStatusCallbacks;
+    private ProvisioningKeyPairPool mProvisioningKeyPairPool;
+    private final RemoteProvisioner mRemoteProvisioner;
+    private final SensorDataStore mSensorDataStore = new SensorDataStore();
+    private final SensorPollingScheduler mSensorPollingScheduler = new SensorPollingScheduler();
+    private boolean mSensorPollingStarted;
+    private ConfigurationPipeline mConfigurationPipeline;
+    private CompositionDataCrawler mCompositionDataCrawler;
+    // Connection the notification being parsed was received on
+    private ProxyConnection mReceivingConnection;
     private MeshNetwork mMeshNetwork;
     private boolean ivUpdateTestModeActive = false;
     private boolean allowIvIndexRecoveryOver42 = false;
@@ -139,6 +179,42 @@ public class MeshManagerApi implements MeshMngrApi {
         }
     };
 
+    private final Runnable mSensorPollingRunnable = new Runnable() {
+        @Override
+        public void run() {
+            for (SensorPollingScheduler.Poll poll : mSensorPollingScheduler.poll(System.currentTimeMillis())) {
+                try {
+                    createMeshPdu(poll.address, poll.message);
+                } catch (IllegalArgumentException ex) {
+                    MeshLogger.error(TAG, "Unable to poll sensor " + MeshAddress.formatAddress(poll.address, true) + ": " + ex.getMessage());
+                }
+            }
+            scheduleSensorPolling();
+        }
+    };
+
+    private final Runnable mConfigurationRunnable = new Runnable() {
+        @Override
+        public void run() {
+            runConfiguration();
+        }
+    };
+
+    private final Runnable mCompositionDataRunnable = new Runnable() {
+        @Override
+        public void run() {
+            runCompositionDataDiscovery();
+        }
+    };
+
+    private final Runnable mRemoteProvisioningRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mRemoteProvisioner.onTimeout(System.currentTimeMillis());
+            scheduleRemoteProvisioning();
+        }
+    };
+
     /**
      * The mesh manager api constructor.
      *
@@ -150,6 +226,8 @@ public class MeshManagerApi implements MeshMngrApi {
         mMeshProvisioningHandler = new MeshProvisioningHandler(context, internalTransportCallbacks, internalMeshMgrCallbacks);
         mMeshMessageHandler = new MeshMessageHandler(context, internalTransportCallbacks, networkLayerCallbacks, upperTransportLayerCallbacks);
         mImportExportUtils = new ImportExportUtils();
+        mProxyRouter = new ProxyRouter(mProxyProtocolTimeoutRunnable);
+        mRemoteProvisioner = new RemoteProvisioner(remoteProvisionerCallbacks);
         initBouncyCastle();
         //Init database
         initDb(context);
@@ -162,6 +240,7 @@ public class MeshManagerApi implements MeshMngrApi {
 
     @Override
     public void setProvisioningStatusCallbacks(@NonNull final MeshProvisioningStatusCallbacks callbacks) {
+        mProvisioningStatusCallbacks = callbacks;
         mMeshProvisioningHandler.setProvisioningCallbacks(callbacks);
     }
 
@@ -181,6 +260,12 @@ public class MeshManagerApi implements MeshMngrApi {
         return mMeshNetwork;
     }
 
+    @NonNull
+    @Override
+    public SensorDataStore getSensorDataStore() {
+        return mSensorDataStore;
+    }
+
     @Override
     public boolean isIvUpdateTestModeActive() {
         return ivUpdateTestModeActive;
@@ -234,37 +319,77 @@ public class MeshManagerApi implements MeshMngrApi {
 
     @Override
     public final void handleNotifications(final int mtuSize, @NonNull final byte[] data) {
+        handleNotifications(DEFAULT_PROXY_CONNECTION, mtuSize, data);
+    }
+
+    @Override
+    public final void handleNotifications(final int connectionId, final int mtuSize, @NonNull final byte[] data) {
+        final ProxyConnection connection = mProxyRouter.open(connectionId);
         byte[] unsegmentedPdu;
         if (!isGattSegmented(data)) {
             unsegmentedPdu = data;
         } else {
-            final byte[] combinedPdu = appendPdu(mtuSize, data);
+            final byte[] combinedPdu = appendPdu(connection.getIncomingBuffer(), mtuSize, data);
             if (combinedPdu == null) {
                 //Start the timer
-                toggleProxyProtocolSarTimeOut(data);
+                toggleProxyProtocolSarTimeOut(connection, data);
                 return;
             } else {
-                toggleProxyProtocolSarTimeOut(data);
-                unsegmentedPdu = removeSegmentation(mtuSize, combinedPdu);
+                toggleProxyProtocolSarTimeOut(connection, data);
+                unsegmentedPdu = combinedPdu;
             }
         }
-        parseNotifications(unsegmentedPdu);
+        mReceivingConnection = connection;
+        try {
+            parseNotifications(unsegmentedPdu);
+        } finally {
+            mReceivingConnection = null;
+        }
     }
 
     /**
      * Toggles the Segmentation and Reassembly timeout for proxy configuration messages received via proxy protocol
      *
-     * @param data pdu
+     * @param connection connection the pdu was received on
+     * @param data       pdu
      */
-    private void toggleProxyProtocolSarTimeOut(final byte[] data) {
+    private void toggleProxyProtocolSarTimeOut(@NonNull final ProxyConnection connection, final byte[] data) {
         final int pduType = MeshParserUtils.unsignedByteToInt(data[0]);
         if (pduType == ((GATT_SAR_START << SAR_BIT_OFFSET) | MeshManagerApi.PDU_TYPE_PROXY_CONFIGURATION)) {
-            mHandler.postDelayed(mProxyProtocolTimeoutRunnable, PROXY_SAR_TRANSFER_TIME_OUT);
+            mHandler.postDelayed(connection.getSarTimeoutRunnable(), PROXY_SAR_TRANSFER_TIME_OUT);
         } else if (pduType == ((GATT_SAR_END << SAR_BIT_OFFSET) | MeshManagerApi.PDU_TYPE_PROXY_CONFIGURATION)) {
-            mHandler.removeCallbacks(mProxyProtocolTimeoutRunnable);
+            mHandler.removeCallbacks(connection.getSarTimeoutRunnable());
         }
     }
 
+    @Override
+    public void onProxyConnectionOpened(final int connectionId) {
+        mProxyRouter.open(connectionId);
+    }
+
+    @Override
+    public void onProxyConnectionClosed(final int connectionId) {
+        final ProxyConnection connection = mProxyRouter.close(connectionId);
+        if (connection != null) {
+            mHandler.removeCallbacks(connection.getSarTimeoutRunnable());
+        }
+    }
+
+    @Override
+    public void setProxyConfigurationConnection(final int connectionId) {
+        mProxyRouter.setProxyConfigurationConnection(connectionId);
+    }
+
+    @Nullable
+    @Override
+    public ProxyFilter getProxyFilter(final int connectionId) {
+        if (connectionId == DEFAULT_PROXY_CONNECTION) {
+            return mMeshNetwork == null ? null : mMeshNetwork.getProxyFilter();
+        }
+        final ProxyConnection connection = mProxyRouter.get(connectionId);
+        return connection == null ? null : connection.getProxyFilter();
+    }
+
     /**
      * Parses notifications received by the client.
      *
@@ -279,97 +404,88 @@ public class MeshManagerApi implements MeshMngrApi {
                     mMeshMessageHandler.parseMeshPduNotifications(unsegmentedPdu, mMeshNetwork);
                     break;
                 case PDU_TYPE_MESH_BEACON:
-                    //Validate SNBs against all network keys
-                    NetworkKey networkKey;
-                    for (int i = 0; i < mMeshNetwork.getNetKeys().size(); i++) {
-                        networkKey = mMeshNetwork.getNetKeys().get(i);
-                        final byte[] receivedBeaconData = new byte[unsegmentedPdu.length - 1];
-                        System.arraycopy(unsegmentedPdu, 1, receivedBeaconData, 0, receivedBeaconData.length);
-                        final SecureNetworkBeacon receivedBeacon = new SecureNetworkBeacon(receivedBeaconData);
-
-                        final byte[] n = networkKey.getTxNetworkKey();
-                        final int flags = receivedBeacon.getFlags();
-                        final byte[] networkId = SecureUtils.calculateK3(n);
-                        final int ivIndex = receivedBeacon.getIvIndex().getIvIndex();
-                        MeshLogger.debug(TAG, "Received mesh beacon: " + receivedBeacon);
-
-                        final SecureNetworkBeacon localSecureNetworkBeacon = SecureUtils.createSecureNetworkBeacon(n, flags, networkId, ivIndex);
-                        //Check the the beacon received is a valid by matching the authentication values
-                        if (Arrays.equals(receivedBeacon.getAuthenticationValue(), localSecureNetworkBeacon.getAuthenticationValue())) {
-                            MeshLogger.debug(TAG, "Secure Network Beacon authenticated.");
-
-                            //  The library does not retransmit Secure Network Beacon.
-                            //  If this node is a member of a primary subnet and receives a Secure Network
-                            //  beacon on a secondary subnet, it will disregard it.
-                            if (mMeshNetwork.getPrimaryNetworkKey() != null && networkKey.keyIndex != 0) {
-                                MeshLogger.debug(TAG, "Discarding beacon for secondary subnet with network key index: " + networkKey.keyIndex);
-                                return;
-                            }
+                    final byte[] receivedBeaconData = new byte[unsegmentedPdu.length - 1];
+                    System.arraycopy(unsegmentedPdu, 1, receivedBeaconData, 0, receivedBeaconData.length);
+                    final NetworkBeacon receivedBeacon = receivedBeaconData[0] == PrivateBeacon.PRIVATE_BEACON ?
+                            new PrivateBeacon(receivedBeaconData) : new SecureNetworkBeacon(receivedBeaconData);
+                    //Validate the beacon against the network keys using the key material cached in them
+                    final NetworkKey networkKey = receivedBeacon.authenticate(mMeshNetwork.getNetKeys());
+                    MeshLogger.debug(TAG, "Received mesh beacon: " + receivedBeacon);
+                    if (networkKey != null) {
+                        MeshLogger.debug(TAG, "Mesh beacon authenticated.");
+                        updateKeyRefreshPhase(networkKey, receivedBeacon);
+
+                        //  The library does not retransmit Secure Network Beacon.
+                        //  If this node is a member of a primary subnet and receives a Secure Network
+                        //  beacon on a secondary subnet, it will disregard it.
+                        if (mMeshNetwork.getPrimaryNetworkKey() != null && networkKey.keyIndex != 0) {
+                            MeshLogger.debug(TAG, "Discarding beacon for secondary subnet with network key index: " + networkKey.keyIndex);
+                            return;
+                        }
 
-                            // Get the last IV Index.
-                            /// The last used IV Index for this mesh network.
-                            final IvIndex lastIvIndex = mMeshNetwork.getIvIndex();
-                            MeshLogger.debug(TAG, "Last IV Index: " + lastIvIndex.getIvIndex());
-                            /// The date of the last change of IV Index or IV Update Flag.
-                            final Calendar lastTransitionDate = lastIvIndex.getTransitionDate();
-                            /// A flag whether the IV has recently been updated using IV Recovery procedure.
-                            /// The at-least-96h requirement for the duration of the current state will not apply.
-                            /// The node shall not execute more than one IV Index Recovery within a period of 192 hours.
-                            final boolean isIvRecoveryActive = lastIvIndex.getIvRecoveryFlag();
-                            /// The test mode disables the 96h rule, leaving all other behavior unchanged.
-                            final boolean isIvTestModeActive = ivUpdateTestModeActive;
-
-                            final boolean flag = allowIvIndexRecoveryOver42;
-                            if (!receivedBeacon.canOverwrite(lastIvIndex, lastTransitionDate, isIvRecoveryActive, isIvTestModeActive, flag)) {
-                                String numberOfHoursSinceDate = ((Calendar.getInstance().getTimeInMillis() -
-                                        (lastTransitionDate != null ? lastTransitionDate.getTimeInMillis() : 0)) / (3600 * 1000)) + "h";
-                                MeshLogger.warn(TAG, "Discarding beacon " + receivedBeacon.getIvIndex() +
-                                        ", last " + lastIvIndex.getIvIndex() + ", changed: "
-                                        + numberOfHoursSinceDate + " ago, test mode: " + ivUpdateTestModeActive);
-                                return;
-                            }
+                        // Get the last IV Index.
+                        /// The last used IV Index for this mesh network.
+                        final IvIndex lastIvIndex = mMeshNetwork.getIvIndex();
+                        MeshLogger.debug(TAG, "Last IV Index: " + lastIvIndex.getIvIndex());
+                        /// The date of the last change of IV Index or IV Update Flag.
+                        final Calendar lastTransitionDate = lastIvIndex.getTransitionDate();
+                        /// A flag whether the IV has recently been updated using IV Recovery procedure.
+                        /// The at-least-96h requirement for the duration of the current state will not apply.
+                        /// The node shall not execute more than one IV Index Recovery within a period of 192 hours.
+                        final boolean isIvRecoveryActive = lastIvIndex.getIvRecoveryFlag();
+                        /// The test mode disables the 96h rule, leaving all other behavior unchanged.
+                        final boolean isIvTestModeActive = ivUpdateTestModeActive;
+
+                        final boolean flag = allowIvIndexRecoveryOver42;
+                        if (!receivedBeacon.canOverwrite(lastIvIndex, lastTransitionDate, isIvRecoveryActive, isIvTestModeActive, flag)) {
+                            String numberOfHoursSinceDate = ((Calendar.getInstance().getTimeInMillis() -
+                                    (lastTransitionDate != null ? lastTransitionDate.getTimeInMillis() : 0)) / (3600 * 1000)) + "h";
+                            MeshLogger.warn(TAG, "Discarding beacon " + receivedBeacon.getIvIndex() +
+                                    ", last " + lastIvIndex.getIvIndex() + ", changed: "
+                                    + numberOfHoursSinceDate + " ago, test mode: " + ivUpdateTestModeActive);
+                            return;
+                        }
 
-                            final IvIndex receivedIvIndex = receivedBeacon.getIvIndex();
-                            if (receivedIvIndex.getIvIndex() > lastIvIndex.getIvIndex()) {
-                                mMeshNetwork.ivIndex = receivedIvIndex;
-                                MeshLogger.info(TAG, "Applying: " + mMeshNetwork.ivIndex.getIvIndex());
-                            } else {
-                                // This will leave the IV update active state intact or will switch from false to true.
-                                // canOverwrite() ensures this by discarding the secureNetworkBeacon received.
-                                mMeshNetwork.ivIndex.setIvUpdateActive(receivedIvIndex.isIvUpdateActive());
-                                MeshLogger.info(TAG, "Setting IV Update Active to: " + receivedIvIndex.isIvUpdateActive());
-                            }
+                        final IvIndex receivedIvIndex = receivedBeacon.getIvIndex();
+                        if (receivedIvIndex.getIvIndex() > lastIvIndex.getIvIndex()) {
+                            mMeshNetwork.ivIndex = receivedIvIndex;
+                            MeshLogger.info(TAG, "Applying: " + mMeshNetwork.ivIndex.getIvIndex());
+                        } else {
+                            // This will leave the IV update active state intact or will switch from false to true.
+                            // canOverwrite() ensures this by discarding the secureNetworkBeacon received.
+                            mMeshNetwork.ivIndex.setIvUpdateActive(receivedIvIndex.isIvUpdateActive());
+                            MeshLogger.info(TAG, "Setting IV Update Active to: " + receivedIvIndex.isIvUpdateActive());
+                        }
 
-                            // If the IV Index used for transmitting messages effectively increased,
-                            // the Node shall reset the sequence number to 0x000000.
-                            if (mMeshNetwork.ivIndex.getTransmitIvIndex() > lastIvIndex.getTransmitIvIndex()) {
-                                MeshLogger.info(TAG, "Resetting local sequence numbers to 0");
-                                final Provisioner provisioner = mMeshNetwork.getSelectedProvisioner();
-                                final ProvisionedMeshNode node = mMeshNetwork.getNode(provisioner.getProvisionerUuid());
-                                node.setSequenceNumber(0);
-                            }
+                        // If the IV Index used for transmitting messages effectively increased,
+                        // the Node shall reset the sequence number to 0x000000.
+                        if (mMeshNetwork.ivIndex.getTransmitIvIndex() > lastIvIndex.getTransmitIvIndex()) {
+                            MeshLogger.info(TAG, "Resetting local sequence numbers to 0");
+                            final Provisioner provisioner = mMeshNetwork.getSelectedProvisioner();
+                            final ProvisionedMeshNode node = mMeshNetwork.getNode(provisioner.getProvisionerUuid());
+                            node.setSequenceNumber(0);
+                        }
 
-                            //Updating the iv recovery flag
-                            if (lastIvIndex != mMeshNetwork.ivIndex) {
-                                final boolean ivRecovery = mMeshNetwork.getIvIndex().getIvIndex() > lastIvIndex.getIvIndex() + 1
-                                        && !receivedBeacon.getIvIndex().isIvUpdateActive();
-                                mMeshNetwork.getIvIndex().setIvRecoveryFlag(ivRecovery);
-                            }
+                        //Updating the iv recovery flag
+                        if (lastIvIndex != mMeshNetwork.ivIndex) {
+                            final boolean ivRecovery = mMeshNetwork.getIvIndex().getIvIndex() > lastIvIndex.getIvIndex() + 1
+                                    && !receivedBeacon.getIvIndex().isIvUpdateActive();
+                            mMeshNetwork.getIvIndex().setIvRecoveryFlag(ivRecovery);
+                        }
 
-                            if (!mMeshNetwork.ivIndex.getIvRecoveryFlag()) {
-                                final Iterator<Entry<Integer, List<Integer>>> iterator = mMeshNetwork.networkExclusions.entrySet().iterator();
-                                while (iterator.hasNext()) {
-                                    final Entry<Integer, List<Integer>> exclusions = iterator.next();
-                                    final int expectedIncrement = exclusions.getKey() + 2;
-                                    if (mMeshNetwork.ivIndex.getIvIndex() >= expectedIncrement) {
-                                        // Clear the last known sequence number of addresses that are to be removed from the exclusion list.
-                                        // Decided to retain the last known sequence number as the IV Indexes increment the sequence number
-                                        // will be greater than the last known anyways
-                                        //for (Integer address : mMeshNetwork.networkExclusions.get(expectedIncrement)) {
-                                        //    mMeshNetwork.sequenceNumbers.removeAt(address);
-                                        //}
-                                        iterator.remove();
-                                    }
+                        if (!mMeshNetwork.ivIndex.getIvRecoveryFlag()) {
+                            final Iterator<Entry<Integer, List<Integer>>> iterator = mMeshNetwork.networkExclusions.entrySet().iterator();
+                            while (iterator.hasNext()) {
+                                final Entry<Integer, List<Integer>> exclusions = iterator.next();
+                                final int expectedIncrement = exclusions.getKey() + 2;
+                                if (mMeshNetwork.ivIndex.getIvIndex() >= expectedIncrement) {
+                                    // Clear the last known sequence number of addresses that are to be removed from the exclusion list.
+                                    // Decided to retain the last known sequence number as the IV Indexes increment the sequence number
+                                    // will be greater than the last known anyways
+                                    //for (Integer address : mMeshNetwork.networkExclusions.get(expectedIncrement)) {
+                                    //    mMeshNetwork.sequenceNumbers.removeAt(address);
+                                    //}
+                                    iterator.remove();
                                 }
                             }
                         }
@@ -393,22 +509,246 @@ public class MeshManagerApi implements MeshMngrApi {
         }
     }
 
+    /**
+     * Updates the Key Refresh phase of a network key from an authenticated beacon.
+     * <p>
+     * A beacon secured with the new key moves the phase to {@link NetworkKey#USING_NEW_KEYS} when the
+     * Key Refresh flag is set, or revokes the old key when the flag has been cleared.
+     * </p>
+     *
+     * @param networkKey network key the beacon was secured with
+     * @param beacon     authenticated beacon
+     */
+    private void updateKeyRefreshPhase(@NonNull final NetworkKey networkKey, @NonNull final NetworkBeacon beacon) {
+        if (beacon.isSecuredWithOldKey() || networkKey.getPhase() == NetworkKey.NORMAL_OPERATION)
+            return;
+        if (beacon.isKeyRefreshActive()) {
+            if (networkKey.getPhase() == NetworkKey.KEY_DISTRIBUTION && mMeshNetwork.switchToNewKey(networkKey)) {
+                MeshLogger.info(TAG, "Switched to the new key of network key index: " + networkKey.keyIndex);
+                mMeshNetwork.notifyNetKeyUpdated(networkKey);
+            }
+        } else if (mMeshNetwork.revokeOldKey(networkKey)) {
+            MeshLogger.info(TAG, "Revoked the old key of network key index: " + networkKey.keyIndex);
+            mMeshNetwork.notifyNetKeyUpdated(networkKey);
+        }
+    }
+
     @Override
     public final void handleWriteCallbacks(final int mtuSize, @NonNull final byte[] data) {
+        handleWriteCallbacks(DEFAULT_PROXY_CONNECTION, mtuSize, data);
+    }
+
+    @Override
+    public final void handleWriteCallbacks(final int connectionId, final int mtuSize, @NonNull final byte[] data) {
+        final ProxyConnection connection = mProxyRouter.open(connectionId);
         byte[] unsegmentedPdu;
         if (!isGattSegmented(data)) {
             unsegmentedPdu = data;
         } else {
-            final byte[] combinedPdu = appendWritePdu(mtuSize, data);
+            final byte[] combinedPdu = appendPdu(connection.getOutgoingBuffer(), mtuSize, data);
             if (combinedPdu == null)
                 return;
             else {
-                unsegmentedPdu = removeSegmentation(mtuSize, combinedPdu);
+                unsegmentedPdu = combinedPdu;
             }
         }
+        connection.onPduWritten(System.nanoTime());
         handleWriteCallbacks(unsegmentedPdu);
     }
 
+    @Override
+    public double getWrittenPduRate() {
+        double rate = 0;
+        for (ProxyConnection connection : mProxyRouter.getConnections()) {
+            rate += connection.getWriteScheduler().getPdusPerSecond();
+        }
+        return rate;
+    }
+
+    @Override
+    public double getWrittenPduRate(final int connectionId) {
+        final ProxyConnection connection = mProxyRouter.get(connectionId);
+        return connection == null ? 0 : connection.getWriteScheduler().getPdusPerSecond();
+    }
+
+    @Override
+    public void resetWrittenPduRate() {
+        for (ProxyConnection connection : mProxyRouter.getConnections()) {
+            connection.getWriteScheduler().resetStatistics();
+        }
+    }
+
+    @NonNull
+    @Override
+    public SensorPollingScheduler getSensorPollingScheduler() {
+        return mSensorPollingScheduler;
+    }
+
+    @Override
+    public void startSensorPolling() {
+        mSensorPollingStarted = true;
+        scheduleSensorPolling();
+    }
+
+    @Override
+    public void stopSensorPolling() {
+        mSensorPollingStarted = false;
+        mHandler.removeCallbacks(mSensorPollingRunnable);
+    }
+
+    @NonNull
+    @Override
+    public ConfigurationPipeline configureNodes(@NonNull final ConfigurationTemplate template,
+                                                @NonNull final List<ProvisionedMeshNode> nodes,
+                                                @Nullable final ConfigurationPipeline.Callbacks callbacks) throws IllegalArgumentException {
+        final ConfigurationPipeline pipeline = new ConfigurationPipeline(mMeshNetwork, template, callbacks);
+        for (ProvisionedMeshNode node : nodes) {
+            pipeline.add(node);
+        }
+        cancelConfiguration();
+        mConfigurationPipeline = pipeline;
+        runConfiguration();
+        return pipeline;
+    }
+
+    @Override
+    public void cancelConfiguration() {
+        mConfigurationPipeline = null;
+        mHandler.removeCallbacks(mConfigurationRunnable);
+    }
+
+    /**
+     * Sends the messages of the configuration pipeline due now and schedules the next timeout.
+     */
+    private void runConfiguration() {
+        final ConfigurationPipeline pipeline = mConfigurationPipeline;
+        mHandler.removeCallbacks(mConfigurationRunnable);
+        if (pipeline == null)
+            return;
+        final long now = System.currentTimeMillis();
+        for (ConfigurationPipeline.Request request : pipeline.nextRequests(now)) {
+            try {
+                createMeshPdu(request.address, request.message);
+            } catch (IllegalArgumentException ex) {
+                MeshLogger.error(TAG, "Unable to configure node " + MeshAddress.formatAddress(request.address, true) + ": " + ex.getMessage());
+            }
+        }
+        final long next = pipeline.getNextTimeout();
+        if (next != Long.MAX_VALUE) {
+            mHandler.postDelayed(mConfigurationRunnable, Math.max(0, next - now));
+        } else if (pipeline.isComplete() && mConfigurationPipeline == pipeline) {
+            mConfigurationPipeline = null;
+        }
+    }
+
+    @NonNull
+    @Override
+    public CompositionDataCrawler discoverCompositionData(@NonNull final List<ProvisionedMeshNode> nodes,
+                                                          @Nullable final CompositionDataCrawler.Callbacks callbacks) {
+        final CompositionDataCrawler crawler = new CompositionDataCrawler(new CompositionDataCrawler.Callbacks() {
+            @Override
+            public void onCompositionDataReceived(@NonNull final ProvisionedMeshNode node,
+                                                  @NonNull final ConfigCompositionDataStatus status,
+                                                  final boolean reused) {
+                if (reused) {
+                    // Stored as if the node had sent it
+                    internalTransportCallbacks.updateMeshNetwork(status);
+                }
+                if (callbacks != null) {
+                    callbacks.onCompositionDataReceived(node, status, reused);
+                }
+            }
+
+            @Override
+            public void onCompositionDataFailed(@NonNull final ProvisionedMeshNode node) {
+                if (callbacks != null) {
+                    callbacks.onCompositionDataFailed(node);
+                }
+            }
+
+            @Override
+            public void onProgress(final int completed, final int total) {
+                if (callbacks != null) {
+                    callbacks.onProgress(completed, total);
+                }
+            }
+        });
+        for (ProvisionedMeshNode node : nodes) {
+            if (!isProvisionerNode(node)) {
+                crawler.add(node);
+            }
+        }
+        cancelCompositionDataDiscovery();
+        mCompositionDataCrawler = crawler;
+        runCompositionDataDiscovery();
+        return crawler;
+    }
+
+    @Override
+    public void cancelCompositionDataDiscovery() {
+        mCompositionDataCrawler = null;
+        mHandler.removeCallbacks(mCompositionDataRunnable);
+    }
+
+    /**
+     * Sends the Config Composition Data Get messages of the discovery due now and schedules the next timeout.
+     */
+    private void runCompositionDataDiscovery() {
+        final CompositionDataCrawler crawler = mCompositionDataCrawler;
+        mHandler.removeCallbacks(mCompositionDataRunnable);
+        if (crawler == null)
+            return;
+        final long now = System.currentTimeMillis();
+        for (Integer address : crawler.nextRequests(now)) {
+            try {
+                createMeshPdu(address, new ConfigCompositionDataGet());
+            } catch (IllegalArgumentException ex) {
+                MeshLogger.error(TAG, "Unable to discover node " + MeshAddress.formatAddress(address, true) + ": " + ex.getMessage());
+            }
+        }
+        final long next = crawler.getNextTimeout();
+        if (next != Long.MAX_VALUE) {
+            mHandler.postDelayed(mCompositionDataRunnable, Math.max(0, next - now));
+        } else if (crawler.isComplete() && mCompositionDataCrawler == crawler) {
+            mCompositionDataCrawler = null;
+        }
+    }
+
+    private boolean isProvisionerNode(@NonNull final ProvisionedMeshNode node) {
+        for (Provisioner provisioner : mMeshNetwork.getProvisioners()) {
+            final Integer address = provisioner.getProvisionerAddress();
+            if (address != null && address == node.getUnicastAddress())
+                return true;
+        }
+        return false;
+    }
+
+    private void scheduleSensorPolling() {
+        mHandler.removeCallbacks(mSensorPollingRunnable);
+        final long next = mSensorPollingScheduler.getNextPollTime();
+        if (mSensorPollingStarted && next != Long.MAX_VALUE) {
+            mHandler.postDelayed(mSensorPollingRunnable, Math.max(0, next - System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * Adapts the sensor polling to the sensor states received.
+     *
+     * @param message status message received
+     */
+    private void updateSensorPolling(@NonNull final MeshMessage message) {
+        if (message instanceof SensorStatus) {
+            mSensorPollingScheduler.onSensorStatus((SensorStatus) message, System.currentTimeMillis());
+        } else if (message instanceof SensorCadenceStatus) {
+            mSensorPollingScheduler.onCadenceStatus(message.getSrc(), ((SensorCadenceStatus) message).getCadence());
+        } else if (message instanceof SensorDescriptorStatus) {
+            mSensorPollingScheduler.onDescriptorStatus(message.getSrc(), (SensorDescriptorStatus) message);
+        } else {
+            return;
+        }
+        scheduleSensorPolling();
+    }
+
     /**
      * Handles callbacks after writing to characteristics to maintain/update the state machine
      *
@@ -447,119 +787,39 @@ public class MeshManagerApi implements MeshMngrApi {
 
     /**
      * Appends the PDUs that are segmented at gatt layer.
+     * <p>
+     * The segments are reassembled in place without their segmentation headers, so the combined pdu
+     * starts with the pdu type followed by the payload of each segment.
+     * </p>
      *
+     * @param buffer  buffer the segments are reassembled in
      * @param mtuSize mtu size supported by the device/node
-     * @param pdu     pdu received by the provisioner
-     * @return the combine pdu or returns null if not complete.
+     * @param pdu     segment received or written by the provisioner
+     * @return the combined pdu or returns null if not complete.
      */
-    private byte[] appendPdu(final int mtuSize, final byte[] pdu) {
+    @Nullable
+    private byte[] appendPdu(@NonNull final ProxySarBuffer buffer, final int mtuSize, @NonNull final byte[] pdu) {
         final int length = Math.min(pdu.length, mtuSize);
-        if (mIncomingBuffer == null) {
-            mIncomingBufferOffset = 0;
-            mIncomingBufferOffset += length;
-            mIncomingBuffer = pdu;
-        } else {
-            final byte[] buffer = new byte[mIncomingBuffer.length + length];
-            System.arraycopy(mIncomingBuffer, 0, buffer, 0, mIncomingBufferOffset);
-            System.arraycopy(pdu, 0, buffer, mIncomingBufferOffset, length);
-            mIncomingBufferOffset += length;
-            mIncomingBuffer = buffer;
-            final int sar = MeshParserUtils.unsignedByteToInt(pdu[0]) >> SAR_BIT_OFFSET;
-            if (sar == GATT_SAR_END) {
-                final byte[] packet = mIncomingBuffer;
-                mIncomingBuffer = null;
-                return packet;
-            }
+        final int sar = (pdu[0] & GATT_SAR_MASK) >> SAR_BIT_OFFSET;
+        if (sar == GATT_SAR_START) {
+            // A start segment discards any incomplete pdu
+            buffer.reset();
+            buffer.append(pdu, 0, length);
+            buffer.set(0, (byte) (pdu[0] & GATT_SAR_UNMASK));
+            return null;
         }
-        return null;
-    }
-
-    /**
-     * Appends the PDUs that are segmented at gatt layer.
-     *
-     * @param mtuSize mtu size supported by the device/node
-     * @param pdu     pdu received by the provisioner
-     * @return the combine pdu or returns null if not complete.
-     */
-    private byte[] appendWritePdu(final int mtuSize, final byte[] pdu) {
-        if (mOutgoingBuffer == null) {
-            final int length = Math.min(pdu.length, mtuSize);
-            mOutgoingBufferOffset = 0;
-            mOutgoingBufferOffset += length;
-            mOutgoingBuffer = pdu;
-        } else {
-            final int length = Math.min(pdu.length, mtuSize);
-            final byte[] buffer = new byte[mOutgoingBuffer.length + length];
-            System.arraycopy(mOutgoingBuffer, 0, buffer, 0, mOutgoingBufferOffset);
-            System.arraycopy(pdu, 0, buffer, mOutgoingBufferOffset, length);
-            mOutgoingBufferOffset += length;
-            mOutgoingBuffer = buffer;
-            if (length < mtuSize) {
-                final byte[] packet = mOutgoingBuffer;
-                mOutgoingBuffer = null;
-                return packet;
-            }
+        if (buffer.isEmpty()) {
+            MeshLogger.warn(TAG, "Dropping proxy pdu segment received without a start segment");
+            return null;
         }
-        return null;
-    }
-
-    private byte[] applySegmentation(final int mtuSize, final byte[] pdu) {
-        int srcOffset = 0;
-        int dstOffset = 0;
-        final int chunks = (pdu.length + (mtuSize - 1)) / mtuSize;
-
-        final int pduType = pdu[0];
-        if (chunks > 1) {
-            final byte[] segmentedBuffer = new byte[pdu.length + chunks - 1];
-            int length;
-            for (int i = 0; i < chunks; i++) {
-                if (i == 0) {
-                    length = Math.min(pdu.length - srcOffset, mtuSize);
-                    System.arraycopy(pdu, srcOffset, segmentedBuffer, dstOffset, length);
-                    segmentedBuffer[0] = (byte) ((GATT_SAR_START << 6) | pduType);
-                } else if (i == chunks - 1) {
-                    length = Math.min(pdu.length - srcOffset, mtuSize);
-                    segmentedBuffer[dstOffset] = (byte) ((GATT_SAR_END << 6) | pduType);
-                    System.arraycopy(pdu, srcOffset, segmentedBuffer, dstOffset + 1, length);
-                } else {
-                    length = Math.min(pdu.length - srcOffset, mtuSize - 1);
-                    segmentedBuffer[dstOffset] = (byte) ((GATT_SAR_CONTINUATION << 6) | pduType);
-                    System.arraycopy(pdu, srcOffset, segmentedBuffer, dstOffset + 1, length);
-                }
-                srcOffset += length;
-                dstOffset += mtuSize;
-            }
-            return segmentedBuffer;
-        }
-        return pdu;
-    }
-
-    private byte[] removeSegmentation(final int mtuSize, final byte[] data) {
-        int srcOffset = 0;
-        int dstOffset = 0;
-        final int chunks = (data.length + (mtuSize - 1)) / mtuSize;
-        if (chunks > 1) {
-            final byte[] buffer = new byte[data.length - (chunks - 1)];
-            int length;
-            for (int i = 0; i < chunks; i++) {
-                // when removing segmentation bits we only remove the start because the pdu type would be the same for each segment.
-                // Therefore we can ignore this pdu type byte as they are already put together in the ble
-                length = Math.min(buffer.length - dstOffset, mtuSize);
-                if (i == 0) {
-                    System.arraycopy(data, srcOffset, buffer, dstOffset, length);
-                    buffer[0] = (byte) (buffer[0] & GATT_SAR_UNMASK);
-                } else if (i == chunks - 1) {
-                    System.arraycopy(data, srcOffset + 1, buffer, dstOffset, length);
-                } else {
-                    length = length - 1;
-                    System.arraycopy(data, srcOffset + 1, buffer, dstOffset, length);
-                }
-                srcOffset += mtuSize;
-                dstOffset += length;
-            }
-            return buffer;
+        // The pdu type is repeated in each segment and is already in the buffer
+        buffer.append(pdu, 1, length - 1);
+        if (sar == GATT_SAR_END) {
+            final byte[] packet = buffer.toByteArray();
+            buffer.reset();
+            return packet;
         }
-        return data;
+        return null;
     }
 
     @Override
@@ -579,32 +839,24 @@ public class MeshManagerApi implements MeshMngrApi {
 
     @Override
     public void startProvisioning(@NonNull final UnprovisionedMeshNode unprovisionedMeshNode) throws IllegalArgumentException {
-        if (isAddressValid(unprovisionedMeshNode)) {
-            mMeshProvisioningHandler.startProvisioningNoOOB(unprovisionedMeshNode);
-        }
+        getProvisioningHandler(unprovisionedMeshNode).startProvisioningNoOOB(unprovisionedMeshNode);
     }
 
     @Override
     public void startProvisioningWithStaticOOB(@NonNull final UnprovisionedMeshNode unprovisionedMeshNode) throws IllegalArgumentException {
-        if (isAddressValid(unprovisionedMeshNode)) {
-            mMeshProvisioningHandler.startProvisioningWithStaticOOB(unprovisionedMeshNode);
-        }
+        getProvisioningHandler(unprovisionedMeshNode).startProvisioningWithStaticOOB(unprovisionedMeshNode);
     }
 
     @Override
     public void startProvisioningWithOutputOOB(@NonNull final UnprovisionedMeshNode unprovisionedMeshNode,
                                                @NonNull final OutputOOBAction oobAction) throws IllegalArgumentException {
-        if (isAddressValid(unprovisionedMeshNode)) {
-            mMeshProvisioningHandler.startProvisioningWithOutputOOB(unprovisionedMeshNode, oobAction);
-        }
+        getProvisioningHandler(unprovisionedMeshNode).startProvisioningWithOutputOOB(unprovisionedMeshNode, oobAction);
     }
 
     @Override
     public void startProvisioningWithInputOOB(@NonNull final UnprovisionedMeshNode unprovisionedMeshNode,
                                               @NonNull final InputOOBAction oobAction) throws IllegalArgumentException {
-        if (isAddressValid(unprovisionedMeshNode)) {
-            mMeshProvisioningHandler.startProvisioningWithInputOOB(unprovisionedMeshNode, oobAction);
-        }
+        getProvisioningHandler(unprovisionedMeshNode).startProvisioningWithInputOOB(unprovisionedMeshNode, oobAction);
     }
 
     @Override
@@ -612,6 +864,145 @@ public class MeshManagerApi implements MeshMngrApi {
         mMeshProvisioningHandler.sendProvisioningConfirmation(authentication);
     }
 
+    @Override
+    public void setProvisioningKeyPairPool(@Nullable final ProvisioningKeyPairPool keyPairPool) {
+        mProvisioningKeyPairPool = keyPairPool;
+        mMeshProvisioningHandler.setKeyPairPool(keyPairPool);
+    }
+
+    @NonNull
+    @Override
+    public ProvisioningTimings getProvisioningTimings() {
+        return mMeshProvisioningHandler.getTimings();
+    }
+
+    @Override
+    public void startProvisioningSession(@NonNull final UUID deviceUuid,
+                                         final int mtuSize,
+                                         final int attentionTimer) throws IllegalArgumentException {
+        final NetworkKey networkKey = mMeshNetwork.getPrimaryNetworkKey();
+        if (networkKey != null) {
+            final MeshProvisioningHandler handler = new MeshProvisioningHandler(mContext, internalTransportCallbacks, internalMeshMgrCallbacks);
+            handler.setProvisioningCallbacks(mProvisioningStatusCallbacks);
+            handler.setKeyPairPool(mProvisioningKeyPairPool);
+            mProvisioningSessions.open(new ProvisioningSession(deviceUuid, handler, mtuSize, System.nanoTime()));
+            handler.identify(deviceUuid, networkKey, mMeshNetwork.getProvisioningFlags(),
+                    mMeshNetwork.getIvIndex().getIvIndex(), mMeshNetwork.getGlobalTtl(), attentionTimer);
+        }
+    }
+
+    @Override
+    public void handleProvisioningNotifications(@NonNull final UUID deviceUuid, @NonNull final byte[] data) {
+        final ProvisioningSession session = mProvisioningSessions.get(deviceUuid);
+        if (session == null) {
+            MeshLogger.warn(TAG, "Dropping provisioning pdu of device " + deviceUuid + " without a provisioning session");
+            return;
+        }
+        final byte[] pdu = isGattSegmented(data) ? appendPdu(session.getIncomingBuffer(), session.getMtu(), data) : data;
+        if (pdu != null && pdu[0] == PDU_TYPE_PROVISIONING) {
+            MeshLogger.verbose(TAG, "Received provisioning message: " + MeshParserUtils.bytesToHex(pdu, true));
+            session.getHandler().parseProvisioningNotifications(pdu);
+        }
+    }
+
+    @Override
+    public void handleProvisioningWriteCallbacks(@NonNull final UUID deviceUuid, @NonNull final byte[] data) {
+        final ProvisioningSession session = mProvisioningSessions.get(deviceUuid);
+        if (session == null)
+            return;
+        final byte[] pdu = isGattSegmented(data) ? appendPdu(session.getOutgoingBuffer(), session.getMtu(), data) : data;
+        if (pdu != null && pdu[0] == PDU_TYPE_PROVISIONING) {
+            MeshLogger.verbose(TAG, "Provisioning pdu sent: " + MeshParserUtils.bytesToHex(pdu, true));
+            session.getHandler().handleProvisioningWriteCallbacks();
+        }
+    }
+
+    @Override
+    public void setProvisioningAuthentication(@NonNull final UUID deviceUuid, @NonNull final String authentication) {
+        final ProvisioningSession session = mProvisioningSessions.get(deviceUuid);
+        if (session != null) {
+            session.getHandler().sendProvisioningConfirmation(authentication);
+        }
+    }
+
+    @Override
+    public void closeProvisioningSession(@NonNull final UUID deviceUuid) {
+        mRemoteProvisioner.closeLink(deviceUuid, false, System.currentTimeMillis());
+        scheduleRemoteProvisioning();
+        mProvisioningSessions.close(deviceUuid);
+    }
+
+    @Override
+    public void startRemoteProvisioningSession(final int serverAddress,
+                                               @NonNull final UUID deviceUuid,
+                                               final int attentionTimer) throws IllegalArgumentException {
+        if (mMeshNetwork.getNode(serverAddress) == null)
+            throw new IllegalArgumentException("Server " + MeshAddress.formatAddress(serverAddress, true) + " is not a node of the network");
+        if (mMeshNetwork.getPrimaryNetworkKey() == null)
+            return;
+        final MeshProvisioningHandler handler = new MeshProvisioningHandler(mContext, internalTransportCallbacks, internalMeshMgrCallbacks);
+        handler.setProvisioningCallbacks(mProvisioningStatusCallbacks);
+        handler.setKeyPairPool(mProvisioningKeyPairPool);
+        // The provisioning pdus are carried whole in mesh messages, there is no bearer mtu
+        final ProvisioningSession session = new ProvisioningSession(deviceUuid, handler, 0, System.nanoTime());
+        session.setAttentionTimer(attentionTimer);
+        mProvisioningSessions.open(session);
+        try {
+            mRemoteProvisioner.openLink(serverAddress, deviceUuid, System.currentTimeMillis());
+        } catch (IllegalArgumentException ex) {
+            mProvisioningSessions.close(deviceUuid);
+            throw ex;
+        }
+        scheduleRemoteProvisioning();
+    }
+
+    private void scheduleRemoteProvisioning() {
+        mHandler.removeCallbacks(mRemoteProvisioningRunnable);
+        final long next = mRemoteProvisioner.getNextTimeout();
+        if (next != Long.MAX_VALUE) {
+            mHandler.postDelayed(mRemoteProvisioningRunnable, Math.max(0, next - System.currentTimeMillis()));
+        }
+    }
+
+    @Nullable
+    @Override
+    public ProvisioningTimings getProvisioningTimings(@NonNull final UUID deviceUuid) {
+        final ProvisioningSession session = mProvisioningSessions.get(deviceUuid);
+        return session == null ? null : session.getHandler().getTimings();
+    }
+
+    @NonNull
+    @Override
+    public ProvisioningThroughput getProvisioningThroughput() {
+        return mProvisioningSessions.getThroughput(System.nanoTime());
+    }
+
+    @Override
+    public void setUnicastAddressBlockSize(final int blockSize) throws IllegalArgumentException {
+        mProvisioningSessions.setBlockSize(blockSize);
+    }
+
+    /**
+     * Returns the handler provisioning the node after assigning the node its unicast address.
+     * <p>
+     * A node provisioned in a session gets an address reserved for the sessions, any other node gets the
+     * next unicast address of the network.
+     * </p>
+     *
+     * @param node {@link UnprovisionedMeshNode} node
+     */
+    @NonNull
+    private MeshProvisioningHandler getProvisioningHandler(@NonNull final UnprovisionedMeshNode node) throws IllegalArgumentException {
+        final ProvisioningSession session = mProvisioningSessions.get(node.getDeviceUuid());
+        if (session == null || session.isFinished()) {
+            isAddressValid(node);
+            return mMeshProvisioningHandler;
+        }
+        node.setUnicastAddress(mProvisioningSessions.assignUnicastAddress(session, node.getNumberOfElements(),
+                mMeshNetwork, mMeshNetwork.getSelectedProvisioner()));
+        return session.getHandler();
+    }
+
     @NonNull
     @Override
     public UUID getDeviceUuid(@NonNull final byte[] serviceData) throws IllegalArgumentException {
@@ -669,6 +1060,8 @@ public class MeshManagerApi implements MeshMngrApi {
                 return new UnprovisionedBeacon(beaconData);
             } else if (beaconType == 0x01) {
                 return new SecureNetworkBeacon(beaconData);
+            } else if (beaconType == PrivateBeacon.PRIVATE_BEACON) {
+                return new PrivateBeacon(beaconData);
             }
         }
         return null;
@@ -693,15 +1086,19 @@ public class MeshManagerApi implements MeshMngrApi {
             return false;
         }
 
-        for (NetworkKey key : mMeshNetwork.netKeys) {
-            if (Arrays.equals(advertisedHash, SecureUtils.
-                    calculateHash(key.getIdentityKey(), random, MeshAddress.addressIntToBytes(meshNode.getUnicastAddress()))) ||
-                    (key.getOldIdentityKey() != null &&
-                            Arrays.equals(advertisedHash, SecureUtils.
-                                    calculateHash(key.getOldIdentityKey(), random, MeshAddress.addressIntToBytes(meshNode.getUnicastAddress())))))
-                return true;
-        }
-        return false;
+        return mNodeIdentityResolver.matches(mMeshNetwork.netKeys, meshNode.getUnicastAddress(), advertisedHash, random);
+    }
+
+    @Nullable
+    @Override
+    public ProvisionedMeshNode resolveNodeIdentity(@Nullable final byte[] serviceData) {
+        if (mMeshNetwork == null || !isAdvertisedWithNodeIdentity(serviceData))
+            return null;
+        final byte[] advertisedHash = getAdvertisedHash(serviceData);
+        final byte[] random = getAdvertisedRandom(serviceData);
+        if (advertisedHash == null || random == null)
+            return null;
+        return mMeshNetwork.getNode(mNodeIdentityResolver.resolve(mMeshNetwork.netKeys, mMeshNetwork.nodes, advertisedHash, random));
     }
 
 
@@ -796,6 +1193,8 @@ public class MeshManagerApi implements MeshMngrApi {
         deleteMeshNetworkFromDb(meshNet);
         final MeshNetwork newMeshNetwork = generateMeshNetwork();
         newMeshNetwork.setCallbacks(callbacks);
+        newMeshNetwork.reservedUnicastAddresses = mProvisioningSessions.getReserved();
+        mSensorDataStore.clear();
         insertNetwork(newMeshNetwork);
         mMeshNetwork = newMeshNetwork;
         mMeshManagerCallbacks.onNetworkLoaded(newMeshNetwork);
@@ -812,6 +1211,8 @@ public class MeshManagerApi implements MeshMngrApi {
         allowIvIndexRecoveryOver42 = false;
         final MeshNetwork newMeshNetwork = generateMeshNetwork();
         newMeshNetwork.setCallbacks(callbacks);
+        newMeshNetwork.reservedUnicastAddresses = mProvisioningSessions.getReserved();
+        mSensorDataStore.clear();
         insertNetwork(newMeshNetwork);
         mMeshNetwork = newMeshNetwork;
         mMeshManagerCallbacks.onNetworkLoaded(newMeshNetwork);
@@ -920,11 +1321,41 @@ public class MeshManagerApi implements MeshMngrApi {
         return null;
     }
 
+    @Override
+    public boolean exportMeshNetwork(@NonNull final OutputStream outputStream,
+                                     @NonNull final NetworkKeysConfig networkKeysConfig,
+                                     @NonNull final ApplicationKeysConfig applicationKeysConfig,
+                                     @NonNull final NodesConfig nodesConfig,
+                                     @NonNull final ProvisionersConfig provisionersConfig,
+                                     @NonNull final GroupsConfig groupsConfig,
+                                     @NonNull final ScenesConfig scenesConfig) {
+        try {
+            mImportExportUtils.export(mMeshNetwork, networkKeysConfig, applicationKeysConfig,
+                    nodesConfig, provisionersConfig, groupsConfig, scenesConfig, outputStream);
+            return true;
+        } catch (Exception ex) {
+            MeshLogger.error(TAG, "Error while exporting the mesh network: " + ex.getMessage());
+        }
+        return false;
+    }
+
     @Override
     public void importMeshNetwork(@NonNull final Uri uri) {
+        try {
+            final InputStream inputStream = mContext.getContentResolver().openInputStream(uri);
+            if (inputStream == null)
+                throw new IOException("Unable to open " + uri);
+            importMeshNetwork(inputStream);
+        } catch (Exception ex) {
+            mMeshManagerCallbacks.onNetworkImportFailed(ex.getMessage());
+        }
+    }
+
+    @Override
+    public void importMeshNetwork(@NonNull final InputStream inputStream) {
         try {
             isNetworkImportInProgress = true;
-            importMeshNetworkJson(mImportExportUtils.readJsonStringFromUri(mContext.getContentResolver(), uri));
+            onNetworkImported(mImportExportUtils.importNetwork(inputStream));
             isNetworkImportInProgress = false;
         } catch (Exception ex) {
             isNetworkImportInProgress = false;
@@ -936,28 +1367,30 @@ public class MeshManagerApi implements MeshMngrApi {
     public void importMeshNetworkJson(@NonNull String networkJson) {
         try {
             isNetworkImportInProgress = true;
-            final MeshNetwork importedNetwork = mImportExportUtils.importNetwork(networkJson);
-            importedNetwork.setCallbacks(callbacks);
-            final MeshNetwork network = mMeshNetworkDb.getMeshNetwork(mMeshNetworkDao, importedNetwork.getMeshUUID());
-            if (network != null) {
-                final List<ProvisionedMeshNode> nodes = mMeshNetworkDb.getNodes(mProvisionedNodesDao, importedNetwork.getMeshUUID());
-                importedNetwork.unicastAddress = network.unicastAddress;
-                for (ProvisionedMeshNode meshNode : importedNetwork.getNodes()) {
-                    for (ProvisionedMeshNode node : nodes) {
-                        if (node.getUuid().equalsIgnoreCase(meshNode.getUuid())) {
-                            meshNode.setSequenceNumber(node.getSequenceNumber());
-                        }
-                    }
-                }
-                importedNetwork.loadSequenceNumbers();
-                // Load the last known ivIndex.
-                // Note: The iv index will be updated based on the secure network beacon after connecting to a proxy.
-                importedNetwork.ivIndex = network.ivIndex;
-            }
-            mMeshNetworkDb.update(mMeshNetworkDao, importedNetwork, false);
-            insertNetwork(importedNetwork);
-            mMeshNetwork = importedNetwork;
-            mMeshManagerCallbacks.onNetworkImported(importedNetwork);
+            onNetworkImported(mImportExportUtils.importNetwork(networkJson));
+            isNetworkImportInProgress = false;
+        } catch (Exception ex) {
+            isNetworkImportInProgress = false;
+            mMeshManagerCallbacks.onNetworkImportFailed(ex.getMessage());
+        }
+    }
+
+    @Override
+    public boolean exportMeshNetworkSnapshot(@NonNull final File file) {
+        try {
+            MeshNetworkSnapshot.write(mMeshNetwork, file);
+            return true;
+        } catch (Exception ex) {
+            MeshLogger.error(TAG, "Error while writing the mesh network snapshot: " + ex.getMessage());
+        }
+        return false;
+    }
+
+    @Override
+    public void importMeshNetworkSnapshot(@NonNull final File file) {
+        try {
+            isNetworkImportInProgress = true;
+            onNetworkImported(MeshNetworkSnapshot.read(file));
             isNetworkImportInProgress = false;
         } catch (Exception ex) {
             isNetworkImportInProgress = false;
@@ -965,6 +1398,93 @@ public class MeshManagerApi implements MeshMngrApi {
         }
     }
 
+    @Override
+    public boolean exportMeshNetworkDelta(@Nullable final String syncToken, @NonNull final OutputStream outputStream) {
+        try {
+            mImportExportUtils.exportDelta(mMeshNetwork, syncToken, outputStream);
+            return true;
+        } catch (Exception ex) {
+            MeshLogger.error(TAG, "Error while exporting the mesh network delta: " + ex.getMessage());
+        }
+        return false;
+    }
+
+    @Nullable
+    @Override
+    public String importMeshNetworkDelta(@NonNull final InputStream inputStream) {
+        try {
+            final MeshNetworkDelta delta = mImportExportUtils.importDelta(inputStream);
+            final int applied = delta.merge(mMeshNetwork);
+            MeshLogger.verbose(TAG, "Applied " + applied + " of " + delta.changes.size() + " changes");
+            // Stores the merged changes in the change log
+            mMeshNetworkDb.update(mMeshNetworkDao, mMeshNetwork);
+            mMeshManagerCallbacks.onNetworkUpdated(mMeshNetwork);
+            return delta.syncToken;
+        } catch (Exception ex) {
+            mMeshManagerCallbacks.onNetworkImportFailed(ex.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Merges the library attributes known to the database in to an imported network and loads it.
+     *
+     * @param importedNetwork network that was imported
+     * @throws ExecutionException   if reading or updating the database failed
+     * @throws InterruptedException if interrupted while accessing the database
+     */
+    private void onNetworkImported(@NonNull final MeshNetwork importedNetwork) throws ExecutionException, InterruptedException {
+        importedNetwork.setCallbacks(callbacks);
+        importedNetwork.reservedUnicastAddresses = mProvisioningSessions.getReserved();
+        final MeshNetwork network = mMeshNetworkDb.getMeshNetwork(mMeshNetworkDao, importedNetwork.getMeshUUID());
+        if (network != null) {
+            mergeStoredNetwork(importedNetwork, network, mMeshNetworkDb.getNodes(mProvisionedNodesDao, importedNetwork.getMeshUUID()));
+        }
+        mMeshNetworkDb.update(mMeshNetworkDao, importedNetwork, false);
+        // Addresses of the imported network may belong to other elements than before
+        mSensorDataStore.clear();
+        insertNetwork(importedNetwork);
+        mMeshNetwork = importedNetwork;
+        mMeshManagerCallbacks.onNetworkImported(importedNetwork);
+    }
+
+    /**
+     * Merges the library attributes of the stored copy of a network in to an imported network.
+     * Snapshots carry their own sequence numbers and IV Index, which must never go backwards.
+     *
+     * @param importedNetwork network that was imported
+     * @param storedNetwork   network stored in the database
+     * @param storedNodes     nodes of the network stored in the database
+     */
+    static void mergeStoredNetwork(@NonNull final MeshNetwork importedNetwork,
+                                   @NonNull final MeshNetwork storedNetwork,
+                                   @NonNull final List<ProvisionedMeshNode> storedNodes) {
+        importedNetwork.unicastAddress = storedNetwork.unicastAddress;
+        for (ProvisionedMeshNode meshNode : importedNetwork.getNodes()) {
+            for (ProvisionedMeshNode node : storedNodes) {
+                if (node.getUuid().equalsIgnoreCase(meshNode.getUuid())) {
+                    meshNode.setSequenceNumber(Math.max(meshNode.getSequenceNumber(), node.getSequenceNumber()));
+                }
+            }
+        }
+        importedNetwork.loadSequenceNumbers();
+        // Keep the later of the IV Indexes, otherwise the higher sequence numbers could be reused with an older IV Index.
+        // Note: The iv index will be updated based on the secure network beacon after connecting to a proxy.
+        if (isLater(storedNetwork.ivIndex, importedNetwork.ivIndex)) {
+            importedNetwork.ivIndex = storedNetwork.ivIndex;
+        }
+    }
+
+    /**
+     * Returns true if the first IV Index state follows the second one in the IV Update procedure.
+     */
+    private static boolean isLater(@NonNull final IvIndex ivIndex, @NonNull final IvIndex other) {
+        final long index = ivIndex.getIvIndex() & 0xFFFFFFFFL;
+        final long otherIndex = other.getIvIndex() & 0xFFFFFFFFL;
+        // The IV Update in progress state is followed by the normal operation with the same IV Index
+        return index > otherIndex || (index == otherIndex && other.isIvUpdateActive() && !ivIndex.isIvUpdateActive());
+    }
+
     @SuppressWarnings("FieldCanBeLocal")
     private final InternalTransportCallbacks internalTransportCallbacks = new InternalTransportCallbacks() {
 
@@ -985,40 +1505,87 @@ public class MeshManagerApi implements MeshMngrApi {
 
         @Override
         public void sendProvisioningPdu(final UnprovisionedMeshNode meshNode, final byte[] pdu) {
-            final int mtu = mMeshManagerCallbacks.getMtu();
-            mMeshManagerCallbacks.sendProvisioningPdu(meshNode, applySegmentation(mtu, pdu));
+            if (mRemoteProvisioner.hasLink(meshNode.getDeviceUuid())) {
+                // The pdu type of the proxy protocol is not sent over a remote provisioning link
+                mRemoteProvisioner.sendPdu(meshNode.getDeviceUuid(), Arrays.copyOfRange(pdu, 1, pdu.length), System.currentTimeMillis());
+                scheduleRemoteProvisioning();
+                return;
+            }
+            final ProvisioningSession session = mProvisioningSessions.get(meshNode.getDeviceUuid());
+            final int mtu = session == null ? mMeshManagerCallbacks.getMtu() : session.getMtu();
+            mMeshManagerCallbacks.sendProvisioningPdu(meshNode, ProxyPduWriteScheduler.applySegmentation(mtu, pdu));
         }
 
         @Override
         public void onMeshPduCreated(final int dst, final byte[] pdu) {
+            onMeshPdusCreated(dst, Collections.singletonList(pdu));
+        }
+
+        @Override
+        public void onMeshPdusCreated(final int dst, @NonNull final List<byte[]> pdus) {
             //We must save the mesh network state for every message that is being sent out.
             //This will specifically save the sequence number for every message sent.
+            //The sequence numbers of all pdus of a message are already allocated, so it is saved once per message.
             final ProvisionedMeshNode meshNode = mMeshNetwork.getNode(dst);
             updateNetwork(meshNode);
-            final int mtu = mMeshManagerCallbacks.getMtu();
-            mMeshManagerCallbacks.onMeshPduCreated(applySegmentation(mtu, pdu));
+            final ProxyConnection connection = mProxyRouter.route(dst);
+            final int mtu = mMeshManagerCallbacks.getMtu(connection.getId());
+            mMeshManagerCallbacks.onMeshPdusCreated(connection.getId(), connection.schedule(mtu, pdus));
         }
 
         @Override
         public ProxyFilter getProxyFilter() {
+            final ProxyConnection connection = mReceivingConnection;
+            if (connection != null && connection.getId() != DEFAULT_PROXY_CONNECTION) {
+                return connection.getProxyFilter();
+            }
             return mMeshNetwork.getProxyFilter();
         }
 
         @Override
         public void setProxyFilter(@NonNull final ProxyFilter filter) {
+            final ProxyConnection connection = mReceivingConnection;
+            if (connection != null && connection.getId() != DEFAULT_PROXY_CONNECTION) {
+                connection.setProxyFilter(filter);
+                return;
+            }
             mMeshNetwork.setProxyFilter(filter);
         }
 
         @Override
         public void updateMeshNetwork(final MeshMessage message) {
+            if (mReceivingConnection != null) {
+                mProxyRouter.learn(message.getSrc(), mReceivingConnection);
+            }
+            updateSensorPolling(message);
             final ProvisionedMeshNode meshNode = mMeshNetwork.getNode(message.getSrc());
+            if (meshNode != null && isConfigurationChange(message)) {
+                mMeshNetwork.changeLog.record(meshNode, false);
+            }
             updateNetwork(meshNode);
+            if (mConfigurationPipeline != null && mConfigurationPipeline.onMessageReceived(message)) {
+                runConfiguration();
+            }
+            if (mCompositionDataCrawler != null && mCompositionDataCrawler.onMessageReceived(message)) {
+                runCompositionDataDiscovery();
+            }
+            if (mRemoteProvisioner.onMessageReceived(message, System.currentTimeMillis())) {
+                scheduleRemoteProvisioning();
+            }
         }
 
         @Override
         public void onMeshNodeReset(final ProvisionedMeshNode meshNode) {
             if (meshNode != null) {
                 mMeshNetwork.deleteNode(meshNode);
+                mSensorDataStore.remove(meshNode.getUnicastAddress(), meshNode.getNumberOfElements());
+                mSensorPollingScheduler.removeSensors(meshNode.getUnicastAddress(), meshNode.getNumberOfElements());
+                if (mConfigurationPipeline != null) {
+                    mConfigurationPipeline.remove(meshNode.getUnicastAddress());
+                }
+                if (mCompositionDataCrawler != null) {
+                    mCompositionDataCrawler.remove(meshNode.getUnicastAddress());
+                }
             }
         }
 
@@ -1027,6 +1594,12 @@ public class MeshManagerApi implements MeshMngrApi {
             return mMeshNetwork;
         }
 
+        @NonNull
+        @Override
+        public SensorDataStore getSensorDataStore() {
+            return mSensorDataStore;
+        }
+
         @Override
         public void addGroup(final Group group) {
             mMeshNetwork.addGroup(group);
@@ -1056,6 +1629,8 @@ public class MeshManagerApi implements MeshMngrApi {
                         break;
                     }
                 }
+                mMeshNetwork.usedAddresses.putNode(meshNode);
+                mMeshNetwork.subscriptions.putNode(meshNode);
             }
             mMeshNetworkDb.update(mMeshNetwork, mMeshNetworkDao, mNetworkKeysDao, mApplicationKeysDao, mProvisionersDao, mProvisionedNodesDao,
                     mGroupsDao, mScenesDao);
@@ -1063,6 +1638,40 @@ public class MeshManagerApi implements MeshMngrApi {
         }
     };
 
+    /**
+     * Returns true if the message reports a change to the keys, bindings, subscriptions, publication,
+     * composition data, default TTL, transmit settings, features, beacon or heartbeat settings of the node
+     * that sent it. Other messages do not change what is shared with other provisioners and are not
+     * recorded in the change log.
+     *
+     * @param message message received
+     */
+    static boolean isConfigurationChange(@NonNull final MeshMessage message) {
+        if (message instanceof ConfigCompositionDataStatus
+                || message instanceof ConfigDefaultTtlStatus
+                || message instanceof ConfigNetworkTransmitStatus
+                || message instanceof ConfigRelayStatus
+                || message instanceof ConfigBeaconStatus
+                || message instanceof ConfigGattProxyStatus
+                || message instanceof ConfigFriendStatus)
+            return true;
+        if (message instanceof ConfigHeartbeatPublicationStatus)
+            return ((ConfigHeartbeatPublicationStatus) message).isSuccessful();
+        if (message instanceof ConfigHeartbeatSubscriptionStatus)
+            return ((ConfigHeartbeatSubscriptionStatus) message).isSuccessful();
+        if (message instanceof ConfigAppKeyStatus)
+            return ((ConfigAppKeyStatus) message).isSuccessful();
+        if (message instanceof ConfigNetKeyStatus)
+            return ((ConfigNetKeyStatus) message).isSuccessful();
+        if (message instanceof ConfigModelAppStatus)
+            return ((ConfigModelAppStatus) message).isSuccessful();
+        if (message instanceof ConfigModelSubscriptionStatus)
+            return ((ConfigModelSubscriptionStatus) message).isSuccessful();
+        if (message instanceof ConfigModelPublicationStatus)
+            return ((ConfigModelPublicationStatus) message).isSuccessful();
+        return false;
+    }
+
     /**
      * Deletes an address from the scenes in the network. This is to be called when resetting or deleting a node from the network.
      *
@@ -1076,6 +1685,57 @@ public class MeshManagerApi implements MeshMngrApi {
         }
     }
 
+    private final RemoteProvisioner.Callbacks remoteProvisionerCallbacks = new RemoteProvisioner.Callbacks() {
+        @Override
+        public void sendMessage(final int serverAddress, @NonNull final MeshMessage message) {
+            try {
+                createMeshPdu(serverAddress, message);
+            } catch (IllegalArgumentException ex) {
+                MeshLogger.error(TAG, "Unable to send " + message.getClass().getSimpleName() + " to "
+                        + MeshAddress.formatAddress(serverAddress, true) + ": " + ex.getMessage());
+            }
+        }
+
+        @Override
+        public void onLinkOpened(@NonNull final UUID deviceUuid) {
+            final ProvisioningSession session = mProvisioningSessions.get(deviceUuid);
+            final NetworkKey networkKey = mMeshNetwork.getPrimaryNetworkKey();
+            if (session != null && networkKey != null) {
+                session.getHandler().identify(deviceUuid, networkKey, mMeshNetwork.getProvisioningFlags(),
+                        mMeshNetwork.getIvIndex().getIvIndex(), mMeshNetwork.getGlobalTtl(), session.getAttentionTimer());
+            }
+        }
+
+        @Override
+        public void onPduDelivered(@NonNull final UUID deviceUuid) {
+            final ProvisioningSession session = mProvisioningSessions.get(deviceUuid);
+            if (session != null) {
+                session.getHandler().handleProvisioningWriteCallbacks();
+            }
+        }
+
+        @Override
+        public void onPduReceived(@NonNull final UUID deviceUuid, @NonNull final byte[] provisioningPdu) {
+            final ProvisioningSession session = mProvisioningSessions.get(deviceUuid);
+            if (session != null && provisioningPdu.length > 0) {
+                final byte[] pdu = new byte[provisioningPdu.length + 1];
+                pdu[0] = PDU_TYPE_PROVISIONING;
+                System.arraycopy(provisioningPdu, 0, pdu, 1, provisioningPdu.length);
+                MeshLogger.verbose(TAG, "Received remote provisioning message: " + MeshParserUtils.bytesToHex(pdu, true));
+                session.getHandler().parseProvisioningNotifications(pdu);
+            }
+        }
+
+        @Override
+        public void onLinkClosed(@NonNull final UUID deviceUuid, @Nullable final String reason) {
+            final ProvisioningSession session = mProvisioningSessions.get(deviceUuid);
+            if (reason != null && session != null && !session.isFinished()) {
+                session.getHandler().abort();
+                mProvisioningSessions.onFailed(deviceUuid, System.nanoTime());
+            }
+        }
+    };
+
     @SuppressWarnings("FieldCanBeLocal")
     private final InternalMeshManagerCallbacks internalMeshMgrCallbacks = new InternalMeshManagerCallbacks() {
         @Override
@@ -1088,9 +1748,21 @@ public class MeshManagerApi implements MeshMngrApi {
             mMeshNetworkDb.insert(mProvisionedNodeDao, meshNode);
             mMeshNetworkDb.update(mProvisionerDao,
                     mMeshNetwork.getSelectedProvisioner());
+            mProvisioningSessions.onProvisioned(UUID.fromString(meshNode.getUuid()), System.nanoTime());
+            mRemoteProvisioner.closeLink(UUID.fromString(meshNode.getUuid()), true, System.currentTimeMillis());
+            scheduleRemoteProvisioning();
             mMeshManagerCallbacks.onNetworkUpdated(mMeshNetwork);
         }
 
+        @Override
+        public void onProvisioningFailed(final UnprovisionedMeshNode meshNode) {
+            if (meshNode != null) {
+                mProvisioningSessions.onFailed(meshNode.getDeviceUuid(), System.nanoTime());
+                mRemoteProvisioner.closeLink(meshNode.getDeviceUuid(), false, System.currentTimeMillis());
+                scheduleRemoteProvisioning();
+            }
+        }
+
         private void updateProvisionedNodeList(final ProvisionedMeshNode meshNode) {
             for (int i = 0; i < mMeshNetwork.nodes.size(); i++) {
                 final ProvisionedMeshNode node = mMeshNetwork.nodes.get(i);
@@ -1100,6 +1772,8 @@ public class MeshManagerApi implements MeshMngrApi {
                 }
             }
             mMeshNetwork.nodes.add(meshNode);
+            mMeshNetwork.usedAddresses.putNode(meshNode);
+            mMeshNetwork.subscriptions.putNode(meshNode);
             updateNetworkKeySecurity(meshNode);
         }
     };
@@ -1213,6 +1887,7 @@ public class MeshManagerApi implements MeshMngrApi {
                 network.loadSequenceNumbers();
             }
             network.setCallbacks(callbacks);
+            network.reservedUnicastAddresses = mProvisioningSessions.getReserved();
             mMeshNetwork = network;
             mMeshManagerCallbacks.onNetworkLoaded(network);
         }
@@ -22,6 +22,9 @@
 
 package no.nordicsemi.android.mesh;
 
+import java.util.List;
+
+import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.provisionerstates.UnprovisionedMeshNode;
 
 /**
@@ -82,6 +85,36 @@ public interface MeshManagerCallbacks {
      */
     void onMeshPduCreated(final byte[] pdu);
 
+    /**
+     * Send the mesh pdus of a message
+     * <p>
+     * The pdus are already segmented for the mtu returned by {@link #getMtu()}. Override this to queue
+     * all writes at once without waiting for the write callback of each pdu. The list is only valid
+     * for the duration of the call.
+     * </p>
+     *
+     * @param pdus mesh pdus to be sent in order
+     */
+    default void onMeshPdusCreated(@NonNull final List<byte[]> pdus) {
+        for (byte[] pdu : pdus) {
+            onMeshPduCreated(pdu);
+        }
+    }
+
+    /**
+     * Send the mesh pdus of a message via the given proxy connection
+     * <p>
+     * The connection is chosen by the library when several proxy connections are in use, see
+     * {@link MeshMngrApi#handleNotifications(int, int, byte[])}.
+     * </p>
+     *
+     * @param connectionId id of the proxy connection to send the pdus via
+     * @param pdus         mesh pdus to be sent in order
+     */
+    default void onMeshPdusCreated(final int connectionId, @NonNull final List<byte[]> pdus) {
+        onMeshPdusCreated(pdus);
+    }
+
     /**
      * Get mtu size supported by the peripheral node
      * <p>
@@ -92,4 +125,14 @@ public interface MeshManagerCallbacks {
      * @return mtu size
      */
     int getMtu();
+
+    /**
+     * Get mtu size supported by the proxy node of the given connection
+     *
+     * @param connectionId id of the proxy connection
+     * @return mtu size
+     */
+    default int getMtu(final int connectionId) {
+        return getMtu();
+    }
 }
@@ -2,15 +2,23 @@ package no.nordicsemi.android.mesh;
 
 import android.net.Uri;
 
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
 import java.util.UUID;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.provisionerstates.ProvisioningKeyPairPool;
 import no.nordicsemi.android.mesh.provisionerstates.UnprovisionedMeshNode;
+import no.nordicsemi.android.mesh.sensorutils.SensorDataStore;
+import no.nordicsemi.android.mesh.sensorutils.SensorPollingScheduler;
 import no.nordicsemi.android.mesh.transport.MeshMessage;
 import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
 import no.nordicsemi.android.mesh.utils.InputOOBAction;
 import no.nordicsemi.android.mesh.utils.OutputOOBAction;
+import no.nordicsemi.android.mesh.utils.ProxyFilter;
 
 interface MeshMngrApi {
 
@@ -47,6 +55,20 @@ interface MeshMngrApi {
      */
     void handleNotifications(final int mtuSize, @NonNull final byte[] data);
 
+    /**
+     * Must be called to handle the notifications received on one of several proxy connections.
+     * <p>
+     * Each connection reassembles its own segmented pdus and keeps its own proxy filter. Messages
+     * received on a connection route the messages sent to their source via the same connection.
+     * The callbacks of all connections must be delivered on the same thread.
+     * </p>
+     *
+     * @param connectionId id of the proxy connection chosen by the app
+     * @param mtuSize      GATT MTU size of the connection
+     * @param data         PDU received by the client
+     */
+    void handleNotifications(final int connectionId, final int mtuSize, @NonNull final byte[] data);
+
     /**
      * Must be called to handle provisioning states
      *
@@ -55,6 +77,119 @@ interface MeshMngrApi {
      */
     void handleWriteCallbacks(final int mtuSize, @NonNull final byte[] data);
 
+    /**
+     * Must be called to handle the write callbacks of one of several proxy connections.
+     *
+     * @param connectionId id of the proxy connection chosen by the app
+     * @param mtuSize      GATT MTU size of the connection
+     * @param data         PDU written by the client
+     */
+    void handleWriteCallbacks(final int connectionId, final int mtuSize, @NonNull final byte[] data);
+
+    /**
+     * Opens a proxy connection, so that pdus may be routed via the connection before it received any pdu.
+     *
+     * @param connectionId id of the proxy connection chosen by the app
+     */
+    void onProxyConnectionOpened(final int connectionId);
+
+    /**
+     * Closes a proxy connection and discards its state and the routes learned through it.
+     *
+     * @param connectionId id of the proxy connection chosen by the app
+     */
+    void onProxyConnectionClosed(final int connectionId);
+
+    /**
+     * Sets the proxy connection proxy configuration messages are sent via when several connections are open.
+     * Defaults to {@link MeshManagerApi#DEFAULT_PROXY_CONNECTION}.
+     *
+     * @param connectionId id of the proxy connection chosen by the app
+     */
+    void setProxyConfigurationConnection(final int connectionId);
+
+    /**
+     * Returns the proxy filter set on the proxy node of a connection.
+     *
+     * @param connectionId id of the proxy connection chosen by the app
+     */
+    @Nullable
+    ProxyFilter getProxyFilter(final int connectionId);
+
+    /**
+     * Returns the rate of the pdus written to the connected nodes in pdus per second, measured from the
+     * write callbacks passed to {@link #handleWriteCallbacks(int, byte[])} since the last reset. The
+     * rate is the sum of the rates of all open proxy connections.
+     */
+    double getWrittenPduRate();
+
+    /**
+     * Returns the rate of the pdus written on a proxy connection in pdus per second since the last reset.
+     *
+     * @param connectionId id of the proxy connection chosen by the app
+     */
+    double getWrittenPduRate(final int connectionId);
+
+    /**
+     * Resets the statistics used to measure the rate returned by {@link #getWrittenPduRate()}.
+     */
+    void resetWrittenPduRate();
+
+    /**
+     * Returns the scheduler deciding when the sensors added to it are polled with Sensor Get messages.
+     */
+    @NonNull
+    SensorPollingScheduler getSensorPollingScheduler();
+
+    /**
+     * Starts sending the Sensor Get messages decided by the {@link #getSensorPollingScheduler()}.
+     * Call again after adding sensors to the scheduler to poll them immediately.
+     */
+    void startSensorPolling();
+
+    /**
+     * Stops polling the sensors.
+     */
+    void stopSensorPolling();
+
+    /**
+     * Applies a configuration template to the given nodes and sends the configuration messages needed,
+     * configuring several nodes in parallel. A configuration in progress is cancelled.
+     *
+     * @param template  {@link ConfigurationTemplate} template
+     * @param nodes     nodes to be configured
+     * @param callbacks callbacks notifying the result of each node, may be null
+     * @return the {@link ConfigurationPipeline} reporting the progress
+     * @throws IllegalArgumentException if the template refers to an application key that is not in the network
+     */
+    @NonNull
+    ConfigurationPipeline configureNodes(@NonNull final ConfigurationTemplate template,
+                                         @NonNull final List<ProvisionedMeshNode> nodes,
+                                         @Nullable final ConfigurationPipeline.Callbacks callbacks) throws IllegalArgumentException;
+
+    /**
+     * Cancels the configuration started by {@link #configureNodes(ConfigurationTemplate, List, ConfigurationPipeline.Callbacks)}.
+     */
+    void cancelConfiguration();
+
+    /**
+     * Reads the composition data of the given nodes, several nodes at a time. Nodes with the same company,
+     * product and version identifiers share the composition data of the first of them read. The nodes of the
+     * provisioners are skipped. A discovery in progress is cancelled.
+     *
+     * @param nodes     nodes to be discovered
+     * @param callbacks callbacks notifying the composition data of each node and the progress, may be null
+     * @return the {@link CompositionDataCrawler} reporting the progress
+     */
+    @NonNull
+    CompositionDataCrawler discoverCompositionData(@NonNull final List<ProvisionedMeshNode> nodes,
+                                                   @Nullable final CompositionDataCrawler.Callbacks callbacks);
+
+    /**
+     * Cancels the discovery started by {@link #discoverCompositionData(List, CompositionDataCrawler.Callbacks)}.
+     */
+    void cancelCompositionDataDiscovery();
+
     /**
      * Identifies the node that is to be provisioned.
      * <p>
@@ -127,6 +262,118 @@ interface MeshMngrApi {
      */
     void setProvisioningAuthentication(@NonNull final String authentication);
 
+    /**
+     * Sets the pool the key pair of the provisioner is taken from, so that it does not have to be generated
+     * while provisioning.
+     *
+     * @param keyPairPool {@link ProvisioningKeyPairPool} pool or null to generate a key pair on every provisioning
+     */
+    void setProvisioningKeyPairPool(@Nullable final ProvisioningKeyPairPool keyPairPool);
+
+    /**
+     * Returns the time spent in each phase of the current or last provisioning.
+     */
+    @NonNull
+    ProvisioningTimings getProvisioningTimings();
+
+    /**
+     * Starts provisioning a device in a session of its own, so that several devices can be provisioned in
+     * parallel, each over its own bearer.
+     * <p>
+     * This method sends a provisioning invite to the device. The provisioning PDUs of the session are passed
+     * to {@link MeshManagerCallbacks#sendProvisioningPdu(UnprovisionedMeshNode, byte[])} with the node of the
+     * device, so that the app can write them to the connection of the device. The notifications and write
+     * callbacks of that connection must be passed to {@link #handleProvisioningNotifications(UUID, byte[])}
+     * and {@link #handleProvisioningWriteCallbacks(UUID, byte[])}. The session is continued by the
+     * startProvisioning methods, which assign the device a unicast address reserved for the sessions.
+     * </p>
+     *
+     * @param deviceUuid     Device uuid of the unprovisioned device
+     * @param mtuSize        Mtu size of the connection to the device
+     * @param attentionTimer Attention timer in seconds
+     * @throws IllegalArgumentException if the device is already being provisioned
+     */
+    void startProvisioningSession(@NonNull final UUID deviceUuid, final int mtuSize, final int attentionTimer) throws IllegalArgumentException;
+
+    /**
+     * Handles the notifications received from the connection of a device provisioned in a session.
+     *
+     * @param deviceUuid Device uuid of the device
+     * @param data       pdu received
+     */
+    void handleProvisioningNotifications(@NonNull final UUID deviceUuid, @NonNull final byte[] data);
+
+    /**
+     * Handles the write callbacks of the connection of a device provisioned in a session.
+     *
+     * @param deviceUuid Device uuid of the device
+     * @param data       pdu written
+     */
+    void handleProvisioningWriteCallbacks(@NonNull final UUID deviceUuid, @NonNull final byte[] data);
+
+    /**
+     * Set the provisioning confirmation of a device provisioned in a session
+     *
+     * @param deviceUuid     Device uuid of the device
+     * @param authentication confirmation pin
+     */
+    void setProvisioningAuthentication(@NonNull final UUID deviceUuid, @NonNull final String authentication);
+
+    /**
+     * Closes the provisioning session of a device. The unicast address of a device that was not provisioned
+     * is given to the next session and the link of a remote provisioning session is closed.
+     *
+     * @param deviceUuid Device uuid of the device
+     */
+    void closeProvisioningSession(@NonNull final UUID deviceUuid);
+
+    /**
+     * Returns the time spent in each phase of provisioning a device in a session, null if there is no session.
+     *
+     * @param deviceUuid Device uuid of the device
+     */
+    @Nullable
+    ProvisioningTimings getProvisioningTimings(@NonNull final UUID deviceUuid);
+
+    /**
+     * Returns the number of devices provisioned in sessions and the rate at which they were provisioned.
+     */
+    @NonNull
+    ProvisioningThroughput getProvisioningThroughput();
+
+    /**
+     * Sets the number of consecutive unicast addresses reserved at once for the provisioning sessions.
+     *
+     * @param blockSize number of addresses, 32 by default
+     * @throws IllegalArgumentException if the block size is not positive
+     */
+    void setUnicastAddressBlockSize(final int blockSize) throws IllegalArgumentException;
+
+    /**
+     * Starts provisioning a device out of range of the phone through a Remote Provisioning Server.
+     * <p>
+     * The server opens a link to the device, after which a provisioning invite is sent to the device as in
+     * {@link #startProvisioningSession(UUID, int, int)}. The provisioning PDUs are tunnelled through the
+     * server, there are no provisioning PDUs to write or notifications to pass for the session. The session
+     * is continued by the startProvisioning methods and the link is closed once the device was provisioned
+     * or provisioning failed. Devices can be provisioned through different servers at the same time, a
+     * server holds a single link at a time.
+     * </p>
+     * <p>
+     * Devices in range of a server are found by sending {@link no.nordicsemi.android.mesh.transport.RemoteProvisioningScanStart}
+     * to the server, each device is reported by a {@link no.nordicsemi.android.mesh.transport.RemoteProvisioningScanReport}.
+     * </p>
+     *
+     * @param serverAddress  Unicast address of the element containing the Remote Provisioning Server
+     * @param deviceUuid     Device uuid of the unprovisioned device
+     * @param attentionTimer Attention timer in seconds
+     * @throws IllegalArgumentException if the server is not a node of the network, the server already has a
+     *                                  link or the device is already being provisioned
+     */
+    void startRemoteProvisioningSession(final int serverAddress,
+                                        @NonNull final UUID deviceUuid,
+                                        final int attentionTimer) throws IllegalArgumentException;
+
     /**
      * Returns the device uuid of an unprovisioned node
      *
@@ -176,6 +423,19 @@ interface MeshMngrApi {
      */
     boolean nodeIdentityMatches(@NonNull final ProvisionedMeshNode meshNode, @NonNull final byte[] serviceData);
 
+    /**
+     * Returns the node advertising with Node Identity.
+     * <p>
+     * Use this instead of calling {@link #nodeIdentityMatches(ProvisionedMeshNode, byte[])} for every node in the network,
+     * as the hashes are computed once per advertisement and the results for recently seen advertisements are reused.
+     * </p>
+     *
+     * @param serviceData advertised service data
+     * @return the node that matches the advertised hash or null otherwise
+     */
+    @Nullable
+    ProvisionedMeshNode resolveNodeIdentity(@Nullable final byte[] serviceData);
+
     /**
      * Checks if the node is advertising with Node Identity
      *
@@ -236,6 +496,14 @@ interface MeshMngrApi {
     @Nullable
     MeshNetwork getMeshNetwork();
 
+    /**
+     * Returns the store keeping the history of the values reported in the sensor statuses received
+     * from the network. Use {@link SensorDataStore#save(OutputStream)} and
+     * {@link SensorDataStore#load(InputStream)} to persist the history.
+     */
+    @NonNull
+    SensorDataStore getSensorDataStore();
+
 
     /**
      * Returns the current IV Test mode.
@@ -294,6 +562,28 @@ interface MeshMngrApi {
                              @NonNull final GroupsConfig groupsConfig,
                              @NonNull final ScenesConfig scenesConfig);
 
+    /**
+     * Streams a partial mesh network as json to an OutputStream with the provided export configuration.
+     * Unlike {@link #exportMeshNetwork(NetworkKeysConfig, ApplicationKeysConfig, NodesConfig, ProvisionersConfig, GroupsConfig, ScenesConfig)}
+     * the network is neither copied nor held in memory as a String, which suits large networks.
+     *
+     * @param outputStream          Stream to write to, flushed but not closed.
+     * @param networkKeysConfig     Export configuration for Network Keys.
+     * @param applicationKeysConfig Export configuration for Application Keys.
+     * @param nodesConfig           Export configuration for Nodes.
+     * @param provisionersConfig    Export configuration for Provisioners.
+     * @param groupsConfig          Export configuration for Groups.
+     * @param scenesConfig          Export configuration for scenes.
+     * @return true if the network was exported or false otherwise.
+     */
+    boolean exportMeshNetwork(@NonNull final OutputStream outputStream,
+                              @NonNull final NetworkKeysConfig networkKeysConfig,
+                              @NonNull final ApplicationKeysConfig applicationKeysConfig,
+                              @NonNull final NodesConfig nodesConfig,
+                              @NonNull final ProvisionersConfig provisionersConfig,
+                              @NonNull final GroupsConfig groupsConfig,
+                              @NonNull final ScenesConfig scenesConfig);
+
     /**
      * Starts an asynchronous task that imports a network from the mesh configuration db json
      *
@@ -301,6 +591,14 @@ interface MeshMngrApi {
      */
     void importMeshNetwork(@NonNull final Uri uri);
 
+    /**
+     * Imports a network from a stream containing the mesh configuration db json. The stream is
+     * parsed incrementally, so large databases do not have to be loaded in to memory at once.
+     *
+     * @param inputStream stream containing the configuration database json, closed once read.
+     */
+    void importMeshNetwork(@NonNull final InputStream inputStream);
+
     /**
      * Starts an asynchronous task that imports a network from the mesh configuration db json
      *
@@ -308,6 +606,46 @@ interface MeshMngrApi {
      */
     void importMeshNetworkJson(@NonNull final String networkJson);
 
+    /**
+     * Writes a compact binary snapshot of the current mesh network to a file. Unlike the json
+     * export, the snapshot also contains the IV Index and the sequence numbers, and is meant for
+     * fast restores and periodic checkpoints rather than for sharing the network.
+     *
+     * @param file destination file, replaced atomically if it exists.
+     * @return true if the snapshot was written or false otherwise.
+     */
+    boolean exportMeshNetworkSnapshot(@NonNull final File file);
+
+    /**
+     * Restores a mesh network from a snapshot written by {@link #exportMeshNetworkSnapshot(File)}.
+     *
+     * @param file snapshot file.
+     */
+    void importMeshNetworkSnapshot(@NonNull final File file);
+
+    /**
+     * Writes the changes made to the current mesh network since the given sync token as json, so
+     * that another provisioner of the same network can merge them using {@link #importMeshNetworkDelta(InputStream)}.
+     * Deleted nodes, groups, scenes, keys and provisioners are included as tombstones.
+     *
+     * @param syncToken    sync token returned by the last delta imported from the receiving
+     *                     provisioner, or null to export every entity of the network.
+     * @param outputStream stream to write the delta to, left open once written.
+     * @return true if the delta was exported or false otherwise.
+     */
+    boolean exportMeshNetworkDelta(@Nullable final String syncToken, @NonNull final OutputStream outputStream);
+
+    /**
+     * Merges a delta exported by another provisioner of the current mesh network. Each change is
+     * applied only if it is newer than the local change made to the same entity.
+     *
+     * @param inputStream stream containing the delta json, closed once read.
+     * @return sync token of the imported delta, to be passed to the sender when exporting the next
+     * delta, or null if the delta could not be imported.
+     */
+    @Nullable
+    String importMeshNetworkDelta(@NonNull final InputStream inputStream);
+
     /**
      * Generates a random virtual address
      */
@@ -141,62 +141,89 @@ public final class MeshNetwork extends BaseMeshNetwork {
      * @throws IllegalArgumentException if there is no allocated unicast range to the provisioner
      */
     public int nextAvailableUnicastAddress(final int elementCount, @NonNull final Provisioner provisioner) throws IllegalArgumentException {
+        final List<Integer> addresses = nextAvailableUnicastAddresses(elementCount, 1, provisioner);
+        return addresses.isEmpty() ? -1 : addresses.get(0);
+    }
+
+    /**
+     * Returns the unicast addresses for a number of nodes with the same number of elements, to be
+     * provisioned in a batch, based on the ranges allocated to the provisioner.
+     * The addresses are not reserved until the nodes are added to the network. Addresses reserved for
+     * provisioning sessions are skipped.
+     *
+     * @param elementCount Element count of each node
+     * @param count        Number of nodes
+     * @param provisioner  provisioner
+     * @return List of unicast addresses of the primary elements, containing less than count
+     * addresses if the allocated ranges are exhausted
+     * @throws IllegalArgumentException if there is no allocated unicast range to the provisioner
+     */
+    public List<Integer> nextAvailableUnicastAddresses(final int elementCount,
+                                                       final int count,
+                                                       @NonNull final Provisioner provisioner) throws IllegalArgumentException {
+        return nextAvailableUnicastAddresses(elementCount, count, provisioner, reservedUnicastAddresses);
+    }
+
+    /**
+     * Returns the unicast addresses for a number of nodes with the same number of elements, skipping the
+     * reserved addresses in addition to the ones in use.
+     *
+     * @param elementCount Element count of each node
+     * @param count        Number of nodes
+     * @param provisioner  provisioner
+     * @param reserved     addresses reserved for nodes being provisioned, may be null
+     * @throws IllegalArgumentException if there is no allocated unicast range to the provisioner
+     */
+    List<Integer> nextAvailableUnicastAddresses(final int elementCount,
+                                                final int count,
+                                                @NonNull final Provisioner provisioner,
+                                                @Nullable final AddressSet reserved) throws IllegalArgumentException {
         if (provisioner.getAllocatedUnicastRanges().isEmpty()) {
             throw new IllegalArgumentException("Please allocate a unicast address range to the provisioner");
         }
 
-        // Populate all addresses that are currently in use
-        final ArrayList<Integer> usedAddresses = new ArrayList<>();
-        for (ProvisionedMeshNode node : nodes) {
-            //There could be devices that are provisioned but does not have the number of elements yet so let's check for that.
-            if (node.getElements().size() > 0)
-                usedAddresses.addAll(node.getElements().keySet());
-            else
-                usedAddresses.add(node.getUnicastAddress());
-        }
+        final AddressSet usedAddresses = this.usedAddresses.getUnicastAddresses(nodes);
         // Excluded addresses with the current IvIndex and current IvIndex - 1 must be considered as addresses in use.
-        final List<Integer> addressesWithCurrentIvIndex = networkExclusions.get(ivIndex.getIvIndex());
-        if (addressesWithCurrentIvIndex != null)
-            usedAddresses.addAll(addressesWithCurrentIvIndex);
-        final List<Integer> addressesWithCurrentIvIndexMinusOne = networkExclusions.get(ivIndex.getIvIndex() - 1);
-        if (addressesWithCurrentIvIndexMinusOne != null)
-            usedAddresses.addAll(addressesWithCurrentIvIndexMinusOne);
-
-        Collections.sort(usedAddresses);
-        // Iterate through all nodes just once, while iterating over ranges.
-        int index = 0;
+        final AddressSet excludedAddresses = reserved == null ? new AddressSet() : reserved.copy();
+        addExcludedAddresses(excludedAddresses, networkExclusions.get(ivIndex.getIvIndex()));
+        addExcludedAddresses(excludedAddresses, networkExclusions.get(ivIndex.getIvIndex() - 1));
+
+        final List<Integer> addresses = new ArrayList<>();
         for (AllocatedUnicastRange range : provisioner.getAllocatedUnicastRanges()) {
-            // Start from the beginning of the current range.
             int address = range.getLowAddress();
-
-            // Iterate through nodes that weren't checked yet in essence the used addresses which include the excluded adresses
-            for (int usedAddress : usedAddresses) {
-
-                // Skip nodes with addresses below the range.
-                if (address > usedAddress) {
-                    continue;
-                }
-
-                // If we found a space before the current node, return the address.
-                if (usedAddress > (address + (elementCount - 1))) {
-                    return address;
-                }
-
-                // Else, move the address to the next available address.
-                address = usedAddress + 1;
-
-                // If the new address is outside of the range, go to the next one.
-                if (range.highAddress < address + (elementCount - 1)) {
+            while (addresses.size() < count) {
+                address = nextFree(usedAddresses, excludedAddresses, address, range.getHighAddress(), elementCount);
+                if (address < 0)
                     break;
-                }
+                addresses.add(address);
+                address += elementCount;
             }
+        }
+        return addresses;
+    }
 
-            if (range.getHighAddress() >= address + (elementCount - 1)) {
-                return address;
+    private static void addExcludedAddresses(@NonNull final AddressSet set, @Nullable final List<Integer> addresses) {
+        if (addresses != null) {
+            for (Integer address : addresses) {
+                set.add(address, address);
             }
         }
+    }
 
-        // No address was found :(
+    /**
+     * Returns the first address of a block of the given size that is in neither of the sets, or -1 if none.
+     */
+    private static int nextFree(@NonNull final AddressSet used, @NonNull final AddressSet excluded,
+                                final int low, final int high, final int size) {
+        int address = low;
+        while (address >= 0) {
+            final int free = used.nextFree(address, high, size);
+            if (free < 0)
+                return -1;
+            address = excluded.nextFree(free, high, size);
+            if (address == free)
+                return address;
+        }
         return -1;
     }
 
@@ -355,33 +382,16 @@ public final class MeshNetwork extends BaseMeshNetwork {
             throw new IllegalArgumentException("Provisioner has no group range allocated.");
         }
 
-        Collections.sort(groups, groupComparator);
+        final AddressSet usedAddresses = this.usedAddresses.getGroupAddresses(groups);
         for (AllocatedGroupRange range : provisioner.getAllocatedGroupRanges()) {
-            //If the list of groups are empty we can start with the lowest address of the range
-            if (groups.isEmpty()) {
-                return range.getLowAddress();
-            }
-
-            for (int address = range.lowAddress; address < range.getHighAddress(); address++) {
-                //if the address is not in use, return it as the next available address to create a group
-                if (!isGroupAddressInUse(address)) {
-                    return address;
-                }
+            final int address = usedAddresses.nextFree(range.getLowAddress(), range.getHighAddress(), 1);
+            if (address >= 0) {
+                return address;
             }
         }
         return null;
     }
 
-    private boolean isGroupAddressInUse(final int address) {
-        for (Group group : groups) {
-            //if the address is not in use, return it as the next available address to create a group
-            if (group.getAddress() == address) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     /**
      * Creates a group using the next available group address based on the provisioners allocated group range
      *
@@ -568,39 +578,10 @@ public final class MeshNetwork extends BaseMeshNetwork {
             throw new IllegalArgumentException("Please allocate a scene range to the provisioner!");
         }
 
-        Collections.sort(scenes, sceneComparator);
-        // Iterate through all nodes just once, while iterating over ranges.
-        int index = 0;
+        final AddressSet usedNumbers = usedAddresses.getSceneNumbers(scenes);
         for (AllocatedSceneRange sceneRange : provisioner.getAllocatedSceneRanges()) {
-            // Start from the beginning of the current range.
-            int number = sceneRange.getFirstScene();
-
-            // Iterate through nodes that weren't checked yet.
-            int currentIndex = index;
-            for (int i = currentIndex; i < scenes.size(); i++) {
-                final Scene scene = scenes.get(i);
-                index += i;
-
-                // Skip scenes with number below the range.
-                if (number > scene.getNumber()) {
-                    continue;
-                }
-
-                // If we found a space before the current scene, return the scene number.
-                if (number < scene.getNumber()) {
-                    return number;
-                }
-
-                // Else, move the address to the next available address.
-                number = scene.getNumber() + 1;
-
-                // If the new address is outside of the range, go to the next one.
-                if (number > sceneRange.getLastScene()) {
-                    break;
-                }
-            }
-            // If the range has available space, return the address.
-            if (number <= sceneRange.getLastScene()) {
+            final int number = usedNumbers.nextFree(sceneRange.getFirstScene(), sceneRange.getLastScene(), 1);
+            if (number >= 0) {
                 return number;
             }
         }
@@ -795,25 +776,7 @@ public final class MeshNetwork extends BaseMeshNetwork {
      * @param group group
      */
     public List<Element> getElements(final Group group) {
-        final List<Element> elements = new ArrayList<>();
-        for (final ProvisionedMeshNode node : nodes) {
-            for (Map.Entry<Integer, Element> elementEntry : node.getElements().entrySet()) {
-                final Element element = elementEntry.getValue();
-                for (Map.Entry<Integer, MeshModel> modelEntry : element.getMeshModels().entrySet()) {
-                    final MeshModel model = modelEntry.getValue();
-                    if (model != null) {
-                        final List<Integer> subscriptionAddresses = model.getSubscribedAddresses();
-                        for (Integer subscriptionAddress : subscriptionAddresses) {
-                            if (group.getAddress() == subscriptionAddress) {
-                                if (!elements.contains(element))
-                                    elements.add(element);
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        return elements;
+        return subscriptions.getElements(nodes, group.getAddress());
     }
 
     /**
@@ -822,25 +785,7 @@ public final class MeshNetwork extends BaseMeshNetwork {
      * @param group group
      */
     public List<MeshModel> getModels(final Group group) {
-        final List<MeshModel> models = new ArrayList<>();
-        for (final ProvisionedMeshNode node : nodes) {
-            for (Map.Entry<Integer, Element> elementEntry : node.getElements().entrySet()) {
-                final Element element = elementEntry.getValue();
-                for (Map.Entry<Integer, MeshModel> modelEntry : element.getMeshModels().entrySet()) {
-                    final MeshModel model = modelEntry.getValue();
-                    if (model != null) {
-                        final List<Integer> subscriptionAddresses = model.getSubscribedAddresses();
-                        for (Integer subscriptionAddress : subscriptionAddresses) {
-                            if (group.getAddress() == subscriptionAddress) {
-                                if (!models.contains(model))
-                                    models.add(model);
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        return models;
+        return subscriptions.getModels(nodes, group.getAddress());
     }
 
     /**
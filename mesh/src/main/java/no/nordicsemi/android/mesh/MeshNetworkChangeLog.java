@@ -0,0 +1,278 @@
+package no.nordicsemi.android.mesh;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import com.google.gson.Gson;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.mesh.utils.MeshAddress;
+
+/**
+ * Keeps track of the latest change made to each entity of a mesh network, including deletions,
+ * so that only what changed since a given point can be exchanged with other provisioners.
+ * <p>
+ * Every change is stamped with a logical clock that is advanced past any clock seen in a merged
+ * change, the wall clock time and the epoch of the log it was made in. Stamps decide which of two
+ * conflicting changes wins. The log is stored with the network, so that its epoch and the tombstones
+ * of deleted entities survive a restart. Peers only fall back to a full delta when the network was
+ * imported, which starts a new log.
+ * </p>
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public final class MeshNetworkChangeLog {
+
+    static final String NETWORK_KEY = "netKey";
+    static final String APPLICATION_KEY = "appKey";
+    static final String PROVISIONER = "provisioner";
+    static final String NODE = "node";
+    static final String GROUP = "group";
+    static final String SCENE = "scene";
+
+    private final String epoch;
+    private final Map<String, Change> changes = new LinkedHashMap<>();
+    private long version;
+    private transient boolean recording = true;
+
+    MeshNetworkChangeLog() {
+        this(UUID.randomUUID().toString().toUpperCase(Locale.US));
+    }
+
+    MeshNetworkChangeLog(@NonNull final String epoch) {
+        this.epoch = epoch;
+    }
+
+    /**
+     * Returns the change log stored in the given json, or a new change log if there is none.
+     *
+     * @param json json returned by {@link #toJson()}
+     */
+    @NonNull
+    static MeshNetworkChangeLog fromJson(@Nullable final String json) {
+        final MeshNetworkChangeLog changeLog = json == null ? null : new Gson().fromJson(json, MeshNetworkChangeLog.class);
+        return changeLog == null ? new MeshNetworkChangeLog() : changeLog;
+    }
+
+    /**
+     * Returns the json representation of this change log to be stored with the network.
+     */
+    @NonNull
+    synchronized String toJson() {
+        return new Gson().toJson(this);
+    }
+
+    /**
+     * Returns the epoch of this change log.
+     */
+    @NonNull
+    String getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Returns the current version of this change log.
+     */
+    synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns a token identifying the current state of this change log, which can be passed to
+     * {@link #getChangesSince(String)} to fetch the changes made after this point.
+     */
+    @NonNull
+    synchronized String getSyncToken() {
+        return epoch + ":" + version;
+    }
+
+    /**
+     * Enables or disables recording local changes, used while applying changes received from a peer.
+     *
+     * @param recording true to record changes
+     */
+    synchronized void setRecording(final boolean recording) {
+        this.recording = recording;
+    }
+
+    void record(@NonNull final NetworkKey key, final boolean deleted) {
+        record(NETWORK_KEY, getId(key), deleted);
+    }
+
+    void record(@NonNull final ApplicationKey key, final boolean deleted) {
+        record(APPLICATION_KEY, getId(key), deleted);
+    }
+
+    void record(@NonNull final Provisioner provisioner, final boolean deleted) {
+        record(PROVISIONER, getId(provisioner), deleted);
+    }
+
+    void record(@NonNull final ProvisionedMeshNode node, final boolean deleted) {
+        record(NODE, getId(node), deleted);
+    }
+
+    void record(@NonNull final Group group, final boolean deleted) {
+        record(GROUP, getId(group), deleted);
+    }
+
+    void record(@NonNull final Scene scene, final boolean deleted) {
+        record(SCENE, getId(scene), deleted);
+    }
+
+    private synchronized void record(@NonNull final String type, @NonNull final String id, final boolean deleted) {
+        if (!recording)
+            return;
+        version++;
+        put(new Change(type, id, version, version, System.currentTimeMillis(), epoch, deleted));
+    }
+
+    /**
+     * Stores a change received from a peer that has been applied to the network.
+     *
+     * @param change change to be merged
+     */
+    synchronized void merge(@NonNull final Change change) {
+        version = Math.max(version, change.version) + 1;
+        put(new Change(change.type, change.id, version, change.version, change.timestamp, change.origin, change.deleted));
+    }
+
+    private void put(@NonNull final Change change) {
+        final String key = change.type + "/" + change.id;
+        // Re-insert to keep the map ordered by sequence
+        changes.remove(key);
+        changes.put(key, change);
+    }
+
+    /**
+     * Returns the latest change of an entity, or null if it was not changed since the log was started.
+     *
+     * @param type entity type
+     * @param id   entity id
+     */
+    @Nullable
+    synchronized Change get(@NonNull final String type, @NonNull final String id) {
+        return changes.get(type + "/" + id);
+    }
+
+    /**
+     * Returns the changes made after the state identified by the given sync token, in the order they were made.
+     *
+     * @param syncToken token returned by {@link #getSyncToken()}.
+     * @return list of changes or null if the token does not belong to this log, in which case all
+     * entities must be considered changed.
+     */
+    @Nullable
+    synchronized List<Change> getChangesSince(@Nullable final String syncToken) {
+        final long since = parseVersion(syncToken);
+        if (since < 0)
+            return null;
+        final List<Change> list = new ArrayList<>();
+        for (Change change : changes.values()) {
+            if (change.sequence > since) {
+                list.add(change);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Returns all changes in this log.
+     */
+    @NonNull
+    synchronized List<Change> getChanges() {
+        return Collections.unmodifiableList(new ArrayList<>(changes.values()));
+    }
+
+    private long parseVersion(@Nullable final String syncToken) {
+        if (syncToken == null)
+            return -1;
+        final int index = syncToken.lastIndexOf(':');
+        if (index < 0 || !syncToken.substring(0, index).equalsIgnoreCase(epoch))
+            return -1;
+        try {
+            final long since = Long.parseLong(syncToken.substring(index + 1));
+            return since <= version ? since : -1;
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    static String getId(@NonNull final NetworkKey key) {
+        return String.valueOf(key.getKeyIndex());
+    }
+
+    static String getId(@NonNull final ApplicationKey key) {
+        return String.valueOf(key.getKeyIndex());
+    }
+
+    static String getId(@NonNull final Provisioner provisioner) {
+        return provisioner.getProvisionerUuid().toUpperCase(Locale.US);
+    }
+
+    static String getId(@NonNull final ProvisionedMeshNode node) {
+        return node.getUuid().toUpperCase(Locale.US);
+    }
+
+    static String getId(@NonNull final Group group) {
+        if (group.getAddressLabel() != null)
+            return group.getAddressLabel().toString().toUpperCase(Locale.US);
+        return MeshAddress.formatAddress(group.getAddress(), false);
+    }
+
+    static String getId(@NonNull final Scene scene) {
+        return String.format(Locale.US, "%04X", scene.getNumber());
+    }
+
+    /**
+     * The latest change of an entity.
+     */
+    static final class Change {
+        final String type;
+        final String id;
+        // Position in the local log, used to find the changes made since a sync token
+        final long sequence;
+        final long version;
+        final long timestamp;
+        final String origin;
+        final boolean deleted;
+
+        Change(@NonNull final String type,
+               @NonNull final String id,
+               final long sequence,
+               final long version,
+               final long timestamp,
+               @NonNull final String origin,
+               final boolean deleted) {
+            this.type = type;
+            this.id = id;
+            this.sequence = sequence;
+            this.version = version;
+            this.timestamp = timestamp;
+            this.origin = origin;
+            this.deleted = deleted;
+        }
+
+        /**
+         * Returns true if this change supersedes the given one. The change with the higher version
+         * wins, ties between concurrent changes are broken by the time stamp and then by the origin.
+         *
+         * @param other change to compare with
+         */
+        boolean supersedes(@Nullable final Change other) {
+            if (other == null)
+                return true;
+            if (version != other.version)
+                return version > other.version;
+            if (timestamp != other.timestamp)
+                return timestamp > other.timestamp;
+            return origin.compareTo(other.origin) > 0;
+        }
+    }
+}
@@ -53,7 +53,7 @@ import no.nordicsemi.android.mesh.utils.MeshParserUtils;
         ProvisionedMeshNode.class,
         Group.class,
         Scene.class},
-        version = 12)
+        version = 13)
 abstract class MeshNetworkDb extends RoomDatabase {
 
     private static final String TAG = MeshNetworkDb.class.getSimpleName();
@@ -111,6 +111,7 @@ abstract class MeshNetworkDb extends RoomDatabase {
                             .addMigrations(MIGRATION_9_10)
                             .addMigrations(MIGRATION_10_11)
                             .addMigrations(MIGRATION_11_12)
+                            .addMigrations(MIGRATION_12_13)
                             .build();
                 }
 
@@ -192,10 +193,13 @@ abstract class MeshNetworkDb extends RoomDatabase {
     }
 
     void update(@NonNull final MeshNetworkDao dao, @NonNull final MeshNetwork network) {
+        // Serialized here, as the change log keeps changing while the update is queued
+        final String changeLog = MeshTypeConverters.changeLogToJson(network.changeLog);
         databaseWriteExecutor.execute(() -> dao.update(network.meshUUID, network.meshName, network.timestamp,
                 network.partial, MeshTypeConverters.ivIndexToJson(network.ivIndex),
                 network.lastSelected,
-                MeshTypeConverters.networkExclusionsToJson(new HashMap<>(network.getNetworkExclusions()))));
+                MeshTypeConverters.networkExclusionsToJson(new HashMap<>(network.getNetworkExclusions())),
+                changeLog));
     }
 
     void update(@NonNull final MeshNetworkDao dao, @NonNull final MeshNetwork meshNetwork, final boolean lastSelected) throws ExecutionException, InterruptedException {
@@ -214,11 +218,13 @@ abstract class MeshNetworkDb extends RoomDatabase {
                 @NonNull final ProvisionedMeshNodesDao nodesDao,
                 @NonNull final GroupsDao groupsDao,
                 @NonNull final ScenesDao sceneDao) {
+        final String changeLog = MeshTypeConverters.changeLogToJson(network.changeLog);
         databaseWriteExecutor.execute(() -> {
             networkDao.update(network.meshUUID, network.meshName, network.timestamp,
                     network.partial, MeshTypeConverters.ivIndexToJson(network.ivIndex),
                     network.lastSelected,
-                    MeshTypeConverters.networkExclusionsToJson(new HashMap<>(network.getNetworkExclusions())));
+                    MeshTypeConverters.networkExclusionsToJson(new HashMap<>(network.getNetworkExclusions())),
+                    changeLog);
             netKeyDao.update(new ArrayList<>(network.netKeys));
             appKeyDao.update(new ArrayList<>(network.appKeys));
             provisionersDao.update(new ArrayList<>(network.provisioners));
@@ -396,6 +402,13 @@ abstract class MeshNetworkDb extends RoomDatabase {
         }
     };
 
+    private static final Migration MIGRATION_12_13 = new Migration(12, 13) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            addColumnChangeLog(database);
+        }
+    };
+
     private static void migrateMeshNetwork(final SupportSQLiteDatabase database) {
         database.execSQL("CREATE TABLE `mesh_network_temp` " +
                 "(`mesh_uuid` TEXT NOT NULL, " +
@@ -1036,4 +1049,8 @@ abstract class MeshNetworkDb extends RoomDatabase {
         database.execSQL("DROP TABLE mesh_network");
         database.execSQL("ALTER TABLE mesh_network_temp RENAME TO mesh_network");
     }
+
+    private static void addColumnChangeLog(@NonNull final SupportSQLiteDatabase database) {
+        database.execSQL("ALTER TABLE mesh_network ADD COLUMN change_log TEXT NOT NULL DEFAULT '{}'");
+    }
 }
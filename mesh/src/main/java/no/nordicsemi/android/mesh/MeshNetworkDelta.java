@@ -0,0 +1,552 @@
+package no.nordicsemi.android.mesh;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.MeshNetworkChangeLog.Change;
+import no.nordicsemi.android.mesh.logger.MeshLogger;
+import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+
+import static no.nordicsemi.android.mesh.MeshNetworkChangeLog.APPLICATION_KEY;
+import static no.nordicsemi.android.mesh.MeshNetworkChangeLog.GROUP;
+import static no.nordicsemi.android.mesh.MeshNetworkChangeLog.NETWORK_KEY;
+import static no.nordicsemi.android.mesh.MeshNetworkChangeLog.NODE;
+import static no.nordicsemi.android.mesh.MeshNetworkChangeLog.PROVISIONER;
+import static no.nordicsemi.android.mesh.MeshNetworkChangeLog.SCENE;
+import static no.nordicsemi.android.mesh.MeshNetworkChangeLog.getId;
+
+/**
+ * Changes made to a mesh network since a given sync token, along with the current state of the
+ * changed entities. Deleted entities are carried as tombstones.
+ */
+final class MeshNetworkDelta {
+
+    private static final String TAG = MeshNetworkDelta.class.getSimpleName();
+    // Keys must exist before the nodes that use them, and nodes before their scenes.
+    private static final List<String> TYPES = Arrays.asList(NETWORK_KEY, APPLICATION_KEY, PROVISIONER, NODE, GROUP, SCENE);
+
+    final String meshUuid;
+    final String syncToken;
+    final List<Change> changes;
+    final List<NetworkKey> netKeys;
+    final List<ApplicationKey> appKeys;
+    final List<Provisioner> provisioners;
+    final List<ProvisionedMeshNode> nodes;
+    final List<Group> groups;
+    final List<Scene> scenes;
+
+    MeshNetworkDelta(@NonNull final String meshUuid,
+                     @NonNull final String syncToken,
+                     @NonNull final List<Change> changes,
+                     @NonNull final List<NetworkKey> netKeys,
+                     @NonNull final List<ApplicationKey> appKeys,
+                     @NonNull final List<Provisioner> provisioners,
+                     @NonNull final List<ProvisionedMeshNode> nodes,
+                     @NonNull final List<Group> groups,
+                     @NonNull final List<Scene> scenes) {
+        this.meshUuid = meshUuid;
+        this.syncToken = syncToken;
+        this.changes = changes;
+        this.netKeys = netKeys;
+        this.appKeys = appKeys;
+        this.provisioners = provisioners;
+        this.nodes = nodes;
+        this.groups = groups;
+        this.scenes = scenes;
+    }
+
+    /**
+     * Collects the changes made to the network since the given sync token.
+     *
+     * @param network   mesh network
+     * @param syncToken sync token returned by a previous delta, or null to collect every entity.
+     */
+    static MeshNetworkDelta create(@NonNull final MeshNetwork network, @Nullable final String syncToken) {
+        final MeshNetworkChangeLog changeLog = network.changeLog;
+        // Taken before collecting the changes, any change made meanwhile is sent again next time.
+        final String token = changeLog.getSyncToken();
+        List<Change> changes = changeLog.getChangesSince(syncToken);
+        if (changes == null) {
+            changes = getAllChanges(network);
+        }
+
+        final List<NetworkKey> netKeys = new ArrayList<>();
+        final List<ApplicationKey> appKeys = new ArrayList<>();
+        final List<Provisioner> provisioners = new ArrayList<>();
+        final List<ProvisionedMeshNode> nodes = new ArrayList<>();
+        final List<Group> groups = new ArrayList<>();
+        final List<Scene> scenes = new ArrayList<>();
+        final List<Change> exported = new ArrayList<>();
+        final Map<String, ProvisionedMeshNode> nodesById = indexNodes(network.nodes);
+        for (Change change : changes) {
+            if (change.deleted) {
+                exported.add(change);
+                continue;
+            }
+            final boolean found;
+            switch (change.type) {
+                case NETWORK_KEY:
+                    found = addIfFound(netKeys, findNetKey(network.netKeys, change.id));
+                    break;
+                case APPLICATION_KEY:
+                    found = addIfFound(appKeys, findAppKey(network.appKeys, change.id));
+                    break;
+                case PROVISIONER:
+                    found = addIfFound(provisioners, findProvisioner(network.provisioners, change.id));
+                    break;
+                case NODE:
+                    found = addIfFound(nodes, nodesById.get(change.id));
+                    break;
+                case GROUP:
+                    found = addIfFound(groups, findGroup(network.groups, change.id));
+                    break;
+                case SCENE:
+                    found = addIfFound(scenes, findScene(network.scenes, change.id));
+                    break;
+                default:
+                    found = false;
+            }
+            if (found) {
+                exported.add(change);
+            }
+        }
+        return new MeshNetworkDelta(network.getMeshUUID(), token, exported,
+                netKeys, appKeys, provisioners, nodes, groups, scenes);
+    }
+
+    /**
+     * Returns a change for every entity in the network. Entities that have not been changed since
+     * the change log was started are given version 0, so that they never override a local change.
+     */
+    private static List<Change> getAllChanges(@NonNull final MeshNetwork network) {
+        final MeshNetworkChangeLog changeLog = network.changeLog;
+        final List<Change> changes = new ArrayList<>();
+        for (NetworkKey key : network.netKeys) {
+            changes.add(getChange(changeLog, NETWORK_KEY, getId(key)));
+        }
+        for (ApplicationKey key : network.appKeys) {
+            changes.add(getChange(changeLog, APPLICATION_KEY, getId(key)));
+        }
+        for (Provisioner provisioner : network.provisioners) {
+            changes.add(getChange(changeLog, PROVISIONER, getId(provisioner)));
+        }
+        for (ProvisionedMeshNode node : network.nodes) {
+            changes.add(getChange(changeLog, NODE, getId(node)));
+        }
+        for (Group group : network.groups) {
+            changes.add(getChange(changeLog, GROUP, getId(group)));
+        }
+        for (Scene scene : network.scenes) {
+            changes.add(getChange(changeLog, SCENE, getId(scene)));
+        }
+        for (Change change : changeLog.getChanges()) {
+            if (change.deleted) {
+                changes.add(change);
+            }
+        }
+        return changes;
+    }
+
+    private static Change getChange(@NonNull final MeshNetworkChangeLog changeLog,
+                                    @NonNull final String type,
+                                    @NonNull final String id) {
+        final Change change = changeLog.get(type, id);
+        if (change != null)
+            return change;
+        return new Change(type, id, 0, 0, 0, "", false);
+    }
+
+    private static <T> boolean addIfFound(@NonNull final List<T> list, @Nullable final T item) {
+        return item != null && list.add(item);
+    }
+
+    /**
+     * Merges the delta in to the network. A change is applied only if it supersedes the latest local
+     * change of the same entity, see {@link Change#supersedes(Change)}. Changes that cannot be applied
+     * without breaking the network, such as a node whose addresses are taken by another node, a key
+     * that is still in use or the removal of the selected provisioner, are skipped.
+     *
+     * @param network mesh network to merge in to
+     * @return number of changes applied
+     * @throws IllegalArgumentException if the delta belongs to a different network
+     */
+    int merge(@NonNull final MeshNetwork network) {
+        if (!meshUuid.equalsIgnoreCase(network.getMeshUUID()))
+            throw new IllegalArgumentException("Delta does not belong to this mesh network.");
+
+        final List<Change> sorted = new ArrayList<>(changes);
+        // Additions and updates in dependency order, followed by deletions in the reverse order.
+        Collections.sort(sorted, new Comparator<Change>() {
+            @Override
+            public int compare(final Change change1, final Change change2) {
+                if (change1.deleted != change2.deleted)
+                    return change1.deleted ? 1 : -1;
+                final int order = Integer.compare(TYPES.indexOf(change1.type), TYPES.indexOf(change2.type));
+                return change1.deleted ? -order : order;
+            }
+        });
+
+        final NodeIndex index = new NodeIndex(nodes, network.nodes);
+        int applied = 0;
+        for (Change change : sorted) {
+            if (!change.supersedes(network.changeLog.get(change.type, change.id)))
+                continue;
+            network.changeLog.setRecording(false);
+            try {
+                if (apply(network, index, change)) {
+                    network.changeLog.merge(change);
+                    applied++;
+                }
+            } catch (IllegalArgumentException | IllegalStateException ex) {
+                MeshLogger.warn(TAG, "Skipped " + change.type + " " + change.id + ": " + ex.getMessage());
+            } finally {
+                network.changeLog.setRecording(true);
+            }
+        }
+        return applied;
+    }
+
+    private boolean apply(@NonNull final MeshNetwork network, @NonNull final NodeIndex index, @NonNull final Change change) {
+        // Entities of unknown history only fill in what is missing
+        final boolean replace = change.version > 0;
+        switch (change.type) {
+            case NETWORK_KEY:
+                return change.deleted ? deleteNetKey(network, change.id) : putNetKey(network, change.id, replace);
+            case APPLICATION_KEY:
+                return change.deleted ? deleteAppKey(network, change.id) : putAppKey(network, change.id, replace);
+            case PROVISIONER:
+                return change.deleted ? deleteProvisioner(network, index, change.id) : putProvisioner(network, index, change.id, replace);
+            case NODE:
+                return change.deleted ? deleteNode(network, index, change.id) : putNode(network, index, change.id, replace);
+            case GROUP:
+                return change.deleted ? deleteGroup(network, change.id) : putGroup(network, change.id, replace);
+            case SCENE:
+                return change.deleted ? deleteScene(network, change.id) : putScene(network, change.id, replace);
+            default:
+                return false;
+        }
+    }
+
+    private boolean putNetKey(@NonNull final MeshNetwork network, @NonNull final String id, final boolean replace) {
+        final NetworkKey key = findNetKey(netKeys, id);
+        if (key == null)
+            return false;
+        key.setMeshUuid(network.getMeshUUID());
+        final NetworkKey local = findNetKey(network.netKeys, id);
+        if (local == null) {
+            network.netKeys.add(key);
+            network.notifyNetKeyAdded(key);
+            return true;
+        }
+        if (!replace)
+            return false;
+        key.setId(local.getId());
+        network.netKeys.set(network.netKeys.indexOf(local), key);
+        network.notifyNetKeyUpdated(key);
+        return true;
+    }
+
+    private boolean deleteNetKey(@NonNull final MeshNetwork network, @NonNull final String id) {
+        final NetworkKey local = findNetKey(network.netKeys, id);
+        return local != null && network.removeNetKey(local);
+    }
+
+    private boolean putAppKey(@NonNull final MeshNetwork network, @NonNull final String id, final boolean replace) {
+        final ApplicationKey key = findAppKey(appKeys, id);
+        if (key == null || findNetKey(network.netKeys, String.valueOf(key.getBoundNetKeyIndex())) == null)
+            return false;
+        key.setMeshUuid(network.getMeshUUID());
+        final ApplicationKey local = findAppKey(network.appKeys, id);
+        if (local == null) {
+            network.appKeys.add(key);
+            network.notifyAppKeyAdded(key);
+            return true;
+        }
+        if (!replace)
+            return false;
+        key.setId(local.getId());
+        network.appKeys.set(network.appKeys.indexOf(local), key);
+        network.notifyAppKeyUpdated(key);
+        return true;
+    }
+
+    private boolean deleteAppKey(@NonNull final MeshNetwork network, @NonNull final String id) {
+        final ApplicationKey local = findAppKey(network.appKeys, id);
+        return local != null && network.removeAppKey(local);
+    }
+
+    private boolean putProvisioner(@NonNull final MeshNetwork network, @NonNull final NodeIndex index,
+                                   @NonNull final String id, final boolean replace) {
+        final Provisioner provisioner = findProvisioner(provisioners, id);
+        if (provisioner == null)
+            return false;
+        provisioner.setMeshUuid(network.getMeshUUID());
+        final ProvisionedMeshNode node = index.get(id);
+        if (node != null) {
+            provisioner.setProvisionerAddress(node.getUnicastAddress());
+            if (node.getTtl() != null) {
+                provisioner.setGlobalTtl(node.getTtl());
+            }
+        }
+        final Provisioner local = findProvisioner(network.provisioners, id);
+        if (local == null) {
+            network.provisioners.add(provisioner);
+            network.notifyProvisionerAdded(provisioner);
+            return true;
+        }
+        if (!replace)
+            return false;
+        provisioner.setLastSelected(local.isLastSelected());
+        network.provisioners.set(network.provisioners.indexOf(local), provisioner);
+        network.notifyProvisionerUpdated(provisioner);
+        return true;
+    }
+
+    private boolean deleteProvisioner(@NonNull final MeshNetwork network, @NonNull final NodeIndex index, @NonNull final String id) {
+        final Provisioner local = findProvisioner(network.provisioners, id);
+        if (local == null)
+            return false;
+        if (local.isLastSelected())
+            throw new IllegalStateException("The selected provisioner cannot be removed by a peer.");
+        // The node of the provisioner is removed along with it
+        final ProvisionedMeshNode node = local.getProvisionerAddress() == null ? null : index.getAt(local.getProvisionerAddress());
+        if (!network.removeProvisioner(local))
+            return false;
+        if (node != null) {
+            index.remove(node);
+        }
+        return true;
+    }
+
+    private boolean putNode(@NonNull final MeshNetwork network, @NonNull final NodeIndex index,
+                            @NonNull final String id, final boolean replace) {
+        final ProvisionedMeshNode node = index.getReceived(id);
+        if (node == null)
+            return false;
+        final ProvisionedMeshNode other = index.getOverlapping(node, id);
+        if (other != null)
+            throw new IllegalStateException("Unicast addresses are already assigned to " + getId(other));
+        node.setMeshUuid(network.getMeshUUID());
+        final Provisioner provisioner = findProvisioner(network.provisioners, id);
+        if (provisioner != null) {
+            provisioner.setProvisionerAddress(node.getUnicastAddress());
+        }
+        final ProvisionedMeshNode local = index.get(id);
+        if (local == null) {
+            network.nodes.add(node);
+            index.put(id, node);
+            network.notifyNodeAdded(node);
+            return true;
+        }
+        if (!replace)
+            return false;
+        // Sequence numbers are not shared in the configuration database and must never go backwards.
+        node.setSequenceNumber(Math.max(node.getSequenceNumber(), local.getSequenceNumber()));
+        network.nodes.set(network.nodes.indexOf(local), node);
+        index.remove(local);
+        index.put(id, node);
+        network.notifyNodeUpdated(node);
+        return true;
+    }
+
+    private boolean deleteNode(@NonNull final MeshNetwork network, @NonNull final NodeIndex index, @NonNull final String id) {
+        final ProvisionedMeshNode local = index.get(id);
+        if (local == null)
+            return false;
+        final Provisioner selected = network.getSelectedProvisioner();
+        if (selected != null && selected.getProvisionerUuid().equalsIgnoreCase(local.getUuid()))
+            throw new IllegalStateException("The node of the selected provisioner cannot be removed by a peer.");
+        if (!network.deleteNode(local))
+            return false;
+        index.remove(local);
+        return true;
+    }
+
+    private boolean putGroup(@NonNull final MeshNetwork network, @NonNull final String id, final boolean replace) {
+        final Group group = findGroup(groups, id);
+        if (group == null)
+            return false;
+        group.setMeshUuid(network.getMeshUUID());
+        final Group local = findGroup(network.groups, id);
+        if (local == null) {
+            network.groups.add(group);
+            network.notifyGroupAdded(group);
+            return true;
+        }
+        if (!replace)
+            return false;
+        group.id = local.id;
+        network.groups.set(network.groups.indexOf(local), group);
+        network.notifyGroupUpdated(group);
+        return true;
+    }
+
+    private boolean deleteGroup(@NonNull final MeshNetwork network, @NonNull final String id) {
+        final Group local = findGroup(network.groups, id);
+        return local != null && network.removeGroup(local);
+    }
+
+    private boolean putScene(@NonNull final MeshNetwork network, @NonNull final String id, final boolean replace) {
+        final Scene scene = findScene(scenes, id);
+        if (scene == null)
+            return false;
+        final Scene local = findScene(network.scenes, id);
+        // The mesh UUID of a scene is final, copy it so that it matches the network exactly
+        final Scene copy = new Scene(scene.getNumber(), scene.getAddresses(), network.getMeshUUID());
+        copy.setName(scene.getName());
+        if (local == null) {
+            network.scenes.add(copy);
+            network.notifySceneAdded(copy);
+            return true;
+        }
+        if (!replace)
+            return false;
+        network.scenes.set(network.scenes.indexOf(local), copy);
+        network.notifySceneUpdated(copy);
+        return true;
+    }
+
+    private boolean deleteScene(@NonNull final MeshNetwork network, @NonNull final String id) {
+        final Scene local = findScene(network.scenes, id);
+        if (local != null && network.scenes.remove(local)) {
+            // The peer has already removed the scene from its nodes
+            network.notifySceneDeleted(local);
+            return true;
+        }
+        return false;
+    }
+
+    @Nullable
+    private static NetworkKey findNetKey(@NonNull final List<NetworkKey> keys, @NonNull final String id) {
+        for (NetworkKey key : keys) {
+            if (getId(key).equals(id))
+                return key;
+        }
+        return null;
+    }
+
+    @Nullable
+    private static ApplicationKey findAppKey(@NonNull final List<ApplicationKey> keys, @NonNull final String id) {
+        for (ApplicationKey key : keys) {
+            if (getId(key).equals(id))
+                return key;
+        }
+        return null;
+    }
+
+    @Nullable
+    private static Provisioner findProvisioner(@NonNull final List<Provisioner> provisioners, @NonNull final String id) {
+        for (Provisioner provisioner : provisioners) {
+            if (getId(provisioner).equals(id))
+                return provisioner;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the nodes by id, the id of each node is normalised once.
+     */
+    @NonNull
+    private static Map<String, ProvisionedMeshNode> indexNodes(@NonNull final List<ProvisionedMeshNode> nodes) {
+        final Map<String, ProvisionedMeshNode> map = new HashMap<>();
+        for (ProvisionedMeshNode node : nodes) {
+            map.put(getId(node), node);
+        }
+        return map;
+    }
+
+    @Nullable
+    private static Group findGroup(@NonNull final List<Group> groups, @NonNull final String id) {
+        for (Group group : groups) {
+            if (getId(group).equals(id))
+                return group;
+        }
+        return null;
+    }
+
+    @Nullable
+    private static Scene findScene(@NonNull final List<Scene> scenes, @NonNull final String id) {
+        for (Scene scene : scenes) {
+            if (getId(scene).equals(id))
+                return scene;
+        }
+        return null;
+    }
+
+    /**
+     * Nodes received and nodes of the network being merged in to, the latter by id and by unicast address.
+     * Kept up to date while the changes are applied, so that merging a delta does not scan the node list
+     * for every change.
+     */
+    private static final class NodeIndex {
+        private final Map<String, ProvisionedMeshNode> received;
+        private final Map<String, ProvisionedMeshNode> byId;
+        private final TreeMap<Integer, ProvisionedMeshNode> byAddress = new TreeMap<>();
+
+        NodeIndex(@NonNull final List<ProvisionedMeshNode> received, @NonNull final List<ProvisionedMeshNode> nodes) {
+            this.received = indexNodes(received);
+            this.byId = indexNodes(nodes);
+            for (ProvisionedMeshNode node : nodes) {
+                byAddress.put(node.getUnicastAddress(), node);
+            }
+        }
+
+        @Nullable
+        ProvisionedMeshNode getReceived(@NonNull final String id) {
+            return received.get(id);
+        }
+
+        @Nullable
+        ProvisionedMeshNode get(@NonNull final String id) {
+            return byId.get(id);
+        }
+
+        /**
+         * Returns the node the given address belongs to.
+         *
+         * @param address unicast address of any element of the node
+         */
+        @Nullable
+        ProvisionedMeshNode getAt(final int address) {
+            final Map.Entry<Integer, ProvisionedMeshNode> entry = byAddress.floorEntry(address);
+            if (entry == null || entry.getValue().getLastUnicastAddress() < address)
+                return null;
+            return entry.getValue();
+        }
+
+        /**
+         * Returns a node other than the one with the given id whose addresses overlap those of the given node.
+         */
+        @Nullable
+        ProvisionedMeshNode getOverlapping(@NonNull final ProvisionedMeshNode node, @NonNull final String id) {
+            // Nodes of the network do not overlap, so only those starting below the end of the node need to be checked
+            for (ProvisionedMeshNode other : byAddress.headMap(node.getLastUnicastAddress(), true).descendingMap().values()) {
+                if (other.getLastUnicastAddress() < node.getUnicastAddress())
+                    break;
+                if (!getId(other).equals(id))
+                    return other;
+            }
+            return null;
+        }
+
+        void put(@NonNull final String id, @NonNull final ProvisionedMeshNode node) {
+            byId.put(id, node);
+            byAddress.put(node.getUnicastAddress(), node);
+        }
+
+        void remove(@NonNull final ProvisionedMeshNode node) {
+            byId.remove(getId(node));
+            if (byAddress.get(node.getUnicastAddress()) == node) {
+                byAddress.remove(node.getUnicastAddress());
+            }
+        }
+    }
+}
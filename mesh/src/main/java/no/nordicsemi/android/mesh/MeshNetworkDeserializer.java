@@ -6,11 +6,14 @@ import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
 import com.google.gson.JsonSerializationContext;
 import com.google.gson.JsonSerializer;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -22,6 +25,7 @@ import java.util.UUID;
 import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.logger.MeshLogger;
 import no.nordicsemi.android.mesh.transport.Element;
+import no.nordicsemi.android.mesh.transport.NodeDeserializer;
 import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
 import no.nordicsemi.android.mesh.utils.MeshAddress;
 
@@ -44,7 +48,52 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
             throw new JsonSyntaxException("Invalid Mesh Provisioning/Configuration Database, " +
                     "Mesh Network must follow the Mesh Provisioning/Configuration Database format.");
         }
+        return deserialize(jsonObject, deserializeNodes(context, jsonObject.getAsJsonArray("nodes")), context);
+    }
 
+    /**
+     * Deserializes a mesh network from a stream. Nodes, which make up most of a large
+     * configuration database, are deserialized one at a time as they are read so that neither
+     * the whole document nor its json tree are held in memory at once.
+     *
+     * @param reader           Json reader positioned at the start of the mesh network object
+     * @param context          Deserializer context
+     * @param nodeDeserializer Node deserializer
+     * @return {@link MeshNetwork}
+     * @throws IOException if reading from the stream fails
+     */
+    MeshNetwork deserialize(@NonNull final JsonReader reader,
+                            @NonNull final JsonDeserializationContext context,
+                            @NonNull final NodeDeserializer nodeDeserializer) throws IOException {
+        final JsonObject jsonObject = new JsonObject();
+        final List<ProvisionedMeshNode> nodes = new ArrayList<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            if (name.equals("nodes")) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    nodes.add(nodeDeserializer.deserializeNode(JsonParser.parseReader(reader).getAsJsonObject(), context));
+                }
+                reader.endArray();
+                // Nodes have already been deserialized, an empty array marks their presence.
+                jsonObject.add(name, new JsonArray());
+            } else {
+                jsonObject.add(name, JsonParser.parseReader(reader));
+            }
+        }
+        reader.endObject();
+
+        if (!isValidMeshObject(jsonObject)) {
+            throw new JsonSyntaxException("Invalid Mesh Provisioning/Configuration Database, " +
+                    "Mesh Network must follow the Mesh Provisioning/Configuration Database format.");
+        }
+        return deserialize(jsonObject, nodes, context);
+    }
+
+    private MeshNetwork deserialize(@NonNull final JsonObject jsonObject,
+                                    @NonNull final List<ProvisionedMeshNode> nodes,
+                                    @NonNull final JsonDeserializationContext context) {
         final String uuid = jsonObject.get("meshUUID").getAsString();
         final String meshUuid = formatUuid(uuid);
         final MeshNetwork network = new MeshNetwork(meshUuid == null ? uuid : meshUuid);
@@ -71,8 +120,10 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
         network.provisioners = deserializeProvisioners(context,
                 jsonObject.getAsJsonArray("provisioners"), network.meshUUID);
 
-        network.nodes = deserializeNodes(context,
-                jsonObject.getAsJsonArray("nodes"), network.meshUUID);
+        for (ProvisionedMeshNode node : nodes) {
+            node.setMeshUuid(network.meshUUID);
+        }
+        network.nodes = nodes;
 
         network.groups = deserializeGroups(jsonObject, network.meshUUID);
 
@@ -108,6 +159,80 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
         return jsonObject;
     }
 
+    /**
+     * Returns a json object containing a network delta. The changed entities are serialized in the
+     * same format as in the Mesh Configuration Database.
+     *
+     * @param context Serializer context
+     * @param delta   Network delta
+     */
+    JsonObject serializeDelta(@NonNull final JsonSerializationContext context,
+                              @NonNull final MeshNetworkDelta delta) {
+        final JsonObject jsonObject = new JsonObject();
+        jsonObject.addProperty("meshUUID", delta.meshUuid.toUpperCase(Locale.US));
+        jsonObject.addProperty("syncToken", delta.syncToken);
+        jsonObject.addProperty("timestamp", formatTimeStamp(System.currentTimeMillis()));
+        final JsonArray changes = new JsonArray();
+        for (MeshNetworkChangeLog.Change change : delta.changes) {
+            final JsonObject changeJson = new JsonObject();
+            changeJson.addProperty("type", change.type);
+            changeJson.addProperty("id", change.id);
+            changeJson.addProperty("version", change.version);
+            changeJson.addProperty("timestamp", change.timestamp);
+            changeJson.addProperty("origin", change.origin);
+            changeJson.addProperty("deleted", change.deleted);
+            changes.add(changeJson);
+        }
+        jsonObject.add("changes", changes);
+        jsonObject.add("netKeys", serializeNetKeys(context, delta.netKeys));
+        jsonObject.add("appKeys", serializeAppKeys(context, delta.appKeys));
+        jsonObject.add("provisioners", serializeProvisioners(context, delta.provisioners));
+        jsonObject.add("nodes", serializeNodes(context, delta.nodes));
+        jsonObject.add("groups", serializeGroups(delta.groups));
+        jsonObject.add("scenes", serializeScenes(delta.scenes));
+        return jsonObject;
+    }
+
+    /**
+     * Returns a network delta from a json object created by {@link #serializeDelta(JsonSerializationContext, MeshNetworkDelta)}
+     *
+     * @param context Deserializer context
+     * @param json    json object containing the delta
+     * @throws JsonSyntaxException if the delta is malformed
+     */
+    MeshNetworkDelta deserializeDelta(@NonNull final JsonDeserializationContext context,
+                                      @NonNull final JsonObject json) {
+        if (!json.has("meshUUID") || !json.has("syncToken") || !json.has("changes"))
+            throw new JsonSyntaxException("Invalid mesh network delta.");
+        final String uuid = json.get("meshUUID").getAsString();
+        final String meshUuid = formatUuid(uuid) == null ? uuid : formatUuid(uuid);
+        final List<MeshNetworkChangeLog.Change> changes = new ArrayList<>();
+        for (JsonElement element : json.getAsJsonArray("changes")) {
+            final JsonObject changeJson = element.getAsJsonObject();
+            changes.add(new MeshNetworkChangeLog.Change(
+                    changeJson.get("type").getAsString(),
+                    changeJson.get("id").getAsString(),
+                    0,
+                    changeJson.get("version").getAsLong(),
+                    changeJson.get("timestamp").getAsLong(),
+                    changeJson.get("origin").getAsString(),
+                    changeJson.get("deleted").getAsBoolean()));
+        }
+        final List<ProvisionedMeshNode> nodes = deserializeNodes(context, json.getAsJsonArray("nodes"));
+        for (ProvisionedMeshNode node : nodes) {
+            node.setMeshUuid(meshUuid);
+        }
+        return new MeshNetworkDelta(meshUuid,
+                json.get("syncToken").getAsString(),
+                changes,
+                deserializeNetKeys(context, json.getAsJsonArray("netKeys"), meshUuid),
+                deserializeAppKeys(context, json.getAsJsonArray("appKeys"), meshUuid),
+                deserializeProvisioners(context, json.getAsJsonArray("provisioners"), meshUuid),
+                nodes,
+                deserializeGroups(json, meshUuid),
+                deserializeScenes(json, meshUuid));
+    }
+
     /**
      * Validates the mesh object by checking if the document contains the mandatory fields
      *
@@ -138,8 +263,8 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
      * @param networkKeys Network key list
      * @return JsonElement
      */
-    private JsonElement serializeNetKeys(@NonNull final JsonSerializationContext context,
-                                         @NonNull final List<NetworkKey> networkKeys) {
+    JsonElement serializeNetKeys(@NonNull final JsonSerializationContext context,
+                                 @NonNull final List<NetworkKey> networkKeys) {
         final Type networkKey = new TypeToken<List<NetworkKey>>() {
         }.getType();
         return context.serialize(networkKeys, networkKey);
@@ -172,8 +297,8 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
      * @param applicationKeys Application key list
      * @return JsonElement
      */
-    private JsonElement serializeAppKeys(@NonNull final JsonSerializationContext context,
-                                         @NonNull final List<ApplicationKey> applicationKeys) {
+    JsonElement serializeAppKeys(@NonNull final JsonSerializationContext context,
+                                 @NonNull final List<ApplicationKey> applicationKeys) {
         final Type networkKey = new TypeToken<List<ApplicationKey>>() {
         }.getType();
         return context.serialize(applicationKeys, networkKey);
@@ -253,8 +378,8 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
      * @param provisioners Provisioners list
      * @return JsonElement
      */
-    private JsonElement serializeProvisioners(@NonNull final JsonSerializationContext context,
-                                              @NonNull final List<Provisioner> provisioners) {
+    JsonElement serializeProvisioners(@NonNull final JsonSerializationContext context,
+                                      @NonNull final List<Provisioner> provisioners) {
         final JsonArray jsonArray = new JsonArray();
         for (Provisioner provisioner : provisioners) {
             final JsonObject provisionerJson = new JsonObject();
@@ -368,20 +493,15 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
     /**
      * Returns a list of nodes deserializing the json array containing the provisioned mesh nodes
      *
-     * @param context  deserializer context
-     * @param json     json array containing the nodes
-     * @param meshUuid network provisionerUuid
+     * @param context deserializer context
+     * @param json    json array containing the nodes
      * @return List of nodes
      */
     private List<ProvisionedMeshNode> deserializeNodes(@NonNull final JsonDeserializationContext context,
-                                                       @NonNull final JsonArray json, final String meshUuid) {
+                                                       @NonNull final JsonArray json) {
         final Type nodeList = new TypeToken<List<ProvisionedMeshNode>>() {
         }.getType();
-        final List<ProvisionedMeshNode> nodes = context.deserialize(json, nodeList);
-        for (ProvisionedMeshNode node : nodes) {
-            node.setMeshUuid(meshUuid);
-        }
-        return nodes;
+        return context.deserialize(json, nodeList);
     }
 
     /**
@@ -390,7 +510,7 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
      * @param groups Group list
      * @return JsonElement
      */
-    private JsonElement serializeGroups(@NonNull final List<Group> groups) {
+    JsonElement serializeGroups(@NonNull final List<Group> groups) {
         JsonArray groupsArray = new JsonArray();
         for (Group group : groups) {
             JsonObject groupObj = new JsonObject();
@@ -456,7 +576,7 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
      * @param scenes Group list
      * @return JsonElement
      */
-    private JsonElement serializeScenes(@NonNull final List<Scene> scenes) {
+    JsonElement serializeScenes(@NonNull final List<Scene> scenes) {
         final JsonArray scenesArray = new JsonArray();
         for (Scene scene : scenes) {
             JsonObject sceneObj = new JsonObject();
@@ -519,7 +639,7 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
      * @param networkExclusions exclusion list
      * @return JsonElement
      */
-    private JsonElement serializeExclusionList(@NonNull final Map<Integer, List<Integer>> networkExclusions) {
+    JsonElement serializeExclusionList(@NonNull final Map<Integer, List<Integer>> networkExclusions) {
         final JsonArray exclusionList = new JsonArray();
         JsonObject exclusion;
         JsonArray array;
@@ -0,0 +1,370 @@
+package no.nordicsemi.android.mesh;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+import no.nordicsemi.android.mesh.transport.NodeSnapshotSerializer;
+import no.nordicsemi.android.mesh.utils.SnapshotReader;
+import no.nordicsemi.android.mesh.utils.SnapshotWriter;
+
+/**
+ * Compact, versioned binary snapshot of a {@link MeshNetwork}.
+ * <p>
+ * The snapshot contains everything exported to the Mesh Provisioning/Configuration Database json
+ * along with the library attributes such as the IV Index, sequence numbers and the next unicast
+ * address, which makes it suitable for fast restores and periodic checkpoints. Snapshots are read
+ * back from a memory mapped file.
+ * </p>
+ */
+final class MeshNetworkSnapshot {
+
+    private static final int MAGIC = 0x4D534E50; // "MSNP"
+    static final int VERSION = 1;
+
+    private MeshNetworkSnapshot() {
+    }
+
+    /**
+     * Serializes the network in to a snapshot.
+     *
+     * @param network mesh network
+     * @return snapshot bytes
+     */
+    @NonNull
+    static byte[] write(@NonNull final MeshNetwork network) {
+        final SnapshotWriter writer = new SnapshotWriter(256 + network.nodes.size() * 96);
+        writeHeader(writer);
+        writer.writeUuidString(network.meshUUID);
+        writer.writeString(network.schema);
+        writer.writeString(network.id);
+        writer.writeString(network.version);
+        writer.writeString(network.meshName);
+        writer.writeVarLong(network.timestamp);
+        writer.writeBoolean(network.partial);
+        writer.writeBoolean(network.lastSelected);
+        writer.writeVarInt(network.unicastAddress);
+        writeIvIndex(writer, network.ivIndex);
+
+        writer.writeVarInt(network.netKeys.size());
+        for (NetworkKey key : network.netKeys) {
+            writer.writeVarInt(key.getKeyIndex());
+            writer.writeString(key.getName());
+            writer.writeBytes(key.getKey());
+            writer.writeBytes(key.getOldKey());
+            writer.writeVarInt(key.getPhase());
+            writer.writeBoolean(key.isMinSecurity());
+            writer.writeVarLong(key.getTimestamp());
+        }
+
+        final List<Integer> appKeyIndexes = new ArrayList<>(network.appKeys.size());
+        writer.writeVarInt(network.appKeys.size());
+        for (ApplicationKey key : network.appKeys) {
+            writer.writeVarInt(key.getKeyIndex());
+            writer.writeString(key.getName());
+            writer.writeVarInt(key.getBoundNetKeyIndex());
+            writer.writeBytes(key.getKey());
+            writer.writeBytes(key.getOldKey());
+            appKeyIndexes.add(key.getKeyIndex());
+        }
+
+        writer.writeVarInt(network.provisioners.size());
+        for (Provisioner provisioner : network.provisioners) {
+            writeProvisioner(writer, provisioner);
+        }
+
+        NodeSnapshotSerializer.writeNodes(writer, network.nodes, appKeyIndexes);
+
+        writer.writeVarInt(network.groups.size());
+        for (Group group : network.groups) {
+            writer.writeString(group.getName());
+            writer.writeVarInt(group.getAddress());
+            writer.writeUuid(group.getAddressLabel());
+            writer.writeVarInt(group.getParentAddress());
+            writer.writeUuid(group.getParentAddressLabel());
+        }
+
+        writer.writeVarInt(network.scenes.size());
+        for (Scene scene : network.scenes) {
+            writer.writeString(scene.getName());
+            writer.writeVarInt(scene.getNumber());
+            writeIntList(writer, scene.getAddresses());
+        }
+
+        writer.writeVarInt(network.networkExclusions.size());
+        for (Map.Entry<Integer, List<Integer>> entry : network.networkExclusions.entrySet()) {
+            writer.writeVarInt(entry.getKey());
+            writeIntList(writer, entry.getValue());
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * Writes the snapshot of the network to a file. The snapshot is written to a temporary file
+     * first and renamed, so an existing snapshot is never left half written.
+     *
+     * @param network mesh network
+     * @param file    destination file
+     * @throws IOException if the file could not be written
+     */
+    static void write(@NonNull final MeshNetwork network, @NonNull final File file) throws IOException {
+        final byte[] snapshot = write(network);
+        final File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream outputStream = new FileOutputStream(temp)) {
+            outputStream.write(snapshot);
+            outputStream.getFD().sync();
+        }
+        if (!temp.renameTo(file)) {
+            //noinspection ResultOfMethodCallIgnored
+            temp.delete();
+            throw new IOException("Unable to write mesh network snapshot to " + file.getPath());
+        }
+    }
+
+    /**
+     * Reads a snapshot from a memory mapped file.
+     *
+     * @param file snapshot file
+     * @return mesh network
+     * @throws IOException if the file could not be read
+     */
+    @NonNull
+    static MeshNetwork read(@NonNull final File file) throws IOException {
+        try (FileInputStream inputStream = new FileInputStream(file);
+             FileChannel channel = inputStream.getChannel()) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads a snapshot from the given buffer.
+     *
+     * @param buffer buffer containing the snapshot
+     * @return mesh network
+     * @throws IllegalArgumentException if the buffer does not contain a supported snapshot
+     */
+    @NonNull
+    static MeshNetwork read(@NonNull final ByteBuffer buffer) {
+        final SnapshotReader reader = new SnapshotReader(buffer);
+        readHeader(reader);
+        final String meshUuid = reader.readUuidString();
+        if (meshUuid == null)
+            throw new IllegalArgumentException("Invalid mesh network snapshot, mesh UUID missing.");
+        final MeshNetwork network = new MeshNetwork(meshUuid);
+        network.schema = reader.readString();
+        network.id = reader.readString();
+        network.version = reader.readString();
+        network.meshName = reader.readString();
+        network.timestamp = reader.readVarLong();
+        network.partial = reader.readBoolean();
+        network.lastSelected = reader.readBoolean();
+        network.unicastAddress = reader.readVarInt();
+        network.ivIndex = readIvIndex(reader);
+
+        final int netKeyCount = reader.readVarInt();
+        final List<NetworkKey> netKeys = new ArrayList<>(netKeyCount);
+        for (int i = 0; i < netKeyCount; i++) {
+            final int index = reader.readVarInt();
+            final String name = reader.readString();
+            final NetworkKey key = new NetworkKey(index, reader.readBytes());
+            if (name != null)
+                key.setName(name);
+            key.setOldKey(reader.readBytes());
+            key.setPhase(reader.readVarInt());
+            key.setMinSecurity(reader.readBoolean());
+            key.setTimestamp(reader.readVarLong());
+            key.setMeshUuid(meshUuid);
+            netKeys.add(key);
+        }
+        network.netKeys = netKeys;
+
+        final int appKeyCount = reader.readVarInt();
+        final List<ApplicationKey> appKeys = new ArrayList<>(appKeyCount);
+        final List<Integer> appKeyIndexes = new ArrayList<>(appKeyCount);
+        for (int i = 0; i < appKeyCount; i++) {
+            final int index = reader.readVarInt();
+            final String name = reader.readString();
+            final int boundNetKeyIndex = reader.readVarInt();
+            final ApplicationKey key = new ApplicationKey(index, reader.readBytes());
+            if (name != null)
+                key.setName(name);
+            key.setBoundNetKeyIndex(boundNetKeyIndex);
+            key.setOldKey(reader.readBytes());
+            key.setMeshUuid(meshUuid);
+            appKeys.add(key);
+            appKeyIndexes.add(index);
+        }
+        network.appKeys = appKeys;
+
+        final int provisionerCount = reader.readVarInt();
+        final List<Provisioner> provisioners = new ArrayList<>(provisionerCount);
+        for (int i = 0; i < provisionerCount; i++) {
+            provisioners.add(readProvisioner(reader, meshUuid));
+        }
+        network.provisioners = provisioners;
+
+        network.nodes = NodeSnapshotSerializer.readNodes(reader, meshUuid, appKeyIndexes);
+
+        final int groupCount = reader.readVarInt();
+        final List<Group> groups = new ArrayList<>(groupCount);
+        for (int i = 0; i < groupCount; i++) {
+            final String name = reader.readString();
+            final int address = reader.readVarInt();
+            final UUID addressLabel = reader.readUuid();
+            final int parentAddress = reader.readVarInt();
+            final UUID parentAddressLabel = reader.readUuid();
+            final Group group = new Group(0, address, addressLabel, parentAddress, parentAddressLabel, meshUuid);
+            if (name != null)
+                group.setName(name);
+            groups.add(group);
+        }
+        network.groups = groups;
+
+        final int sceneCount = reader.readVarInt();
+        final List<Scene> scenes = new ArrayList<>(sceneCount);
+        for (int i = 0; i < sceneCount; i++) {
+            final String name = reader.readString();
+            final int number = reader.readVarInt();
+            final Scene scene = new Scene(number, readIntList(reader), meshUuid);
+            if (name != null)
+                scene.setName(name);
+            scenes.add(scene);
+        }
+        network.scenes = scenes;
+
+        final int exclusionCount = reader.readVarInt();
+        final Map<Integer, List<Integer>> exclusions = new HashMap<>();
+        for (int i = 0; i < exclusionCount; i++) {
+            final int ivIndex = reader.readVarInt();
+            exclusions.put(ivIndex, readIntList(reader));
+        }
+        network.networkExclusions = exclusions;
+        network.loadSequenceNumbers();
+        return network;
+    }
+
+    private static void writeHeader(@NonNull final SnapshotWriter writer) {
+        writer.writeRawBytes(new byte[]{
+                (byte) (MAGIC >>> 24), (byte) (MAGIC >>> 16), (byte) (MAGIC >>> 8), (byte) MAGIC});
+        writer.writeVarInt(VERSION);
+    }
+
+    private static void readHeader(@NonNull final SnapshotReader reader) {
+        final byte[] magic = reader.readRawBytes(4);
+        final int value = ((magic[0] & 0xFF) << 24) | ((magic[1] & 0xFF) << 16) |
+                ((magic[2] & 0xFF) << 8) | (magic[3] & 0xFF);
+        if (value != MAGIC)
+            throw new IllegalArgumentException("Invalid mesh network snapshot.");
+        final int version = reader.readVarInt();
+        if (version != VERSION)
+            throw new IllegalArgumentException("Unsupported mesh network snapshot version: " + version);
+    }
+
+    private static void writeIvIndex(@NonNull final SnapshotWriter writer, @NonNull final IvIndex ivIndex) {
+        writer.writeVarInt(ivIndex.getIvIndex());
+        writer.writeBoolean(ivIndex.isIvUpdateActive());
+        writer.writeBoolean(ivIndex.getIvRecoveryFlag());
+        final Calendar transitionDate = ivIndex.getTransitionDate();
+        writer.writeBoolean(transitionDate != null);
+        if (transitionDate != null)
+            writer.writeVarLong(transitionDate.getTimeInMillis());
+    }
+
+    private static IvIndex readIvIndex(@NonNull final SnapshotReader reader) {
+        final int index = reader.readVarInt();
+        final boolean updateActive = reader.readBoolean();
+        final boolean recoveryFlag = reader.readBoolean();
+        Calendar transitionDate = null;
+        if (reader.readBoolean()) {
+            transitionDate = Calendar.getInstance();
+            transitionDate.setTimeInMillis(reader.readVarLong());
+        }
+        final IvIndex ivIndex = new IvIndex(index, updateActive, transitionDate);
+        ivIndex.setIvRecoveryFlag(recoveryFlag);
+        return ivIndex;
+    }
+
+    private static void writeProvisioner(@NonNull final SnapshotWriter writer, @NonNull final Provisioner provisioner) {
+        writer.writeUuidString(provisioner.getProvisionerUuid());
+        writer.writeString(provisioner.getProvisionerName());
+        writer.writeNullableVarInt(provisioner.getProvisionerAddress());
+        writer.writeVarInt(provisioner.getGlobalTtl());
+        writer.writeBoolean(provisioner.isLastSelected());
+        writer.writeVarInt(provisioner.allocatedUnicastRanges.size());
+        for (AllocatedUnicastRange range : provisioner.allocatedUnicastRanges) {
+            writer.writeVarInt(range.getLowAddress());
+            writer.writeVarInt(range.getHighAddress());
+        }
+        writer.writeVarInt(provisioner.allocatedGroupRanges.size());
+        for (AllocatedGroupRange range : provisioner.allocatedGroupRanges) {
+            writer.writeVarInt(range.getLowAddress());
+            writer.writeVarInt(range.getHighAddress());
+        }
+        writer.writeVarInt(provisioner.allocatedSceneRanges.size());
+        for (AllocatedSceneRange range : provisioner.allocatedSceneRanges) {
+            writer.writeVarInt(range.getFirstScene());
+            writer.writeVarInt(range.getLastScene());
+        }
+    }
+
+    private static Provisioner readProvisioner(@NonNull final SnapshotReader reader, @NonNull final String meshUuid) {
+        final String uuid = reader.readUuidString();
+        final String name = reader.readString();
+        final Integer address = reader.readNullableVarInt();
+        final int globalTtl = reader.readVarInt();
+        final boolean lastSelected = reader.readBoolean();
+        final int unicastRangeCount = reader.readVarInt();
+        final List<AllocatedUnicastRange> unicastRanges = new ArrayList<>(unicastRangeCount);
+        for (int i = 0; i < unicastRangeCount; i++) {
+            final int low = reader.readVarInt();
+            unicastRanges.add(new AllocatedUnicastRange(low, reader.readVarInt()));
+        }
+        final int groupRangeCount = reader.readVarInt();
+        final List<AllocatedGroupRange> groupRanges = new ArrayList<>(groupRangeCount);
+        for (int i = 0; i < groupRangeCount; i++) {
+            final int low = reader.readVarInt();
+            groupRanges.add(new AllocatedGroupRange(low, reader.readVarInt()));
+        }
+        final int sceneRangeCount = reader.readVarInt();
+        final List<AllocatedSceneRange> sceneRanges = new ArrayList<>(sceneRangeCount);
+        for (int i = 0; i < sceneRangeCount; i++) {
+            final int first = reader.readVarInt();
+            sceneRanges.add(new AllocatedSceneRange(first, reader.readVarInt()));
+        }
+        if (uuid == null)
+            throw new IllegalArgumentException("Invalid mesh network snapshot, provisioner UUID missing.");
+        final Provisioner provisioner = new Provisioner(uuid, unicastRanges, groupRanges, sceneRanges, meshUuid);
+        if (name != null)
+            provisioner.setProvisionerName(name);
+        provisioner.setProvisionerAddress(address);
+        provisioner.setGlobalTtl(globalTtl);
+        provisioner.setLastSelected(lastSelected);
+        return provisioner;
+    }
+
+    private static void writeIntList(@NonNull final SnapshotWriter writer, @NonNull final List<Integer> values) {
+        writer.writeVarInt(values.size());
+        for (Integer value : values) {
+            writer.writeVarInt(value);
+        }
+    }
+
+    private static List<Integer> readIntList(@NonNull final SnapshotReader reader) {
+        final int count = reader.readVarInt();
+        final List<Integer> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(reader.readVarInt());
+        }
+        return values;
+    }
+}
@@ -38,6 +38,7 @@ import no.nordicsemi.android.mesh.provisionerstates.ProvisioningDataState;
 import no.nordicsemi.android.mesh.provisionerstates.ProvisioningFailedState;
 import no.nordicsemi.android.mesh.provisionerstates.ProvisioningInputCompleteState;
 import no.nordicsemi.android.mesh.provisionerstates.ProvisioningInviteState;
+import no.nordicsemi.android.mesh.provisionerstates.ProvisioningKeyPairPool;
 import no.nordicsemi.android.mesh.provisionerstates.ProvisioningPublicKeyState;
 import no.nordicsemi.android.mesh.provisionerstates.ProvisioningRandomConfirmationState;
 import no.nordicsemi.android.mesh.provisionerstates.ProvisioningStartState;
@@ -64,6 +65,8 @@ class MeshProvisioningHandler implements InternalProvisioningCallbacks {
     private boolean isProvisioneePublicKeyReceived;
     private final InternalMeshManagerCallbacks mInternalMeshManagerCallbacks;
     private byte[] confirmationInputs;
+    private ProvisioningKeyPairPool mKeyPairPool;
+    private final ProvisioningTimings mTimings = new ProvisioningTimings();
 
     /**
      * Constructs the mesh provisioning handler
@@ -88,6 +91,23 @@ class MeshProvisioningHandler implements InternalProvisioningCallbacks {
         return mUnprovisionedMeshNode;
     }
 
+    /**
+     * Sets the pool the key pair of the provisioner is taken from
+     *
+     * @param keyPairPool {@link ProvisioningKeyPairPool} pool or null to generate a key pair on every provisioning
+     */
+    void setKeyPairPool(@Nullable final ProvisioningKeyPairPool keyPairPool) {
+        this.mKeyPairPool = keyPairPool;
+    }
+
+    /**
+     * Returns the timings of the current or last provisioning
+     */
+    @NonNull
+    ProvisioningTimings getTimings() {
+        return mTimings;
+    }
+
     /**
      * Sets the provisioning callbacks
      *
@@ -165,7 +185,7 @@ class MeshProvisioningHandler implements InternalProvisioningCallbacks {
         final UnprovisionedMeshNode unprovisionedMeshNode = mUnprovisionedMeshNode;
         switch (provisioningState.getState()) {
             case PROVISIONING_INVITE:
-                provisioningState = new ProvisioningCapabilitiesState(unprovisionedMeshNode, mStatusCallbacks);
+                setProvisioningState(new ProvisioningCapabilitiesState(unprovisionedMeshNode, mStatusCallbacks));
                 break;
             case PROVISIONING_CAPABILITIES:
                 break;
@@ -185,18 +205,42 @@ class MeshProvisioningHandler implements InternalProvisioningCallbacks {
         }
     }
 
+    /**
+     * Fails the provisioning in progress with an unexpected error, for example when the bearer to the device was lost.
+     */
+    void abort() {
+        final ProvisioningState state = provisioningState;
+        if (mUnprovisionedMeshNode == null || state == null
+                || state.getState() == ProvisioningState.State.PROVISIONING_COMPLETE
+                || state.getState() == ProvisioningState.State.PROVISIONING_FAILED)
+            return;
+        parseProvisioningState(mUnprovisionedMeshNode, new byte[]{MeshManagerApi.PDU_TYPE_PROVISIONING,
+                (byte) ProvisioningState.State.PROVISIONING_FAILED.getState(),
+                (byte) ProvisioningFailedState.ProvisioningFailureCode.UNEXPECTED_ERROR.getErrorCode()});
+    }
+
+    private void setProvisioningState(@NonNull final ProvisioningState state) {
+        provisioningState = state;
+        mTimings.onStateChanged(state.getState(), System.nanoTime());
+    }
+
     private void parseProvisioningState(final UnprovisionedMeshNode unprovisionedMeshNode, final byte[] data) {
         isProvisioningPublicKeySent = false;
         isProvisioneePublicKeyReceived = false;
         if (data[1] == ProvisioningState.State.PROVISIONING_COMPLETE.getState()) {
-            provisioningState = new ProvisioningCompleteState(unprovisionedMeshNode);
+            setProvisioningState(new ProvisioningCompleteState(unprovisionedMeshNode));
+            mTimings.finish(System.nanoTime());
+            MeshLogger.info(TAG, "Provisioning completed: " + mTimings);
             //Generate the network id and store it in the mesh node, this is needed to reconnect to the device at a later stage.
             final ProvisionedMeshNode provisionedMeshNode = new ProvisionedMeshNode(unprovisionedMeshNode);
             mInternalMeshManagerCallbacks.onNodeProvisioned(provisionedMeshNode, unprovisionedMeshNode.getProvisioningCapabilities().getNumberOfElements());
             mStatusCallbacks.onProvisioningCompleted(provisionedMeshNode, ProvisioningState.States.PROVISIONING_COMPLETE, data);
         } else {
             final ProvisioningFailedState provisioningFailedState = new ProvisioningFailedState();
-            provisioningState = provisioningFailedState;
+            setProvisioningState(provisioningFailedState);
+            mTimings.finish(System.nanoTime());
+            MeshLogger.info(TAG, "Provisioning failed: " + mTimings);
+            mInternalMeshManagerCallbacks.onProvisioningFailed(unprovisionedMeshNode);
             if (provisioningFailedState.parseData(data)) {
                 mStatusCallbacks.onProvisioningFailed(unprovisionedMeshNode, ProvisioningState.States.PROVISIONING_FAILED, data);
             }
@@ -353,7 +397,8 @@ class MeshProvisioningHandler implements InternalProvisioningCallbacks {
         isProvisioningPublicKeySent = false;
         isProvisioneePublicKeyReceived = false;
         final ProvisioningInviteState invite = new ProvisioningInviteState(node, attentionTimer, mInternalTransportCallbacks, mStatusCallbacks);
-        provisioningState = invite;
+        mTimings.start(System.nanoTime());
+        setProvisioningState(invite);
         invite.executeSend();
     }
 
@@ -366,7 +411,7 @@ class MeshProvisioningHandler implements InternalProvisioningCallbacks {
     private boolean parseProvisioningCapabilitiesMessage(
             final UnprovisionedMeshNode node, final byte[] capabilities) {
         final ProvisioningCapabilitiesState provisioningCapabilitiesState = new ProvisioningCapabilitiesState(node, mStatusCallbacks);
-        provisioningState = provisioningCapabilitiesState;
+        setProvisioningState(provisioningCapabilitiesState);
         return provisioningCapabilitiesState.parseData(capabilities);
     }
 
@@ -374,7 +419,7 @@ class MeshProvisioningHandler implements InternalProvisioningCallbacks {
         final ProvisioningCapabilitiesState capabilitiesState = (ProvisioningCapabilitiesState) provisioningState;
         final ProvisioningCapabilities capabilities = capabilitiesState.getCapabilities();
         final ProvisioningStartState startProvisioning = new ProvisioningStartState(node, capabilities, mInternalTransportCallbacks, mStatusCallbacks);
-        provisioningState = startProvisioning;
+        setProvisioningState(startProvisioning);
         startProvisioning.executeSend();
     }
 
@@ -385,7 +430,7 @@ class MeshProvisioningHandler implements InternalProvisioningCallbacks {
 
         final ProvisioningStartState startProvisioning = new ProvisioningStartState(node, capabilities, mInternalTransportCallbacks, mStatusCallbacks);
         startProvisioning.setUseStaticOOB(StaticOOBType.STATIC_OOB_AVAILABLE);
-        provisioningState = startProvisioning;
+        setProvisioningState(startProvisioning);
         startProvisioning.executeSend();
     }
 
@@ -396,7 +441,7 @@ class MeshProvisioningHandler implements InternalProvisioningCallbacks {
 
         final ProvisioningStartState startProvisioning = new ProvisioningStartState(node, capabilities, mInternalTransportCallbacks, mStatusCallbacks);
         startProvisioning.setUseOutputOOB(action);
-        provisioningState = startProvisioning;
+        setProvisioningState(startProvisioning);
         startProvisioning.executeSend();
     }
 
@@ -407,7 +452,7 @@ class MeshProvisioningHandler implements InternalProvisioningCallbacks {
 
         final ProvisioningStartState startProvisioning = new ProvisioningStartState(node, capabilities, mInternalTransportCallbacks, mStatusCallbacks);
         startProvisioning.setUseInputOOB(action);
-        provisioningState = startProvisioning;
+        setProvisioningState(startProvisioning);
         startProvisioning.executeSend();
     }
 
@@ -418,13 +463,22 @@ class MeshProvisioningHandler implements InternalProvisioningCallbacks {
                 isProvisioningPublicKeySent = true;
                 provisioningState.executeSend();
             } else {
-                final ProvisioningPublicKeyState provisioningPublicKeyState = new ProvisioningPublicKeyState(node, mInternalTransportCallbacks, mStatusCallbacks);
-                provisioningState = provisioningPublicKeyState;
+                final ProvisioningPublicKeyState provisioningPublicKeyState = new ProvisioningPublicKeyState(node, mKeyPairPool, mInternalTransportCallbacks, mStatusCallbacks);
+                setProvisioningState(provisioningPublicKeyState);
                 isProvisioningPublicKeySent = true;
                 provisioningPublicKeyState.executeSend();
+                mTimings.setKeyPairDuration(provisioningPublicKeyState.getKeyPairDuration());
+                if (node.getProvisionerPublicKeyXY() == null) {
+                    // The key pair of the provisioner could not be obtained
+                    abort();
+                    return;
+                }
                 if (node.getProvisioningCapabilities().isPublicKeyOobSupported() && node.getProvisioneePublicKeyXY() != null) {
                     isProvisioneePublicKeyReceived = provisioningPublicKeyState.parseData(node.getProvisioneePublicKeyXY());
-                    if (isProvisioningPublicKeySent && isProvisioneePublicKeyReceived) {
+                    mTimings.setSharedSecretDuration(provisioningPublicKeyState.getSharedSecretDuration());
+                    if (!isProvisioneePublicKeyReceived) {
+                        abort();
+                    } else if (isProvisioningPublicKeySent) {
                         handleConfirmationState(node, null);
                     }
                 }
@@ -443,7 +497,10 @@ class MeshProvisioningHandler implements InternalProvisioningCallbacks {
             buffer.put(data, 2, buffer.limit());
             final byte[] xy = buffer.array();
             isProvisioneePublicKeyReceived = provisioningPublicKeyState.parseData(xy);
-            if (isProvisioningPublicKeySent && isProvisioneePublicKeyReceived) {
+            mTimings.setSharedSecretDuration(provisioningPublicKeyState.getSharedSecretDuration());
+            if (!isProvisioneePublicKeyReceived) {
+                abort();
+            } else if (isProvisioningPublicKeySent) {
                 handleConfirmationState(node, data);
             }
         }
@@ -452,19 +509,19 @@ class MeshProvisioningHandler implements InternalProvisioningCallbacks {
     private void handleConfirmationState(final UnprovisionedMeshNode node, final byte[] data) {
         switch (node.getAuthMethodUsed()) {
             case STATIC_OOB_AUTHENTICATION:
-                provisioningState = new ProvisioningConfirmationState(node, this, mInternalTransportCallbacks, mStatusCallbacks);
+                setProvisioningState(new ProvisioningConfirmationState(node, this, mInternalTransportCallbacks, mStatusCallbacks));
                 mStatusCallbacks.onProvisioningStateChanged(mUnprovisionedMeshNode, ProvisioningState.States.PROVISIONING_AUTHENTICATION_STATIC_OOB_WAITING, data);
                 break;
             case OUTPUT_OOB_AUTHENTICATION:
-                provisioningState = new ProvisioningConfirmationState(node, this, mInternalTransportCallbacks, mStatusCallbacks);
+                setProvisioningState(new ProvisioningConfirmationState(node, this, mInternalTransportCallbacks, mStatusCallbacks));
                 mStatusCallbacks.onProvisioningStateChanged(mUnprovisionedMeshNode, ProvisioningState.States.PROVISIONING_AUTHENTICATION_OUTPUT_OOB_WAITING, data);
                 break;
             case INPUT_OOB_AUTHENTICATION:
-                provisioningState = new ProvisioningInputCompleteState(node, mInternalTransportCallbacks, mStatusCallbacks);
+                setProvisioningState(new ProvisioningInputCompleteState(node, mInternalTransportCallbacks, mStatusCallbacks));
                 mStatusCallbacks.onProvisioningStateChanged(mUnprovisionedMeshNode, ProvisioningState.States.PROVISIONING_AUTHENTICATION_INPUT_OOB_WAITING, data);
                 break;
             default:
-                provisioningState = new ProvisioningConfirmationState(node, this, mInternalTransportCallbacks, mStatusCallbacks);
+                setProvisioningState(new ProvisioningConfirmationState(node, this, mInternalTransportCallbacks, mStatusCallbacks));
                 sendProvisioningConfirmation("");
                 break;
         }
@@ -480,7 +537,7 @@ class MeshProvisioningHandler implements InternalProvisioningCallbacks {
         // Check if the current provisioning state, if the user had selected InputOOBAction the state will be ProvisioningInputCompleteState
         if (provisioningState instanceof ProvisioningInputCompleteState) {
             provisioningConfirmationState = new ProvisioningConfirmationState(mUnprovisionedMeshNode, this, mInternalTransportCallbacks, mStatusCallbacks);
-            provisioningState = provisioningConfirmationState;
+            setProvisioningState(provisioningConfirmationState);
         } else {
             provisioningConfirmationState = (ProvisioningConfirmationState) provisioningState;
             provisioningConfirmationState.setProvisioningAuthentication(authentication);
@@ -500,7 +557,7 @@ class MeshProvisioningHandler implements InternalProvisioningCallbacks {
 
     private void sendRandomConfirmationPDU(final UnprovisionedMeshNode node) {
         final ProvisioningRandomConfirmationState provisioningRandomConfirmation = new ProvisioningRandomConfirmationState(node, this, mInternalTransportCallbacks, mStatusCallbacks);
-        provisioningState = provisioningRandomConfirmation;
+        setProvisioningState(provisioningRandomConfirmation);
         provisioningRandomConfirmation.executeSend();
     }
 
@@ -511,7 +568,7 @@ class MeshProvisioningHandler implements InternalProvisioningCallbacks {
 
     private void sendProvisioningData(final UnprovisionedMeshNode node) {
         final ProvisioningDataState provisioningDataState = new ProvisioningDataState(node, this, mInternalTransportCallbacks, mStatusCallbacks);
-        provisioningState = provisioningDataState;
+        setProvisioningState(provisioningDataState);
         provisioningDataState.executeSend();
     }
 
@@ -13,6 +13,7 @@ import java.util.Map;
 import java.util.UUID;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
 import androidx.room.TypeConverter;
 import no.nordicsemi.android.mesh.transport.Element;
@@ -163,4 +164,14 @@ public class MeshTypeConverters {
         }.getType();
         return new Gson().fromJson(networkExclusions, newNetworkExclusions);
     }
+
+    @TypeConverter
+    public static String changeLogToJson(@NonNull final MeshNetworkChangeLog changeLog) {
+        return changeLog.toJson();
+    }
+
+    @TypeConverter
+    public static MeshNetworkChangeLog fromJsonToChangeLog(@Nullable final String changeLog) {
+        return MeshNetworkChangeLog.fromJson(changeLog);
+    }
 }
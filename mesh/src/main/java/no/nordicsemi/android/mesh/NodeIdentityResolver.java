@@ -0,0 +1,153 @@
+package no.nordicsemi.android.mesh;
+
+import org.spongycastle.crypto.engines.AESLightEngine;
+import org.spongycastle.crypto.params.KeyParameter;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+
+/**
+ * Resolves the node advertising with Node Identity from the advertised hash and random.
+ * <p>
+ * The hash is an AES operation over the random and the unicast address of the node, so each node
+ * address is checked once per identity key. The AES engines are initialised once per identity key,
+ * current or old, and are rebuilt when the network keys change. As a node advertises the same random
+ * in consecutive advertisements, the results for recently seen randoms are memoized until the keys
+ * or the nodes of the network change.
+ * </p>
+ */
+final class NodeIdentityResolver {
+
+    private static final int MAX_RESOLVED = 64;
+    private static final int HASH_PADDING_LENGTH = 6;
+    private static final int NOT_FOUND = -1;
+
+    private final List<AESLightEngine> engines = new ArrayList<>();
+    private final byte[] input = new byte[16];
+    private final byte[] output = new byte[16];
+    private final Map<ByteBuffer, Integer> resolved = new LinkedHashMap<ByteBuffer, Integer>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<ByteBuffer, Integer> eldest) {
+            return size() > MAX_RESOLVED;
+        }
+    };
+    private final List<byte[]> identityKeys = new ArrayList<>();
+    private List<ProvisionedMeshNode> indexedNodes;
+    private int indexedNodeCount;
+    private int indexedAddressHash;
+
+    /**
+     * Returns the unicast address of the node that generated the advertised hash.
+     *
+     * @param networkKeys network keys of the network
+     * @param nodes       nodes of the network
+     * @param hash        advertised hash
+     * @param random      advertised random
+     * @return unicast address of the node or null if no node matches
+     */
+    @Nullable
+    synchronized Integer resolve(@NonNull final List<NetworkKey> networkKeys,
+                                 @NonNull final List<ProvisionedMeshNode> nodes,
+                                 @NonNull final byte[] hash,
+                                 @NonNull final byte[] random) {
+        update(networkKeys, nodes);
+        final ByteBuffer advertisement = ByteBuffer.allocate(hash.length + random.length).put(hash).put(random);
+        advertisement.rewind();
+        Integer address = resolved.get(advertisement);
+        if (address == null) {
+            address = NOT_FOUND;
+            for (ProvisionedMeshNode node : nodes) {
+                if (matches(node.getUnicastAddress(), hash, random)) {
+                    address = node.getUnicastAddress();
+                    break;
+                }
+            }
+            resolved.put(advertisement, address);
+        }
+        return address == NOT_FOUND ? null : address;
+    }
+
+    /**
+     * Returns true if the advertised hash was generated by the node with the given unicast address.
+     *
+     * @param networkKeys network keys of the network
+     * @param address     unicast address of the node
+     * @param hash        advertised hash
+     * @param random      advertised random
+     */
+    synchronized boolean matches(@NonNull final List<NetworkKey> networkKeys,
+                                 final int address,
+                                 @NonNull final byte[] hash,
+                                 @NonNull final byte[] random) {
+        updateEngines(networkKeys);
+        return matches(address, hash, random);
+    }
+
+    private boolean matches(final int address, @NonNull final byte[] hash, @NonNull final byte[] random) {
+        // Hash = e(IdentityKey, Padding || Random || Address) mod 2^64
+        System.arraycopy(random, 0, input, HASH_PADDING_LENGTH, random.length);
+        input[14] = (byte) (address >> 8);
+        input[15] = (byte) address;
+        for (AESLightEngine engine : engines) {
+            engine.processBlock(input, 0, output, 0);
+            boolean equal = true;
+            for (int i = 0; i < hash.length && equal; i++) {
+                equal = output[8 + i] == hash[i];
+            }
+            if (equal)
+                return true;
+        }
+        return false;
+    }
+
+    private void update(@NonNull final List<NetworkKey> networkKeys, @NonNull final List<ProvisionedMeshNode> nodes) {
+        boolean changed = updateEngines(networkKeys);
+        int addressHash = 0;
+        for (ProvisionedMeshNode node : nodes) {
+            addressHash = 31 * addressHash + node.getUnicastAddress();
+        }
+        if (nodes != indexedNodes || nodes.size() != indexedNodeCount || addressHash != indexedAddressHash) {
+            indexedNodes = nodes;
+            indexedNodeCount = nodes.size();
+            indexedAddressHash = addressHash;
+            changed = true;
+        }
+        if (changed) {
+            resolved.clear();
+        }
+    }
+
+    private boolean updateEngines(@NonNull final List<NetworkKey> networkKeys) {
+        final List<byte[]> keys = new ArrayList<>(networkKeys.size() * 2);
+        for (NetworkKey networkKey : networkKeys) {
+            keys.add(networkKey.getIdentityKey());
+            if (networkKey.getOldIdentityKey() != null) {
+                keys.add(networkKey.getOldIdentityKey());
+            }
+        }
+        if (keys.size() == identityKeys.size()) {
+            boolean same = true;
+            for (int i = 0; i < keys.size() && same; i++) {
+                same = keys.get(i) == identityKeys.get(i);
+            }
+            if (same)
+                return false;
+        }
+        identityKeys.clear();
+        identityKeys.addAll(keys);
+        engines.clear();
+        for (byte[] key : keys) {
+            final AESLightEngine engine = new AESLightEngine();
+            engine.init(true, new KeyParameter(key));
+            engines.add(engine);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,129 @@
+package no.nordicsemi.android.mesh;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import org.spongycastle.crypto.InvalidCipherTextException;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+import no.nordicsemi.android.mesh.utils.SecureUtils;
+
+/**
+ * Contains the information related to a mesh private beacon.
+ * <p>
+ * The flags and the IV Index of a private beacon are obfuscated and are only available once the beacon
+ * has been authenticated using {@link #authenticate(List)}.
+ * </p>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class PrivateBeacon extends NetworkBeacon {
+    public static final int BEACON_DATA_LENGTH = 27;
+    static final int PRIVATE_BEACON = 0x02;
+    private static final int RANDOM_LENGTH = 13;
+    private static final int AUTHENTICATION_TAG_LENGTH = 8;
+    private final byte[] random = new byte[RANDOM_LENGTH];
+    // Obfuscated private beacon data followed by the authentication tag
+    private final byte[] obfuscatedData;
+
+    /**
+     * Constructs a {@link PrivateBeacon} object
+     *
+     * @param beaconData beacon data advertised by the mesh beacon
+     * @throws IllegalArgumentException if the beacon data provided is invalid
+     */
+    public PrivateBeacon(@NonNull final byte[] beaconData) {
+        super(beaconData);
+        if (beaconData.length != BEACON_DATA_LENGTH)
+            throw new IllegalArgumentException("Incorrect Private Beacon length: " + beaconData.length
+                    + ", expected: " + BEACON_DATA_LENGTH + ". Check MTU and Proxy Protocol segmentation.");
+        System.arraycopy(beaconData, 1, random, 0, RANDOM_LENGTH);
+        obfuscatedData = Arrays.copyOfRange(beaconData, 1 + RANDOM_LENGTH, BEACON_DATA_LENGTH);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "PrivateBeacon {" +
+                " Random: " + MeshParserUtils.bytesToHex(random, true) +
+                (ivIndex == null ? "" : ", KeyRefreshActive: " + isKeyRefreshActive + ", IV Index: " + ivIndex) + "}";
+    }
+
+    @Override
+    public int getBeaconType() {
+        return beaconType;
+    }
+
+    /**
+     * Returns the random value of the beacon
+     */
+    public byte[] getRandom() {
+        return random;
+    }
+
+    /**
+     * Returns the network key this beacon was secured with and sets the flags and IV Index of the beacon.
+     * <p>
+     * The private beacon keys are cached in the network keys, so authenticating a beacon costs a single
+     * AES-CCM operation per current or old key without deriving any key.
+     * </p>
+     *
+     * @param networkKeys network keys of the network
+     * @return network key or null if the beacon could not be authenticated with any of them
+     */
+    @Nullable
+    @Override
+    NetworkKey authenticate(@NonNull final List<NetworkKey> networkKeys) {
+        for (NetworkKey networkKey : networkKeys) {
+            if (authenticate(networkKey.getPrivateBeaconKey())) {
+                securedWithOldKey = false;
+                return networkKey;
+            }
+            if (networkKey.getOldPrivateBeaconKey() != null && authenticate(networkKey.getOldPrivateBeaconKey())) {
+                securedWithOldKey = true;
+                return networkKey;
+            }
+        }
+        return null;
+    }
+
+    private boolean authenticate(@NonNull final byte[] privateBeaconKey) {
+        try {
+            // The obfuscation and authentication of a private beacon is AES-CCM using the random as the nonce
+            final byte[] privateBeaconData = SecureUtils.decryptCCM(obfuscatedData, privateBeaconKey, random, AUTHENTICATION_TAG_LENGTH);
+            final ByteBuffer buffer = ByteBuffer.wrap(privateBeaconData);
+            setNetworkState(buffer.get(), buffer.getInt());
+            return true;
+        } catch (InvalidCipherTextException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(final Parcel dest, final int flags) {
+        dest.writeByteArray(beaconData);
+    }
+
+    public static final Parcelable.Creator<PrivateBeacon> CREATOR = new Parcelable.Creator<PrivateBeacon>() {
+        @SuppressWarnings("ConstantConditions")
+        @Override
+        public PrivateBeacon createFromParcel(final Parcel source) {
+            return new PrivateBeacon(source.createByteArray());
+        }
+
+        @Override
+        public PrivateBeacon[] newArray(final int size) {
+            return new PrivateBeacon[size];
+        }
+    };
+}
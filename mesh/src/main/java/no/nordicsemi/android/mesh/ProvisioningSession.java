@@ -0,0 +1,129 @@
+package no.nordicsemi.android.mesh;
+
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+import no.nordicsemi.android.mesh.utils.MeshAddress;
+
+/**
+ * State of provisioning a single device over its own bearer.
+ * <p>
+ * Each session runs its own {@link MeshProvisioningHandler}, reassembles the segmented provisioning PDUs
+ * of its bearer and holds the unicast address assigned to the device from the pre-allocated blocks.
+ * </p>
+ */
+final class ProvisioningSession {
+
+    private final UUID deviceUuid;
+    private final MeshProvisioningHandler handler;
+    private final ProxySarBuffer incomingBuffer = new ProxySarBuffer();
+    private final ProxySarBuffer outgoingBuffer = new ProxySarBuffer();
+    private final long startTime;
+    private int mtu;
+    private int attentionTimer;
+    private int unicastAddress = MeshAddress.UNASSIGNED_ADDRESS;
+    private int elementCount;
+    private long endTime;
+    private boolean finished;
+    private boolean provisioned;
+
+    /**
+     * Constructs a provisioning session
+     *
+     * @param deviceUuid device uuid of the unprovisioned device
+     * @param handler    provisioning handler of the session
+     * @param mtu        mtu size of the bearer to the device
+     * @param startTime  time the session was opened in nanoseconds
+     */
+    ProvisioningSession(@NonNull final UUID deviceUuid,
+                        @NonNull final MeshProvisioningHandler handler,
+                        final int mtu,
+                        final long startTime) {
+        this.deviceUuid = deviceUuid;
+        this.handler = handler;
+        this.mtu = mtu;
+        this.startTime = startTime;
+    }
+
+    @NonNull
+    UUID getDeviceUuid() {
+        return deviceUuid;
+    }
+
+    @NonNull
+    MeshProvisioningHandler getHandler() {
+        return handler;
+    }
+
+    @NonNull
+    ProxySarBuffer getIncomingBuffer() {
+        return incomingBuffer;
+    }
+
+    @NonNull
+    ProxySarBuffer getOutgoingBuffer() {
+        return outgoingBuffer;
+    }
+
+    int getMtu() {
+        return mtu;
+    }
+
+    void setMtu(final int mtu) {
+        this.mtu = mtu;
+    }
+
+    int getAttentionTimer() {
+        return attentionTimer;
+    }
+
+    /**
+     * Sets the attention timer of a session whose provisioning invite is sent once the bearer is opened.
+     *
+     * @param attentionTimer attention timer in seconds
+     */
+    void setAttentionTimer(final int attentionTimer) {
+        this.attentionTimer = attentionTimer;
+    }
+
+    long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Returns the time the session finished in nanoseconds, valid once {@link #isFinished()} returns true.
+     */
+    long getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * Returns the unicast address assigned to the device or {@link MeshAddress#UNASSIGNED_ADDRESS} if none.
+     */
+    int getUnicastAddress() {
+        return unicastAddress;
+    }
+
+    int getElementCount() {
+        return elementCount;
+    }
+
+    void setUnicastAddress(final int unicastAddress, final int elementCount) {
+        this.unicastAddress = unicastAddress;
+        this.elementCount = elementCount;
+    }
+
+    boolean isFinished() {
+        return finished;
+    }
+
+    boolean isProvisioned() {
+        return provisioned;
+    }
+
+    void finish(final boolean provisioned, final long endTime) {
+        this.finished = true;
+        this.provisioned = provisioned;
+        this.endTime = endTime;
+    }
+}
@@ -0,0 +1,258 @@
+package no.nordicsemi.android.mesh;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.utils.MeshAddress;
+
+/**
+ * Provisioning sessions keyed by device uuid, with the unicast addresses reserved for them.
+ * <p>
+ * The addresses of devices being provisioned are not in use until the devices are added to the network,
+ * so the registry reserves them in blocks of {@link #getBlockSize()} consecutive addresses and hands them
+ * out to the sessions, so that devices provisioned in parallel never get the same address. The address
+ * of a failed or closed session is reused by the next session. The reserved addresses are released once
+ * all sessions are closed.
+ * </p>
+ */
+final class ProvisioningSessionRegistry {
+
+    static final int DEFAULT_BLOCK_SIZE = 32;
+
+    private final Map<UUID, ProvisioningSession> sessions = new LinkedHashMap<>();
+    // Every address held by the registry, free or assigned to a session
+    private final AddressSet reserved = new AddressSet();
+    // Reserved ranges given back by failed or closed sessions, as {low, high}
+    private final List<int[]> freeRanges = new ArrayList<>();
+    private int blockSize = DEFAULT_BLOCK_SIZE;
+    private int blockNext;
+    private int blockHigh = -1;
+
+    private int provisioned;
+    private int failed;
+    private long firstStart = -1;
+    private long lastEnd;
+    private long totalDuration;
+
+    int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Sets the number of addresses reserved at once, used from the next block on.
+     *
+     * @param blockSize number of addresses
+     * @throws IllegalArgumentException if the block size is not positive
+     */
+    void setBlockSize(final int blockSize) {
+        if (blockSize < 1)
+            throw new IllegalArgumentException("Block size must be at least 1");
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Opens a session, replacing a finished session of the same device.
+     *
+     * @param session session to be opened
+     * @throws IllegalArgumentException if the device already has an active session
+     */
+    void open(@NonNull final ProvisioningSession session) {
+        final ProvisioningSession existing = sessions.get(session.getDeviceUuid());
+        if (existing != null) {
+            if (!existing.isFinished())
+                throw new IllegalArgumentException("Device " + session.getDeviceUuid() + " is already being provisioned");
+            close(existing.getDeviceUuid());
+        }
+        sessions.put(session.getDeviceUuid(), session);
+        if (firstStart < 0) {
+            firstStart = session.getStartTime();
+        }
+    }
+
+    @Nullable
+    ProvisioningSession get(@NonNull final UUID deviceUuid) {
+        return sessions.get(deviceUuid);
+    }
+
+    /**
+     * Closes the session of a device, giving back its address unless the device was provisioned.
+     *
+     * @param deviceUuid device uuid
+     * @return the closed session or null if there was none
+     */
+    @Nullable
+    ProvisioningSession close(@NonNull final UUID deviceUuid) {
+        final ProvisioningSession session = sessions.remove(deviceUuid);
+        if (session != null) {
+            if (!session.isFinished()) {
+                release(session);
+            }
+            if (sessions.isEmpty()) {
+                reserved.clear();
+                freeRanges.clear();
+                blockHigh = -1;
+            }
+        }
+        return session;
+    }
+
+    /**
+     * Closes all sessions and resets the throughput.
+     */
+    void clear() {
+        sessions.clear();
+        reserved.clear();
+        freeRanges.clear();
+        blockHigh = -1;
+        provisioned = 0;
+        failed = 0;
+        firstStart = -1;
+        lastEnd = 0;
+        totalDuration = 0;
+    }
+
+    /**
+     * Returns the addresses reserved for the sessions.
+     */
+    @NonNull
+    AddressSet getReserved() {
+        return reserved;
+    }
+
+    /**
+     * Assigns the session the unicast address of its device, keeping the address already assigned if the
+     * element count did not change.
+     *
+     * @param session      session
+     * @param elementCount number of elements of the device
+     * @param network      mesh network
+     * @param provisioner  provisioner the address is allocated from
+     * @return unicast address of the primary element
+     * @throws IllegalArgumentException if there are no free unicast addresses
+     */
+    int assignUnicastAddress(@NonNull final ProvisioningSession session,
+                             final int elementCount,
+                             @NonNull final MeshNetwork network,
+                             @NonNull final Provisioner provisioner) {
+        if (session.getUnicastAddress() != MeshAddress.UNASSIGNED_ADDRESS) {
+            if (session.getElementCount() == elementCount)
+                return session.getUnicastAddress();
+            release(session);
+        }
+        int address = takeFreeRange(elementCount);
+        if (address < 0) {
+            if (blockNext + elementCount - 1 > blockHigh) {
+                reserveBlock(elementCount, network, provisioner);
+            }
+            address = blockNext;
+            blockNext += elementCount;
+        }
+        session.setUnicastAddress(address, elementCount);
+        return address;
+    }
+
+    /**
+     * Records a device that was provisioned, its address is now in use by the network.
+     *
+     * @param deviceUuid device uuid
+     * @param now        time in nanoseconds
+     */
+    void onProvisioned(@NonNull final UUID deviceUuid, final long now) {
+        final ProvisioningSession session = sessions.get(deviceUuid);
+        if (session == null || session.isFinished())
+            return;
+        session.finish(true, now);
+        if (session.getUnicastAddress() != MeshAddress.UNASSIGNED_ADDRESS) {
+            reserved.remove(session.getUnicastAddress(), session.getUnicastAddress() + session.getElementCount() - 1);
+        }
+        provisioned++;
+        totalDuration += now - session.getStartTime();
+        lastEnd = now;
+    }
+
+    /**
+     * Records a session that failed and gives back its address.
+     *
+     * @param deviceUuid device uuid
+     * @param now        time in nanoseconds
+     */
+    void onFailed(@NonNull final UUID deviceUuid, final long now) {
+        final ProvisioningSession session = sessions.get(deviceUuid);
+        if (session == null || session.isFinished())
+            return;
+        release(session);
+        session.finish(false, now);
+        failed++;
+        lastEnd = now;
+    }
+
+    /**
+     * Returns the throughput of the sessions opened since the last reset.
+     *
+     * @param now time in nanoseconds
+     */
+    @NonNull
+    ProvisioningThroughput getThroughput(final long now) {
+        int active = 0;
+        for (ProvisioningSession session : sessions.values()) {
+            if (!session.isFinished()) {
+                active++;
+            }
+        }
+        final long elapsed = firstStart < 0 ? 0 : (active > 0 ? now : lastEnd) - firstStart;
+        return new ProvisioningThroughput(active, provisioned, failed, elapsed,
+                provisioned == 0 ? 0 : totalDuration / provisioned);
+    }
+
+    private void release(@NonNull final ProvisioningSession session) {
+        final int address = session.getUnicastAddress();
+        if (address != MeshAddress.UNASSIGNED_ADDRESS) {
+            freeRanges.add(new int[]{address, address + session.getElementCount() - 1});
+            session.setUnicastAddress(MeshAddress.UNASSIGNED_ADDRESS, 0);
+        }
+    }
+
+    /**
+     * Takes the addresses from the first free range large enough, returns -1 if none.
+     */
+    private int takeFreeRange(final int elementCount) {
+        final Iterator<int[]> iterator = freeRanges.iterator();
+        while (iterator.hasNext()) {
+            final int[] range = iterator.next();
+            if (range[1] - range[0] + 1 >= elementCount) {
+                final int address = range[0];
+                range[0] += elementCount;
+                if (range[0] > range[1]) {
+                    iterator.remove();
+                }
+                return address;
+            }
+        }
+        return -1;
+    }
+
+    private void reserveBlock(final int elementCount, @NonNull final MeshNetwork network, @NonNull final Provisioner provisioner) {
+        // The rest of the current block is too small, make it available to devices with fewer elements
+        if (blockNext <= blockHigh) {
+            freeRanges.add(new int[]{blockNext, blockHigh});
+            blockHigh = -1;
+        }
+        int size = Math.max(blockSize, elementCount);
+        List<Integer> addresses = network.nextAvailableUnicastAddresses(size, 1, provisioner, reserved);
+        if (addresses.isEmpty() && size > elementCount) {
+            size = elementCount;
+            addresses = network.nextAvailableUnicastAddresses(size, 1, provisioner, reserved);
+        }
+        if (addresses.isEmpty())
+            throw new IllegalArgumentException("No unicast addresses left in the ranges allocated to the provisioner");
+        blockNext = addresses.get(0);
+        blockHigh = blockNext + size - 1;
+        reserved.add(blockNext, blockHigh);
+    }
+}
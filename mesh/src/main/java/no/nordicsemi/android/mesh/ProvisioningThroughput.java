@@ -0,0 +1,85 @@
+package no.nordicsemi.android.mesh;
+
+import java.util.Locale;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Snapshot of the progress of provisioning several devices in parallel.
+ * <p>
+ * The elapsed time runs from the first provisioning session opened since the last reset until now while
+ * sessions are active, or until the last session finished otherwise. Durations are in nanoseconds.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class ProvisioningThroughput {
+
+    private static final double NANOS_PER_MINUTE = 60 * 1000000000.0;
+
+    private final int activeSessions;
+    private final int provisioned;
+    private final int failed;
+    private final long elapsed;
+    private final long averageDuration;
+
+    ProvisioningThroughput(final int activeSessions,
+                           final int provisioned,
+                           final int failed,
+                           final long elapsed,
+                           final long averageDuration) {
+        this.activeSessions = activeSessions;
+        this.provisioned = provisioned;
+        this.failed = failed;
+        this.elapsed = elapsed;
+        this.averageDuration = averageDuration;
+    }
+
+    /**
+     * Returns the number of sessions still provisioning.
+     */
+    public int getActiveSessions() {
+        return activeSessions;
+    }
+
+    /**
+     * Returns the number of devices provisioned.
+     */
+    public int getProvisioned() {
+        return provisioned;
+    }
+
+    /**
+     * Returns the number of sessions that failed.
+     */
+    public int getFailed() {
+        return failed;
+    }
+
+    /**
+     * Returns the elapsed time.
+     */
+    public long getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Returns the average time taken to provision a single device.
+     */
+    public long getAverageDuration() {
+        return averageDuration;
+    }
+
+    /**
+     * Returns the number of devices provisioned per minute over the elapsed time.
+     */
+    public double getDevicesPerMinute() {
+        return elapsed <= 0 ? 0 : provisioned * NANOS_PER_MINUTE / elapsed;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "ProvisioningThroughput{active=%d, provisioned=%d, failed=%d, %.1f devices/min, average=%d ms}",
+                activeSessions, provisioned, failed, getDevicesPerMinute(), averageDuration / 1000000);
+    }
+}
@@ -0,0 +1,100 @@
+package no.nordicsemi.android.mesh;
+
+import androidx.annotation.NonNull;
+import no.nordicsemi.android.mesh.provisionerstates.ProvisioningState;
+
+/**
+ * Time spent in each phase of the current or last provisioning.
+ * <p>
+ * A phase lasts from the moment the provisioner enters a provisioning state until it enters the next
+ * one, so it includes the time waiting for the provisionee. All durations are in nanoseconds.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class ProvisioningTimings {
+
+    private final long[] durations = new long[ProvisioningState.State.values().length];
+    private ProvisioningState.State state;
+    private long start;
+    private long phaseStart;
+    private long total;
+    private long keyPairDuration;
+    private long sharedSecretDuration;
+
+    /**
+     * Returns the time spent in the given provisioning state.
+     *
+     * @param state provisioning state
+     */
+    public synchronized long getDuration(@NonNull final ProvisioningState.State state) {
+        return durations[state.ordinal()];
+    }
+
+    /**
+     * Returns the time from the provisioning invite until provisioning completed or failed, 0 while provisioning.
+     */
+    public synchronized long getTotalDuration() {
+        return total;
+    }
+
+    /**
+     * Returns the time taken to obtain the key pair of the provisioner, from the key pair pool if one was set.
+     */
+    public synchronized long getKeyPairDuration() {
+        return keyPairDuration;
+    }
+
+    /**
+     * Returns the time taken to compute the shared ECDH secret.
+     */
+    public synchronized long getSharedSecretDuration() {
+        return sharedSecretDuration;
+    }
+
+    synchronized void start(final long now) {
+        for (int i = 0; i < durations.length; i++) {
+            durations[i] = 0;
+        }
+        state = null;
+        start = now;
+        phaseStart = now;
+        total = 0;
+        keyPairDuration = 0;
+        sharedSecretDuration = 0;
+    }
+
+    synchronized void onStateChanged(@NonNull final ProvisioningState.State state, final long now) {
+        if (this.state != null) {
+            durations[this.state.ordinal()] += now - phaseStart;
+        }
+        this.state = state;
+        phaseStart = now;
+    }
+
+    synchronized void finish(final long now) {
+        total = now - start;
+    }
+
+    synchronized void setKeyPairDuration(final long keyPairDuration) {
+        this.keyPairDuration = keyPairDuration;
+    }
+
+    synchronized void setSharedSecretDuration(final long sharedSecretDuration) {
+        this.sharedSecretDuration = sharedSecretDuration;
+    }
+
+    @NonNull
+    @Override
+    public synchronized String toString() {
+        final StringBuilder builder = new StringBuilder("ProvisioningTimings{");
+        for (ProvisioningState.State state : ProvisioningState.State.values()) {
+            if (durations[state.ordinal()] > 0) {
+                builder.append(state.name()).append("=").append(durations[state.ordinal()] / 1000000).append(" ms, ");
+            }
+        }
+        return builder.append("keyPair=").append(keyPairDuration / 1000000).append(" ms, ")
+                .append("ecdh=").append(sharedSecretDuration / 1000000).append(" ms, ")
+                .append("total=").append(total / 1000000).append(" ms}")
+                .toString();
+    }
+}
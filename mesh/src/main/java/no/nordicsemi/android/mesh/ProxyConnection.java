@@ -0,0 +1,107 @@
+package no.nordicsemi.android.mesh;
+
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.utils.ProxyFilter;
+
+/**
+ * State of a single connection to a proxy node.
+ * <p>
+ * Each connection reassembles its own segmented proxy PDUs, runs its own SAR timeout, keeps the proxy
+ * filter set on its proxy node and counts the PDUs scheduled on it that are yet to be written.
+ * </p>
+ */
+final class ProxyConnection {
+
+    private final int id;
+    private final ProxySarBuffer incomingBuffer = new ProxySarBuffer();
+    private final ProxySarBuffer outgoingBuffer = new ProxySarBuffer();
+    private final ProxyPduWriteScheduler writeScheduler = new ProxyPduWriteScheduler();
+    private final Runnable sarTimeoutRunnable;
+    private ProxyFilter proxyFilter;
+    private int pendingPdus;
+
+    /**
+     * Constructs the state of a proxy connection
+     *
+     * @param id           id of the connection
+     * @param onSarTimeout invoked when the SAR timeout of the connection expires
+     */
+    ProxyConnection(final int id, @NonNull final Runnable onSarTimeout) {
+        this.id = id;
+        sarTimeoutRunnable = new Runnable() {
+            @Override
+            public void run() {
+                incomingBuffer.reset();
+                onSarTimeout.run();
+            }
+        };
+    }
+
+    int getId() {
+        return id;
+    }
+
+    @NonNull
+    ProxySarBuffer getIncomingBuffer() {
+        return incomingBuffer;
+    }
+
+    @NonNull
+    ProxySarBuffer getOutgoingBuffer() {
+        return outgoingBuffer;
+    }
+
+    @NonNull
+    ProxyPduWriteScheduler getWriteScheduler() {
+        return writeScheduler;
+    }
+
+    @NonNull
+    Runnable getSarTimeoutRunnable() {
+        return sarTimeoutRunnable;
+    }
+
+    @Nullable
+    ProxyFilter getProxyFilter() {
+        return proxyFilter;
+    }
+
+    void setProxyFilter(@Nullable final ProxyFilter proxyFilter) {
+        this.proxyFilter = proxyFilter;
+    }
+
+    /**
+     * Segments the pdus for the connection and counts them as pending until they are written.
+     *
+     * @param mtuSize mtu size of the connection
+     * @param pdus    pdus to be written
+     * @return list of proxy pdus, valid until the next call
+     */
+    @NonNull
+    List<byte[]> schedule(final int mtuSize, @NonNull final List<byte[]> pdus) {
+        pendingPdus += pdus.size();
+        return writeScheduler.schedule(mtuSize, pdus);
+    }
+
+    /**
+     * Records a proxy pdu written on the connection.
+     *
+     * @param time time the write was reported in nanoseconds
+     */
+    void onPduWritten(final long time) {
+        if (pendingPdus > 0) {
+            pendingPdus--;
+        }
+        writeScheduler.onPduWritten(time);
+    }
+
+    /**
+     * Returns the number of pdus scheduled on the connection that are yet to be written.
+     */
+    int getPendingPdus() {
+        return pendingPdus;
+    }
+}
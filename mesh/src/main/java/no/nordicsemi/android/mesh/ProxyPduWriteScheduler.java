@@ -0,0 +1,128 @@
+package no.nordicsemi.android.mesh;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+
+import static no.nordicsemi.android.mesh.MeshManagerApi.GATT_SAR_CONTINUATION;
+import static no.nordicsemi.android.mesh.MeshManagerApi.GATT_SAR_END;
+import static no.nordicsemi.android.mesh.MeshManagerApi.GATT_SAR_START;
+import static no.nordicsemi.android.mesh.MeshManagerApi.SAR_BIT_OFFSET;
+
+/**
+ * Schedules the proxy PDUs written to the connected proxy node.
+ * <p>
+ * The network PDUs created for a message are segmented for the MTU once when they are scheduled and
+ * are handed over to the transport in a single batch, so that the transport may queue every write
+ * without waiting for the write callback of the previous one. Proxy protocol carries a single
+ * message per proxy PDU, so the PDUs are never merged. The frame list is reused between batches.
+ * The rate of the PDUs written is measured from the write callbacks.
+ * </p>
+ */
+final class ProxyPduWriteScheduler {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+    private final List<byte[]> frames = new ArrayList<>();
+    private long writtenPdus;
+    private long firstWriteTime;
+    private long lastWriteTime;
+
+    /**
+     * Segments the given pdus for the MTU.
+     * <p>
+     * The returned list is reused by the next call and is only valid until then.
+     * </p>
+     *
+     * @param mtuSize mtu size supported by the device/node
+     * @param pdus    pdus to be written
+     * @return list of proxy pdus, one per pdu
+     */
+    @NonNull
+    List<byte[]> schedule(final int mtuSize, @NonNull final List<byte[]> pdus) {
+        frames.clear();
+        for (byte[] pdu : pdus) {
+            frames.add(applySegmentation(mtuSize, pdu));
+        }
+        return frames;
+    }
+
+    /**
+     * Records a proxy pdu that was written to the proxy node.
+     *
+     * @param time time the write was reported in nanoseconds
+     */
+    void onPduWritten(final long time) {
+        if (writtenPdus == 0) {
+            firstWriteTime = time;
+        }
+        lastWriteTime = time;
+        writtenPdus++;
+    }
+
+    /**
+     * Returns the number of proxy pdus written since the statistics were reset.
+     */
+    long getWrittenPdus() {
+        return writtenPdus;
+    }
+
+    /**
+     * Returns the rate of proxy pdus written per second since the statistics were reset or 0 if
+     * fewer than two pdus were written.
+     */
+    double getPdusPerSecond() {
+        final long elapsed = lastWriteTime - firstWriteTime;
+        if (writtenPdus < 2 || elapsed <= 0)
+            return 0;
+        return (writtenPdus - 1) * NANOS_PER_SECOND / elapsed;
+    }
+
+    /**
+     * Resets the write statistics.
+     */
+    void resetStatistics() {
+        writtenPdus = 0;
+        firstWriteTime = 0;
+        lastWriteTime = 0;
+    }
+
+    /**
+     * Segments a pdu at the gatt layer. Each segment is placed at a multiple of the mtu size.
+     *
+     * @param mtuSize mtu size supported by the device/node
+     * @param pdu     pdu to be segmented
+     * @return the segmented pdu or the pdu itself if it fits the mtu
+     */
+    @NonNull
+    static byte[] applySegmentation(final int mtuSize, @NonNull final byte[] pdu) {
+        int srcOffset = 0;
+        int dstOffset = 0;
+        final int chunks = (pdu.length + (mtuSize - 1)) / mtuSize;
+
+        final int pduType = pdu[0];
+        if (chunks > 1) {
+            final byte[] segmentedBuffer = new byte[pdu.length + chunks - 1];
+            int length;
+            for (int i = 0; i < chunks; i++) {
+                if (i == 0) {
+                    length = Math.min(pdu.length - srcOffset, mtuSize);
+                    System.arraycopy(pdu, srcOffset, segmentedBuffer, dstOffset, length);
+                    segmentedBuffer[0] = (byte) ((GATT_SAR_START << SAR_BIT_OFFSET) | pduType);
+                } else if (i == chunks - 1) {
+                    length = Math.min(pdu.length - srcOffset, mtuSize);
+                    segmentedBuffer[dstOffset] = (byte) ((GATT_SAR_END << SAR_BIT_OFFSET) | pduType);
+                    System.arraycopy(pdu, srcOffset, segmentedBuffer, dstOffset + 1, length);
+                } else {
+                    length = Math.min(pdu.length - srcOffset, mtuSize - 1);
+                    segmentedBuffer[dstOffset] = (byte) ((GATT_SAR_CONTINUATION << SAR_BIT_OFFSET) | pduType);
+                    System.arraycopy(pdu, srcOffset, segmentedBuffer, dstOffset + 1, length);
+                }
+                srcOffset += length;
+                dstOffset += mtuSize;
+            }
+            return segmentedBuffer;
+        }
+        return pdu;
+    }
+}
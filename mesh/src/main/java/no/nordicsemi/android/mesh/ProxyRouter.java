@@ -0,0 +1,129 @@
+package no.nordicsemi.android.mesh;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.utils.MeshAddress;
+
+/**
+ * Routes outgoing PDUs over the open proxy connections.
+ * <p>
+ * A PDU to a unicast address is sent via the connection that last delivered a message from that
+ * address, as the proxy node of that connection is the closest known one to the destination.
+ * Proxy configuration messages, sent to the unassigned address, use the proxy configuration
+ * connection. Any other PDU is sent via the connection with the fewest PDUs pending to be written.
+ * </p>
+ */
+final class ProxyRouter {
+
+    private final Map<Integer, ProxyConnection> connections = new TreeMap<>();
+    private final Map<Integer, Integer> routes = new HashMap<>();
+    private final Runnable onSarTimeout;
+    private int proxyConfigurationConnectionId = MeshManagerApi.DEFAULT_PROXY_CONNECTION;
+
+    /**
+     * Constructs the router
+     *
+     * @param onSarTimeout invoked when the SAR timeout of any connection expires
+     */
+    ProxyRouter(@NonNull final Runnable onSarTimeout) {
+        this.onSarTimeout = onSarTimeout;
+    }
+
+    /**
+     * Returns the connection with the given id, opening it if it is not open yet.
+     *
+     * @param connectionId id of the connection
+     */
+    @NonNull
+    ProxyConnection open(final int connectionId) {
+        ProxyConnection connection = connections.get(connectionId);
+        if (connection == null) {
+            connection = new ProxyConnection(connectionId, onSarTimeout);
+            connections.put(connectionId, connection);
+        }
+        return connection;
+    }
+
+    /**
+     * Closes the connection with the given id and forgets the routes learned through it.
+     *
+     * @param connectionId id of the connection
+     * @return the closed connection or null if it was not open
+     */
+    @Nullable
+    ProxyConnection close(final int connectionId) {
+        final ProxyConnection connection = connections.remove(connectionId);
+        if (connection != null) {
+            final Iterator<Integer> iterator = routes.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next() == connectionId) {
+                    iterator.remove();
+                }
+            }
+        }
+        return connection;
+    }
+
+    @Nullable
+    ProxyConnection get(final int connectionId) {
+        return connections.get(connectionId);
+    }
+
+    @NonNull
+    List<ProxyConnection> getConnections() {
+        return new ArrayList<>(connections.values());
+    }
+
+    void setProxyConfigurationConnection(final int connectionId) {
+        proxyConfigurationConnectionId = connectionId;
+    }
+
+    /**
+     * Learns that messages from the given address are delivered by the given connection.
+     *
+     * @param src        source address of a received message
+     * @param connection connection the message was received on
+     */
+    void learn(final int src, @NonNull final ProxyConnection connection) {
+        if (MeshAddress.isValidUnicastAddress(src) && connections.get(connection.getId()) == connection) {
+            routes.put(src, connection.getId());
+        }
+    }
+
+    /**
+     * Returns the connection a pdu to the given destination is sent via. The default connection is
+     * opened if no connection is open.
+     *
+     * @param dst destination address
+     */
+    @NonNull
+    ProxyConnection route(final int dst) {
+        if (connections.isEmpty()) {
+            return open(MeshManagerApi.DEFAULT_PROXY_CONNECTION);
+        }
+        ProxyConnection connection = null;
+        if (MeshAddress.isValidUnicastAddress(dst)) {
+            final Integer connectionId = routes.get(dst);
+            if (connectionId != null) {
+                connection = connections.get(connectionId);
+            }
+        } else if (MeshAddress.isValidUnassignedAddress(dst)) {
+            connection = connections.get(proxyConfigurationConnectionId);
+        }
+        if (connection == null) {
+            for (ProxyConnection candidate : connections.values()) {
+                if (connection == null || candidate.getPendingPdus() < connection.getPendingPdus()) {
+                    connection = candidate;
+                }
+            }
+        }
+        return connection;
+    }
+}
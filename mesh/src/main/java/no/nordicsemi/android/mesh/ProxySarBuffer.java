@@ -0,0 +1,85 @@
+package no.nordicsemi.android.mesh;
+
+import java.util.Arrays;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Reusable buffer used to reassemble proxy PDUs segmented at the GATT layer.
+ * <p>
+ * Segments are appended in place and the capacity is doubled when required, so the backing array is
+ * only reallocated until it fits the largest PDU received. The reassembled PDU is copied out once
+ * it is complete as the parsers keep references to the PDUs they are given.
+ * </p>
+ */
+final class ProxySarBuffer {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int length;
+
+    /**
+     * Appends a segment to the buffer
+     *
+     * @param segment segment
+     * @param offset  offset of the data in the segment
+     * @param count   number of bytes to append
+     */
+    void append(@NonNull final byte[] segment, final int offset, final int count) {
+        if (length + count > buffer.length) {
+            int capacity = buffer.length;
+            while (capacity < length + count) {
+                capacity <<= 1;
+            }
+            buffer = Arrays.copyOf(buffer, capacity);
+        }
+        System.arraycopy(segment, offset, buffer, length, count);
+        length += count;
+    }
+
+    /**
+     * Sets the byte at the given index of the buffered data
+     *
+     * @param index index
+     * @param value value
+     * @throws IndexOutOfBoundsException if the index is outside of the buffered data
+     */
+    void set(final int index, final byte value) {
+        if (index < 0 || index >= length)
+            throw new IndexOutOfBoundsException("Index: " + index + ", length: " + length);
+        buffer[index] = value;
+    }
+
+    /**
+     * Returns true if no segment has been appended since the buffer was reset
+     */
+    boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * Returns the number of bytes buffered
+     */
+    int getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the buffered data
+     */
+    @NonNull
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, length);
+    }
+
+    /**
+     * Discards the buffered data while keeping the capacity of the buffer
+     */
+    void reset() {
+        length = 0;
+    }
+
+    int getCapacity() {
+        return buffer.length;
+    }
+}
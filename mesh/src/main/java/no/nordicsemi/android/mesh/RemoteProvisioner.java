@@ -0,0 +1,339 @@
+package no.nordicsemi.android.mesh;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.logger.MeshLogger;
+import no.nordicsemi.android.mesh.transport.MeshMessage;
+import no.nordicsemi.android.mesh.transport.RemoteProvisioningLinkClose;
+import no.nordicsemi.android.mesh.transport.RemoteProvisioningLinkOpen;
+import no.nordicsemi.android.mesh.transport.RemoteProvisioningLinkReport;
+import no.nordicsemi.android.mesh.transport.RemoteProvisioningLinkStatus;
+import no.nordicsemi.android.mesh.transport.RemoteProvisioningPduOutboundReport;
+import no.nordicsemi.android.mesh.transport.RemoteProvisioningPduReport;
+import no.nordicsemi.android.mesh.transport.RemoteProvisioningPduSend;
+import no.nordicsemi.android.mesh.transport.RemoteProvisioningStatusMessage;
+import no.nordicsemi.android.mesh.utils.MeshAddress;
+
+/**
+ * Remote Provisioning client, tunnelling provisioning PDUs through Remote Provisioning Servers in the network.
+ * <p>
+ * Each device is provisioned over a link opened by a server, a server holding a single link at a time. Links
+ * through different servers run in parallel. A provisioning PDU is sent once the previous one was delivered to
+ * the device, the messages that are not answered are sent again until the link is given up.
+ * </p>
+ */
+final class RemoteProvisioner {
+
+    private static final String TAG = RemoteProvisioner.class.getSimpleName();
+
+    static final long DEFAULT_TIMEOUT = 10000;
+    static final int MAX_RETRIES = 2;
+
+    /**
+     * Callbacks of the remote provisioner.
+     */
+    interface Callbacks {
+
+        /**
+         * Sends a message to a Remote Provisioning Server.
+         *
+         * @param serverAddress unicast address of the element of the server
+         * @param message       message
+         */
+        void sendMessage(final int serverAddress, @NonNull final MeshMessage message);
+
+        /**
+         * Invoked when the link to a device was opened.
+         *
+         * @param deviceUuid device uuid
+         */
+        void onLinkOpened(@NonNull final UUID deviceUuid);
+
+        /**
+         * Invoked when a provisioning pdu was delivered to the device.
+         *
+         * @param deviceUuid device uuid
+         */
+        void onPduDelivered(@NonNull final UUID deviceUuid);
+
+        /**
+         * Invoked when a provisioning pdu was received from the device.
+         *
+         * @param deviceUuid      device uuid
+         * @param provisioningPdu provisioning pdu starting with the provisioning pdu type
+         */
+        void onPduReceived(@NonNull final UUID deviceUuid, @NonNull final byte[] provisioningPdu);
+
+        /**
+         * Invoked when the link to a device was closed.
+         *
+         * @param deviceUuid device uuid
+         * @param reason     reason the link was lost or null if the link was closed by the client
+         */
+        void onLinkClosed(@NonNull final UUID deviceUuid, @Nullable final String reason);
+    }
+
+    private enum LinkState {
+        OPENING, ACTIVE, CLOSING
+    }
+
+    private static final class Link {
+        final int serverAddress;
+        final UUID deviceUuid;
+        final ArrayDeque<byte[]> outbound = new ArrayDeque<>();
+        LinkState state = LinkState.OPENING;
+        int outboundPduNumber;
+        int inboundPduNumber;
+        // Message waiting for a response, resent on timeout
+        MeshMessage pending;
+        long sent;
+        int retries;
+
+        Link(final int serverAddress, @NonNull final UUID deviceUuid) {
+            this.serverAddress = serverAddress;
+            this.deviceUuid = deviceUuid;
+        }
+    }
+
+    private final Callbacks callbacks;
+    private final Map<UUID, Link> links = new LinkedHashMap<>();
+    private long timeout = DEFAULT_TIMEOUT;
+
+    RemoteProvisioner(@NonNull final Callbacks callbacks) {
+        this.callbacks = callbacks;
+    }
+
+    /**
+     * Sets the time after which a message without a response is sent again.
+     *
+     * @param timeout timeout in milliseconds
+     */
+    void setTimeout(final long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Opens a link to a device through a Remote Provisioning Server.
+     *
+     * @param serverAddress unicast address of the element of the server
+     * @param deviceUuid    device uuid of the unprovisioned device
+     * @param now           current time in milliseconds
+     * @throws IllegalArgumentException if the device or the server already has a link
+     */
+    void openLink(final int serverAddress, @NonNull final UUID deviceUuid, final long now) {
+        if (!MeshAddress.isValidUnicastAddress(serverAddress))
+            throw new IllegalArgumentException("Server address must be a unicast address");
+        if (links.containsKey(deviceUuid))
+            throw new IllegalArgumentException("Device " + deviceUuid + " already has a link");
+        if (getLink(serverAddress) != null)
+            throw new IllegalArgumentException("Server " + MeshAddress.formatAddress(serverAddress, true) + " already has a link");
+        final Link link = new Link(serverAddress, deviceUuid);
+        links.put(deviceUuid, link);
+        send(link, new RemoteProvisioningLinkOpen(deviceUuid), now);
+    }
+
+    /**
+     * Returns true if the device has a link through a Remote Provisioning Server.
+     *
+     * @param deviceUuid device uuid
+     */
+    boolean hasLink(@NonNull final UUID deviceUuid) {
+        return links.containsKey(deviceUuid);
+    }
+
+    /**
+     * Returns the number of links opened or being opened.
+     */
+    int getLinkCount() {
+        return links.size();
+    }
+
+    /**
+     * Sends a provisioning pdu to a device, after the previous pdus were delivered.
+     *
+     * @param deviceUuid      device uuid
+     * @param provisioningPdu provisioning pdu starting with the provisioning pdu type
+     * @param now             current time in milliseconds
+     * @throws IllegalArgumentException if the device has no link
+     */
+    void sendPdu(@NonNull final UUID deviceUuid, @NonNull final byte[] provisioningPdu, final long now) {
+        final Link link = links.get(deviceUuid);
+        if (link == null || link.state == LinkState.CLOSING)
+            throw new IllegalArgumentException("Device " + deviceUuid + " has no link");
+        link.outbound.add(provisioningPdu);
+        if (link.state == LinkState.ACTIVE && link.pending == null) {
+            sendNextPdu(link, now);
+        }
+    }
+
+    /**
+     * Closes the link to a device, nothing happens if the device has no link.
+     *
+     * @param deviceUuid  device uuid
+     * @param provisioned true if the device was provisioned
+     * @param now         current time in milliseconds
+     */
+    void closeLink(@NonNull final UUID deviceUuid, final boolean provisioned, final long now) {
+        final Link link = links.get(deviceUuid);
+        if (link == null || link.state == LinkState.CLOSING)
+            return;
+        link.state = LinkState.CLOSING;
+        link.outbound.clear();
+        send(link, new RemoteProvisioningLinkClose(provisioned ?
+                RemoteProvisioningLinkClose.REASON_SUCCESS : RemoteProvisioningLinkClose.REASON_FAIL), now);
+    }
+
+    /**
+     * Processes a message received from a Remote Provisioning Server.
+     *
+     * @param message message received
+     * @param now     current time in milliseconds
+     * @return true if the message belongs to a link
+     */
+    boolean onMessageReceived(@NonNull final MeshMessage message, final long now) {
+        final Link link = getLink(message.getSrc());
+        if (link == null)
+            return false;
+        if (message instanceof RemoteProvisioningLinkStatus) {
+            onLinkStatus(link, (RemoteProvisioningLinkStatus) message);
+        } else if (message instanceof RemoteProvisioningLinkReport) {
+            onLinkReport(link, (RemoteProvisioningLinkReport) message, now);
+        } else if (message instanceof RemoteProvisioningPduOutboundReport) {
+            onOutboundReport(link, (RemoteProvisioningPduOutboundReport) message, now);
+        } else if (message instanceof RemoteProvisioningPduReport) {
+            onPduReport(link, (RemoteProvisioningPduReport) message);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the time the next message times out, {@link Long#MAX_VALUE} if no message is waiting for a response.
+     */
+    long getNextTimeout() {
+        long next = Long.MAX_VALUE;
+        for (Link link : links.values()) {
+            if (link.pending != null) {
+                next = Math.min(next, link.sent + timeout);
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Sends again the messages that timed out, giving up the links whose server does not respond.
+     *
+     * @param now current time in milliseconds
+     */
+    void onTimeout(final long now) {
+        final List<Link> lost = new ArrayList<>();
+        for (Link link : links.values()) {
+            if (link.pending == null || now - link.sent < timeout)
+                continue;
+            if (link.retries++ >= MAX_RETRIES) {
+                lost.add(link);
+            } else {
+                link.sent = now;
+                callbacks.sendMessage(link.serverAddress, link.pending);
+            }
+        }
+        for (Link link : lost) {
+            remove(link, link.state == LinkState.CLOSING ? null : "No response from server "
+                    + MeshAddress.formatAddress(link.serverAddress, true));
+        }
+    }
+
+    /**
+     * Forgets all links without closing them.
+     */
+    void clear() {
+        links.clear();
+    }
+
+    private void onLinkStatus(@NonNull final Link link, @NonNull final RemoteProvisioningLinkStatus status) {
+        if (!status.isSuccessful()) {
+            remove(link, status.getStatusCodeName());
+        } else if (link.state == LinkState.CLOSING) {
+            // The server drops the link, the link report that follows is not needed
+            remove(link, null);
+        }
+        // While opening, the link open is sent again until the server reports the link as opened
+    }
+
+    private void onLinkReport(@NonNull final Link link, @NonNull final RemoteProvisioningLinkReport report, final long now) {
+        if (report.getLinkState() == RemoteProvisioningStatusMessage.LINK_STATE_IDLE || !report.isSuccessful()) {
+            remove(link, link.state == LinkState.CLOSING && report.isSuccessful() ? null : report.getStatusCodeName());
+        } else if (link.state == LinkState.OPENING && report.getLinkState() == RemoteProvisioningStatusMessage.LINK_STATE_LINK_ACTIVE) {
+            link.state = LinkState.ACTIVE;
+            link.pending = null;
+            MeshLogger.debug(TAG, "Link to " + link.deviceUuid + " opened by server " + MeshAddress.formatAddress(link.serverAddress, true));
+            callbacks.onLinkOpened(link.deviceUuid);
+            // The callback may have sent the first pdu or closed the link
+            if (link.pending == null && link.state == LinkState.ACTIVE && !link.outbound.isEmpty()) {
+                sendNextPdu(link, now);
+            }
+        }
+    }
+
+    private void onOutboundReport(@NonNull final Link link, @NonNull final RemoteProvisioningPduOutboundReport report, final long now) {
+        if (!(link.pending instanceof RemoteProvisioningPduSend) || report.getOutboundPduNumber() != link.outboundPduNumber)
+            return;
+        link.pending = null;
+        callbacks.onPduDelivered(link.deviceUuid);
+        // The callback may have sent the next pdu or closed the link
+        if (link.pending == null && link.state == LinkState.ACTIVE && !link.outbound.isEmpty()) {
+            sendNextPdu(link, now);
+        }
+    }
+
+    private void onPduReport(@NonNull final Link link, @NonNull final RemoteProvisioningPduReport report) {
+        if (link.state != LinkState.ACTIVE)
+            return;
+        // Reports sent again by the server are dropped
+        if (report.getInboundPduNumber() != ((link.inboundPduNumber + 1) & 0xFF))
+            return;
+        link.inboundPduNumber = report.getInboundPduNumber();
+        callbacks.onPduReceived(link.deviceUuid, report.getProvisioningPdu());
+    }
+
+    private void sendNextPdu(@NonNull final Link link, final long now) {
+        final byte[] pdu = link.outbound.poll();
+        if (pdu != null) {
+            link.outboundPduNumber = (link.outboundPduNumber + 1) & 0xFF;
+            send(link, new RemoteProvisioningPduSend(link.outboundPduNumber, pdu), now);
+        }
+    }
+
+    private void send(@NonNull final Link link, @NonNull final MeshMessage message, final long now) {
+        link.pending = message;
+        link.sent = now;
+        link.retries = 0;
+        callbacks.sendMessage(link.serverAddress, message);
+    }
+
+    private void remove(@NonNull final Link link, @Nullable final String reason) {
+        if (links.remove(link.deviceUuid) == null)
+            return;
+        if (reason != null) {
+            MeshLogger.error(TAG, "Link to " + link.deviceUuid + " lost: " + reason);
+        }
+        callbacks.onLinkClosed(link.deviceUuid, reason);
+    }
+
+    @Nullable
+    private Link getLink(final int serverAddress) {
+        for (Link link : links.values()) {
+            if (link.serverAddress == serverAddress)
+                return link;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,139 @@
+package no.nordicsemi.android.mesh;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import no.nordicsemi.android.mesh.transport.Element;
+import no.nordicsemi.android.mesh.transport.MeshModel;
+import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+
+/**
+ * Maps subscription addresses to the models subscribed to them, so that the members of a group can
+ * be looked up without iterating through every model of every node.
+ * <p>
+ * Nodes are re-indexed when they are added or updated in the network, which includes every status
+ * message received from a node. The index is rebuilt when the list of nodes it was built from has
+ * been replaced, for example after loading or importing a network, or when the number of nodes no
+ * longer matches the number of indexed nodes.
+ * </p>
+ */
+final class SubscriptionIndex {
+
+    private final Map<Integer, List<Subscriber>> subscribers = new HashMap<>();
+    private final Map<String, List<Subscriber>> nodeSubscribers = new HashMap<>();
+    private List<ProvisionedMeshNode> indexedNodes;
+
+    synchronized void putNode(@NonNull final ProvisionedMeshNode node) {
+        removeNode(node);
+        final List<Subscriber> list = new ArrayList<>();
+        for (Element element : node.getElements().values()) {
+            for (MeshModel model : element.getMeshModels().values()) {
+                if (model == null || model.getSubscribedAddresses().isEmpty())
+                    continue;
+                final Subscriber subscriber = new Subscriber(element, model, model.getSubscribedAddresses());
+                for (Integer address : subscriber.addresses) {
+                    List<Subscriber> addressSubscribers = subscribers.get(address);
+                    if (addressSubscribers == null) {
+                        addressSubscribers = new ArrayList<>();
+                        subscribers.put(address, addressSubscribers);
+                    }
+                    addressSubscribers.add(subscriber);
+                }
+                list.add(subscriber);
+            }
+        }
+        nodeSubscribers.put(getId(node), list);
+    }
+
+    synchronized void removeNode(@NonNull final ProvisionedMeshNode node) {
+        final List<Subscriber> list = nodeSubscribers.remove(getId(node));
+        if (list == null)
+            return;
+        for (Subscriber subscriber : list) {
+            for (Integer address : subscriber.addresses) {
+                final List<Subscriber> addressSubscribers = subscribers.get(address);
+                if (addressSubscribers != null) {
+                    addressSubscribers.remove(subscriber);
+                    if (addressSubscribers.isEmpty()) {
+                        subscribers.remove(address);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the elements containing a model subscribed to the given address.
+     *
+     * @param nodes   nodes of the network
+     * @param address subscription address
+     */
+    @NonNull
+    synchronized List<Element> getElements(@NonNull final List<ProvisionedMeshNode> nodes, final int address) {
+        final List<Subscriber> list = getSubscribers(nodes, address);
+        final List<Element> elements = new ArrayList<>(list.size());
+        final Map<Element, Boolean> added = new IdentityHashMap<>();
+        for (Subscriber subscriber : list) {
+            if (added.put(subscriber.element, Boolean.TRUE) == null) {
+                elements.add(subscriber.element);
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * Returns the models subscribed to the given address.
+     *
+     * @param nodes   nodes of the network
+     * @param address subscription address
+     */
+    @NonNull
+    synchronized List<MeshModel> getModels(@NonNull final List<ProvisionedMeshNode> nodes, final int address) {
+        final List<Subscriber> list = getSubscribers(nodes, address);
+        final List<MeshModel> models = new ArrayList<>(list.size());
+        final Map<MeshModel, Boolean> added = new IdentityHashMap<>();
+        for (Subscriber subscriber : list) {
+            if (added.put(subscriber.model, Boolean.TRUE) == null) {
+                models.add(subscriber.model);
+            }
+        }
+        return models;
+    }
+
+    @NonNull
+    private List<Subscriber> getSubscribers(@NonNull final List<ProvisionedMeshNode> nodes, final int address) {
+        if (indexedNodes != nodes || nodeSubscribers.size() != nodes.size()) {
+            subscribers.clear();
+            nodeSubscribers.clear();
+            for (ProvisionedMeshNode node : nodes) {
+                putNode(node);
+            }
+            indexedNodes = nodes;
+        }
+        final List<Subscriber> list = subscribers.get(address);
+        return list == null ? Collections.<Subscriber>emptyList() : list;
+    }
+
+    private static String getId(@NonNull final ProvisionedMeshNode node) {
+        return node.getUuid().toUpperCase(Locale.US);
+    }
+
+    private static final class Subscriber {
+        final Element element;
+        final MeshModel model;
+        // Copied, as the list of the model is updated in place when a subscription status is received
+        final List<Integer> addresses;
+
+        Subscriber(@NonNull final Element element, @NonNull final MeshModel model, @NonNull final List<Integer> addresses) {
+            this.element = element;
+            this.model = model;
+            this.addresses = new ArrayList<>(addresses);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package no.nordicsemi.android.mesh;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.mesh.utils.MeshAddress;
+
+/**
+ * Keeps the unicast addresses, group addresses and scene numbers in use within a mesh network,
+ * updated as nodes, groups and scenes are added and removed.
+ * <p>
+ * Each set is rebuilt from the network when the list it was built from has been replaced, for
+ * example after loading or importing a network, or when the list has been modified without notifying
+ * the index. Unicast addresses are also rebuilt when a node sharing addresses with another node is
+ * removed, as the addresses may still be in use by the other node.
+ * </p>
+ */
+final class UsedAddressIndex {
+
+    private final AddressSet unicastAddresses = new AddressSet();
+    private final Map<String, int[]> nodeAddresses = new HashMap<>();
+    private List<ProvisionedMeshNode> indexedNodes;
+    private boolean overlapping;
+
+    private final AddressSet groupAddresses = new AddressSet();
+    private List<Group> indexedGroups;
+    private int groupCount;
+
+    private final AddressSet sceneNumbers = new AddressSet();
+    private List<Scene> indexedScenes;
+    private int sceneCount;
+
+    synchronized void putNode(@NonNull final ProvisionedMeshNode node) {
+        final int[] previous = nodeAddresses.remove(getId(node));
+        if (previous != null) {
+            removeAddresses(previous);
+        }
+        final int low = node.getUnicastAddress();
+        // Nodes may not have their composition data yet, in which case only the primary address is known
+        final int high = Math.max(low, node.getLastUnicastAddress());
+        if (unicastAddresses.intersects(low, high)) {
+            overlapping = true;
+        }
+        unicastAddresses.add(low, high);
+        nodeAddresses.put(getId(node), new int[]{low, high});
+    }
+
+    synchronized void removeNode(@NonNull final ProvisionedMeshNode node) {
+        final int[] previous = nodeAddresses.remove(getId(node));
+        if (previous != null) {
+            removeAddresses(previous);
+        }
+    }
+
+    private void removeAddresses(@NonNull final int[] addresses) {
+        if (overlapping) {
+            indexedNodes = null;
+        } else {
+            unicastAddresses.remove(addresses[0], addresses[1]);
+        }
+    }
+
+    synchronized void putGroup(@NonNull final Group group) {
+        if (MeshAddress.isValidGroupAddress(group.getAddress())) {
+            groupAddresses.add(group.getAddress(), group.getAddress());
+        }
+        groupCount++;
+    }
+
+    synchronized void removeGroup(@NonNull final Group group) {
+        if (MeshAddress.isValidGroupAddress(group.getAddress())) {
+            groupAddresses.remove(group.getAddress(), group.getAddress());
+        }
+        groupCount--;
+    }
+
+    synchronized void putScene(@NonNull final Scene scene) {
+        sceneNumbers.add(scene.getNumber(), scene.getNumber());
+        sceneCount++;
+    }
+
+    synchronized void removeScene(@NonNull final Scene scene) {
+        sceneNumbers.remove(scene.getNumber(), scene.getNumber());
+        sceneCount--;
+    }
+
+    /**
+     * Returns the unicast addresses used by the given nodes.
+     *
+     * @param nodes nodes of the network
+     */
+    @NonNull
+    synchronized AddressSet getUnicastAddresses(@NonNull final List<ProvisionedMeshNode> nodes) {
+        if (indexedNodes != nodes || nodeAddresses.size() != nodes.size()) {
+            unicastAddresses.clear();
+            nodeAddresses.clear();
+            overlapping = false;
+            for (ProvisionedMeshNode node : nodes) {
+                putNode(node);
+            }
+            indexedNodes = nodes;
+        }
+        return unicastAddresses;
+    }
+
+    /**
+     * Returns the group addresses used by the given groups.
+     *
+     * @param groups groups of the network
+     */
+    @NonNull
+    synchronized AddressSet getGroupAddresses(@NonNull final List<Group> groups) {
+        if (indexedGroups != groups || groupCount != groups.size()) {
+            groupAddresses.clear();
+            groupCount = 0;
+            for (Group group : groups) {
+                putGroup(group);
+            }
+            indexedGroups = groups;
+        }
+        return groupAddresses;
+    }
+
+    /**
+     * Returns the scene numbers used by the given scenes.
+     *
+     * @param scenes scenes of the network
+     */
+    @NonNull
+    synchronized AddressSet getSceneNumbers(@NonNull final List<Scene> scenes) {
+        if (indexedScenes != scenes || sceneCount != scenes.size()) {
+            sceneNumbers.clear();
+            sceneCount = 0;
+            for (Scene scene : scenes) {
+                putScene(scene);
+            }
+            indexedScenes = scenes;
+        }
+        return sceneNumbers;
+    }
+
+    private static String getId(@NonNull final ProvisionedMeshNode node) {
+        return node.getUuid().toUpperCase(Locale.US);
+    }
+}
@@ -0,0 +1,148 @@
+package no.nordicsemi.android.mesh.provisionerstates;
+
+import org.spongycastle.jce.ECNamedCurveTable;
+import org.spongycastle.jce.interfaces.ECPublicKey;
+import org.spongycastle.jce.spec.ECNamedCurveParameterSpec;
+import org.spongycastle.jce.spec.ECParameterSpec;
+import org.spongycastle.jce.spec.ECPublicKeySpec;
+import org.spongycastle.math.ec.ECPoint;
+import org.spongycastle.util.BigIntegers;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.Provider;
+import java.security.PublicKey;
+import java.security.Security;
+import java.security.interfaces.ECPrivateKey;
+import java.security.spec.ECGenParameterSpec;
+
+import javax.crypto.KeyAgreement;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * P-256 key pair of the provisioner used for a single provisioning.
+ * <p>
+ * The key pair is generated either with SpongyCastle, as the library always did, or with the
+ * platform provider, i.e. the native implementation of Android. The shared ECDH secret is computed
+ * with the provider the key pair was generated with.
+ * </p>
+ */
+final class ProvisioningKeyPair {
+
+    private static final String CURVE = "secp256r1";
+    private static final String SPONGY_CASTLE = "SC";
+
+    private final PrivateKey privateKey;
+    private final byte[] publicKeyXY;
+    private final Provider provider;
+
+    private ProvisioningKeyPair(@NonNull final PrivateKey privateKey,
+                                @NonNull final byte[] publicKeyXY,
+                                @Nullable final Provider provider) {
+        this.privateKey = privateKey;
+        this.publicKeyXY = publicKeyXY;
+        this.provider = provider;
+    }
+
+    /**
+     * Generates a key pair.
+     *
+     * @param usePlatformProvider true to use the platform provider, false to use SpongyCastle
+     * @throws GeneralSecurityException if the key pair could not be generated
+     */
+    @NonNull
+    static ProvisioningKeyPair generate(final boolean usePlatformProvider) throws GeneralSecurityException {
+        final Provider provider = usePlatformProvider ? getPlatformProvider() : null;
+        if (provider == null) {
+            final ECNamedCurveParameterSpec parameterSpec = ECNamedCurveTable.getParameterSpec(CURVE);
+            final KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("ECDH", SPONGY_CASTLE);
+            keyPairGenerator.initialize(parameterSpec);
+            final KeyPair keyPair = keyPairGenerator.generateKeyPair();
+            final ECPoint point = ((ECPublicKey) keyPair.getPublic()).getQ();
+            return new ProvisioningKeyPair(keyPair.getPrivate(),
+                    toXY(point.getAffineXCoord().toBigInteger(), point.getAffineYCoord().toBigInteger()), null);
+        }
+        final KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC", provider);
+        keyPairGenerator.initialize(new ECGenParameterSpec(CURVE));
+        final KeyPair keyPair = keyPairGenerator.generateKeyPair();
+        final java.security.spec.ECPoint point = ((java.security.interfaces.ECPublicKey) keyPair.getPublic()).getW();
+        return new ProvisioningKeyPair(keyPair.getPrivate(), toXY(point.getAffineX(), point.getAffineY()), provider);
+    }
+
+    /**
+     * Returns the X and Y coordinates of the public key, 32 bytes each.
+     */
+    @NonNull
+    byte[] getPublicKeyXY() {
+        return publicKeyXY;
+    }
+
+    /**
+     * Returns true if the key pair was generated with the platform provider.
+     */
+    boolean isPlatformKeyPair() {
+        return provider != null;
+    }
+
+    /**
+     * Computes the shared ECDH secret with the public key of the provisionee.
+     *
+     * @param xy X and Y coordinates of the public key of the provisionee
+     * @throws IllegalArgumentException if the public key is not a point on the curve
+     * @throws GeneralSecurityException if the secret could not be computed
+     */
+    @NonNull
+    byte[] generateSharedSecret(@NonNull final byte[] xy) throws GeneralSecurityException {
+        final BigInteger x = BigIntegers.fromUnsignedByteArray(xy, 0, 32);
+        final BigInteger y = BigIntegers.fromUnsignedByteArray(xy, 32, 32);
+
+        final ECParameterSpec ecParameters = ECNamedCurveTable.getParameterSpec(CURVE);
+        // Throws if the point is not on the curve, regardless of the provider used
+        final ECPoint ecPoint = ecParameters.getCurve().validatePoint(x, y);
+
+        final PublicKey publicKey;
+        final KeyAgreement keyAgreement;
+        if (provider == null) {
+            publicKey = KeyFactory.getInstance("ECDH", SPONGY_CASTLE).generatePublic(new ECPublicKeySpec(ecPoint, ecParameters));
+            keyAgreement = KeyAgreement.getInstance("ECDH", SPONGY_CASTLE);
+        } else {
+            final java.security.spec.ECPublicKeySpec keySpec = new java.security.spec.ECPublicKeySpec(
+                    new java.security.spec.ECPoint(x, y), ((ECPrivateKey) privateKey).getParams());
+            publicKey = KeyFactory.getInstance("EC", provider).generatePublic(keySpec);
+            keyAgreement = KeyAgreement.getInstance("ECDH", provider);
+        }
+        keyAgreement.init(privateKey);
+        keyAgreement.doPhase(publicKey, true);
+        return keyAgreement.generateSecret();
+    }
+
+    /**
+     * Returns the first provider other than SpongyCastle that supports EC key pairs and ECDH, null if there is none.
+     */
+    @Nullable
+    private static Provider getPlatformProvider() {
+        final Provider[] providers = Security.getProviders("KeyPairGenerator.EC");
+        if (providers != null) {
+            for (Provider provider : providers) {
+                if (!SPONGY_CASTLE.equals(provider.getName()) && provider.getService("KeyAgreement", "ECDH") != null) {
+                    return provider;
+                }
+            }
+        }
+        return null;
+    }
+
+    @NonNull
+    private static byte[] toXY(@NonNull final BigInteger x, @NonNull final BigInteger y) {
+        final byte[] xy = new byte[64];
+        System.arraycopy(BigIntegers.asUnsignedByteArray(32, x), 0, xy, 0, 32);
+        System.arraycopy(BigIntegers.asUnsignedByteArray(32, y), 0, xy, 32, 32);
+        return xy;
+    }
+}
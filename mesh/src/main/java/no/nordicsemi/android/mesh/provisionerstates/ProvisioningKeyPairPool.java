@@ -0,0 +1,159 @@
+package no.nordicsemi.android.mesh.provisionerstates;
+
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.logger.MeshLogger;
+
+/**
+ * Pool of provisioner key pairs generated in the background.
+ * <p>
+ * Generating the P-256 key pair of the provisioner takes a noticeable time on every provisioning.
+ * The pool keeps up to {@link #getSize()} key pairs ready, generated on the given executor, and
+ * refills itself after a key pair is taken. Each key pair is used for a single provisioning only.
+ * When the pool is empty a key pair is generated on the calling thread.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class ProvisioningKeyPairPool {
+
+    private static final String TAG = ProvisioningKeyPairPool.class.getSimpleName();
+    public static final int DEFAULT_SIZE = 2;
+    private static final long KEEP_ALIVE_SECONDS = 10;
+
+    private final ConcurrentLinkedQueue<ProvisioningKeyPair> keyPairs = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger generating = new AtomicInteger();
+    private final Executor executor;
+    private final boolean usePlatformProvider;
+    private volatile int size;
+
+    private final Runnable generateTask = new Runnable() {
+        @Override
+        public void run() {
+            try {
+                if (keyPairs.size() < size) {
+                    keyPairs.add(ProvisioningKeyPair.generate(usePlatformProvider));
+                }
+            } catch (GeneralSecurityException ex) {
+                MeshLogger.error(TAG, "Unable to generate key pair: " + ex.getMessage());
+            } finally {
+                generating.decrementAndGet();
+            }
+        }
+    };
+
+    /**
+     * Constructs a pool of {@link #DEFAULT_SIZE} SpongyCastle key pairs refilled on a single background thread.
+     * The thread is a daemon thread that ends when the pool has been refilled, so the pool needs no shutdown.
+     */
+    public ProvisioningKeyPairPool() {
+        this(DEFAULT_SIZE, createExecutor(), false);
+    }
+
+    /**
+     * Constructs a pool and starts filling it.
+     *
+     * @param size                number of key pairs kept ready, 0 to generate them when taken
+     * @param executor            executor the key pairs are generated on
+     * @param usePlatformProvider true to generate the key pairs and compute the ECDH secret with the platform
+     *                            provider instead of SpongyCastle, SpongyCastle is used if the platform has no
+     *                            EC provider
+     * @throws IllegalArgumentException if the size is negative
+     */
+    public ProvisioningKeyPairPool(final int size, @NonNull final Executor executor, final boolean usePlatformProvider) {
+        this.executor = executor;
+        this.usePlatformProvider = usePlatformProvider;
+        setSize(size);
+    }
+
+    /**
+     * Returns the number of key pairs kept ready.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Sets the number of key pairs kept ready and refills the pool.
+     *
+     * @param size number of key pairs, 0 to generate them when taken
+     * @throws IllegalArgumentException if the size is negative
+     */
+    public void setSize(final int size) {
+        if (size < 0)
+            throw new IllegalArgumentException("Pool size must not be negative");
+        this.size = size;
+        while (keyPairs.size() > size) {
+            keyPairs.poll();
+        }
+        refill();
+    }
+
+    /**
+     * Returns the number of key pairs ready to be taken.
+     */
+    public int getAvailable() {
+        return keyPairs.size();
+    }
+
+    public boolean isUsingPlatformProvider() {
+        return usePlatformProvider;
+    }
+
+    /**
+     * Takes a key pair from the pool, generating one if the pool is empty, and refills the pool.
+     *
+     * @throws GeneralSecurityException if the pool was empty and the key pair could not be generated
+     */
+    @NonNull
+    ProvisioningKeyPair take() throws GeneralSecurityException {
+        final ProvisioningKeyPair keyPair = keyPairs.poll();
+        try {
+            return keyPair != null ? keyPair : ProvisioningKeyPair.generate(usePlatformProvider);
+        } finally {
+            refill();
+        }
+    }
+
+    private void refill() {
+        final int missing = size - keyPairs.size() - generating.get();
+        for (int i = 0; i < missing; i++) {
+            generating.incrementAndGet();
+            executor.execute(generateTask);
+        }
+    }
+
+    @NonNull
+    private static Executor createExecutor() {
+        final ThreadFactory threadFactory = new ThreadFactory() {
+            @Override
+            public Thread newThread(@NonNull final Runnable runnable) {
+                final Thread thread = new Thread(runnable, TAG);
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Takes a key pair from the given pool or generates one with SpongyCastle if there is no pool.
+     *
+     * @param pool key pair pool
+     */
+    @NonNull
+    static ProvisioningKeyPair take(@Nullable final ProvisioningKeyPairPool pool) throws GeneralSecurityException {
+        return pool == null ? ProvisioningKeyPair.generate(false) : pool.take();
+    }
+}
@@ -23,30 +23,11 @@
 package no.nordicsemi.android.mesh.provisionerstates;
 
 
-import org.spongycastle.jce.ECNamedCurveTable;
-import org.spongycastle.jce.interfaces.ECPrivateKey;
-import org.spongycastle.jce.interfaces.ECPublicKey;
-import org.spongycastle.jce.spec.ECNamedCurveParameterSpec;
-import org.spongycastle.jce.spec.ECParameterSpec;
-import org.spongycastle.jce.spec.ECPublicKeySpec;
-import org.spongycastle.math.ec.ECCurve;
-import org.spongycastle.math.ec.ECPoint;
-import org.spongycastle.util.BigIntegers;
-
-import java.math.BigInteger;
 import java.nio.ByteBuffer;
-import java.security.InvalidKeyException;
-import java.security.KeyFactory;
-import java.security.KeyPair;
-import java.security.KeyPairGenerator;
-import java.security.NoSuchAlgorithmException;
-import java.security.NoSuchProviderException;
-import java.security.PrivateKey;
-import java.security.spec.InvalidKeySpecException;
-
-import javax.crypto.KeyAgreement;
+import java.security.GeneralSecurityException;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import no.nordicsemi.android.mesh.InternalTransportCallbacks;
 import no.nordicsemi.android.mesh.MeshManagerApi;
 import no.nordicsemi.android.mesh.MeshProvisioningStatusCallbacks;
@@ -61,7 +42,10 @@ public class ProvisioningPublicKeyState extends ProvisioningState {
     private final UnprovisionedMeshNode node;
     private final InternalTransportCallbacks internalTransportCallbacks;
 
-    private PrivateKey mProvisionerPrivateKey;
+    private final ProvisioningKeyPairPool keyPairPool;
+    private ProvisioningKeyPair mProvisionerKeyPair;
+    private long keyPairDuration;
+    private long sharedSecretDuration;
 
     /**
      * Constructs the provisioning publick key state.
@@ -73,12 +57,43 @@ public class ProvisioningPublicKeyState extends ProvisioningState {
     public ProvisioningPublicKeyState(final UnprovisionedMeshNode node,
                                       final InternalTransportCallbacks internalTransportCallbacks,
                                       final MeshProvisioningStatusCallbacks provisioningStatusCallbacks) {
+        this(node, null, internalTransportCallbacks, provisioningStatusCallbacks);
+    }
+
+    /**
+     * Constructs the provisioning public key state.
+     *
+     * @param node                        {@link UnprovisionedMeshNode} node.
+     * @param keyPairPool                 {@link ProvisioningKeyPairPool} the key pair of the provisioner is taken from,
+     *                                    null to generate it with SpongyCastle.
+     * @param internalTransportCallbacks  {@link InternalTransportCallbacks} callbacks.
+     * @param provisioningStatusCallbacks {@link MeshProvisioningStatusCallbacks} callbacks.
+     */
+    public ProvisioningPublicKeyState(final UnprovisionedMeshNode node,
+                                      @Nullable final ProvisioningKeyPairPool keyPairPool,
+                                      final InternalTransportCallbacks internalTransportCallbacks,
+                                      final MeshProvisioningStatusCallbacks provisioningStatusCallbacks) {
         super();
         this.node = node;
+        this.keyPairPool = keyPairPool;
         this.provisioningStatusCallbacks = provisioningStatusCallbacks;
         this.internalTransportCallbacks = internalTransportCallbacks;
     }
 
+    /**
+     * Returns the time taken to obtain the key pair of the provisioner in nanoseconds.
+     */
+    public long getKeyPairDuration() {
+        return keyPairDuration;
+    }
+
+    /**
+     * Returns the time taken to compute the shared ECDH secret in nanoseconds.
+     */
+    public long getSharedSecretDuration() {
+        return sharedSecretDuration;
+    }
+
     @Override
     public State getState() {
         return State.PROVISIONING_PUBLIC_KEY;
@@ -87,50 +102,45 @@ public class ProvisioningPublicKeyState extends ProvisioningState {
     @Override
     public void executeSend() {
         generateKeyPairs();
+        // Without a key pair the public key is not sent and the provisioning is failed by the caller
+        if (mProvisionerKeyPair == null)
+            return;
         final byte[] pdu = generatePublicKeyXYPDU();
         provisioningStatusCallbacks.onProvisioningStateChanged(node, States.PROVISIONING_PUBLIC_KEY_SENT, pdu);
         internalTransportCallbacks.sendProvisioningPdu(node, pdu);
     }
 
+    /**
+     * Parses the provisionee public key and computes the shared ECDH secret.
+     *
+     * @param data provisionee public key
+     * @return true if the shared ECDH secret was computed or false if the provisioning should be failed
+     */
     @Override
     public boolean parseData(@NonNull final byte[] data) {
+        if (mProvisionerKeyPair == null)
+            return false;
         if (node.getProvisioneePublicKeyXY() == null) {
             provisioningStatusCallbacks.onProvisioningStateChanged(node, States.PROVISIONING_PUBLIC_KEY_RECEIVED, data);
         }
-        generateSharedECDHSecret(data);
-        return true;
+        return generateSharedECDHSecret(data);
     }
 
     private void generateKeyPairs() {
+        if (mProvisionerKeyPair != null)
+            return;
+        final long start = System.nanoTime();
         try {
-            final ECNamedCurveParameterSpec parameterSpec = ECNamedCurveTable.getParameterSpec("secp256r1");
-            final KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("ECDH", "SC");
-            keyPairGenerator.initialize(parameterSpec);
-            final KeyPair keyPair = keyPairGenerator.generateKeyPair();
-            final ECPublicKey publicKey = (ECPublicKey) keyPair.getPublic();
-
-            mProvisionerPrivateKey = (ECPrivateKey) keyPair.getPrivate();
-
-            final ECPoint point = publicKey.getQ();
-
-            final BigInteger x = point.getXCoord().toBigInteger();
-            final BigInteger y = point.getYCoord().toBigInteger();
-            final byte[] tempX = BigIntegers.asUnsignedByteArray(32, x);
-            final byte[] tempY = BigIntegers.asUnsignedByteArray(32, y);
-
-            MeshLogger.verbose(TAG, "X: length: " + tempX.length + " " + MeshParserUtils.bytesToHex(tempX, false));
-            MeshLogger.verbose(TAG, "Y: length: " + tempY.length + " " + MeshParserUtils.bytesToHex(tempY, false));
-
-            final byte[] tempXY = new byte[64];
-            System.arraycopy(tempX, 0, tempXY, 0, tempX.length);
-            System.arraycopy(tempY, 0, tempXY, tempY.length, tempY.length);
-
+            mProvisionerKeyPair = ProvisioningKeyPairPool.take(keyPairPool);
+            final byte[] tempXY = mProvisionerKeyPair.getPublicKeyXY();
             node.setProvisionerPublicKeyXY(tempXY);
 
             MeshLogger.verbose(TAG, "XY: " + MeshParserUtils.bytesToHex(tempXY, true));
         } catch (Exception e) {
-            e.printStackTrace();
+            mProvisionerKeyPair = null;
+            MeshLogger.error(TAG, "Unable to obtain the provisioner key pair: " + e.getMessage());
         }
+        keyPairDuration = System.nanoTime() - start;
     }
 
     private byte[] generatePublicKeyXYPDU() {
@@ -142,7 +152,7 @@ public class ProvisioningPublicKeyState extends ProvisioningState {
         return buffer.array();
     }
 
-    private void generateSharedECDHSecret(final byte[] xy) {
+    private boolean generateSharedECDHSecret(final byte[] xy) {
         if(node.getProvisioneePublicKeyXY() == null) {
             node.setProvisioneePublicKeyXY(xy);
         } else {
@@ -161,35 +171,17 @@ public class ProvisioningPublicKeyState extends ProvisioningState {
         MeshLogger.verbose(TAG, "Provisionee X: " + MeshParserUtils.bytesToHex(yComponent, false));
         MeshLogger.verbose(TAG, "Provisionee Y: " + MeshParserUtils.bytesToHex(xComponent, false));
 
-        final BigInteger x = BigIntegers.fromUnsignedByteArray(xy, 0, 32);
-        final BigInteger y = BigIntegers.fromUnsignedByteArray(xy, 32, 32);
-
-        final ECParameterSpec ecParameters = ECNamedCurveTable.getParameterSpec("secp256r1");
-        ECCurve curve = ecParameters.getCurve();
-        ECPoint ecPoint = curve.validatePoint(x, y);
-
-        ECPublicKeySpec keySpec = new ECPublicKeySpec(ecPoint, ecParameters);
-        KeyFactory keyFactory;
+        final long start = System.nanoTime();
         try {
-            keyFactory = KeyFactory.getInstance("ECDH", "SC");
-            ECPublicKey publicKey = (ECPublicKey) keyFactory.generatePublic(keySpec);
-
-            KeyAgreement a = KeyAgreement.getInstance("ECDH", "SC");
-            a.init(mProvisionerPrivateKey);
-            a.doPhase(publicKey, true);
-
-            final byte[] sharedECDHSecret = a.generateSecret();
+            final byte[] sharedECDHSecret = mProvisionerKeyPair.generateSharedSecret(xy);
             node.setSharedECDHSecret(sharedECDHSecret);
             MeshLogger.verbose(TAG, "ECDH Secret: " + MeshParserUtils.bytesToHex(sharedECDHSecret, false));
-
-        } catch (NoSuchAlgorithmException e) {
-            e.printStackTrace();
-        } catch (NoSuchProviderException e) {
-            e.printStackTrace();
-        } catch (InvalidKeySpecException e) {
-            e.printStackTrace();
-        } catch (InvalidKeyException e) {
-            e.printStackTrace();
+            return true;
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            MeshLogger.error(TAG, "Unable to compute the ECDH secret: " + e.getMessage());
+            return false;
+        } finally {
+            sharedSecretDuration = System.nanoTime() - start;
         }
     }
 }
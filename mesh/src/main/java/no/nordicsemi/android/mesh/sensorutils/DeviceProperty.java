@@ -3,12 +3,15 @@ package no.nordicsemi.android.mesh.sensorutils;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import java.util.Objects;
-
 import no.nordicsemi.android.mesh.utils.SensorFormat;
 
 /**
  * Device Property
+ * <p>
+ * The known device properties are interned in a table indexed by the property id that holds the name,
+ * the characteristic decoder and the characteristic length of each property, so that parsing a sensor
+ * value costs a single lookup and does not allocate a new device property for a known property id.
+ * </p>
  */
 
 public class DeviceProperty {
@@ -196,6 +199,291 @@ public class DeviceProperty {
     public final static DeviceProperty THERMAL_DERATING = new DeviceProperty((short) 0x00B6);
     public final static DeviceProperty OUTPUT_CURRENT_PERCENT = new DeviceProperty((short) 0x00B7);
 
+    private static final int MAX_PROPERTY_ID = 0x00B7;
+    private static final String CUSTOM_DEVICE_PROPERTY = "Custom Device Property";
+    // Known device properties indexed by their property id
+    private static final PropertyInfo[] PROPERTIES = new PropertyInfo[MAX_PROPERTY_ID + 1];
+
+    static {
+        register(AVERAGE_AMBIENT_TEMPERATURE_IN_A_PERIOD_OF_DAY, "Average Ambient Temperature In A Period Of Day");
+        register(AVERAGE_INPUT_CURRENT, "Average Input Current");
+        register(AVERAGE_INPUT_VOLTAGE, "Average Input Voltage");
+        register(AVERAGE_OUTPUT_CURRENT, "Average Output Current");
+        register(AVERAGE_OUTPUT_VOLTAGE, "Average Output Voltage");
+        register(CENTER_BEAM_INTENSITY_AT_FULL_POWER, "Center Beam Intensity At Full Power");
+        register(CHROMATICITY_TOLERANCE, "Chromaticity Tolerance");
+        register(COLOR_RENDERING_INDEX_R9, "Color Rendering Index R9");
+        register(COLOR_RENDERING_INDEX_RA, "Color Rendering Index Ra");
+        register(DEVICE_APPEARANCE, "Device Appearance");
+        register(DEVICE_COUNTRY_OF_ORIGIN, "Device Country Of Origin");
+        register(DEVICE_DATE_OF_MANUFACTURE, "Device Date Of Manufacture");
+        register(DEVICE_ENERGY_USE_SINCE_TURN_ON, "Device Energy Use Since Turn On");
+        register(DEVICE_FIRMWARE_REVISION, "Device Firmware Revision");
+        register(DEVICE_GLOBAL_TRADE_ITEM_NUMBER, "Device Global Trade Item Number");
+        register(DEVICE_HARDWARE_REVISION, "Device Hardware Revision");
+        register(DEVICE_MANUFACTURER_NAME, "Device Manufacturer Name");
+        register(DEVICE_MODEL_NUMBER, "Device Model Number");
+        register(DEVICE_OPERATING_TEMPERATURE_RANGE_SPECIFICATION, "Device Operating Temperature Range Specification");
+        register(DEVICE_OPERATING_TEMPERATURE_STATISTICAL_VALUES, "Device Operating Temperature Statistical Values");
+        register(DEVICE_OVER_TEMPERATURE_EVENT_STATISTICS, "Device Over Temperature Event Statistics");
+        register(DEVICE_POWER_RANGE_SPECIFICATION, "Device Power Range Specification");
+        register(DEVICE_RUN_TIME_SINCE_TURN_ON, "Device Runtime Since Turn On");
+        register(DEVICE_RUNTIME_WARRANTY, "Device Runtime Warranty");
+        register(DEVICE_SERIAL_NUMBER, "Device Serial Number");
+        register(DEVICE_SOFTWARE_REVISION, "Device Software Revision");
+        register(DEVICE_UNDER_TEMPERATURE_EVENT_STATISTICS, "Device Under Temperature Event Statistics");
+        register(INDOOR_AMBIENT_TEMPERATURE_STATISTICAL_VALUES, "Indoor Ambient Temperature Statistical Values");
+        register(INITIAL_CIE1931_CHROMATICITY_COORDINATES, "Initial CIE 1931 Chromaticity Coordinates");
+        register(INITIAL_CORRELATED_COLOR_TEMPERATURE, "Initial Correlated Color Temperature");
+        register(INITIAL_LUMINOUS_FLUX, "Initial Luminous Flux");
+        register(INITIAL_PLANCKIAN_DISTANCE, "Initial Planckian Distance");
+        register(INPUT_CURRENT_RANGE_SPECIFICATION, "Input Current Range Specification");
+        register(INPUT_CURRENT_STATISTICS, "Input Current Statistics");
+        register(INPUT_OVER_CURRENT_EVENT_STATISTICS, "Input Over Current Event Statistics");
+        register(INPUT_OVER_RIPPLE_VOLTAGE_EVENT_STATISTICS, "Input Over Ripple Voltage Event Statistics");
+        register(INPUT_OVER_VOLTAGE_EVENT_STATISTICS, "Input Over Voltage Event Statistics");
+        register(INPUT_UNDERCURRENT_EVENT_STATISTICS, "Input Under Current Event Statistics");
+        register(INPUT_UNDER_VOLTAGE_EVENT_STATISTICS, "Input Under Voltage Event Statistics");
+        register(INPUT_VOLTAGE_RANGE_SPECIFICATION, "Input Voltage Range Specification");
+        register(INPUT_VOLTAGE_RIPPLE_SPECIFICATION, "Input Voltage Ripple Specification");
+        register(INPUT_VOLTAGE_STATISTICS, "Input Voltage Statistics");
+        register(LIGHT_CONTROL_AMBIENT_LUX_LEVEL_ON, "Light Control Ambient LuxLevel On");
+        register(LIGHT_CONTROL_AMBIENT_LUX_LEVEL_PROLONG, "Light Control Ambient LuxLevel Prolong");
+        register(LIGHT_CONTROL_AMBIENT_LUX_LEVEL_STANDBY, "Light Control Ambient LuxLevel Standby");
+        register(LIGHT_CONTROL_LIGHTNESS_ON, "Light Control Lightness On");
+        register(LIGHT_CONTROL_LIGHTNESS_PROLONG, "Light Control Lightness Prolong");
+        register(LIGHT_CONTROL_LIGHTNESS_STANDBY, "Light Control Lightness Standby");
+        register(LIGHT_CONTROL_REGULATOR_ACCURACY, "Light Control Regulator Accuracy");
+        register(LIGHT_CONTROL_REGULATOR_KID, "Light Control Regulator Kid");
+        register(LIGHT_CONTROL_REGULATOR_KIU, "Light Control Regulator Kiu");
+        register(LIGHT_CONTROL_REGULATOR_KPD, "Light Control Regulator Kpd");
+        register(LIGHT_CONTROL_REGULATOR_KPU, "Light Control Regulator Kpu");
+        register(LIGHT_CONTROL_TIME_FADE, "Light Control Time Fade");
+        register(LIGHT_CONTROL_TIME_FADE_ON, "Light Control Time Fade On");
+        register(LIGHT_CONTROL_TIME_FADE_STANDBY_AUTO, "Light Control Time Fade Standby Auto");
+        register(LIGHT_CONTROL_TIME_FADE_STANDBY_MANUAL, "Light Control Time Fade Standby Manual");
+        register(LIGHT_CONTROL_TIME_OCCUPANCY_DELAY, "Light Control Time Occupancy Delay");
+        register(LIGHT_CONTROL_TIME_PROLONG, "Light Control Time Prolong");
+        register(LIGHT_CONTROL_TIME_RUN_ON, "Light Control Time Run On");
+        register(LUMEN_MAINTENANCE_FACTOR, "Lumen Maintenance Factor");
+        register(LUMINOUS_EFFICACY, "Luminous Efficacy");
+        register(LUMINOUS_ENERGY_SINCE_TURN_ON, "Luminous Energy Since Turn On");
+        register(LUMINOUS_EXPOSURE, "Luminous Exposure");
+        register(LUMINOUS_FLUX_RANGE, "Luminous Flux Range");
+        register(MOTION_SENSED, "Motion Sensed");
+        register(MOTION_THRESHOLD, "Motion Threshold");
+        register(OPEN_CIRCUIT_EVENT_STATISTICS, "Open Circuit Event Statistics");
+        register(OUTDOOR_STATISTICAL_VALUES, "Outdoor Statistical Values");
+        register(OUTPUT_CURRENT_RANGE, "Output Current Range");
+        register(OUTPUT_CURRENT_STATISTICS, "Output Current Statistics");
+        register(OUTPUT_RIPPLE_VOLTAGE_SPECIFICATION, "Output Ripple Voltage Specification");
+        register(OUTPUT_VOLTAGE_RANGE, "Output Voltage Range");
+        register(OUTPUT_VOLTAGE_STATISTICS, "Output Voltage Statistics");
+        register(OVER_OUTPUT_RIPPLE_VOLTAGE_EVENT_STATISTICS, "Over Output Ripple Voltage Event Statistics");
+        register(PEOPLE_COUNT, "People Count");
+        register(PRESENCE_DETECTED, "Presence Detected");
+        register(PRESENT_AMBIENT_LIGHT_LEVEL, "Present Ambient Light Level");
+        register(PRESENT_AMBIENT_TEMPERATURE, "Present Ambient Temperature");
+        register(PRESENT_CIE1931_CHROMATICITY_COORDINATES, "Present CIE 1931 Chromaticity Coordinates");
+        register(PRESENT_CORRELATED_COLOR_TEMPERATURE, "Present Correlated Color Temperature");
+        register(PRESENT_DEVICE_INPUT_POWER, "Present Device Input Power");
+        register(PRESENT_DEVICE_OPERATING_EFFICIENCY, "Present Device Operating Efficiency");
+        register(PRESENT_DEVICE_OPERATING_TEMPERATURE, "Present Device Operating Temperature");
+        register(PRESENT_ILLUMINANCE, "Present Illuminance");
+        register(PRESENT_INDOOR_AMBIENT_TEMPERATURE, "Present Indoor Ambient Temperature");
+        register(PRESENT_INPUT_CURRENT, "Present Input Current");
+        register(PRESENT_INPUT_RIPPLE_VOLTAGE, "Present Input Ripple Voltage");
+        register(PRESENT_INPUT_VOLTAGE, "Present Input Voltage");
+        register(PRESENT_LUMINOUS_FLUX, "Present Luminous Flux");
+        register(PRESENT_OUTDOOR_AMBIENT_TEMPERATURE, "Present Outdoor Ambient Temperature");
+        register(PRESENT_OUTPUT_CURRENT, "Present Output Current");
+        register(PRESENT_OUTPUT_VOLTAGE, "Present Output Voltage");
+        register(PRESENT_PLANCKIAN_DISTANCE, "Present Planckian Distance");
+        register(PRESENT_RELATIVE_OUTPUT_RIPPLE_VOLTAGE, "Present Relative Output Ripple Voltage");
+        register(RELATIVE_DEVICE_ENERGY_USE_IN_A_PERIOD_OF_DAY, "Relative Device Energy Use In A Period Of Day");
+        register(RELATIVE_DEVICE_RUNTIME_IN_A_GENERIC_LEVEL_RANGE, "Relative Device Runtime In A Generic Level Range");
+        register(RELATIVE_EXPOSURE_TIME_IN_AN_ILLUMINANCE_RANGE, "Relative Exposure Time In An Illuminance Range");
+        register(RELATIVE_RUNTIME_IN_A_CORRELATED_COLOR_TEMPERATURE_RANGE, "Relative Runtime In A Correlated Color Temperature Range");
+        register(RELATIVE_RUNTIME_IN_A_DEVICE_OPERATING_TEMPERATURE_RANGE, "Relative Runtime In A Device Operating Temperature Range");
+        register(RELATIVE_RUNTIME_IN_AN_INPUT_CURRENT_RANGE, "Relative Runtime In An Input Current Range");
+        register(RELATIVE_RUNTIME_IN_AN_INPUT_VOLTAGE_RANGE, "Relative Runtime In An Input Voltage Range");
+        register(SHORT_CIRCUIT_EVENT_STATISTICS, "Short Circuit Event Statistics");
+        register(TIME_SINCE_MOTION_SENSED, "Time Since Motion Sensed");
+        register(TIME_SINCE_PRESENCE_DETECTED, "Time Since Presence Detected");
+        register(TOTAL_DEVICE_ENERGY_USE, "Total Device Energy Use");
+        register(TOTAL_DEVICE_OFF_ON_CYCLES, "Total Device Off On Cycles");
+        register(TOTAL_DEVICE_POWER_ON_CYCLES, "Total Device Power On Cycles");
+        register(TOTAL_DEVICE_POWER_ON_TIME, "Total Device Power On Time");
+        register(TOTAL_DEVICE_RUNTIME, "Total Device Runtime");
+        register(TOTAL_LIGHT_EXPOSURE_TIME, "Total Light Exposure Time");
+        register(TOTAL_LUMINOUS_ENERGY, "Total Luminous Energy");
+        register(DESIRED_AMBIENT_TEMPERATURE, "Desired Ambient Temperature");
+        register(PRECISE_TOTAL_DEVICE_ENERGY_USE, "Precise Total Device Energy Use");
+        register(POWER_FACTOR, "Power Factor");
+        register(SENSOR_GAIN, "Sensor Gain");
+        register(PRECISE_PRESENT_AMBIENT_TEMPERATURE, "Precise Present Ambient Temperature");
+        register(PRESENT_AMBIENT_RELATIVE_HUMIDITY, "Present Ambient Relative Humidity");
+        register(PRESENT_AMBIENT_CARBONDIOXIDE_CONCENTRATION, "Present Ambient Carbon Dioxide Concentration");
+        register(PRESENT_AMBIENT_VOLATILE_ORGANIC_COMPOUNDS_CONCENTRATION, "Present Ambient Volatile Organic Compounds Concentration");
+        register(PRESENT_AMBIENT_NOISE, "Present Ambient Noise");
+        register(ACTIVE_ENERGY_LOAD_SIDE, "Active Energy Loadside");
+        register(ACTIVE_POWER_LOAD_SIDE, "Active Power Loadside");
+        register(AIR_PRESSURE, "Air Pressure");
+        register(APPARENT_ENERGY, "Apparent Energy");
+        register(APPARENT_POWER, "Apparent Power");
+        register(APPARENT_WIND_DIRECTION, "Apparent Wind Direction");
+        register(APPARENT_WIND_SPEED, "Apparent Wind Speed");
+        register(DEW_POINT, "Dew Point");
+        register(EXTERNAL_SUPPLY_VOLTAGE, "External Supply Voltage");
+        register(EXTERNAL_SUPPLY_VOLTAGE_FREQUENCY, "External Supply Voltage Frequency");
+        register(GUST_FACTOR, "Gust Factor");
+        register(HEAT_INDEX, "Heat Index");
+        register(LIGHT_DISTRIBUTION, "Light Distribution");
+        register(LIGHT_SOURCE_CURRENT, "Light Source Current");
+        register(LIGHT_SOURCE_ON_TIME_NOT_RESETTABLE, "Light Source On Time Not Resettable");
+        register(LIGHT_SOURCE_ON_TIME_RESETTABLE, "Light Source On Time Resettable");
+        register(LIGHT_SOURCE_OPEN_CIRCUIT_STATISTICS, "Light Source Open Circuit Statistics");
+        register(LIGHT_SOURCE_OVERALL_FAILURES_STATISTICS, "Light Source Overall Failures Statistics");
+        register(LIGHT_SOURCE_SHORT_CIRCUIT_STATISTICS, "Light Source Short Circuit Statistics");
+        register(LIGHT_SOURCE_START_COUNTER_RESETTABLE, "Light Source Start Counter Resettable");
+        register(LIGHT_SOURCE_TEMPERATURE, "Light Source Temperature");
+        register(LIGHT_SOURCE_THERMAL_DERATING_STATISTICS, "Light Source Thermal Derating Statistics");
+        register(LIGHT_SOURCE_THERMAL_SHUTDOWN_STATISTICS, "Light Source Thermal Shutdown Statistics");
+        register(LIGHT_SOURCE_TOTAL_POWER_ON_CYCLES, "Light Source Total Power On Cycles");
+        register(LIGHT_SOURCE_VOLTAGE, "Light Source Voltage");
+        register(LUMINAIRE_COLOR, "Luminaire Color");
+        register(LUMINAIRE_IDENTIFICATION_NUMBER, "Luminaire Identification Number");
+        register(LUMINAIRE_MANUFACTURER_GTIN, "Luminaire Manufacturer GTIN");
+        register(LUMINAIRE_NOMINAL_INPUT_POWER, "Luminaire Nominal Input Power");
+        register(LUMINAIRE_NOMINAL_MAXIMUM_AC_MAINS_VOLTAGE, "Luminaire Nominal Maximum AC Mains Voltage");
+        register(LUMINAIRE_NOMINAL_MINIMUM_AC_MAINS_VOLTAGE, "Luminaire Nominal Minimum AC Mains Voltage");
+        register(LUMINAIRE_POWER_AT_MINIMUM_DIM_LEVEL, "Luminaire Power At Minimum Dim Level");
+        register(LUMINAIRE_TIME_OF_MANUFACTURE, "Luminaire Time Of Manufacture");
+        register(MAGNETIC_DECLINATION, "Magnetic Declination");
+        register(MAGNETIC_FLUX_DENSITY_2D, "Magnetic Flux Density - 2D");
+        register(MAGNETIC_FLUX_DENSITY_3D, "Magnetic Flux Density - 3D");
+        register(NOMINAL_LIGHT_OUTPUT, "Nominal Light Output");
+        register(OVERALL_FAILURE_CONDITION, "Overall Failure Condition");
+        register(POLLEN_CONCENTRATION, "Pollen Concentration");
+        register(PRESENT_INDOOR_RELATIVE_HUMIDITY, "Present Indoor Relative Humidity");
+        register(PRESENT_OUTDOOR_RELATIVE_HUMIDITY, "Present Outdoor Relative Humidity");
+        register(PRESSURE, "Pressure");
+        register(RAINFALL, "Rainfall");
+        register(RATED_MEDIAN_USEFUL_LIFE_OF_LUMINAIRE, "Rated Median Useful Life Of Luminaire");
+        register(RATED_MEDIAN_USEFUL_LIGHT_SOURCE_STARTS, "Rated Median Useful Light Source Starts");
+        register(REFERENCE_TEMPERATURE, "Reference Temperature");
+        register(TOTAL_DEVICE_STARTS, "Total Device Starts");
+        register(TRUE_WIND_DIRECTION, "True Wind Direction");
+        register(TRUE_WIND_SPEED, "True Wind Speed");
+        register(UV_INDEX, "UV Index");
+        register(WIND_CHILL, "Wind Chill");
+        register(LIGHT_SOURCE_TYPE, "Light Source Type");
+        register(LUMINAIRE_IDENTIFICATION_STRING, "Luminaire Identification String");
+        register(OUTPUT_POWER_LIMITATION, "Output Power Limitation");
+        register(THERMAL_DERATING, "Thermal Derating");
+        register(OUTPUT_CURRENT_PERCENT, "Output Current Percent");
+
+        registerCharacteristic(1, (data, offset, length) -> data.length == 0 ? new Bool(false) : new Bool(data[offset] == 0x01),
+                PRESENCE_DETECTED);
+        registerCharacteristic(1, (data, offset, length) -> new Percentage8(data, offset),
+                LIGHT_CONTROL_REGULATOR_ACCURACY,
+                OUTPUT_RIPPLE_VOLTAGE_SPECIFICATION,
+                INPUT_VOLTAGE_RIPPLE_SPECIFICATION,
+                OUTPUT_CURRENT_PERCENT,
+                LUMEN_MAINTENANCE_FACTOR,
+                MOTION_SENSED,
+                MOTION_THRESHOLD,
+                PRESENT_DEVICE_OPERATING_EFFICIENCY,
+                PRESENT_RELATIVE_OUTPUT_RIPPLE_VOLTAGE,
+                PRESENT_INPUT_RIPPLE_VOLTAGE);
+        registerCharacteristic(1, (data, offset, length) -> new Temperature(data, offset, 1),
+                DESIRED_AMBIENT_TEMPERATURE,
+                PRESENT_AMBIENT_TEMPERATURE,
+                PRESENT_INDOOR_AMBIENT_TEMPERATURE,
+                PRESENT_OUTDOOR_AMBIENT_TEMPERATURE);
+        registerCharacteristic(2, (data, offset, length) -> new Temperature(data, offset, 2),
+                PRECISE_PRESENT_AMBIENT_TEMPERATURE,
+                PRESENT_DEVICE_OPERATING_TEMPERATURE);
+        registerCharacteristic(2, (data, offset, length) -> new Count(data, offset, 2),
+                PEOPLE_COUNT);
+        registerCharacteristic(2, (data, offset, length) -> new Humidity(data, offset),
+                PRESENT_AMBIENT_RELATIVE_HUMIDITY,
+                PRESENT_INDOOR_RELATIVE_HUMIDITY,
+                PRESENT_OUTDOOR_RELATIVE_HUMIDITY);
+        registerCharacteristic(2, (data, offset, length) -> new PerceivedLightness(data, offset),
+                LIGHT_CONTROL_LIGHTNESS_ON,
+                LIGHT_CONTROL_LIGHTNESS_PROLONG,
+                LIGHT_CONTROL_LIGHTNESS_STANDBY);
+        registerCharacteristic(2, (data, offset, length) -> new TimeSecond(data, offset, 2),
+                TIME_SINCE_MOTION_SENSED,
+                TIME_SINCE_PRESENCE_DETECTED);
+        registerCharacteristic(3, (data, offset, length) -> new Count(data, offset, 3),
+                LIGHT_SOURCE_START_COUNTER_RESETTABLE,
+                LIGHT_SOURCE_TOTAL_POWER_ON_CYCLES,
+                RATED_MEDIAN_USEFUL_LIGHT_SOURCE_STARTS,
+                TOTAL_DEVICE_OFF_ON_CYCLES,
+                TOTAL_DEVICE_POWER_ON_CYCLES,
+                TOTAL_DEVICE_STARTS);
+        registerCharacteristic(3, (data, offset, length) -> new Illuminance(data, offset),
+                LIGHT_CONTROL_AMBIENT_LUX_LEVEL_ON,
+                LIGHT_CONTROL_AMBIENT_LUX_LEVEL_PROLONG,
+                LIGHT_CONTROL_AMBIENT_LUX_LEVEL_STANDBY,
+                PRESENT_AMBIENT_LIGHT_LEVEL,
+                PRESENT_ILLUMINANCE);
+        registerCharacteristic(3, (data, offset, length) -> new TimeHour24(data, offset),
+                DEVICE_RUN_TIME_SINCE_TURN_ON,
+                DEVICE_RUNTIME_WARRANTY,
+                RATED_MEDIAN_USEFUL_LIFE_OF_LUMINAIRE,
+                TOTAL_DEVICE_POWER_ON_TIME,
+                TOTAL_DEVICE_RUNTIME,
+                TOTAL_LIGHT_EXPOSURE_TIME);
+        registerCharacteristic(3, (data, offset, length) -> new TimeMillisecond24(data, offset),
+                LIGHT_CONTROL_TIME_FADE,
+                LIGHT_CONTROL_TIME_FADE_ON,
+                LIGHT_CONTROL_TIME_FADE_STANDBY_AUTO,
+                LIGHT_CONTROL_TIME_FADE_STANDBY_MANUAL,
+                LIGHT_CONTROL_TIME_OCCUPANCY_DELAY,
+                LIGHT_CONTROL_TIME_PROLONG,
+                LIGHT_CONTROL_TIME_RUN_ON);
+        registerCharacteristic(3, (data, offset, length) -> new DateUtc(data, offset),
+                DEVICE_DATE_OF_MANUFACTURE,
+                LUMINAIRE_TIME_OF_MANUFACTURE);
+        registerCharacteristic(4, (data, offset, length) -> new Pressure(data, offset),
+                PRESSURE,
+                AIR_PRESSURE);
+        registerCharacteristic(4, (data, offset, length) -> new Coefficient(data, offset),
+                LIGHT_CONTROL_REGULATOR_KID,
+                LIGHT_CONTROL_REGULATOR_KIU,
+                LIGHT_CONTROL_REGULATOR_KPD,
+                LIGHT_CONTROL_REGULATOR_KPU,
+                SENSOR_GAIN);
+        registerCharacteristic(8, (data, offset, length) -> new FixedString(data, offset, 8),
+                DEVICE_FIRMWARE_REVISION,
+                DEVICE_SOFTWARE_REVISION);
+        registerCharacteristic(16, (data, offset, length) -> new FixedString(data, offset, 16),
+                DEVICE_HARDWARE_REVISION,
+                DEVICE_SERIAL_NUMBER);
+        registerCharacteristic(24, (data, offset, length) -> new FixedString(data, offset, 24),
+                DEVICE_MODEL_NUMBER,
+                LUMINAIRE_COLOR,
+                LUMINAIRE_IDENTIFICATION_NUMBER);
+        registerCharacteristic(36, (data, offset, length) -> new FixedString(data, offset, 36),
+                DEVICE_MANUFACTURER_NAME);
+        registerCharacteristic(64, (data, offset, length) -> new FixedString(data, offset, 64),
+                LUMINAIRE_IDENTIFICATION_STRING);
+        registerCharacteristic(4, (data, offset, length) -> new Energy32(data, offset),
+                ACTIVE_ENERGY_LOAD_SIDE,
+                PRECISE_TOTAL_DEVICE_ENERGY_USE);
+        registerCharacteristic(3, (data, offset, length) -> new Power(data, offset),
+                ACTIVE_POWER_LOAD_SIDE,
+                LUMINAIRE_NOMINAL_INPUT_POWER,
+                LUMINAIRE_POWER_AT_MINIMUM_DIM_LEVEL,
+                PRESENT_DEVICE_INPUT_POWER);
+        registerCharacteristic(2, (data, offset, length) -> new ElectricCurrent(data, offset),
+                PRESENT_INPUT_CURRENT,
+                PRESENT_OUTPUT_CURRENT);
+    }
+
     private final short propertyId;
 
     DeviceProperty(final short property) {
@@ -216,486 +504,86 @@ public class DeviceProperty {
 
     @Override
     public int hashCode() {
-        return Objects.hash(propertyId);
+        return propertyId;
     }
 
     public static DeviceProperty from(final short propertyId) {
         return from(SensorFormat.FORMAT_B, propertyId);
     }
 
+    /**
+     * Returns the device property for the given property id. Known device properties are returned
+     * from the property table, a new device property is only created for an unknown property id.
+     *
+     * @param sensorFormat sensor format the property id was marshalled with
+     * @param propertyId   property id
+     */
     public static DeviceProperty from(final SensorFormat sensorFormat, final short propertyId) {
-        if (sensorFormat == SensorFormat.FORMAT_B) {
-            return new DeviceProperty(propertyId);
-        } else {
-            return new DeviceProperty((short) (propertyId & 0x7FFF));
-        }
+        final short id = sensorFormat == SensorFormat.FORMAT_B ? propertyId : (short) (propertyId & 0x7FFF);
+        final PropertyInfo info = getInfo(id);
+        return info == null ? new DeviceProperty(id) : info.property;
     }
 
     public static String getPropertyName(final DeviceProperty deviceProperty) {
-        if (AVERAGE_AMBIENT_TEMPERATURE_IN_A_PERIOD_OF_DAY.equals(deviceProperty)) {
-            return "Average Ambient Temperature In A Period Of Day";
-        } else if (AVERAGE_INPUT_CURRENT.equals(deviceProperty)) {
-            return "Average Input Current";
-        } else if (AVERAGE_INPUT_VOLTAGE.equals(deviceProperty)) {
-            return "Average Input Voltage";
-        } else if (AVERAGE_OUTPUT_CURRENT.equals(deviceProperty)) {
-            return "Average Output Current";
-        } else if (AVERAGE_OUTPUT_VOLTAGE.equals(deviceProperty)) {
-            return "Average Output Voltage";
-        } else if (CENTER_BEAM_INTENSITY_AT_FULL_POWER.equals(deviceProperty)) {
-            return "Center Beam Intensity At Full Power";
-        } else if (CHROMATICITY_TOLERANCE.equals(deviceProperty)) {
-            return "Chromaticity Tolerance";
-        } else if (COLOR_RENDERING_INDEX_R9.equals(deviceProperty)) {
-            return "Color Rendering Index R9";
-        } else if (COLOR_RENDERING_INDEX_RA.equals(deviceProperty)) {
-            return "Color Rendering Index Ra";
-        } else if (DEVICE_APPEARANCE.equals(deviceProperty)) {
-            return "Device Appearance";
-        } else if (DEVICE_COUNTRY_OF_ORIGIN.equals(deviceProperty)) {
-            return "Device Country Of Origin";
-        } else if (DEVICE_DATE_OF_MANUFACTURE.equals(deviceProperty)) {
-            return "Device Date Of Manufacture";
-        } else if (DEVICE_ENERGY_USE_SINCE_TURN_ON.equals(deviceProperty)) {
-            return "Device Energy Use Since Turn On";
-        } else if (DEVICE_FIRMWARE_REVISION.equals(deviceProperty)) {
-            return "Device Firmware Revision";
-        } else if (DEVICE_GLOBAL_TRADE_ITEM_NUMBER.equals(deviceProperty)) {
-            return "Device Global Trade Item Number";
-        } else if (DEVICE_HARDWARE_REVISION.equals(deviceProperty)) {
-            return "Device Hardware Revision";
-        } else if (DEVICE_MANUFACTURER_NAME.equals(deviceProperty)) {
-            return "Device Manufacturer Name";
-        } else if (DEVICE_MODEL_NUMBER.equals(deviceProperty)) {
-            return "Device Model Number";
-        } else if (DEVICE_OPERATING_TEMPERATURE_RANGE_SPECIFICATION.equals(deviceProperty)) {
-            return "Device Operating Temperature Range Specification";
-        } else if (DEVICE_OPERATING_TEMPERATURE_STATISTICAL_VALUES.equals(deviceProperty)) {
-            return "Device Operating Temperature Statistical Values";
-        } else if (DEVICE_OVER_TEMPERATURE_EVENT_STATISTICS.equals(deviceProperty)) {
-            return "Device Over Temperature Event Statistics";
-        } else if (DEVICE_POWER_RANGE_SPECIFICATION.equals(deviceProperty)) {
-            return "Device Power Range Specification";
-        } else if (DEVICE_RUN_TIME_SINCE_TURN_ON.equals(deviceProperty)) {
-            return "Device Runtime Since Turn On";
-        } else if (DEVICE_RUNTIME_WARRANTY.equals(deviceProperty)) {
-            return "Device Runtime Warranty";
-        } else if (DEVICE_SERIAL_NUMBER.equals(deviceProperty)) {
-            return "Device Serial Number";
-        } else if (DEVICE_SOFTWARE_REVISION.equals(deviceProperty)) {
-            return "Device Software Revision";
-        } else if (DEVICE_UNDER_TEMPERATURE_EVENT_STATISTICS.equals(deviceProperty)) {
-            return "Device Under Temperature Event Statistics";
-        } else if (INDOOR_AMBIENT_TEMPERATURE_STATISTICAL_VALUES.equals(deviceProperty)) {
-            return "Indoor Ambient Temperature Statistical Values";
-        } else if (INITIAL_CIE1931_CHROMATICITY_COORDINATES.equals(deviceProperty)) {
-            return "Initial CIE 1931 Chromaticity Coordinates";
-        } else if (INITIAL_CORRELATED_COLOR_TEMPERATURE.equals(deviceProperty)) {
-            return "Initial Correlated Color Temperature";
-        } else if (INITIAL_LUMINOUS_FLUX.equals(deviceProperty)) {
-            return "Initial Luminous Flux";
-        } else if (INITIAL_PLANCKIAN_DISTANCE.equals(deviceProperty)) {
-            return "Initial Planckian Distance";
-        } else if (INPUT_CURRENT_RANGE_SPECIFICATION.equals(deviceProperty)) {
-            return "Input Current Range Specification";
-        } else if (INPUT_CURRENT_STATISTICS.equals(deviceProperty)) {
-            return "Input Current Statistics";
-        } else if (INPUT_OVER_CURRENT_EVENT_STATISTICS.equals(deviceProperty)) {
-            return "Input Over Current Event Statistics";
-        } else if (INPUT_OVER_RIPPLE_VOLTAGE_EVENT_STATISTICS.equals(deviceProperty)) {
-            return "Input Over Ripple Voltage Event Statistics";
-        } else if (INPUT_OVER_VOLTAGE_EVENT_STATISTICS.equals(deviceProperty)) {
-            return "Input Over Voltage Event Statistics";
-        } else if (INPUT_UNDERCURRENT_EVENT_STATISTICS.equals(deviceProperty)) {
-            return "Input Under Current Event Statistics";
-        } else if (INPUT_UNDER_VOLTAGE_EVENT_STATISTICS.equals(deviceProperty)) {
-            return "Input Under Voltage Event Statistics";
-        } else if (INPUT_VOLTAGE_RANGE_SPECIFICATION.equals(deviceProperty)) {
-            return "Input Voltage Range Specification";
-        } else if (INPUT_VOLTAGE_RIPPLE_SPECIFICATION.equals(deviceProperty)) {
-            return "Input Voltage Ripple Specification";
-        } else if (INPUT_VOLTAGE_STATISTICS.equals(deviceProperty)) {
-            return "Input Voltage Statistics";
-        } else if (LIGHT_CONTROL_AMBIENT_LUX_LEVEL_ON.equals(deviceProperty)) {
-            return "Light Control Ambient LuxLevel On";
-        } else if (LIGHT_CONTROL_AMBIENT_LUX_LEVEL_PROLONG.equals(deviceProperty)) {
-            return "Light Control Ambient LuxLevel Prolong";
-        } else if (LIGHT_CONTROL_AMBIENT_LUX_LEVEL_STANDBY.equals(deviceProperty)) {
-            return "Light Control Ambient LuxLevel Standby";
-        } else if (LIGHT_CONTROL_LIGHTNESS_ON.equals(deviceProperty)) {
-            return "Light Control Lightness On";
-        } else if (LIGHT_CONTROL_LIGHTNESS_PROLONG.equals(deviceProperty)) {
-            return "Light Control Lightness Prolong";
-        } else if (LIGHT_CONTROL_LIGHTNESS_STANDBY.equals(deviceProperty)) {
-            return "Light Control Lightness Standby";
-        } else if (LIGHT_CONTROL_REGULATOR_ACCURACY.equals(deviceProperty)) {
-            return "Light Control Regulator Accuracy";
-        } else if (LIGHT_CONTROL_REGULATOR_KID.equals(deviceProperty)) {
-            return "Light Control Regulator Kid";
-        } else if (LIGHT_CONTROL_REGULATOR_KIU.equals(deviceProperty)) {
-            return "Light Control Regulator Kiu";
-        } else if (LIGHT_CONTROL_REGULATOR_KPD.equals(deviceProperty)) {
-            return "Light Control Regulator Kpd";
-        } else if (LIGHT_CONTROL_REGULATOR_KPU.equals(deviceProperty)) {
-            return "Light Control Regulator Kpu";
-        } else if (LIGHT_CONTROL_TIME_FADE.equals(deviceProperty)) {
-            return "Light Control Time Fade";
-        } else if (LIGHT_CONTROL_TIME_FADE_ON.equals(deviceProperty)) {
-            return "Light Control Time Fade On";
-        } else if (LIGHT_CONTROL_TIME_FADE_STANDBY_AUTO.equals(deviceProperty)) {
-            return "Light Control Time Fade Standby Auto";
-        } else if (LIGHT_CONTROL_TIME_FADE_STANDBY_MANUAL.equals(deviceProperty)) {
-            return "Light Control Time Fade Standby Manual";
-        } else if (LIGHT_CONTROL_TIME_OCCUPANCY_DELAY.equals(deviceProperty)) {
-            return "Light Control Time Occupancy Delay";
-        } else if (LIGHT_CONTROL_TIME_PROLONG.equals(deviceProperty)) {
-            return "Light Control Time Prolong";
-        } else if (LIGHT_CONTROL_TIME_RUN_ON.equals(deviceProperty)) {
-            return "Light Control Time Run On";
-        } else if (LUMEN_MAINTENANCE_FACTOR.equals(deviceProperty)) {
-            return "Lumen Maintenance Factor";
-        } else if (LUMINOUS_EFFICACY.equals(deviceProperty)) {
-            return "Luminous Efficacy";
-        } else if (LUMINOUS_ENERGY_SINCE_TURN_ON.equals(deviceProperty)) {
-            return "Luminous Energy Since Turn On";
-        } else if (LUMINOUS_EXPOSURE.equals(deviceProperty)) {
-            return "Luminous Exposure";
-        } else if (LUMINOUS_FLUX_RANGE.equals(deviceProperty)) {
-            return "Luminous Flux Range";
-        } else if (MOTION_SENSED.equals(deviceProperty)) {
-            return "Motion Sensed";
-        } else if (MOTION_THRESHOLD.equals(deviceProperty)) {
-            return "Motion Threshold";
-        } else if (OPEN_CIRCUIT_EVENT_STATISTICS.equals(deviceProperty)) {
-            return "Open Circuit Event Statistics";
-        } else if (OUTDOOR_STATISTICAL_VALUES.equals(deviceProperty)) {
-            return "Outdoor Statistical Values";
-        } else if (OUTPUT_CURRENT_RANGE.equals(deviceProperty)) {
-            return "Output Current Range";
-        } else if (OUTPUT_CURRENT_STATISTICS.equals(deviceProperty)) {
-            return "Output Current Statistics";
-        } else if (OUTPUT_RIPPLE_VOLTAGE_SPECIFICATION.equals(deviceProperty)) {
-            return "Output Ripple Voltage Specification";
-        } else if (OUTPUT_VOLTAGE_RANGE.equals(deviceProperty)) {
-            return "Output Voltage Range";
-        } else if (OUTPUT_VOLTAGE_STATISTICS.equals(deviceProperty)) {
-            return "Output Voltage Statistics";
-        } else if (OVER_OUTPUT_RIPPLE_VOLTAGE_EVENT_STATISTICS.equals(deviceProperty)) {
-            return "Over Output Ripple Voltage Event Statistics";
-        } else if (PEOPLE_COUNT.equals(deviceProperty)) {
-            return "People Count";
-        } else if (PRESENCE_DETECTED.equals(deviceProperty)) {
-            return "Presence Detected";
-        } else if (PRESENT_AMBIENT_LIGHT_LEVEL.equals(deviceProperty)) {
-            return "Present Ambient Light Level";
-        } else if (PRESENT_AMBIENT_TEMPERATURE.equals(deviceProperty)) {
-            return "Present Ambient Temperature";
-        } else if (PRESENT_CIE1931_CHROMATICITY_COORDINATES.equals(deviceProperty)) {
-            return "Present CIE 1931 Chromaticity Coordinates";
-        } else if (PRESENT_CORRELATED_COLOR_TEMPERATURE.equals(deviceProperty)) {
-            return "Present Correlated Color Temperature";
-        } else if (PRESENT_DEVICE_INPUT_POWER.equals(deviceProperty)) {
-            return "Present Device Input Power";
-        } else if (PRESENT_DEVICE_OPERATING_EFFICIENCY.equals(deviceProperty)) {
-            return "Present Device Operating Efficiency";
-        } else if (PRESENT_DEVICE_OPERATING_TEMPERATURE.equals(deviceProperty)) {
-            return "Present Device Operating Temperature";
-        } else if (PRESENT_ILLUMINANCE.equals(deviceProperty)) {
-            return "Present Illuminance";
-        } else if (PRESENT_INDOOR_AMBIENT_TEMPERATURE.equals(deviceProperty)) {
-            return "Present Indoor Ambient Temperature";
-        } else if (PRESENT_INPUT_CURRENT.equals(deviceProperty)) {
-            return "Present Input Current";
-        } else if (PRESENT_INPUT_RIPPLE_VOLTAGE.equals(deviceProperty)) {
-            return "Present Input Ripple Voltage";
-        } else if (PRESENT_INPUT_VOLTAGE.equals(deviceProperty)) {
-            return "Present Input Voltage";
-        } else if (PRESENT_LUMINOUS_FLUX.equals(deviceProperty)) {
-            return "Present Luminous Flux";
-        } else if (PRESENT_OUTDOOR_AMBIENT_TEMPERATURE.equals(deviceProperty)) {
-            return "Present Outdoor Ambient Temperature";
-        } else if (PRESENT_OUTPUT_CURRENT.equals(deviceProperty)) {
-            return "Present Output Current";
-        } else if (PRESENT_OUTPUT_VOLTAGE.equals(deviceProperty)) {
-            return "Present Output Voltage";
-        } else if (PRESENT_PLANCKIAN_DISTANCE.equals(deviceProperty)) {
-            return "Present Planckian Distance";
-        } else if (PRESENT_RELATIVE_OUTPUT_RIPPLE_VOLTAGE.equals(deviceProperty)) {
-            return "Present Relative Output Ripple Voltage";
-        } else if (RELATIVE_DEVICE_ENERGY_USE_IN_A_PERIOD_OF_DAY.equals(deviceProperty)) {
-            return "Relative Device Energy Use In A Period Of Day";
-        } else if (RELATIVE_DEVICE_RUNTIME_IN_A_GENERIC_LEVEL_RANGE.equals(deviceProperty)) {
-            return "Relative Device Runtime In A Generic Level Range";
-        } else if (RELATIVE_EXPOSURE_TIME_IN_AN_ILLUMINANCE_RANGE.equals(deviceProperty)) {
-            return "Relative Exposure Time In An Illuminance Range";
-        } else if (RELATIVE_RUNTIME_IN_A_CORRELATED_COLOR_TEMPERATURE_RANGE.equals(deviceProperty)) {
-            return "Relative Runtime In A Correlated Color Temperature Range";
-        } else if (RELATIVE_RUNTIME_IN_A_DEVICE_OPERATING_TEMPERATURE_RANGE.equals(deviceProperty)) {
-            return "Relative Runtime In A Device Operating Temperature Range";
-        } else if (RELATIVE_RUNTIME_IN_AN_INPUT_CURRENT_RANGE.equals(deviceProperty)) {
-            return "Relative Runtime In An Input Current Range";
-        } else if (RELATIVE_RUNTIME_IN_AN_INPUT_VOLTAGE_RANGE.equals(deviceProperty)) {
-            return "Relative Runtime In An Input Voltage Range";
-        } else if (SHORT_CIRCUIT_EVENT_STATISTICS.equals(deviceProperty)) {
-            return "Short Circuit Event Statistics";
-        } else if (TIME_SINCE_MOTION_SENSED.equals(deviceProperty)) {
-            return "Time Since Motion Sensed";
-        } else if (TIME_SINCE_PRESENCE_DETECTED.equals(deviceProperty)) {
-            return "Time Since Presence Detected";
-        } else if (TOTAL_DEVICE_ENERGY_USE.equals(deviceProperty)) {
-            return "Total Device Energy Use";
-        } else if (TOTAL_DEVICE_OFF_ON_CYCLES.equals(deviceProperty)) {
-            return "Total Device Off On Cycles";
-        } else if (TOTAL_DEVICE_POWER_ON_CYCLES.equals(deviceProperty)) {
-            return "Total Device Power On Cycles";
-        } else if (TOTAL_DEVICE_POWER_ON_TIME.equals(deviceProperty)) {
-            return "Total Device Power On Time";
-        } else if (TOTAL_DEVICE_RUNTIME.equals(deviceProperty)) {
-            return "Total Device Runtime";
-        } else if (TOTAL_LIGHT_EXPOSURE_TIME.equals(deviceProperty)) {
-            return "Total Light Exposure Time";
-        } else if (TOTAL_LUMINOUS_ENERGY.equals(deviceProperty)) {
-            return "Total Luminous Energy";
-        } else if (DESIRED_AMBIENT_TEMPERATURE.equals(deviceProperty)) {
-            return "Desired Ambient Temperature";
-        } else if (PRECISE_TOTAL_DEVICE_ENERGY_USE.equals(deviceProperty)) {
-            return "Precise Total Device Energy Use";
-        } else if (POWER_FACTOR.equals(deviceProperty)) {
-            return "Power Factor";
-        } else if (SENSOR_GAIN.equals(deviceProperty)) {
-            return "Sensor Gain";
-        } else if (PRECISE_PRESENT_AMBIENT_TEMPERATURE.equals(deviceProperty)) {
-            return "Precise Present Ambient Temperature";
-        } else if (PRESENT_AMBIENT_RELATIVE_HUMIDITY.equals(deviceProperty)) {
-            return "Present Ambient Relative Humidity";
-        } else if (PRESENT_AMBIENT_CARBONDIOXIDE_CONCENTRATION.equals(deviceProperty)) {
-            return "Present Ambient Carbon Dioxide Concentration";
-        } else if (PRESENT_AMBIENT_VOLATILE_ORGANIC_COMPOUNDS_CONCENTRATION.equals(deviceProperty)) {
-            return "Present Ambient Volatile Organic Compounds Concentration";
-        } else if (PRESENT_AMBIENT_NOISE.equals(deviceProperty)) {
-            return "Present Ambient Noise";
-        } else if (ACTIVE_ENERGY_LOAD_SIDE.equals(deviceProperty)) {
-            return "Active Energy Loadside";
-        } else if (ACTIVE_POWER_LOAD_SIDE.equals(deviceProperty)) {
-            return "Active Power Loadside";
-        } else if (AIR_PRESSURE.equals(deviceProperty)) {
-            return "Air Pressure";
-        } else if (APPARENT_ENERGY.equals(deviceProperty)) {
-            return "Apparent Energy";
-        } else if (APPARENT_POWER.equals(deviceProperty)) {
-            return "Apparent Power";
-        } else if (APPARENT_WIND_DIRECTION.equals(deviceProperty)) {
-            return "Apparent Wind Direction";
-        } else if (APPARENT_WIND_SPEED.equals(deviceProperty)) {
-            return "Apparent Wind Speed";
-        } else if (DEW_POINT.equals(deviceProperty)) {
-            return "Dew Point";
-        } else if (EXTERNAL_SUPPLY_VOLTAGE.equals(deviceProperty)) {
-            return "External Supply Voltage";
-        } else if (EXTERNAL_SUPPLY_VOLTAGE_FREQUENCY.equals(deviceProperty)) {
-            return "External Supply Voltage Frequency";
-        } else if (GUST_FACTOR.equals(deviceProperty)) {
-            return "Gust Factor";
-        } else if (HEAT_INDEX.equals(deviceProperty)) {
-            return "Heat Index";
-        } else if (LIGHT_DISTRIBUTION.equals(deviceProperty)) {
-            return "Light Distribution";
-        } else if (LIGHT_SOURCE_CURRENT.equals(deviceProperty)) {
-            return "Light Source Current";
-        } else if (LIGHT_SOURCE_ON_TIME_NOT_RESETTABLE.equals(deviceProperty)) {
-            return "Light Source On Time Not Resettable";
-        } else if (LIGHT_SOURCE_ON_TIME_RESETTABLE.equals(deviceProperty)) {
-            return "Light Source On Time Resettable";
-        } else if (LIGHT_SOURCE_OPEN_CIRCUIT_STATISTICS.equals(deviceProperty)) {
-            return "Light Source Open Circuit Statistics";
-        } else if (LIGHT_SOURCE_OVERALL_FAILURES_STATISTICS.equals(deviceProperty)) {
-            return "Light Source Overall Failures Statistics";
-        } else if (LIGHT_SOURCE_SHORT_CIRCUIT_STATISTICS.equals(deviceProperty)) {
-            return "Light Source Short Circuit Statistics";
-        } else if (LIGHT_SOURCE_START_COUNTER_RESETTABLE.equals(deviceProperty)) {
-            return "Light Source Start Counter Resettable";
-        } else if (LIGHT_SOURCE_TEMPERATURE.equals(deviceProperty)) {
-            return "Light Source Temperature";
-        } else if (LIGHT_SOURCE_THERMAL_DERATING_STATISTICS.equals(deviceProperty)) {
-            return "Light Source Thermal Derating Statistics";
-        } else if (LIGHT_SOURCE_THERMAL_SHUTDOWN_STATISTICS.equals(deviceProperty)) {
-            return "Light Source Thermal Shutdown Statistics";
-        } else if (LIGHT_SOURCE_TOTAL_POWER_ON_CYCLES.equals(deviceProperty)) {
-            return "Light Source Total Power On Cycles";
-        } else if (LIGHT_SOURCE_VOLTAGE.equals(deviceProperty)) {
-            return "Light Source Voltage";
-        } else if (LUMINAIRE_COLOR.equals(deviceProperty)) {
-            return "Luminaire Color";
-        } else if (LUMINAIRE_IDENTIFICATION_NUMBER.equals(deviceProperty)) {
-            return "Luminaire Identification Number";
-        } else if (LUMINAIRE_MANUFACTURER_GTIN.equals(deviceProperty)) {
-            return "Luminaire Manufacturer GTIN";
-        } else if (LUMINAIRE_NOMINAL_INPUT_POWER.equals(deviceProperty)) {
-            return "Luminaire Nominal Input Power";
-        } else if (LUMINAIRE_NOMINAL_MAXIMUM_AC_MAINS_VOLTAGE.equals(deviceProperty)) {
-            return "Luminaire Nominal Maximum AC Mains Voltage";
-        } else if (LUMINAIRE_NOMINAL_MINIMUM_AC_MAINS_VOLTAGE.equals(deviceProperty)) {
-            return "Luminaire Nominal Minimum AC Mains Voltage";
-        } else if (LUMINAIRE_POWER_AT_MINIMUM_DIM_LEVEL.equals(deviceProperty)) {
-            return "Luminaire Power At Minimum Dim Level";
-        } else if (LUMINAIRE_TIME_OF_MANUFACTURE.equals(deviceProperty)) {
-            return "Luminaire Time Of Manufacture";
-        } else if (MAGNETIC_DECLINATION.equals(deviceProperty)) {
-            return "Magnetic Declination";
-        } else if (MAGNETIC_FLUX_DENSITY_2D.equals(deviceProperty)) {
-            return "Magnetic Flux Density - 2D";
-        } else if (MAGNETIC_FLUX_DENSITY_3D.equals(deviceProperty)) {
-            return "Magnetic Flux Density - 3D";
-        } else if (NOMINAL_LIGHT_OUTPUT.equals(deviceProperty)) {
-            return "Nominal Light Output";
-        } else if (OVERALL_FAILURE_CONDITION.equals(deviceProperty)) {
-            return "Overall Failure Condition";
-        } else if (POLLEN_CONCENTRATION.equals(deviceProperty)) {
-            return "Pollen Concentration";
-        } else if (PRESENT_INDOOR_RELATIVE_HUMIDITY.equals(deviceProperty)) {
-            return "Present Indoor Relative Humidity";
-        } else if (PRESENT_OUTDOOR_RELATIVE_HUMIDITY.equals(deviceProperty)) {
-            return "Present Outdoor Relative Humidity";
-        } else if (PRESSURE.equals(deviceProperty)) {
-            return "Pressure";
-        } else if (RAINFALL.equals(deviceProperty)) {
-            return "Rainfall";
-        } else if (RATED_MEDIAN_USEFUL_LIFE_OF_LUMINAIRE.equals(deviceProperty)) {
-            return "Rated Median Useful Life Of Luminaire";
-        } else if (RATED_MEDIAN_USEFUL_LIGHT_SOURCE_STARTS.equals(deviceProperty)) {
-            return "Rated Median Useful Light Source Starts";
-        } else if (REFERENCE_TEMPERATURE.equals(deviceProperty)) {
-            return "Reference Temperature";
-        } else if (TOTAL_DEVICE_STARTS.equals(deviceProperty)) {
-            return "Total Device Starts";
-        } else if (TRUE_WIND_DIRECTION.equals(deviceProperty)) {
-            return "True Wind Direction";
-        } else if (TRUE_WIND_SPEED.equals(deviceProperty)) {
-            return "True Wind Speed";
-        } else if (UV_INDEX.equals(deviceProperty)) {
-            return "UV Index";
-        } else if (WIND_CHILL.equals(deviceProperty)) {
-            return "Wind Chill";
-        } else if (LIGHT_SOURCE_TYPE.equals(deviceProperty)) {
-            return "Light Source Type";
-        } else if (LUMINAIRE_IDENTIFICATION_STRING.equals(deviceProperty)) {
-            return "Luminaire Identification String";
-        } else if (OUTPUT_POWER_LIMITATION.equals(deviceProperty)) {
-            return "Output Power Limitation";
-        } else if (THERMAL_DERATING.equals(deviceProperty)) {
-            return "Thermal Derating";
-        } else if (OUTPUT_CURRENT_PERCENT.equals(deviceProperty)) {
-            return "Output Current Percent";
-        } else {
-            return "Custom Device Property";
-        }
+        final PropertyInfo info = deviceProperty == null ? null : getInfo(deviceProperty.propertyId);
+        return info == null ? CUSTOM_DEVICE_PROPERTY : info.name;
     }
 
     public static DevicePropertyCharacteristic<?> getCharacteristic(@NonNull final DeviceProperty deviceProperty,
                                                                     @NonNull final byte[] data,
                                                                     int offset,
                                                                     final int length) {
-        if (PRESENCE_DETECTED.equals(deviceProperty)) {
-            return data.length == 0 ? new Bool(false) : new Bool(data[offset] == 0x01);
-        } else if (LIGHT_CONTROL_REGULATOR_ACCURACY.equals(deviceProperty) ||
-                OUTPUT_RIPPLE_VOLTAGE_SPECIFICATION.equals(deviceProperty) ||
-                INPUT_VOLTAGE_RIPPLE_SPECIFICATION.equals(deviceProperty) ||
-                OUTPUT_CURRENT_PERCENT.equals(deviceProperty) ||
-                LUMEN_MAINTENANCE_FACTOR.equals(deviceProperty) ||
-                MOTION_SENSED.equals(deviceProperty) ||
-                MOTION_THRESHOLD.equals(deviceProperty) ||
-                PRESENT_DEVICE_OPERATING_EFFICIENCY.equals(deviceProperty) ||
-                PRESENT_RELATIVE_OUTPUT_RIPPLE_VOLTAGE.equals(deviceProperty) ||
-                PRESENT_INPUT_RIPPLE_VOLTAGE.equals(deviceProperty)) {
-            return new Percentage8(data, offset);
-        } else if (DESIRED_AMBIENT_TEMPERATURE.equals(deviceProperty) ||
-                PRESENT_AMBIENT_TEMPERATURE.equals(deviceProperty) ||
-                PRESENT_INDOOR_AMBIENT_TEMPERATURE.equals(deviceProperty) ||
-                PRESENT_OUTDOOR_AMBIENT_TEMPERATURE.equals(deviceProperty)) {
-            return new Temperature(data, offset, 1);
-        } else if (PRECISE_PRESENT_AMBIENT_TEMPERATURE.equals(deviceProperty) ||
-                PRESENT_DEVICE_OPERATING_TEMPERATURE.equals(deviceProperty)) {
-            return new Temperature(data, offset, 2);
-        } else if (PEOPLE_COUNT.equals(deviceProperty)) {
-            return new Count(data, offset, 2);
-        } else if (PRESENT_AMBIENT_RELATIVE_HUMIDITY.equals(deviceProperty) ||
-                PRESENT_INDOOR_RELATIVE_HUMIDITY.equals(deviceProperty) ||
-                PRESENT_OUTDOOR_RELATIVE_HUMIDITY.equals(deviceProperty)) {
-            return new Humidity(data, offset);
-        } else if (LIGHT_CONTROL_LIGHTNESS_ON.equals(deviceProperty) ||
-                LIGHT_CONTROL_LIGHTNESS_PROLONG.equals(deviceProperty) ||
-                LIGHT_CONTROL_LIGHTNESS_STANDBY.equals(deviceProperty)) {
-            return new PerceivedLightness(data, offset);
-        } else if (TIME_SINCE_MOTION_SENSED.equals(deviceProperty) ||
-                TIME_SINCE_PRESENCE_DETECTED.equals(deviceProperty)) {
-            return new TimeSecond(data, offset, 2);
-        } else if (LIGHT_SOURCE_START_COUNTER_RESETTABLE.equals(deviceProperty) ||
-                LIGHT_SOURCE_TOTAL_POWER_ON_CYCLES.equals(deviceProperty) ||
-                RATED_MEDIAN_USEFUL_LIGHT_SOURCE_STARTS.equals(deviceProperty) ||
-                TOTAL_DEVICE_OFF_ON_CYCLES.equals(deviceProperty) ||
-                TOTAL_DEVICE_POWER_ON_CYCLES.equals(deviceProperty) ||
-                TOTAL_DEVICE_STARTS.equals(deviceProperty)) {
-            return new Count(data, offset, 3);
-        } else if (LIGHT_CONTROL_AMBIENT_LUX_LEVEL_ON.equals(deviceProperty) ||
-                LIGHT_CONTROL_AMBIENT_LUX_LEVEL_PROLONG.equals(deviceProperty) ||
-                LIGHT_CONTROL_AMBIENT_LUX_LEVEL_STANDBY.equals(deviceProperty) ||
-                PRESENT_AMBIENT_LIGHT_LEVEL.equals(deviceProperty) ||
-                PRESENT_ILLUMINANCE.equals(deviceProperty)) {
-            return new Illuminance(data, offset);
-        } else if (DEVICE_RUN_TIME_SINCE_TURN_ON.equals(deviceProperty) ||
-                DEVICE_RUNTIME_WARRANTY.equals(deviceProperty) ||
-                RATED_MEDIAN_USEFUL_LIFE_OF_LUMINAIRE.equals(deviceProperty) ||
-                TOTAL_DEVICE_POWER_ON_TIME.equals(deviceProperty) ||
-                TOTAL_DEVICE_RUNTIME.equals(deviceProperty) ||
-                TOTAL_LIGHT_EXPOSURE_TIME.equals(deviceProperty)) {
-            return new TimeHour24(data, offset);
-        } else if (LIGHT_CONTROL_TIME_FADE.equals(deviceProperty) ||
-                LIGHT_CONTROL_TIME_FADE_ON.equals(deviceProperty) ||
-                LIGHT_CONTROL_TIME_FADE_STANDBY_AUTO.equals(deviceProperty) ||
-                LIGHT_CONTROL_TIME_FADE_STANDBY_MANUAL.equals(deviceProperty) ||
-                LIGHT_CONTROL_TIME_OCCUPANCY_DELAY.equals(deviceProperty) ||
-                LIGHT_CONTROL_TIME_PROLONG.equals(deviceProperty) ||
-                LIGHT_CONTROL_TIME_RUN_ON.equals(deviceProperty)) {
-            return new TimeMillisecond24(data, offset);
-        } else if (DEVICE_DATE_OF_MANUFACTURE.equals(deviceProperty) ||
-                LUMINAIRE_TIME_OF_MANUFACTURE.equals(deviceProperty)) {
-            return new DateUtc(data, offset);
-        } else if (PRESSURE.equals(deviceProperty) ||
-                AIR_PRESSURE.equals(deviceProperty)) {
-            return new Pressure(data, offset);
-        } else if (LIGHT_CONTROL_REGULATOR_KID.equals(deviceProperty) ||
-                LIGHT_CONTROL_REGULATOR_KIU.equals(deviceProperty) ||
-                LIGHT_CONTROL_REGULATOR_KPD.equals(deviceProperty) ||
-                LIGHT_CONTROL_REGULATOR_KPU.equals(deviceProperty) ||
-                SENSOR_GAIN.equals(deviceProperty)) {
-            return new Coefficient(data, offset);
-        } else if (DEVICE_FIRMWARE_REVISION.equals(deviceProperty) ||
-                DEVICE_SOFTWARE_REVISION.equals(deviceProperty)) {
-            return new FixedString(data, offset, 8);
-        } else if (DEVICE_HARDWARE_REVISION.equals(deviceProperty) ||
-                DEVICE_SERIAL_NUMBER.equals(deviceProperty)) {
-            return new FixedString(data, offset, 16);
-        } else if (DEVICE_MODEL_NUMBER.equals(deviceProperty) ||
-                LUMINAIRE_COLOR.equals(deviceProperty) ||
-                LUMINAIRE_IDENTIFICATION_NUMBER.equals(deviceProperty)) {
-            return new FixedString(data, offset, 24);
-        } else if (DEVICE_MANUFACTURER_NAME.equals(deviceProperty)) {
-            return new FixedString(data, offset, 36);
-        } else if (LUMINAIRE_IDENTIFICATION_STRING.equals(deviceProperty)) {
-            return new FixedString(data, offset, 64);
-        } else if (ACTIVE_ENERGY_LOAD_SIDE.equals(deviceProperty) ||
-                PRECISE_TOTAL_DEVICE_ENERGY_USE.equals(deviceProperty)) {
-            return new Energy32(data, offset);
-        } else if (ACTIVE_POWER_LOAD_SIDE.equals(deviceProperty) ||
-                LUMINAIRE_NOMINAL_INPUT_POWER.equals(deviceProperty) ||
-                LUMINAIRE_POWER_AT_MINIMUM_DIM_LEVEL.equals(deviceProperty) ||
-                PRESENT_DEVICE_INPUT_POWER.equals(deviceProperty)) {
-            return new Power(data, offset);
-        } else if (PRESENT_INPUT_CURRENT.equals(deviceProperty) ||
-                PRESENT_OUTPUT_CURRENT.equals(deviceProperty)) {
-            return new ElectricCurrent(data, offset);
-        } else {
+        final PropertyInfo info = getInfo(deviceProperty.propertyId);
+        if (info == null || info.decoder == null) {
             return new UnknownCharacteristic(data, offset, length);
         }
+        return info.decoder.decode(data, offset, length);
+    }
+
+    /**
+     * Returns the length of the characteristic of the device property in bytes or 0 if the
+     * characteristic of the device property is not known.
+     *
+     * @param deviceProperty device property
+     */
+    public static int getCharacteristicLength(@NonNull final DeviceProperty deviceProperty) {
+        final PropertyInfo info = getInfo(deviceProperty.propertyId);
+        return info == null ? 0 : info.length;
+    }
+
+    @Nullable
+    private static PropertyInfo getInfo(final short propertyId) {
+        final int index = propertyId & 0xFFFF;
+        return index < PROPERTIES.length ? PROPERTIES[index] : null;
+    }
+
+    private static void register(@NonNull final DeviceProperty deviceProperty, @NonNull final String name) {
+        PROPERTIES[deviceProperty.propertyId] = new PropertyInfo(deviceProperty, name);
+    }
+
+    private static void registerCharacteristic(final int length,
+                                               @NonNull final CharacteristicDecoder decoder,
+                                               @NonNull final DeviceProperty... deviceProperties) {
+        for (DeviceProperty deviceProperty : deviceProperties) {
+            final PropertyInfo info = PROPERTIES[deviceProperty.propertyId];
+            info.decoder = decoder;
+            info.length = length;
+        }
+    }
+
+    private interface CharacteristicDecoder {
+        DevicePropertyCharacteristic<?> decode(@NonNull final byte[] data, final int offset, final int length);
+    }
+
+    private static final class PropertyInfo {
+        final DeviceProperty property;
+        final String name;
+        CharacteristicDecoder decoder;
+        int length;
+
+        PropertyInfo(@NonNull final DeviceProperty property, @NonNull final String name) {
+            this.property = property;
+            this.name = name;
+        }
     }
-}
\ No newline at end of file
+}
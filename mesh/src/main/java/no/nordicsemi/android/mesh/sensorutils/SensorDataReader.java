@@ -0,0 +1,189 @@
+package no.nordicsemi.android.mesh.sensorutils;
+
+import androidx.annotation.NonNull;
+import no.nordicsemi.android.mesh.utils.SensorFormat;
+
+/**
+ * Reads the marshalled sensor data of a Sensor Status message in place.
+ * <p>
+ * The reader iterates over the Marshalled Property IDs without creating an object or copying the
+ * raw value for each of them. The property id, format, offset and length of the current value are
+ * available after each call to {@link #next()} and the value is only decoded when requested.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class SensorDataReader {
+
+    private final byte[] data;
+    private int nextOffset;
+    private SensorFormat format;
+    private short propertyId;
+    private int offset = -1;
+    private int length;
+
+    /**
+     * Constructs a reader over the marshalled sensor data
+     *
+     * @param data parameters of a Sensor Status message
+     */
+    public SensorDataReader(@NonNull final byte[] data) {
+        this.data = data;
+    }
+
+    /**
+     * Moves to the next marshalled sensor data.
+     *
+     * @return true if there was a next value or false if the end of the data was reached
+     * @throws IllegalArgumentException if the marshalled property id is truncated
+     */
+    public boolean next() {
+        if (nextOffset >= data.length) {
+            offset = -1;
+            return false;
+        }
+        int position = nextOffset;
+        if (position + 2 > data.length)
+            throw new IllegalArgumentException("Truncated Marshalled Property ID at offset " + position);
+        final int octet0 = data[position++] & 0xFF;
+        final int octet1 = data[position++] & 0xFF;
+        format = SensorFormat.from((byte) (octet0 & 0x01));
+        if (format == SensorFormat.FORMAT_A) {
+            length = ((octet0 & 0x1E) >> 1) + 1; // zero based
+            propertyId = (short) ((octet1 << 3) | (octet0 >> 5));
+        } else {
+            if (position + 1 > data.length)
+                throw new IllegalArgumentException("Truncated Marshalled Property ID at offset " + nextOffset);
+            final int octet2 = data[position++] & 0xFF;
+            final int tempLength = ((octet0 & 0xFE) >> 1);
+            length = tempLength == 0x7F ? 0 : tempLength;
+            propertyId = (short) ((octet2 << 8) | octet1);
+        }
+        offset = position;
+        nextOffset = position + length;
+        return true;
+    }
+
+    /**
+     * Moves to the marshalled sensor data of the given property, starting from the first value.
+     *
+     * @param deviceProperty device property
+     * @return true if the property was found or false otherwise
+     */
+    public boolean find(@NonNull final DeviceProperty deviceProperty) {
+        reset();
+        while (next()) {
+            if (getDeviceProperty().equals(deviceProperty))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Moves the reader before the first marshalled sensor data.
+     */
+    public void reset() {
+        nextOffset = 0;
+        offset = -1;
+    }
+
+    /**
+     * Returns the format of the current value.
+     */
+    @NonNull
+    public SensorFormat getFormat() {
+        checkCurrent();
+        return format;
+    }
+
+    /**
+     * Returns the property id of the current value.
+     */
+    public short getPropertyId() {
+        checkCurrent();
+        return propertyId;
+    }
+
+    /**
+     * Returns the device property of the current value. Known device properties are not allocated.
+     */
+    @NonNull
+    public DeviceProperty getDeviceProperty() {
+        checkCurrent();
+        return DeviceProperty.from(format, propertyId);
+    }
+
+    /**
+     * Returns the offset of the current value in the data.
+     */
+    public int getOffset() {
+        checkCurrent();
+        return offset;
+    }
+
+    /**
+     * Returns the length of the current value in bytes.
+     */
+    public int getLength() {
+        checkCurrent();
+        return length;
+    }
+
+    /**
+     * Returns true if the current value is complete and has the length of the characteristic of its
+     * device property. Values of properties with an unknown characteristic are only checked to be complete.
+     */
+    public boolean isLengthValid() {
+        checkCurrent();
+        if (offset + length > data.length)
+            return false;
+        final int characteristicLength = DeviceProperty.getCharacteristicLength(getDeviceProperty());
+        return characteristicLength == 0 || characteristicLength == length;
+    }
+
+    /**
+     * Returns the current value as a little endian unsigned integer.
+     *
+     * @throws IllegalArgumentException if the value is longer than 4 bytes or is truncated
+     */
+    public long getUnsignedValue() {
+        checkValue(4);
+        long value = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            value = (value << 8) | (data[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the current value as a little endian signed integer.
+     *
+     * @throws IllegalArgumentException if the value is longer than 4 bytes or is truncated
+     */
+    public int getSignedValue() {
+        final long value = getUnsignedValue();
+        final int shift = 64 - length * 8;
+        return length == 0 ? 0 : (int) ((value << shift) >> shift);
+    }
+
+    /**
+     * Decodes the current value to the characteristic of its device property.
+     */
+    @NonNull
+    public DevicePropertyCharacteristic<?> getCharacteristic() {
+        checkCurrent();
+        return DeviceProperty.getCharacteristic(getDeviceProperty(), data, offset, length);
+    }
+
+    private void checkCurrent() {
+        if (offset < 0)
+            throw new IllegalStateException("No current value, call next() first");
+    }
+
+    private void checkValue(final int maxLength) {
+        checkCurrent();
+        if (length > maxLength)
+            throw new IllegalArgumentException("Value of " + length + " bytes does not fit in " + maxLength + " bytes");
+        if (offset + length > data.length)
+            throw new IllegalArgumentException("Truncated value at offset " + offset);
+    }
+}
@@ -0,0 +1,276 @@
+package no.nordicsemi.android.mesh.sensorutils;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.logger.MeshLogger;
+import no.nordicsemi.android.mesh.transport.SensorStatus;
+
+/**
+ * Stores the history of the values reported in Sensor Status messages.
+ * <p>
+ * A {@link SensorTimeSeries} is kept per element address and device property. Each series retains
+ * the most recent samples and min/max/avg rollups at the configured resolutions in primitive ring
+ * buffers. The store is fed with the Sensor Status messages received from the network and may be
+ * saved to and loaded from a stream to persist the history across sessions.
+ * </p>
+ * <p>
+ * The series returned are live views, synchronize on the store while reading them if messages may
+ * be received at the same time.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class SensorDataStore {
+
+    private static final String TAG = SensorDataStore.class.getSimpleName();
+    private static final int VERSION = 1;
+
+    public static final int DEFAULT_CAPACITY = 256;
+    public static final int DEFAULT_ROLLUP_CAPACITY = 96;
+    public static final long[] DEFAULT_RESOLUTIONS = {60 * 1000L, 15 * 60 * 1000L, 60 * 60 * 1000L};
+
+    private final Map<Integer, SensorTimeSeries> series = new HashMap<>();
+    private final int capacity;
+    private final long[] resolutions;
+    private final int rollupCapacity;
+
+    /**
+     * Constructs a store retaining {@link #DEFAULT_CAPACITY} samples and {@link #DEFAULT_ROLLUP_CAPACITY}
+     * buckets of one minute, 15 minutes and one hour per series.
+     */
+    public SensorDataStore() {
+        this(DEFAULT_CAPACITY, DEFAULT_RESOLUTIONS, DEFAULT_ROLLUP_CAPACITY);
+    }
+
+    /**
+     * Constructs a store
+     *
+     * @param capacity       number of samples retained per series
+     * @param resolutions    resolutions of the rollups in milliseconds
+     * @param rollupCapacity number of buckets retained per rollup
+     * @throws IllegalArgumentException if a capacity or resolution is not positive
+     */
+    public SensorDataStore(final int capacity, @NonNull final long[] resolutions, final int rollupCapacity) {
+        if (capacity <= 0 || rollupCapacity <= 0)
+            throw new IllegalArgumentException("Capacity must be greater than 0");
+        for (long resolution : resolutions) {
+            if (resolution <= 0)
+                throw new IllegalArgumentException("Resolution must be greater than 0");
+        }
+        this.capacity = capacity;
+        this.resolutions = resolutions.clone();
+        this.rollupCapacity = rollupCapacity;
+    }
+
+    /**
+     * Adds the values of a sensor status to the series of the element that sent it.
+     * Values that are not numeric or do not have the length of their characteristic are ignored.
+     *
+     * @param status    sensor status
+     * @param timestamp time the status was received in milliseconds
+     */
+    public synchronized void add(@NonNull final SensorStatus status, final long timestamp) {
+        final SensorDataReader reader = status.getSensorDataReader();
+        try {
+            while (reader.next()) {
+                if (!reader.isLengthValid()) {
+                    MeshLogger.error(TAG, "Invalid length of property 0x" + Integer.toHexString(reader.getPropertyId() & 0xFFFF) + " from " + status.getSrc());
+                    continue;
+                }
+                final Object value = reader.getCharacteristic().getValue();
+                if (value instanceof Number) {
+                    add(status.getSrc(), reader.getDeviceProperty(), timestamp, ((Number) value).doubleValue());
+                } else if (value instanceof Boolean) {
+                    add(status.getSrc(), reader.getDeviceProperty(), timestamp, (Boolean) value ? 1 : 0);
+                }
+            }
+        } catch (RuntimeException ex) {
+            MeshLogger.error(TAG, "Invalid sensor status from " + status.getSrc() + ": " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Adds a sample to a series.
+     *
+     * @param address        address of the element
+     * @param deviceProperty device property
+     * @param timestamp      time of the sample in milliseconds
+     * @param value          value of the sample
+     */
+    public synchronized void add(final int address,
+                                 @NonNull final DeviceProperty deviceProperty,
+                                 final long timestamp,
+                                 final double value) {
+        getOrCreate(address, deviceProperty).add(timestamp, value);
+    }
+
+    /**
+     * Returns the series of a device property reported by an element or null if none was received.
+     *
+     * @param address        address of the element
+     * @param deviceProperty device property
+     */
+    @Nullable
+    public synchronized SensorTimeSeries getSeries(final int address, @NonNull final DeviceProperty deviceProperty) {
+        return series.get(key(address, deviceProperty.getPropertyId()));
+    }
+
+    /**
+     * Returns all series of an element.
+     *
+     * @param address address of the element
+     */
+    @NonNull
+    public synchronized List<SensorTimeSeries> getSeries(final int address) {
+        final List<SensorTimeSeries> list = new ArrayList<>();
+        for (SensorTimeSeries timeSeries : series.values()) {
+            if (timeSeries.getAddress() == address) {
+                list.add(timeSeries);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Removes the series of the elements in the given address range, i.e. when a node is reset.
+     *
+     * @param address      address of the first element
+     * @param elementCount number of elements
+     */
+    public synchronized void remove(final int address, final int elementCount) {
+        final Iterator<SensorTimeSeries> iterator = series.values().iterator();
+        while (iterator.hasNext()) {
+            final int elementAddress = iterator.next().getAddress();
+            if (elementAddress >= address && elementAddress < address + elementCount) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes all series.
+     */
+    public synchronized void clear() {
+        series.clear();
+    }
+
+    /**
+     * Writes all series to a stream.
+     *
+     * @param outputStream stream to write to, the stream is not closed
+     */
+    public synchronized void save(@NonNull final OutputStream outputStream) throws IOException {
+        final DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(VERSION);
+        out.writeInt(series.size());
+        for (SensorTimeSeries timeSeries : series.values()) {
+            out.writeShort(timeSeries.getAddress());
+            out.writeShort(timeSeries.getDeviceProperty().getPropertyId());
+            out.writeInt(timeSeries.size());
+            for (int i = 0; i < timeSeries.size(); i++) {
+                out.writeLong(timeSeries.getTimestamp(i));
+                out.writeDouble(timeSeries.getValue(i));
+            }
+            out.writeInt(timeSeries.getRollupCount());
+            for (int r = 0; r < timeSeries.getRollupCount(); r++) {
+                final SensorRollup rollup = timeSeries.getRollup(r);
+                out.writeLong(rollup.getResolution());
+                out.writeInt(rollup.size());
+                for (int i = 0; i < rollup.size(); i++) {
+                    out.writeLong(rollup.getTimestamp(i));
+                    out.writeDouble(rollup.getMin(i));
+                    out.writeDouble(rollup.getMax(i));
+                    out.writeDouble(rollup.getSum(i));
+                    out.writeInt(rollup.getCount(i));
+                }
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Replaces the series with the ones read from a stream written by {@link #save(OutputStream)}.
+     * Rollups saved with a resolution that is no longer configured are dropped and rollups of a new
+     * resolution are rebuilt from the samples.
+     *
+     * @param inputStream stream to read from, the stream is not closed
+     * @throws IOException if the stream could not be read or was not written by a sensor data store
+     */
+    public synchronized void load(@NonNull final InputStream inputStream) throws IOException {
+        final DataInputStream in = new DataInputStream(inputStream);
+        final int version = in.readInt();
+        if (version != VERSION)
+            throw new IOException("Unsupported sensor data store version: " + version);
+        series.clear();
+        final int seriesCount = in.readInt();
+        for (int s = 0; s < seriesCount; s++) {
+            final int address = in.readUnsignedShort();
+            final SensorTimeSeries timeSeries = getOrCreate(address, DeviceProperty.from(in.readShort()));
+            final int size = in.readInt();
+            final long[] timestamps = new long[size];
+            final double[] values = new double[size];
+            for (int i = 0; i < size; i++) {
+                timestamps[i] = in.readLong();
+                values[i] = in.readDouble();
+            }
+            final boolean[] restored = new boolean[timeSeries.getRollupCount()];
+            final int rollupCount = in.readInt();
+            for (int r = 0; r < rollupCount; r++) {
+                final long resolution = in.readLong();
+                final SensorRollup rollup = findRollup(timeSeries, resolution, restored);
+                final int buckets = in.readInt();
+                for (int i = 0; i < buckets; i++) {
+                    final long start = in.readLong();
+                    final double min = in.readDouble();
+                    final double max = in.readDouble();
+                    final double sum = in.readDouble();
+                    final int count = in.readInt();
+                    if (rollup != null) {
+                        rollup.put(start, min, max, sum, count);
+                    }
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                timeSeries.restore(timestamps[i], values[i], restored);
+            }
+        }
+    }
+
+    @Nullable
+    private static SensorRollup findRollup(@NonNull final SensorTimeSeries timeSeries,
+                                           final long resolution,
+                                           @NonNull final boolean[] restored) {
+        for (int i = 0; i < timeSeries.getRollupCount(); i++) {
+            if (!restored[i] && timeSeries.getRollup(i).getResolution() == resolution) {
+                restored[i] = true;
+                return timeSeries.getRollup(i);
+            }
+        }
+        return null;
+    }
+
+    @NonNull
+    private SensorTimeSeries getOrCreate(final int address, @NonNull final DeviceProperty deviceProperty) {
+        final int key = key(address, deviceProperty.getPropertyId());
+        SensorTimeSeries timeSeries = series.get(key);
+        if (timeSeries == null) {
+            timeSeries = new SensorTimeSeries(address, deviceProperty, capacity, resolutions, rollupCapacity);
+            series.put(key, timeSeries);
+        }
+        return timeSeries;
+    }
+
+    private static int key(final int address, final short propertyId) {
+        return ((address & 0xFFFF) << 16) | (propertyId & 0xFFFF);
+    }
+}
@@ -0,0 +1,424 @@
+package no.nordicsemi.android.mesh.sensorutils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.ApplicationKey;
+import no.nordicsemi.android.mesh.transport.SensorDescriptorStatus;
+import no.nordicsemi.android.mesh.transport.SensorGet;
+import no.nordicsemi.android.mesh.transport.SensorMessage;
+import no.nordicsemi.android.mesh.transport.SensorStatus;
+
+/**
+ * Decides when to send a Sensor Get message to each polled sensor.
+ * <p>
+ * Each sensor is polled at its base interval, divided by the fast cadence period divisor while the
+ * value is within the fast cadence range of its Sensor Cadence state. The interval is shortened when
+ * the observed rate of change would exceed the status trigger delta before the next poll and doubled,
+ * up to {@link #MAX_BACKOFF} times the base interval, while the value does not change. It is never
+ * shorter than the status min interval or the update interval of the sensor descriptor.
+ * </p>
+ * <p>
+ * Each property that is due is polled with a Sensor Get for that property only, as a Sensor Get for all
+ * properties would also return properties that are not due or not polled at all. The number of messages
+ * sent is limited by an airtime budget in messages per second.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class SensorPollingScheduler {
+
+    /**
+     * Maximum factor the interval of an unchanging sensor is increased by.
+     */
+    public static final int MAX_BACKOFF = 4;
+    public static final double DEFAULT_MESSAGES_PER_SECOND = 2;
+    private static final double RATE_SMOOTHING_FACTOR = 0.5;
+
+    private final Map<Integer, Element> elements = new HashMap<>();
+    private double messagesPerSecond = DEFAULT_MESSAGES_PER_SECOND;
+    private double tokens = DEFAULT_MESSAGES_PER_SECOND;
+    private long lastRefill = -1;
+    private int sentMessages;
+
+    /**
+     * A Sensor Get message to be sent to an element.
+     */
+    public static final class Poll {
+        public final int address;
+        public final SensorGet message;
+
+        Poll(final int address, @NonNull final SensorGet message) {
+            this.address = address;
+            this.message = message;
+        }
+    }
+
+    private static final class Element {
+        final int address;
+        final ApplicationKey appKey;
+        final Map<Short, Sensor> sensors = new HashMap<>();
+
+        Element(final int address, @NonNull final ApplicationKey appKey) {
+            this.address = address;
+            this.appKey = appKey;
+        }
+    }
+
+    private static final class Sensor {
+        final int address;
+        final DeviceProperty property;
+        final long baseInterval;
+        long interval;
+        long nextPoll;
+        long minInterval;
+        // Sensor Cadence state, the divisor is 1 without a cadence
+        int fastDivisor = 1;
+        double fastCadenceLow = Double.NaN;
+        double fastCadenceHigh = Double.NaN;
+        double deltaDown = Double.NaN;
+        double deltaUp = Double.NaN;
+        boolean deltaInPercent;
+        long statusMinInterval;
+        long updateInterval;
+        // Observed values
+        double lastValue = Double.NaN;
+        long lastTimestamp;
+        double rate = Double.NaN;
+
+        Sensor(final int address, @NonNull final DeviceProperty property, final long baseInterval, final long now) {
+            this.address = address;
+            this.property = property;
+            this.baseInterval = baseInterval;
+            this.interval = baseInterval;
+            this.nextPoll = now;
+        }
+    }
+
+    /**
+     * Sets the airtime budget shared by all polled sensors.
+     *
+     * @param messagesPerSecond maximum number of Sensor Get messages sent per second
+     * @throws IllegalArgumentException if the budget is not positive
+     */
+    public synchronized void setAirtimeBudget(final double messagesPerSecond) {
+        if (messagesPerSecond <= 0)
+            throw new IllegalArgumentException("Airtime budget must be greater than 0");
+        this.messagesPerSecond = messagesPerSecond;
+        tokens = Math.min(tokens, getBurst());
+    }
+
+    public synchronized double getAirtimeBudget() {
+        return messagesPerSecond;
+    }
+
+    /**
+     * Starts polling a sensor.
+     *
+     * @param address      address of the element
+     * @param appKey       application key bound to the sensor server model
+     * @param property     device property
+     * @param baseInterval interval the sensor is polled at in milliseconds when no cadence is known
+     * @param now          current time in milliseconds
+     * @throws IllegalArgumentException if the interval is not positive
+     */
+    public synchronized void addSensor(final int address,
+                                       @NonNull final ApplicationKey appKey,
+                                       @NonNull final DeviceProperty property,
+                                       final long baseInterval,
+                                       final long now) {
+        if (baseInterval <= 0)
+            throw new IllegalArgumentException("Interval must be greater than 0");
+        Element element = elements.get(address);
+        if (element == null || !element.appKey.equals(appKey)) {
+            final Element previous = element;
+            element = new Element(address, appKey);
+            if (previous != null) {
+                element.sensors.putAll(previous.sensors);
+            }
+            elements.put(address, element);
+        }
+        element.sensors.put(property.getPropertyId(), new Sensor(address, property, baseInterval, now));
+    }
+
+    /**
+     * Stops polling a sensor.
+     *
+     * @param address  address of the element
+     * @param property device property
+     */
+    public synchronized void removeSensor(final int address, @NonNull final DeviceProperty property) {
+        final Element element = elements.get(address);
+        if (element != null) {
+            element.sensors.remove(property.getPropertyId());
+            if (element.sensors.isEmpty()) {
+                elements.remove(address);
+            }
+        }
+    }
+
+    /**
+     * Stops polling the sensors of the elements in the given address range, i.e. when a node is reset.
+     *
+     * @param address      address of the first element
+     * @param elementCount number of elements
+     */
+    public synchronized void removeSensors(final int address, final int elementCount) {
+        for (int i = 0; i < elementCount; i++) {
+            elements.remove(address + i);
+        }
+    }
+
+    /**
+     * Stops polling all sensors.
+     */
+    public synchronized void clear() {
+        elements.clear();
+    }
+
+    /**
+     * Returns the current polling interval of a sensor in milliseconds or 0 if it is not polled.
+     *
+     * @param address  address of the element
+     * @param property device property
+     */
+    public synchronized long getInterval(final int address, @NonNull final DeviceProperty property) {
+        final Sensor sensor = getSensor(address, property);
+        return sensor == null ? 0 : sensor.interval;
+    }
+
+    /**
+     * Returns the number of Sensor Get messages returned by {@link #poll(long)} so far.
+     */
+    public synchronized int getSentMessages() {
+        return sentMessages;
+    }
+
+    /**
+     * Applies the Sensor Cadence state reported by an element.
+     *
+     * @param address address of the element
+     * @param cadence sensor cadence
+     */
+    public synchronized void onCadenceStatus(final int address, @NonNull final SensorMessage.SensorCadence cadence) {
+        final Sensor sensor = getSensor(address, cadence.getDeviceProperty());
+        if (sensor == null || cadence.getTriggerType() == null)
+            return;
+        sensor.fastDivisor = 1 << Math.min(cadence.getPeriodDivisor(), 15);
+        sensor.fastCadenceLow = toDouble(cadence.getFastCadenceLow());
+        sensor.fastCadenceHigh = toDouble(cadence.getFastCadenceHigh());
+        sensor.statusMinInterval = 1L << Math.min(cadence.getStatusMinInterval(), 26);
+        final StatusTriggerDelta<?> delta = cadence.getDelta();
+        if (delta instanceof StatusTriggerDelta.Percent) {
+            sensor.deltaInPercent = true;
+            sensor.deltaDown = ((StatusTriggerDelta.Percent) delta).getDown();
+            sensor.deltaUp = ((StatusTriggerDelta.Percent) delta).getUp();
+        } else if (delta != null) {
+            sensor.deltaInPercent = false;
+            sensor.deltaDown = toDouble((DevicePropertyCharacteristic<?>) delta.getDown());
+            sensor.deltaUp = toDouble((DevicePropertyCharacteristic<?>) delta.getUp());
+        }
+        updateMinInterval(sensor);
+        updateInterval(sensor);
+    }
+
+    /**
+     * Applies the sensor descriptors reported by an element.
+     *
+     * @param address address of the element
+     * @param status  sensor descriptor status
+     */
+    public synchronized void onDescriptorStatus(final int address, @NonNull final SensorDescriptorStatus status) {
+        if (!(status.getResult() instanceof SensorDescriptorStatus.SensorDescriptors))
+            return;
+        for (SensorDescriptor descriptor : ((SensorDescriptorStatus.SensorDescriptors) status.getResult()).descriptors) {
+            final Sensor sensor = getSensor(address, descriptor.getProperty());
+            if (sensor != null) {
+                final int updateInterval = descriptor.getUpdateInterval() & 0xFF;
+                // The update interval is 1.1^(n - 64) seconds, 0 if not provided
+                sensor.updateInterval = updateInterval == 0 ? 0 : (long) (Math.pow(1.1, updateInterval - 64) * 1000);
+                updateMinInterval(sensor);
+                updateInterval(sensor);
+            }
+        }
+    }
+
+    /**
+     * Adapts the polling intervals of the sensors of an element to the values it reported.
+     *
+     * @param status sensor status
+     * @param now    current time in milliseconds
+     */
+    public synchronized void onSensorStatus(@NonNull final SensorStatus status, final long now) {
+        final Element element = elements.get(status.getSrc());
+        if (element == null)
+            return;
+        final SensorDataReader reader = status.getSensorDataReader();
+        try {
+            while (reader.next()) {
+                final Sensor sensor = element.sensors.get(reader.getPropertyId());
+                if (sensor != null && reader.isLengthValid()) {
+                    onValue(sensor, toDouble(reader.getCharacteristic()), now);
+                }
+            }
+        } catch (RuntimeException ignored) {
+            // Values parsed before the malformed one were applied
+        }
+    }
+
+    /**
+     * Returns the Sensor Get messages that are due and fit in the airtime budget.
+     *
+     * @param now current time in milliseconds
+     */
+    @NonNull
+    public synchronized List<Poll> poll(final long now) {
+        refill(now);
+        final List<Sensor> due = new ArrayList<>();
+        for (Element element : elements.values()) {
+            for (Sensor sensor : element.sensors.values()) {
+                if (sensor.nextPoll <= now) {
+                    due.add(sensor);
+                }
+            }
+        }
+        // Most overdue first
+        Collections.sort(due, new Comparator<Sensor>() {
+            @Override
+            public int compare(final Sensor s1, final Sensor s2) {
+                return s1.nextPoll < s2.nextPoll ? -1 : (s1.nextPoll == s2.nextPoll ? 0 : 1);
+            }
+        });
+        final List<Poll> polls = new ArrayList<>();
+        for (Sensor sensor : due) {
+            if (tokens < 1)
+                break;
+            tokens--;
+            sentMessages++;
+            sensor.nextPoll = now + sensor.interval;
+            polls.add(new Poll(sensor.address, new SensorGet(elements.get(sensor.address).appKey, sensor.property)));
+        }
+        return polls;
+    }
+
+    /**
+     * Returns the time the next Sensor Get message is due in milliseconds or {@link Long#MAX_VALUE}
+     * if no sensor is polled. The time may be earlier than the time the budget allows a message.
+     */
+    public synchronized long getNextPollTime() {
+        long next = Long.MAX_VALUE;
+        for (Element element : elements.values()) {
+            next = Math.min(next, getNextPoll(element));
+        }
+        if (next != Long.MAX_VALUE && tokens < 1 && lastRefill >= 0) {
+            next = Math.max(next, lastRefill + (long) Math.ceil((1 - tokens) * 1000 / messagesPerSecond));
+        }
+        return next;
+    }
+
+    private void refill(final long now) {
+        if (lastRefill >= 0 && now > lastRefill) {
+            tokens = Math.min(getBurst(), tokens + (now - lastRefill) * messagesPerSecond / 1000);
+        }
+        lastRefill = now;
+    }
+
+    private double getBurst() {
+        return Math.max(1, messagesPerSecond);
+    }
+
+    private void onValue(@NonNull final Sensor sensor, final double value, final long now) {
+        if (Double.isNaN(value))
+            return;
+        final boolean changed;
+        if (!Double.isNaN(sensor.lastValue) && now > sensor.lastTimestamp) {
+            final double rate = Math.abs(value - sensor.lastValue) / (now - sensor.lastTimestamp);
+            sensor.rate = Double.isNaN(sensor.rate) ? rate : sensor.rate + RATE_SMOOTHING_FACTOR * (rate - sensor.rate);
+            changed = value != sensor.lastValue;
+        } else {
+            changed = true;
+        }
+        sensor.lastValue = value;
+        sensor.lastTimestamp = now;
+        if (changed) {
+            updateInterval(sensor);
+        } else {
+            // Back off while the value does not change
+            sensor.interval = clamp(sensor, sensor.interval * 2);
+        }
+        sensor.nextPoll = Math.min(sensor.nextPoll, now + sensor.interval);
+    }
+
+    private void updateInterval(@NonNull final Sensor sensor) {
+        long interval = sensor.baseInterval;
+        if (isInFastCadence(sensor)) {
+            interval /= sensor.fastDivisor;
+        }
+        final double delta = getTriggerDelta(sensor);
+        if (!Double.isNaN(delta) && !Double.isNaN(sensor.rate) && sensor.rate > 0) {
+            // Poll before the value is expected to change by more than the trigger delta
+            interval = Math.min(interval, (long) (delta / sensor.rate));
+        }
+        sensor.interval = clamp(sensor, interval);
+    }
+
+    private void updateMinInterval(@NonNull final Sensor sensor) {
+        sensor.minInterval = Math.max(sensor.statusMinInterval, sensor.updateInterval);
+    }
+
+    private static long clamp(@NonNull final Sensor sensor, final long interval) {
+        final long max = sensor.baseInterval * MAX_BACKOFF;
+        return Math.max(Math.min(sensor.minInterval, max), Math.min(interval, max));
+    }
+
+    private static boolean isInFastCadence(@NonNull final Sensor sensor) {
+        final double value = sensor.lastValue;
+        if (Double.isNaN(value) || Double.isNaN(sensor.fastCadenceLow) || Double.isNaN(sensor.fastCadenceHigh))
+            return false;
+        if (sensor.fastCadenceHigh >= sensor.fastCadenceLow) {
+            return value >= sensor.fastCadenceLow && value <= sensor.fastCadenceHigh;
+        }
+        return value > sensor.fastCadenceLow || value < sensor.fastCadenceHigh;
+    }
+
+    private static double getTriggerDelta(@NonNull final Sensor sensor) {
+        if (Double.isNaN(sensor.deltaDown) || Double.isNaN(sensor.deltaUp))
+            return Double.NaN;
+        final double delta = Math.min(sensor.deltaDown, sensor.deltaUp);
+        if (sensor.deltaInPercent) {
+            return Double.isNaN(sensor.lastValue) ? Double.NaN : Math.abs(sensor.lastValue) * delta / 100;
+        }
+        return delta;
+    }
+
+    private static long getNextPoll(@NonNull final Element element) {
+        long next = Long.MAX_VALUE;
+        for (Sensor sensor : element.sensors.values()) {
+            next = Math.min(next, sensor.nextPoll);
+        }
+        return next;
+    }
+
+    @Nullable
+    private Sensor getSensor(final int address, @NonNull final DeviceProperty property) {
+        final Element element = elements.get(address);
+        return element == null ? null : element.sensors.get(property.getPropertyId());
+    }
+
+    private static double toDouble(@Nullable final DevicePropertyCharacteristic<?> characteristic) {
+        if (characteristic == null)
+            return Double.NaN;
+        final Object value = characteristic.getValue();
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
+        return Double.NaN;
+    }
+}
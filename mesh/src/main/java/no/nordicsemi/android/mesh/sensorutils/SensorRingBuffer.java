@@ -0,0 +1,121 @@
+package no.nordicsemi.android.mesh.sensorutils;
+
+/**
+ * Base of the primitive ring buffers used by the sensor data store.
+ * <p>
+ * The buffer starts small and doubles its arrays until the capacity is reached, after which the
+ * oldest entry is overwritten. Subclasses keep their values in arrays parallel to the timestamps.
+ * </p>
+ */
+abstract class SensorRingBuffer {
+
+    private static final int INITIAL_LENGTH = 8;
+
+    private final int capacity;
+    long[] timestamps;
+    private int head;
+    private int size;
+
+    SensorRingBuffer(final int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be greater than 0");
+        this.capacity = capacity;
+        this.timestamps = new long[Math.min(INITIAL_LENGTH, capacity)];
+    }
+
+    /**
+     * Returns the maximum number of entries retained.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of entries currently retained.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the timestamp of an entry.
+     *
+     * @param index index of the entry, 0 being the oldest one
+     */
+    public long getTimestamp(final int index) {
+        return timestamps[slot(index)];
+    }
+
+    /**
+     * Returns the slot of the entry at the given index.
+     *
+     * @param index index of the entry, 0 being the oldest one
+     */
+    final int slot(final int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        return (head + index) % timestamps.length;
+    }
+
+    /**
+     * Appends an entry and returns its slot, overwriting the oldest entry if the buffer is full.
+     *
+     * @param timestamp timestamp of the entry
+     */
+    final int append(final long timestamp) {
+        if (size == timestamps.length && size < capacity) {
+            final int length = Math.min(capacity, timestamps.length * 2);
+            timestamps = copy(timestamps, length);
+            resize(head, size, length);
+            head = 0;
+        }
+        final int slot;
+        if (size < timestamps.length) {
+            slot = (head + size) % timestamps.length;
+            size++;
+        } else {
+            slot = head;
+            head = (head + 1) % timestamps.length;
+        }
+        timestamps[slot] = timestamp;
+        return slot;
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Copies the value arrays of the subclass to arrays of the new length, oldest entry first.
+     *
+     * @param head   slot of the oldest entry
+     * @param size   number of entries
+     * @param length new length of the arrays
+     */
+    abstract void resize(final int head, final int size, final int length);
+
+    final long[] copy(final long[] src, final int length) {
+        final long[] dst = new long[length];
+        final int first = Math.min(size, src.length - head);
+        System.arraycopy(src, head, dst, 0, first);
+        System.arraycopy(src, 0, dst, first, size - first);
+        return dst;
+    }
+
+    static double[] copy(final double[] src, final int head, final int size, final int length) {
+        final double[] dst = new double[length];
+        final int first = Math.min(size, src.length - head);
+        System.arraycopy(src, head, dst, 0, first);
+        System.arraycopy(src, 0, dst, first, size - first);
+        return dst;
+    }
+
+    static int[] copy(final int[] src, final int head, final int size, final int length) {
+        final int[] dst = new int[length];
+        final int first = Math.min(size, src.length - head);
+        System.arraycopy(src, head, dst, 0, first);
+        System.arraycopy(src, 0, dst, first, size - first);
+        return dst;
+    }
+}
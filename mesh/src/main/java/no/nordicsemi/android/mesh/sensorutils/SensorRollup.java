@@ -0,0 +1,125 @@
+package no.nordicsemi.android.mesh.sensorutils;
+
+/**
+ * Minimum, maximum and average of the samples of a sensor series aggregated in buckets of a fixed resolution.
+ * <p>
+ * The timestamp of a bucket is the start of the interval it covers. Samples older than the oldest
+ * retained bucket are dropped.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class SensorRollup extends SensorRingBuffer {
+
+    private final long resolution;
+    private double[] min;
+    private double[] max;
+    private double[] sum;
+    private int[] count;
+
+    /**
+     * Constructs a rollup
+     *
+     * @param resolution length of the interval covered by a bucket in milliseconds
+     * @param capacity   number of buckets retained
+     */
+    SensorRollup(final long resolution, final int capacity) {
+        super(capacity);
+        if (resolution <= 0)
+            throw new IllegalArgumentException("Resolution must be greater than 0");
+        this.resolution = resolution;
+        final int length = timestamps.length;
+        min = new double[length];
+        max = new double[length];
+        sum = new double[length];
+        count = new int[length];
+    }
+
+    /**
+     * Returns the length of the interval covered by a bucket in milliseconds.
+     */
+    public long getResolution() {
+        return resolution;
+    }
+
+    /**
+     * Returns the minimum of the samples in a bucket.
+     *
+     * @param index index of the bucket, 0 being the oldest one
+     */
+    public double getMin(final int index) {
+        return min[slot(index)];
+    }
+
+    /**
+     * Returns the maximum of the samples in a bucket.
+     *
+     * @param index index of the bucket, 0 being the oldest one
+     */
+    public double getMax(final int index) {
+        return max[slot(index)];
+    }
+
+    /**
+     * Returns the average of the samples in a bucket.
+     *
+     * @param index index of the bucket, 0 being the oldest one
+     */
+    public double getAverage(final int index) {
+        final int slot = slot(index);
+        return sum[slot] / count[slot];
+    }
+
+    /**
+     * Returns the number of samples in a bucket.
+     *
+     * @param index index of the bucket, 0 being the oldest one
+     */
+    public int getCount(final int index) {
+        return count[slot(index)];
+    }
+
+    void add(final long timestamp, final double value) {
+        final long remainder = timestamp % resolution;
+        final long start = timestamp - (remainder < 0 ? remainder + resolution : remainder);
+        for (int i = size() - 1; i >= 0; i--) {
+            final int slot = slot(i);
+            if (timestamps[slot] == start) {
+                min[slot] = Math.min(min[slot], value);
+                max[slot] = Math.max(max[slot], value);
+                sum[slot] += value;
+                count[slot]++;
+                return;
+            } else if (timestamps[slot] < start) {
+                if (i != size() - 1) {
+                    // Out of order sample falling in a gap between buckets
+                    return;
+                }
+                break;
+            }
+        }
+        if (size() > 0 && start < getTimestamp(0)) {
+            return;
+        }
+        put(start, value, value, value, 1);
+    }
+
+    void put(final long start, final double min, final double max, final double sum, final int count) {
+        final int slot = append(start);
+        this.min[slot] = min;
+        this.max[slot] = max;
+        this.sum[slot] = sum;
+        this.count[slot] = count;
+    }
+
+    double getSum(final int index) {
+        return sum[slot(index)];
+    }
+
+    @Override
+    void resize(final int head, final int size, final int length) {
+        min = copy(min, head, size, length);
+        max = copy(max, head, size, length);
+        sum = copy(sum, head, size, length);
+        count = copy(count, head, size, length);
+    }
+}
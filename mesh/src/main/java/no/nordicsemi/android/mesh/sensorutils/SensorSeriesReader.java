@@ -0,0 +1,500 @@
+package no.nordicsemi.android.mesh.sensorutils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.ApplicationKey;
+import no.nordicsemi.android.mesh.logger.MeshLogger;
+import no.nordicsemi.android.mesh.transport.MeshMessage;
+import no.nordicsemi.android.mesh.transport.SensorColumnGet;
+import no.nordicsemi.android.mesh.transport.SensorColumnStatus;
+import no.nordicsemi.android.mesh.transport.SensorSeriesGet;
+import no.nordicsemi.android.mesh.transport.SensorSeriesStatus;
+
+/**
+ * Reads the series of columns of a sensor in pages.
+ * <p>
+ * A requested X range is split into Sensor Series Get messages whose responses are expected to fit
+ * in the given number of segments, an unsegmented access message by default. At most
+ * {@link #getMaxConcurrency()} requests are outstanding at a time, of which only one Sensor Series Get,
+ * as a Sensor Series Status without columns does not tell which range it answers. The columns received
+ * are merged into primitive arrays sorted by their raw X value. The X ranges already read are cached, so requesting
+ * an overlapping range or a single column only sends the messages needed for the part not read yet.
+ * </p>
+ * <p>
+ * The reader does not send messages itself, send the messages returned by {@link #nextRequests(long)}
+ * to the element and pass the Sensor Series and Sensor Column statuses received to the reader.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class SensorSeriesReader {
+
+    private static final String TAG = SensorSeriesReader.class.getSimpleName();
+    private static final int MAX_UNSEGMENTED_ACCESS_PDU_LENGTH = 11;
+    private static final int SEGMENT_LENGTH = 12;
+    private static final int TRANS_MIC_LENGTH = 4;
+    // One octet opcode of the Sensor Series Status followed by the property id
+    private static final int STATUS_HEADER_LENGTH = 3;
+    private static final int INITIAL_CAPACITY = 16;
+
+    public static final int DEFAULT_MAX_CONCURRENCY = 2;
+    public static final long DEFAULT_TIMEOUT = 10000;
+    public static final int MAX_RETRIES = 2;
+
+    private final ApplicationKey appKey;
+    private final DeviceProperty property;
+    private final int valueLength;
+    private final int columnsPerPage;
+    private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+    private long timeout = DEFAULT_TIMEOUT;
+    private long columnWidth;
+
+    // Columns sorted by raw X
+    private long[] xs = new long[INITIAL_CAPACITY];
+    private long[] widths = new long[INITIAL_CAPACITY];
+    private long[] ys = new long[INITIAL_CAPACITY];
+    private int columnCount;
+
+    // Disjoint X ranges already read, sorted by their start
+    private long[] rangeStarts = new long[INITIAL_CAPACITY];
+    private long[] rangeEnds = new long[INITIAL_CAPACITY];
+    private int rangeCount;
+
+    private final ArrayDeque<Request> pending = new ArrayDeque<>();
+    private final List<Request> outstanding = new ArrayList<>();
+
+    private static final class Request {
+        final long start;
+        final long end;
+        final boolean column;
+        long sent;
+        int retries;
+
+        Request(final long start, final long end, final boolean column) {
+            this.start = start;
+            this.end = end;
+            this.column = column;
+        }
+    }
+
+    /**
+     * Constructs a reader for a device property with a known characteristic.
+     *
+     * @param appKey      application key bound to the sensor server model
+     * @param property    device property of the series
+     * @param columnWidth expected width of a column in raw X units, refined by the widths received
+     * @param maxSegments number of segments a response is expected to fit in, 1 for an unsegmented message
+     * @throws IllegalArgumentException if the characteristic of the property is not known
+     */
+    public SensorSeriesReader(@NonNull final ApplicationKey appKey,
+                              @NonNull final DeviceProperty property,
+                              final long columnWidth,
+                              final int maxSegments) {
+        this(appKey, property, DeviceProperty.getCharacteristicLength(property), columnWidth, maxSegments);
+    }
+
+    /**
+     * Constructs a reader.
+     *
+     * @param appKey      application key bound to the sensor server model
+     * @param property    device property of the series
+     * @param valueLength length of the raw X, column width and Y values in bytes
+     * @param columnWidth expected width of a column in raw X units, refined by the widths received
+     * @param maxSegments number of segments a response is expected to fit in, 1 for an unsegmented message
+     * @throws IllegalArgumentException if any illegal arguments are passed
+     */
+    public SensorSeriesReader(@NonNull final ApplicationKey appKey,
+                              @NonNull final DeviceProperty property,
+                              final int valueLength,
+                              final long columnWidth,
+                              final int maxSegments) {
+        if (valueLength <= 0 || valueLength > 4)
+            throw new IllegalArgumentException("Value length must be between 1 and 4 bytes");
+        if (columnWidth <= 0)
+            throw new IllegalArgumentException("Column width must be greater than 0");
+        if (maxSegments <= 0 || maxSegments > 32)
+            throw new IllegalArgumentException("Number of segments must be between 1 and 32");
+        this.appKey = appKey;
+        this.property = property;
+        this.valueLength = valueLength;
+        this.columnWidth = columnWidth;
+        final int accessPduLength = maxSegments == 1 ? MAX_UNSEGMENTED_ACCESS_PDU_LENGTH : maxSegments * SEGMENT_LENGTH - TRANS_MIC_LENGTH;
+        this.columnsPerPage = Math.max(1, (accessPduLength - STATUS_HEADER_LENGTH) / (3 * valueLength));
+    }
+
+    @NonNull
+    public DeviceProperty getDeviceProperty() {
+        return property;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Sets the number of requests that may be outstanding at a time.
+     *
+     * @param maxConcurrency number of requests
+     * @throws IllegalArgumentException if the number is not positive
+     */
+    public void setMaxConcurrency(final int maxConcurrency) {
+        if (maxConcurrency <= 0)
+            throw new IllegalArgumentException("Concurrency must be greater than 0");
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Sets the time after which a request without a response is sent again.
+     *
+     * @param timeout timeout in milliseconds
+     */
+    public void setTimeout(final long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Returns the number of columns a page is expected to contain.
+     */
+    public int getColumnsPerPage() {
+        return columnsPerPage;
+    }
+
+    /**
+     * Requests the columns with a raw X value in the given range. Parts of the range already read are not requested again.
+     *
+     * @param x1 first raw X value
+     * @param x2 last raw X value
+     * @throws IllegalArgumentException if the range is invalid
+     */
+    public void request(final long x1, final long x2) {
+        if (x1 < 0 || x2 < x1 || x2 > getMaxRawValue())
+            throw new IllegalArgumentException("Invalid X range " + x1 + " - " + x2);
+        long start = x1;
+        for (int i = 0; i < rangeCount && start <= x2; i++) {
+            if (rangeEnds[i] < start)
+                continue;
+            if (rangeStarts[i] > x2)
+                break;
+            if (rangeStarts[i] > start) {
+                pending.add(new Request(start, rangeStarts[i] - 1, false));
+            }
+            start = rangeEnds[i] + 1;
+        }
+        if (start <= x2) {
+            pending.add(new Request(start, x2, false));
+        }
+    }
+
+    /**
+     * Requests a single column with a Sensor Column Get message unless its X value was already read.
+     *
+     * @param x raw X value of the column
+     */
+    public void requestColumn(final long x) {
+        if (x < 0 || x > getMaxRawValue())
+            throw new IllegalArgumentException("Invalid X value " + x);
+        if (!isRead(x)) {
+            pending.add(new Request(x, x, true));
+        }
+    }
+
+    /**
+     * Returns true if all requested columns were read or given up on.
+     */
+    public boolean isComplete() {
+        return pending.isEmpty() && outstanding.isEmpty();
+    }
+
+    /**
+     * Returns true if the given raw X value was covered by a series or column that was read.
+     *
+     * @param x raw X value
+     */
+    public boolean isRead(final long x) {
+        final int index = findRange(x);
+        return index >= 0 && rangeEnds[index] >= x;
+    }
+
+    /**
+     * Returns the messages to be sent now, new pages up to the concurrency limit and requests that timed out.
+     *
+     * @param now current time in milliseconds
+     */
+    @NonNull
+    public List<MeshMessage> nextRequests(final long now) {
+        final List<MeshMessage> messages = new ArrayList<>();
+        final Iterator<Request> iterator = outstanding.iterator();
+        while (iterator.hasNext()) {
+            final Request request = iterator.next();
+            if (now - request.sent >= timeout) {
+                if (request.retries++ >= MAX_RETRIES) {
+                    MeshLogger.error(TAG, "No response for " + property + " columns " + request.start + " - " + request.end);
+                    iterator.remove();
+                } else {
+                    request.sent = now;
+                    messages.add(createMessage(request));
+                }
+            }
+        }
+        boolean pageOutstanding = findRequest(false) != null;
+        Request remainder = null;
+        final Iterator<Request> pendingIterator = pending.iterator();
+        while (outstanding.size() < maxConcurrency && pendingIterator.hasNext()) {
+            Request request = pendingIterator.next();
+            if (!request.column) {
+                // An empty response could not be told apart from the response to another page
+                if (pageOutstanding)
+                    continue;
+                pageOutstanding = true;
+                // Pages are cut when sent so that they use the column width learned so far
+                final long end = Math.min(request.end, request.start + columnsPerPage * columnWidth - 1);
+                if (end < request.end) {
+                    remainder = new Request(end + 1, request.end, false);
+                    request = new Request(request.start, end, false);
+                }
+            }
+            pendingIterator.remove();
+            request.sent = now;
+            outstanding.add(request);
+            messages.add(createMessage(request));
+        }
+        if (remainder != null) {
+            pending.addFirst(remainder);
+        }
+        return messages;
+    }
+
+    /**
+     * Merges the columns of a Sensor Series Status.
+     *
+     * @param status sensor series status
+     * @return true if the status was a response to a request of the reader
+     */
+    public boolean onSeriesStatus(@NonNull final SensorSeriesStatus status) {
+        if (!property.equals(status.getPropertyId()))
+            return false;
+        final byte[] data = status.getSeriesRawX1X2();
+        final int columnLength = 3 * valueLength;
+        final int count = data == null ? 0 : data.length / columnLength;
+        // Only one page is outstanding at a time, so an empty response belongs to it
+        final Request request = count == 0 ? findRequest(false) : findRequest(readValue(data, 0), false);
+        if (request == null)
+            return false;
+        for (int i = 0; i < count; i++) {
+            final int offset = i * columnLength;
+            addColumn(readValue(data, offset), readValue(data, offset + valueLength), readValue(data, offset + 2 * valueLength));
+        }
+        outstanding.remove(request);
+        addRange(request.start, request.end);
+        return true;
+    }
+
+    /**
+     * Merges the column of a Sensor Column Status.
+     *
+     * @param status sensor column status
+     * @return true if the status was a response to a request of the reader
+     */
+    public boolean onColumnStatus(@NonNull final SensorColumnStatus status) {
+        final byte[] data = status.getResult();
+        if (!property.equals(status.getPropertyId()) || data == null || data.length < valueLength)
+            return false;
+        final long x = readValue(data, 0);
+        final Request request = findRequest(x, true);
+        if (request == null)
+            return false;
+        if (data.length >= 3 * valueLength) {
+            addColumn(x, readValue(data, valueLength), readValue(data, 2 * valueLength));
+        }
+        outstanding.remove(request);
+        addRange(x, x);
+        return true;
+    }
+
+    /**
+     * Returns the number of columns read.
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Returns the index of the first column with a raw X value greater than or equal to the given one,
+     * {@link #getColumnCount()} if there is none.
+     *
+     * @param x raw X value
+     */
+    public int getFirstColumn(final long x) {
+        int low = 0;
+        int high = columnCount;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (xs[mid] < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public long getRawX(final int index) {
+        checkIndex(index);
+        return xs[index];
+    }
+
+    public long getColumnWidth(final int index) {
+        checkIndex(index);
+        return widths[index];
+    }
+
+    public long getRawY(final int index) {
+        checkIndex(index);
+        return ys[index];
+    }
+
+    /**
+     * Drops the columns and the cached ranges, i.e. when the series of the sensor changed.
+     */
+    public void clear() {
+        columnCount = 0;
+        rangeCount = 0;
+        pending.clear();
+        outstanding.clear();
+    }
+
+    @NonNull
+    private MeshMessage createMessage(@NonNull final Request request) {
+        if (request.column) {
+            return new SensorColumnGet(appKey, property, writeValue(request.start));
+        }
+        return new SensorSeriesGet(appKey, property, writeValue(request.start), writeValue(request.end));
+    }
+
+    @Nullable
+    private Request findRequest(final long x, final boolean column) {
+        for (Request request : outstanding) {
+            if (request.column == column && x >= request.start && x <= request.end) {
+                return request;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private Request findRequest(final boolean column) {
+        for (Request request : outstanding) {
+            if (request.column == column) {
+                return request;
+            }
+        }
+        return null;
+    }
+
+    private void addColumn(final long x, final long width, final long y) {
+        if (width > 0 && width < columnWidth) {
+            columnWidth = width;
+        }
+        final int index = getFirstColumn(x);
+        if (index < columnCount && xs[index] == x) {
+            widths[index] = width;
+            ys[index] = y;
+            return;
+        }
+        if (columnCount == xs.length) {
+            xs = grow(xs);
+            widths = grow(widths);
+            ys = grow(ys);
+        }
+        System.arraycopy(xs, index, xs, index + 1, columnCount - index);
+        System.arraycopy(widths, index, widths, index + 1, columnCount - index);
+        System.arraycopy(ys, index, ys, index + 1, columnCount - index);
+        xs[index] = x;
+        widths[index] = width;
+        ys[index] = y;
+        columnCount++;
+    }
+
+    private void addRange(final long start, final long end) {
+        // Ranges overlapping or adjacent to the new one are merged into it
+        int first = findRange(start - 1);
+        if (first < 0 || rangeEnds[first] < start - 1) {
+            first++;
+        }
+        int last = first;
+        long mergedStart = start;
+        long mergedEnd = end;
+        while (last < rangeCount && rangeStarts[last] <= end + 1) {
+            mergedStart = Math.min(mergedStart, rangeStarts[last]);
+            mergedEnd = Math.max(mergedEnd, rangeEnds[last]);
+            last++;
+        }
+        final int removed = last - first;
+        if (removed == 0 && rangeCount == rangeStarts.length) {
+            rangeStarts = grow(rangeStarts);
+            rangeEnds = grow(rangeEnds);
+        }
+        final int shift = 1 - removed;
+        System.arraycopy(rangeStarts, last, rangeStarts, last + shift, rangeCount - last);
+        System.arraycopy(rangeEnds, last, rangeEnds, last + shift, rangeCount - last);
+        rangeStarts[first] = mergedStart;
+        rangeEnds[first] = mergedEnd;
+        rangeCount += shift;
+    }
+
+    /**
+     * Returns the index of the last range starting at or before x, -1 if there is none.
+     */
+    private int findRange(final long x) {
+        int low = 0;
+        int high = rangeCount - 1;
+        int result = -1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (rangeStarts[mid] <= x) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+
+    private long readValue(@NonNull final byte[] data, final int offset) {
+        long value = 0;
+        for (int i = valueLength - 1; i >= 0; i--) {
+            value = (value << 8) | (data[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    @NonNull
+    private byte[] writeValue(final long value) {
+        final byte[] data = new byte[valueLength];
+        for (int i = 0; i < valueLength; i++) {
+            data[i] = (byte) (value >> (8 * i));
+        }
+        return data;
+    }
+
+    private long getMaxRawValue() {
+        return (1L << (8 * valueLength)) - 1;
+    }
+
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= columnCount)
+            throw new IndexOutOfBoundsException("Index: " + index + ", columns: " + columnCount);
+    }
+
+    @NonNull
+    private static long[] grow(@NonNull final long[] array) {
+        final long[] grown = new long[array.length * 2];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+}
@@ -0,0 +1,113 @@
+package no.nordicsemi.android.mesh.sensorutils;
+
+import androidx.annotation.NonNull;
+
+/**
+ * History of the values of a device property reported by an element of a sensor node.
+ * <p>
+ * The most recent samples are retained as they were received, older values are available as
+ * rollups at the resolutions configured in the {@link SensorDataStore}.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class SensorTimeSeries extends SensorRingBuffer {
+
+    private final int address;
+    private final DeviceProperty deviceProperty;
+    private final SensorRollup[] rollups;
+    private double[] values;
+
+    SensorTimeSeries(final int address,
+                     @NonNull final DeviceProperty deviceProperty,
+                     final int capacity,
+                     @NonNull final long[] resolutions,
+                     final int rollupCapacity) {
+        super(capacity);
+        this.address = address;
+        this.deviceProperty = deviceProperty;
+        this.values = new double[timestamps.length];
+        this.rollups = new SensorRollup[resolutions.length];
+        for (int i = 0; i < resolutions.length; i++) {
+            rollups[i] = new SensorRollup(resolutions[i], rollupCapacity);
+        }
+    }
+
+    /**
+     * Returns the address of the element reporting the values.
+     */
+    public int getAddress() {
+        return address;
+    }
+
+    /**
+     * Returns the device property of the values.
+     */
+    @NonNull
+    public DeviceProperty getDeviceProperty() {
+        return deviceProperty;
+    }
+
+    /**
+     * Returns the value of a sample.
+     *
+     * @param index index of the sample, 0 being the oldest one
+     */
+    public double getValue(final int index) {
+        return values[slot(index)];
+    }
+
+    /**
+     * Returns the number of rollups.
+     */
+    public int getRollupCount() {
+        return rollups.length;
+    }
+
+    /**
+     * Returns a rollup of the series.
+     *
+     * @param index index of the rollup, rollups are ordered as the resolutions configured in the store
+     */
+    @NonNull
+    public SensorRollup getRollup(final int index) {
+        return rollups[index];
+    }
+
+    void add(final long timestamp, final double value) {
+        final int slot = append(timestamp);
+        values[slot] = value;
+        for (SensorRollup rollup : rollups) {
+            rollup.add(timestamp, value);
+        }
+    }
+
+    /**
+     * Restores a saved sample, adding it to the rollups that were not restored.
+     *
+     * @param timestamp time of the sample in milliseconds
+     * @param value     value of the sample
+     * @param restored  rollups that were restored
+     */
+    void restore(final long timestamp, final double value, @NonNull final boolean[] restored) {
+        final int slot = append(timestamp);
+        values[slot] = value;
+        for (int i = 0; i < rollups.length; i++) {
+            if (!restored[i]) {
+                rollups[i].add(timestamp, value);
+            }
+        }
+    }
+
+    @Override
+    void clear() {
+        super.clear();
+        for (SensorRollup rollup : rollups) {
+            rollup.clear();
+        }
+    }
+
+    @Override
+    void resize(final int head, final int size, final int length) {
+        values = copy(values, head, size, length);
+    }
+}
@@ -0,0 +1,176 @@
+package no.nordicsemi.android.mesh.transport;
+
+import org.spongycastle.crypto.InvalidCipherTextException;
+import org.spongycastle.crypto.engines.AESEngine;
+import org.spongycastle.crypto.modes.CCMBlockCipher;
+import org.spongycastle.crypto.params.AEADParameters;
+import org.spongycastle.crypto.params.KeyParameter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.ApplicationKey;
+
+/**
+ * Indexes the application keys bound to each network key by their AID, so that only the keys, current
+ * or old, that may have been used to encrypt a received access message are tried.
+ * <p>
+ * The index of a network key is rebuilt when the list of application keys bound to it, or the AID of
+ * any of them, changes. The key that last decrypted a message from a source address is tried first
+ * for the next message from the same source.
+ * </p>
+ */
+final class ApplicationKeyIndex {
+
+    private final Map<Integer, BoundKeys> boundKeys = new HashMap<>();
+    private final Map<Integer, ApplicationKey> lastMatchedKeys = new HashMap<>();
+
+    /**
+     * Returns the candidate keys for a received message.
+     *
+     * @param netKeyIndex index of the network key the message was received with
+     * @param keys        application keys bound to the network key
+     * @param aid         AID of the message
+     * @param src         source address of the message
+     */
+    @NonNull
+    synchronized List<Candidate> getCandidates(final int netKeyIndex,
+                                               @NonNull final List<ApplicationKey> keys,
+                                               final int aid,
+                                               final int src) {
+        BoundKeys bound = boundKeys.get(netKeyIndex);
+        if (bound == null || !bound.matches(keys)) {
+            bound = new BoundKeys(keys);
+            boundKeys.put(netKeyIndex, bound);
+        }
+        final List<Candidate> candidates = bound.candidates.get(aid);
+        if (candidates == null)
+            return Collections.emptyList();
+
+        final ApplicationKey lastMatched = lastMatchedKeys.get(src);
+        if (lastMatched == null || candidates.size() == 1 || candidates.get(0).key == lastMatched)
+            return candidates;
+        final List<Candidate> ordered = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            if (candidate.key == lastMatched) {
+                ordered.add(0, candidate);
+            } else {
+                ordered.add(candidate);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Records the key that decrypted a message from the given source.
+     *
+     * @param src source address of the message
+     * @param key application key
+     */
+    synchronized void setMatchedKey(final int src, @NonNull final ApplicationKey key) {
+        lastMatchedKeys.put(src, key);
+    }
+
+    private static final class BoundKeys {
+        private final ApplicationKey[] keys;
+        private final int[] aids;
+        private final int[] oldAids;
+        private final boolean[] hasOldKey;
+        private final Map<Integer, List<Candidate>> candidates = new HashMap<>();
+
+        BoundKeys(@NonNull final List<ApplicationKey> keys) {
+            final int size = keys.size();
+            this.keys = keys.toArray(new ApplicationKey[size]);
+            aids = new int[size];
+            oldAids = new int[size];
+            hasOldKey = new boolean[size];
+            for (int i = 0; i < size; i++) {
+                final ApplicationKey key = this.keys[i];
+                aids[i] = key.getAid();
+                oldAids[i] = key.getOldAid();
+                // The old AID of a key that has never been updated is 0 and must not be matched
+                hasOldKey[i] = key.getOldKey() != null;
+                add(aids[i], new Candidate(key, false));
+                if (hasOldKey[i]) {
+                    add(oldAids[i], new Candidate(key, true));
+                }
+            }
+        }
+
+        private void add(final int aid, @NonNull final Candidate candidate) {
+            List<Candidate> list = candidates.get(aid);
+            if (list == null) {
+                list = new ArrayList<>(1);
+                candidates.put(aid, list);
+            }
+            list.add(candidate);
+        }
+
+        boolean matches(@NonNull final List<ApplicationKey> keys) {
+            if (keys.size() != this.keys.length)
+                return false;
+            for (int i = 0; i < this.keys.length; i++) {
+                final ApplicationKey key = keys.get(i);
+                if (key != this.keys[i] || key.getAid() != aids[i] || key.getOldAid() != oldAids[i] ||
+                        (key.getOldKey() != null) != hasOldKey[i])
+                    return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * An application key, or its old key during the key refresh procedure, that may decrypt a message.
+     * The cipher is reused between messages.
+     */
+    static final class Candidate {
+        final ApplicationKey key;
+        final boolean oldKey;
+        private final CCMBlockCipher cipher = new CCMBlockCipher(new AESEngine());
+        private byte[] keyBytes;
+        private KeyParameter keyParameter;
+
+        Candidate(@NonNull final ApplicationKey key, final boolean oldKey) {
+            this.key = key;
+            this.oldKey = oldKey;
+        }
+
+        /**
+         * Decrypts and authenticates the upper transport pdu.
+         *
+         * @param data           encrypted upper transport pdu
+         * @param nonce          application nonce
+         * @param additionalData label uuid for virtual addresses or null
+         * @param micSize        size of the TransMIC
+         * @return decrypted pdu or null if the message was not encrypted with this key
+         */
+        @Nullable
+        synchronized byte[] decrypt(@NonNull final byte[] data,
+                                    @NonNull final byte[] nonce,
+                                    @Nullable final byte[] additionalData,
+                                    final int micSize) {
+            final byte[] bytes = oldKey ? key.getOldKey() : key.getKey();
+            if (bytes == null || data.length < micSize)
+                return null;
+            if (bytes != keyBytes) {
+                keyBytes = bytes;
+                keyParameter = new KeyParameter(bytes);
+            }
+            cipher.init(false, new AEADParameters(keyParameter, micSize * 8, nonce, additionalData));
+            final byte[] pdu = new byte[data.length - micSize];
+            cipher.processBytes(data, 0, data.length, pdu, 0);
+            try {
+                cipher.doFinal(pdu, 0);
+                return pdu;
+            } catch (InvalidCipherTextException ex) {
+                // Authentication failed, the message was encrypted with another key
+                return null;
+            }
+        }
+    }
+}
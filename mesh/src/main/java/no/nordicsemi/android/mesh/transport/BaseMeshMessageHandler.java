@@ -63,6 +63,8 @@ public abstract class BaseMeshMessageHandler implements MeshMessageHandlerApi, I
     protected MeshStatusCallbacks mStatusCallbacks;
     private final SparseArray<MeshTransport> transportSparseArray = new SparseArray<>();
     private final SparseArray<MeshMessageState> stateSparseArray = new SparseArray<>();
+    private final ApplicationKeyIndex applicationKeyIndex = new ApplicationKeyIndex();
+    private final VirtualLabelIndex virtualLabelIndex = new VirtualLabelIndex();
 
     /**
      * Constructs BaseMessageHandler
@@ -221,6 +223,8 @@ public abstract class BaseMeshMessageHandler implements MeshMessageHandlerApi, I
             transport = new MeshTransport(mContext);
             transport.setNetworkLayerCallbacks(networkLayerCallbacks);
             transport.setUpperTransportLayerCallbacks(upperTransportLayerCallbacks);
+            transport.setApplicationKeyIndex(applicationKeyIndex);
+            transport.setVirtualLabelIndex(virtualLabelIndex);
             transportSparseArray.put(address, transport);
         }
         return transport;
@@ -158,6 +158,7 @@ class DefaultNoOperationMessageState extends MeshMessageState {
                     mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
                 } else if (message.getOpCode() == ApplicationMessageOpCodes.SENSOR_STATUS) {
                     final SensorStatus status = new SensorStatus(message);
+                    mInternalTransportCallbacks.getSensorDataStore().add(status, System.currentTimeMillis());
                     mInternalTransportCallbacks.updateMeshNetwork(status);
                     mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
                 } else if (message.getOpCode() == ApplicationMessageOpCodes.SENSOR_COLUMN_STATUS) {
@@ -417,6 +418,34 @@ class DefaultNoOperationMessageState extends MeshMessageState {
                     }
                     mInternalTransportCallbacks.updateMeshNetwork(status);
                     mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
+                } else if (message.getOpCode() == ConfigMessageOpCodes.PRIVATE_BEACON_STATUS) {
+                    final PrivateBeaconStatus status = new PrivateBeaconStatus(message);
+                    mInternalTransportCallbacks.updateMeshNetwork(status);
+                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
+                } else if (message.getOpCode() == ConfigMessageOpCodes.REMOTE_PROVISIONING_SCAN_STATUS) {
+                    final RemoteProvisioningScanStatus status = new RemoteProvisioningScanStatus(message);
+                    mInternalTransportCallbacks.updateMeshNetwork(status);
+                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
+                } else if (message.getOpCode() == ConfigMessageOpCodes.REMOTE_PROVISIONING_SCAN_REPORT) {
+                    final RemoteProvisioningScanReport status = new RemoteProvisioningScanReport(message);
+                    mInternalTransportCallbacks.updateMeshNetwork(status);
+                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
+                } else if (message.getOpCode() == ConfigMessageOpCodes.REMOTE_PROVISIONING_LINK_STATUS) {
+                    final RemoteProvisioningLinkStatus status = new RemoteProvisioningLinkStatus(message);
+                    mInternalTransportCallbacks.updateMeshNetwork(status);
+                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
+                } else if (message.getOpCode() == ConfigMessageOpCodes.REMOTE_PROVISIONING_LINK_REPORT) {
+                    final RemoteProvisioningLinkReport status = new RemoteProvisioningLinkReport(message);
+                    mInternalTransportCallbacks.updateMeshNetwork(status);
+                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
+                } else if (message.getOpCode() == ConfigMessageOpCodes.REMOTE_PROVISIONING_PDU_OUTBOUND_REPORT) {
+                    final RemoteProvisioningPduOutboundReport status = new RemoteProvisioningPduOutboundReport(message);
+                    mInternalTransportCallbacks.updateMeshNetwork(status);
+                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
+                } else if (message.getOpCode() == ConfigMessageOpCodes.REMOTE_PROVISIONING_PDU_REPORT) {
+                    final RemoteProvisioningPduReport status = new RemoteProvisioningPduReport(message);
+                    mInternalTransportCallbacks.updateMeshNetwork(status);
+                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
                 } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_FRIEND_STATUS) {
                     final ConfigFriendStatus status = new ConfigFriendStatus(message);
                     if (!isReceivedViaProxyFilter(message)) {
@@ -2,6 +2,7 @@ package no.nordicsemi.android.mesh.transport;
 
 import no.nordicsemi.android.mesh.logger.MeshLogger;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import androidx.annotation.NonNull;
@@ -80,9 +81,11 @@ abstract class MeshMessageState implements LowerTransportLayerCallbacks {
      */
     public void executeSend() {
         if (message.getNetworkLayerPdu().size() > 0) {
+            final List<byte[]> pdus = new ArrayList<>(message.getNetworkLayerPdu().size());
             for (int i = 0; i < message.getNetworkLayerPdu().size(); i++) {
-                mInternalTransportCallbacks.onMeshPduCreated(mDst, message.getNetworkLayerPdu().get(i));
+                pdus.add(message.getNetworkLayerPdu().get(i));
             }
+            mInternalTransportCallbacks.onMeshPdusCreated(mDst, pdus);
 
             if (mMeshStatusCallbacks != null) {
                 mMeshStatusCallbacks.onMeshMessageProcessed(mDst, mMeshMessage);
@@ -97,15 +100,19 @@ abstract class MeshMessageState implements LowerTransportLayerCallbacks {
      */
     final void executeResend(final List<Integer> retransmitPduIndexes) {
         if (message.getNetworkLayerPdu().size() > 0 && !retransmitPduIndexes.isEmpty()) {
+            final List<byte[]> pdus = new ArrayList<>(retransmitPduIndexes.size());
             for (int i = 0; i < retransmitPduIndexes.size(); i++) {
                 final int segO = retransmitPduIndexes.get(i);
                 if (message.getNetworkLayerPdu().get(segO) != null) {
                     final byte[] pdu = message.getNetworkLayerPdu().get(segO);
                     MeshLogger.verbose(TAG, "Resending segment " + segO + " : " + MeshParserUtils.bytesToHex(pdu, false));
                     final Message retransmitMeshMessage = mMeshTransport.createRetransmitMeshMessage(message, segO);
-                    mInternalTransportCallbacks.onMeshPduCreated(mDst, retransmitMeshMessage.getNetworkLayerPdu().get(segO));
+                    pdus.add(retransmitMeshMessage.getNetworkLayerPdu().get(segO));
                 }
             }
+            if (!pdus.isEmpty()) {
+                mInternalTransportCallbacks.onMeshPdusCreated(mDst, pdus);
+            }
         }
     }
 
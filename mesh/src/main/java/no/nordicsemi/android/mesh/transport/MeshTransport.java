@@ -88,6 +88,24 @@ final class MeshTransport extends NetworkLayer {
         this.mUpperTransportLayerCallbacks = callbacks;
     }
 
+    /**
+     * Sets the application key index shared by the transports of all nodes.
+     *
+     * @param index application key index
+     */
+    final void setApplicationKeyIndex(@NonNull final ApplicationKeyIndex index) {
+        this.mApplicationKeyIndex = index;
+    }
+
+    /**
+     * Sets the virtual label index shared by the transports of all nodes.
+     *
+     * @param index virtual label index
+     */
+    final void setVirtualLabelIndex(@NonNull final VirtualLabelIndex index) {
+        this.mVirtualLabelIndex = index;
+    }
+
     /**
      * Creates the an acknowledgement message for the received segmented messages
      *
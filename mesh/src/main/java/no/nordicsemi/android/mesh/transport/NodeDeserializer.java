@@ -45,132 +45,143 @@ public final class NodeDeserializer implements JsonSerializer<List<ProvisionedMe
         final List<ProvisionedMeshNode> nodes = new ArrayList<>();
         final JsonArray jsonArray = json.getAsJsonArray();
         for (int i = 0; i < jsonArray.size(); i++) {
-            JsonObject jsonObject = jsonArray.get(i).getAsJsonObject();
-            final ProvisionedMeshNode node = new ProvisionedMeshNode();
-            final String uuid = MeshParserUtils.formatUuid(jsonObject.get("UUID").getAsString());
-            if (uuid == null)
-                throw new IllegalArgumentException("Invalid Mesh Provisioning/Configuration " +
-                        "Database, invalid node UUID.");
-            node.uuid = uuid;
-            if (jsonObject.has("deviceKey") && jsonObject.get("deviceKey") != null) {
-                node.deviceKey = MeshParserUtils.toByteArray(jsonObject.get("deviceKey").getAsString());
+            nodes.add(deserializeNode(jsonArray.get(i).getAsJsonObject(), context));
+        }
+
+        return nodes;
+    }
+
+    /**
+     * Deserializes a single node, allowing nodes to be read one at a time from a stream.
+     *
+     * @param jsonObject json object of the node
+     * @param context    deserialization context
+     * @return {@link ProvisionedMeshNode}
+     */
+    public ProvisionedMeshNode deserializeNode(@NonNull final JsonObject jsonObject,
+                                              @NonNull final JsonDeserializationContext context) throws JsonParseException {
+        final ProvisionedMeshNode node = new ProvisionedMeshNode();
+        final String uuid = MeshParserUtils.formatUuid(jsonObject.get("UUID").getAsString());
+        if (uuid == null)
+            throw new IllegalArgumentException("Invalid Mesh Provisioning/Configuration " +
+                    "Database, invalid node UUID.");
+        node.uuid = uuid;
+        if (jsonObject.has("deviceKey") && jsonObject.get("deviceKey") != null) {
+            node.deviceKey = MeshParserUtils.toByteArray(jsonObject.get("deviceKey").getAsString());
+        }
+        final int unicastAddress = Integer.parseInt(jsonObject.get("unicastAddress").getAsString(), 16);
+        node.unicastAddress = unicastAddress;
+        final String jsonSecurity = jsonObject.get("security").getAsString();
+        final boolean security = jsonSecurity.equalsIgnoreCase("secure") ||
+                /*Maintaining backwards compatibility */jsonSecurity.equalsIgnoreCase("high");
+        node.security = security ? 1 : 0;
+        node.mAddedNetKeys = deserializeAddedIndexes(jsonObject.get("netKeys").getAsJsonArray());
+        node.isConfigured = jsonObject.get("configComplete").getAsBoolean();
+
+        if (jsonObject.has("cid"))
+            node.companyIdentifier = Integer.parseInt(jsonObject.get("cid").getAsString(), 16);
+        if (jsonObject.has("pid"))
+            node.productIdentifier = Integer.parseInt(jsonObject.get("pid").getAsString(), 16);
+
+        if (jsonObject.has("vid"))
+            node.versionIdentifier = Integer.parseInt(jsonObject.get("vid").getAsString(), 16);
+
+        if (jsonObject.has("crpl"))
+            node.crpl = Integer.parseInt(jsonObject.get("crpl").getAsString(), 16);
+
+        if (jsonObject.has("features")) {
+            final JsonObject featuresJson = jsonObject.get("features").getAsJsonObject();
+
+            node.nodeFeatures = new Features();
+            if(featuresJson.has("friend")){
+                node.nodeFeatures.setFriend(featuresJson.get("friend").getAsInt());
             }
-            final int unicastAddress = Integer.parseInt(jsonObject.get("unicastAddress").getAsString(), 16);
-            node.unicastAddress = unicastAddress;
-            final String jsonSecurity = jsonObject.get("security").getAsString();
-            final boolean security = jsonSecurity.equalsIgnoreCase("secure") ||
-                    /*Maintaining backwards compatibility */jsonSecurity.equalsIgnoreCase("high");
-            node.security = security ? 1 : 0;
-            node.mAddedNetKeys = deserializeAddedIndexes(jsonObject.get("netKeys").getAsJsonArray());
-            node.isConfigured = jsonObject.get("configComplete").getAsBoolean();
-
-            if (jsonObject.has("cid"))
-                node.companyIdentifier = Integer.parseInt(jsonObject.get("cid").getAsString(), 16);
-            if (jsonObject.has("pid"))
-                node.productIdentifier = Integer.parseInt(jsonObject.get("pid").getAsString(), 16);
-
-            if (jsonObject.has("vid"))
-                node.versionIdentifier = Integer.parseInt(jsonObject.get("vid").getAsString(), 16);
-
-            if (jsonObject.has("crpl"))
-                node.crpl = Integer.parseInt(jsonObject.get("crpl").getAsString(), 16);
-
-            if (jsonObject.has("features")) {
-                final JsonObject featuresJson = jsonObject.get("features").getAsJsonObject();
-
-                node.nodeFeatures = new Features();
-                if(featuresJson.has("friend")){
-                    node.nodeFeatures.setFriend(featuresJson.get("friend").getAsInt());
-                }
-                if(featuresJson.has("lowPower")){
-                    node.nodeFeatures.setLowPower(featuresJson.get("lowPower").getAsInt());
-                }
-                if(featuresJson.has("proxy")){
-                    node.nodeFeatures.setProxy(featuresJson.get("proxy").getAsInt());
-                }
-                if(featuresJson.has("relay")){
-                    node.nodeFeatures.setRelay(featuresJson.get("relay").getAsInt());
-                }
+            if(featuresJson.has("lowPower")){
+                node.nodeFeatures.setLowPower(featuresJson.get("lowPower").getAsInt());
             }
-
-            if (jsonObject.has("secureNetworkBeacon")) {
-                node.setSecureNetworkBeaconSupported(jsonObject.get("secureNetworkBeacon").getAsBoolean());
+            if(featuresJson.has("proxy")){
+                node.nodeFeatures.setProxy(featuresJson.get("proxy").getAsInt());
             }
-
-            if (jsonObject.has("defaultTTL") && !jsonObject.get("defaultTTL").isJsonNull()) {
-                node.ttl = jsonObject.get("defaultTTL").getAsInt();
+            if(featuresJson.has("relay")){
+                node.nodeFeatures.setRelay(featuresJson.get("relay").getAsInt());
             }
+        }
 
-            if (jsonObject.has("networkTransmit")) {
-                final JsonObject jsonNetTransmit = jsonObject.getAsJsonObject("networkTransmit");
-                int count = jsonNetTransmit.get("count").getAsInt();
-                int interval = jsonNetTransmit.get("interval").getAsInt();
-                if (count < 1 || count > 8)
-                    throw new IllegalArgumentException("Error while deserializing Network Transmit on : " +
-                            formatAddress(unicastAddress, true) + ", Network Transmit count must be in range 1-8.");
-
-                if (count != 0 && interval != 0) {
-                    // Some versions of nRF Mesh lib for Android were exporting interval
-                    // as number of steps, not the interval, therefore we can try to fix that.
-                    if (interval % 10 != 0 && interval <= 32) {
-                        // Interval that was exported as intervalSteps are imported as it is.
-                        node.setNetworkTransmitSettings(new NetworkTransmitSettings(count, interval));
-                    } else if (interval % 10 == 0) {
-                        // Interval that was exported as intervalSteps are decoded to intervalSteps.
-                        final int steps = NetworkTransmitSettings.decodeNetworkTransmissionInterval(interval);
-                        count = NetworkTransmitSettings.getTransmissionCount(count);
-                        node.setNetworkTransmitSettings(new NetworkTransmitSettings(count, steps));
-                    }
+        if (jsonObject.has("secureNetworkBeacon")) {
+            node.setSecureNetworkBeaconSupported(jsonObject.get("secureNetworkBeacon").getAsBoolean());
+        }
+
+        if (jsonObject.has("defaultTTL") && !jsonObject.get("defaultTTL").isJsonNull()) {
+            node.ttl = jsonObject.get("defaultTTL").getAsInt();
+        }
+
+        if (jsonObject.has("networkTransmit")) {
+            final JsonObject jsonNetTransmit = jsonObject.getAsJsonObject("networkTransmit");
+            int count = jsonNetTransmit.get("count").getAsInt();
+            int interval = jsonNetTransmit.get("interval").getAsInt();
+            if (count < 1 || count > 8)
+                throw new IllegalArgumentException("Error while deserializing Network Transmit on : " +
+                        formatAddress(unicastAddress, true) + ", Network Transmit count must be in range 1-8.");
+
+            if (count != 0 && interval != 0) {
+                // Some versions of nRF Mesh lib for Android were exporting interval
+                // as number of steps, not the interval, therefore we can try to fix that.
+                if (interval % 10 != 0 && interval <= 32) {
+                    // Interval that was exported as intervalSteps are imported as it is.
+                    node.setNetworkTransmitSettings(new NetworkTransmitSettings(count, interval));
+                } else if (interval % 10 == 0) {
+                    // Interval that was exported as intervalSteps are decoded to intervalSteps.
+                    final int steps = NetworkTransmitSettings.decodeNetworkTransmissionInterval(interval);
+                    count = NetworkTransmitSettings.getTransmissionCount(count);
+                    node.setNetworkTransmitSettings(new NetworkTransmitSettings(count, steps));
                 }
             }
+        }
 
-            if (jsonObject.has("relayRetransmit")) {
-                final JsonObject jsonRelay = jsonObject.getAsJsonObject("relayRetransmit");
-                int count = jsonRelay.get("count").getAsInt();
-                int interval = jsonRelay.get("interval").getAsInt();
-                if (count != 0 && interval != 0) {
-                    if (count < 1 || count > 8)
-                        throw new IllegalArgumentException("Error while deserializing Relay Retransmit on : " +
-                                formatAddress(unicastAddress, true) + " Relay Retransmit count must be in range 1-8.");
-                    final RelaySettings relaySettings;
-                    // Some versions of nRF Mesh lib for Android were exporting interval
-                    // as number of steps, not the interval, therefore we can try to fix that.
-                    if (interval % 10 != 0 && interval <= 32) {
-                        // Interval that was exported as intervalSteps are imported as it is.
-                        relaySettings = new RelaySettings(count, interval);
-                        node.setRelaySettings(relaySettings);
-                    } else if (interval % 10 == 0) {
-                        // Interval that was exported as intervalSteps are imported as it is.
-                        final int steps = RelaySettings.decodeRelayRetransmitInterval(interval);
-                        relaySettings = new RelaySettings(count, steps);
-                        node.setRelaySettings(relaySettings);
-                    }
+        if (jsonObject.has("relayRetransmit")) {
+            final JsonObject jsonRelay = jsonObject.getAsJsonObject("relayRetransmit");
+            int count = jsonRelay.get("count").getAsInt();
+            int interval = jsonRelay.get("interval").getAsInt();
+            if (count != 0 && interval != 0) {
+                if (count < 1 || count > 8)
+                    throw new IllegalArgumentException("Error while deserializing Relay Retransmit on : " +
+                            formatAddress(unicastAddress, true) + " Relay Retransmit count must be in range 1-8.");
+                final RelaySettings relaySettings;
+                // Some versions of nRF Mesh lib for Android were exporting interval
+                // as number of steps, not the interval, therefore we can try to fix that.
+                if (interval % 10 != 0 && interval <= 32) {
+                    // Interval that was exported as intervalSteps are imported as it is.
+                    relaySettings = new RelaySettings(count, interval);
+                    node.setRelaySettings(relaySettings);
+                } else if (interval % 10 == 0) {
+                    // Interval that was exported as intervalSteps are imported as it is.
+                    final int steps = RelaySettings.decodeRelayRetransmitInterval(interval);
+                    relaySettings = new RelaySettings(count, steps);
+                    node.setRelaySettings(relaySettings);
                 }
             }
+        }
 
-            if (jsonObject.has("appKeys"))
-                node.mAddedAppKeys = deserializeAddedIndexes(jsonObject.get("appKeys").getAsJsonArray());
-
-            if (jsonObject.has("elements")) {
-                final List<Element> elements = deserializeElements(context, jsonObject);
-                final Map<Integer, Element> elementMap = populateElements(unicastAddress, elements);
-                node.mElements.clear();
-                node.mElements.putAll(elementMap);
-            }
+        if (jsonObject.has("appKeys"))
+            node.mAddedAppKeys = deserializeAddedIndexes(jsonObject.get("appKeys").getAsJsonArray());
 
-            if (jsonObject.has("blacklisted")) {
-                node.setExcluded(jsonObject.get("blacklisted").getAsBoolean());
-            } else if (jsonObject.has("excluded")) {
-                node.setExcluded(jsonObject.get("excluded").getAsBoolean());
-            }
+        if (jsonObject.has("elements")) {
+            final List<Element> elements = deserializeElements(context, jsonObject);
+            final Map<Integer, Element> elementMap = populateElements(unicastAddress, elements);
+            node.mElements.clear();
+            node.mElements.putAll(elementMap);
+        }
 
-            if (jsonObject.has("name"))
-                node.nodeName = jsonObject.get("name").getAsString();
-            deserializeHeartbeat(jsonObject, node);
-            nodes.add(node);
+        if (jsonObject.has("blacklisted")) {
+            node.setExcluded(jsonObject.get("blacklisted").getAsBoolean());
+        } else if (jsonObject.has("excluded")) {
+            node.setExcluded(jsonObject.get("excluded").getAsBoolean());
         }
 
-        return nodes;
+        if (jsonObject.has("name"))
+            node.nodeName = jsonObject.get("name").getAsString();
+        deserializeHeartbeat(jsonObject, node);
+        return node;
     }
 
     @Override
@@ -178,67 +189,79 @@ public final class NodeDeserializer implements JsonSerializer<List<ProvisionedMe
                                  final JsonSerializationContext context) {
         final JsonArray jsonArray = new JsonArray();
         for (ProvisionedMeshNode node : nodes) {
-            final JsonObject nodeJson = new JsonObject();
-            nodeJson.addProperty("UUID", node.getUuid().toUpperCase(Locale.US)/*MeshParserUtils.uuidToHex(node.getUuid())*/);
-            nodeJson.addProperty("name", node.getNodeName());
-            nodeJson.addProperty("deviceKey", MeshParserUtils.bytesToHex(node.getDeviceKey(), false));
-            nodeJson.addProperty("unicastAddress", MeshParserUtils.bytesToHex(addressIntToBytes(node.getUnicastAddress()), false));
-            nodeJson.addProperty("security", (node.getSecurity() == ProvisionedBaseMeshNode.HIGH) ? "secure" : "insecure");
-            nodeJson.addProperty("configComplete", node.isConfigured());
-
-            if (node.getCompanyIdentifier() != null)
-                nodeJson.addProperty("cid", CompositionDataParser.formatCompanyIdentifier(node.getCompanyIdentifier(), false));
-            if (node.getProductIdentifier() != null)
-                nodeJson.addProperty("pid", CompositionDataParser.formatProductIdentifier(node.getProductIdentifier(), false));
-            if (node.getVersionIdentifier() != null)
-                nodeJson.addProperty("vid", CompositionDataParser.formatVersionIdentifier(node.getVersionIdentifier(), false));
-            if (node.getCrpl() != null)
-                nodeJson.addProperty("crpl", CompositionDataParser.formatReplayProtectionCount(node.getCrpl(), false));
-
-            if (node.getNodeFeatures() != null) {
-                final JsonObject json = new JsonObject();
-                if(node.getNodeFeatures().getFriend() != Features.UNKNOWN){
-                    json.addProperty("friend", node.getNodeFeatures().getFriend());
-                }
-                if(node.getNodeFeatures().getLowPower() != Features.UNKNOWN){
-                    json.addProperty("lowPower", node.getNodeFeatures().getLowPower());
-                }
-                if(node.getNodeFeatures().getProxy() != Features.UNKNOWN){
-                    json.addProperty("proxy", node.getNodeFeatures().getProxy());
-                }
-                if(node.getNodeFeatures().getRelay() != Features.UNKNOWN){
-                    json.addProperty("relay", node.getNodeFeatures().getRelay());
-                }
-                nodeJson.add("features", json);
-            }
+            jsonArray.add(serializeNode(node, context));
+        }
+        return jsonArray;
+    }
 
-            if (node.isSecureNetworkBeaconSupported() != null) {
-                nodeJson.addProperty("secureNetworkBeacon", node.isSecureNetworkBeaconSupported());
+    /**
+     * Serializes a single node, allowing nodes to be written one at a time to a stream.
+     *
+     * @param node    Mesh node
+     * @param context serialization context
+     * @return JsonObject
+     */
+    public JsonObject serializeNode(@NonNull final ProvisionedMeshNode node,
+                                    @NonNull final JsonSerializationContext context) {
+        final JsonObject nodeJson = new JsonObject();
+        nodeJson.addProperty("UUID", node.getUuid().toUpperCase(Locale.US)/*MeshParserUtils.uuidToHex(node.getUuid())*/);
+        nodeJson.addProperty("name", node.getNodeName());
+        nodeJson.addProperty("deviceKey", MeshParserUtils.bytesToHex(node.getDeviceKey(), false));
+        nodeJson.addProperty("unicastAddress", MeshParserUtils.bytesToHex(addressIntToBytes(node.getUnicastAddress()), false));
+        nodeJson.addProperty("security", (node.getSecurity() == ProvisionedBaseMeshNode.HIGH) ? "secure" : "insecure");
+        nodeJson.addProperty("configComplete", node.isConfigured());
+
+        if (node.getCompanyIdentifier() != null)
+            nodeJson.addProperty("cid", CompositionDataParser.formatCompanyIdentifier(node.getCompanyIdentifier(), false));
+        if (node.getProductIdentifier() != null)
+            nodeJson.addProperty("pid", CompositionDataParser.formatProductIdentifier(node.getProductIdentifier(), false));
+        if (node.getVersionIdentifier() != null)
+            nodeJson.addProperty("vid", CompositionDataParser.formatVersionIdentifier(node.getVersionIdentifier(), false));
+        if (node.getCrpl() != null)
+            nodeJson.addProperty("crpl", CompositionDataParser.formatReplayProtectionCount(node.getCrpl(), false));
+
+        if (node.getNodeFeatures() != null) {
+            final JsonObject json = new JsonObject();
+            if(node.getNodeFeatures().getFriend() != Features.UNKNOWN){
+                json.addProperty("friend", node.getNodeFeatures().getFriend());
             }
-
-            nodeJson.addProperty("defaultTTL", node.getTtl());
-
-            if (node.getNetworkTransmitSettings() != null) {
-                final JsonObject json = new JsonObject();
-                json.addProperty("count", node.getNetworkTransmitSettings().getTransmissions());
-                json.addProperty("interval", node.getNetworkTransmitSettings().getNetworkTransmissionInterval());
-                nodeJson.add("networkTransmit", json);
+            if(node.getNodeFeatures().getLowPower() != Features.UNKNOWN){
+                json.addProperty("lowPower", node.getNodeFeatures().getLowPower());
+            }
+            if(node.getNodeFeatures().getProxy() != Features.UNKNOWN){
+                json.addProperty("proxy", node.getNodeFeatures().getProxy());
             }
-            if (node.getRelaySettings() != null) {
-                final JsonObject json = new JsonObject();
-                json.addProperty("count", node.getRelaySettings().getRelayTransmitCount());
-                json.addProperty("interval", node.getRelaySettings().getRetransmissionIntervals());
-                nodeJson.add("relayRetransmit", json);
+            if(node.getNodeFeatures().getRelay() != Features.UNKNOWN){
+                json.addProperty("relay", node.getNodeFeatures().getRelay());
             }
+            nodeJson.add("features", json);
+        }
 
-            nodeJson.add("netKeys", serializeAddedIndexes(node.getAddedNetKeys()));
-            nodeJson.add("appKeys", serializeAddedIndexes(node.getAddedAppKeys()));
-            nodeJson.add("elements", serializeElements(context, node.getElements()));
-            nodeJson.addProperty("excluded", node.isExcluded());
-            serializeHeartbeat(nodeJson, node);
-            jsonArray.add(nodeJson);
+        if (node.isSecureNetworkBeaconSupported() != null) {
+            nodeJson.addProperty("secureNetworkBeacon", node.isSecureNetworkBeaconSupported());
         }
-        return jsonArray;
+
+        nodeJson.addProperty("defaultTTL", node.getTtl());
+
+        if (node.getNetworkTransmitSettings() != null) {
+            final JsonObject json = new JsonObject();
+            json.addProperty("count", node.getNetworkTransmitSettings().getTransmissions());
+            json.addProperty("interval", node.getNetworkTransmitSettings().getNetworkTransmissionInterval());
+            nodeJson.add("networkTransmit", json);
+        }
+        if (node.getRelaySettings() != null) {
+            final JsonObject json = new JsonObject();
+            json.addProperty("count", node.getRelaySettings().getRelayTransmitCount());
+            json.addProperty("interval", node.getRelaySettings().getRetransmissionIntervals());
+            nodeJson.add("relayRetransmit", json);
+        }
+
+        nodeJson.add("netKeys", serializeAddedIndexes(node.getAddedNetKeys()));
+        nodeJson.add("appKeys", serializeAddedIndexes(node.getAddedAppKeys()));
+        nodeJson.add("elements", serializeElements(context, node.getElements()));
+        nodeJson.addProperty("excluded", node.isExcluded());
+        serializeHeartbeat(nodeJson, node);
+        return nodeJson;
     }
 
     /**
@@ -0,0 +1,382 @@
+package no.nordicsemi.android.mesh.transport;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import no.nordicsemi.android.mesh.Features;
+import no.nordicsemi.android.mesh.NodeKey;
+import no.nordicsemi.android.mesh.models.ConfigurationServerModel;
+import no.nordicsemi.android.mesh.models.SigModelParser;
+import no.nordicsemi.android.mesh.models.VendorModel;
+import no.nordicsemi.android.mesh.utils.HeartbeatPublication;
+import no.nordicsemi.android.mesh.utils.HeartbeatSubscription;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+import no.nordicsemi.android.mesh.utils.NetworkTransmitSettings;
+import no.nordicsemi.android.mesh.utils.RelaySettings;
+import no.nordicsemi.android.mesh.utils.SnapshotReader;
+import no.nordicsemi.android.mesh.utils.SnapshotWriter;
+
+/**
+ * Writes and reads the nodes section of the binary mesh network snapshot.
+ * <p>
+ * Element addresses are not stored as they are derived from the unicast address of the node.
+ * Application keys bound to a model are stored as a bitmap over the application key table of the
+ * network, keys missing from the table are stored separately by index.
+ * </p>
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public final class NodeSnapshotSerializer {
+
+    private static final int FLAG_SECURE = 0x01;
+    private static final int FLAG_CONFIGURED = 0x02;
+    private static final int FLAG_EXCLUDED = 0x04;
+
+    private static final int BEACON_UNKNOWN = 0;
+    private static final int BEACON_DISABLED = 1;
+    private static final int BEACON_ENABLED = 2;
+
+    private NodeSnapshotSerializer() {
+    }
+
+    /**
+     * Writes the list of nodes.
+     *
+     * @param writer         snapshot writer
+     * @param nodes          nodes to write
+     * @param appKeyIndexes  application key table of the network, in the order written to the snapshot
+     */
+    public static void writeNodes(@NonNull final SnapshotWriter writer,
+                                  @NonNull final List<ProvisionedMeshNode> nodes,
+                                  @NonNull final List<Integer> appKeyIndexes) {
+        final Map<Integer, Integer> appKeyTable = new HashMap<>();
+        for (int i = 0; i < appKeyIndexes.size(); i++) {
+            appKeyTable.put(appKeyIndexes.get(i), i);
+        }
+        writer.writeVarInt(nodes.size());
+        for (ProvisionedMeshNode node : nodes) {
+            writeNode(writer, node, appKeyTable, appKeyIndexes.size());
+        }
+    }
+
+    /**
+     * Reads the list of nodes.
+     *
+     * @param reader        snapshot reader
+     * @param meshUuid      UUID of the mesh network
+     * @param appKeyIndexes application key table of the network, in the order read from the snapshot
+     */
+    @NonNull
+    public static List<ProvisionedMeshNode> readNodes(@NonNull final SnapshotReader reader,
+                                                      @NonNull final String meshUuid,
+                                                      @NonNull final List<Integer> appKeyIndexes) {
+        final int count = reader.readVarInt();
+        final List<ProvisionedMeshNode> nodes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final ProvisionedMeshNode node = readNode(reader, appKeyIndexes);
+            node.setMeshUuid(meshUuid);
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    private static void writeNode(@NonNull final SnapshotWriter writer,
+                                  @NonNull final ProvisionedMeshNode node,
+                                  @NonNull final Map<Integer, Integer> appKeyTable,
+                                  final int appKeyCount) {
+        writer.writeUuidString(node.uuid);
+        writer.writeString(node.nodeName);
+        writer.writeBytes(node.deviceKey);
+        writer.writeVarInt(node.unicastAddress);
+        int flags = 0;
+        if (node.security == ProvisionedBaseMeshNode.HIGH)
+            flags |= FLAG_SECURE;
+        if (node.isConfigured)
+            flags |= FLAG_CONFIGURED;
+        if (node.excluded)
+            flags |= FLAG_EXCLUDED;
+        writer.writeByte(flags);
+        writer.writeNullableVarInt(node.companyIdentifier);
+        writer.writeNullableVarInt(node.productIdentifier);
+        writer.writeNullableVarInt(node.versionIdentifier);
+        writer.writeNullableVarInt(node.crpl);
+        writeFeatures(writer, node.nodeFeatures);
+        if (node.secureNetworkBeaconSupported == null) {
+            writer.writeByte(BEACON_UNKNOWN);
+        } else {
+            writer.writeByte(node.secureNetworkBeaconSupported ? BEACON_ENABLED : BEACON_DISABLED);
+        }
+        writer.writeNullableVarInt(node.ttl);
+        writer.writeVarInt(node.sequenceNumber);
+
+        final NetworkTransmitSettings networkTransmit = node.networkTransmitSettings;
+        writer.writeBoolean(networkTransmit != null);
+        if (networkTransmit != null) {
+            writer.writeVarInt(networkTransmit.getNetworkTransmitCount());
+            writer.writeVarInt(networkTransmit.getNetworkIntervalSteps());
+        }
+        final RelaySettings relaySettings = node.relaySettings;
+        writer.writeBoolean(relaySettings != null);
+        if (relaySettings != null) {
+            writer.writeVarInt(relaySettings.getRelayTransmitCount());
+            writer.writeVarInt(relaySettings.getRelayIntervalSteps());
+        }
+
+        writeNodeKeys(writer, node.mAddedNetKeys);
+        writeNodeKeys(writer, node.mAddedAppKeys);
+
+        writer.writeVarInt(node.mElements.size());
+        for (Element element : node.mElements.values()) {
+            writer.writeVarInt(element.locationDescriptor);
+            writer.writeString(element.name);
+            writer.writeVarInt(element.meshModels.size());
+            for (MeshModel model : element.meshModels.values()) {
+                writeModel(writer, model, appKeyTable, appKeyCount);
+            }
+        }
+    }
+
+    private static ProvisionedMeshNode readNode(@NonNull final SnapshotReader reader,
+                                                @NonNull final List<Integer> appKeyIndexes) {
+        final ProvisionedMeshNode node = new ProvisionedMeshNode();
+        node.uuid = reader.readUuidString();
+        node.nodeName = reader.readString();
+        node.deviceKey = reader.readBytes();
+        node.unicastAddress = reader.readVarInt();
+        final int flags = reader.readByte();
+        node.security = (flags & FLAG_SECURE) != 0 ? ProvisionedBaseMeshNode.HIGH : ProvisionedBaseMeshNode.LOW;
+        node.isConfigured = (flags & FLAG_CONFIGURED) != 0;
+        node.excluded = (flags & FLAG_EXCLUDED) != 0;
+        node.companyIdentifier = reader.readNullableVarInt();
+        node.productIdentifier = reader.readNullableVarInt();
+        node.versionIdentifier = reader.readNullableVarInt();
+        node.crpl = reader.readNullableVarInt();
+        node.nodeFeatures = readFeatures(reader);
+        final int beacon = reader.readByte();
+        node.secureNetworkBeaconSupported = beacon == BEACON_UNKNOWN ? null : beacon == BEACON_ENABLED;
+        node.ttl = reader.readNullableVarInt();
+        node.sequenceNumber = reader.readVarInt();
+
+        if (reader.readBoolean()) {
+            final int count = reader.readVarInt();
+            node.networkTransmitSettings = new NetworkTransmitSettings(count, reader.readVarInt());
+        }
+        if (reader.readBoolean()) {
+            final int count = reader.readVarInt();
+            node.relaySettings = new RelaySettings(count, reader.readVarInt());
+        }
+
+        node.mAddedNetKeys = readNodeKeys(reader);
+        node.mAddedAppKeys = readNodeKeys(reader);
+
+        node.mElements.clear();
+        final int elementCount = reader.readVarInt();
+        for (int i = 0; i < elementCount; i++) {
+            final int location = reader.readVarInt();
+            final String name = reader.readString();
+            final int modelCount = reader.readVarInt();
+            final Map<Integer, MeshModel> models = new LinkedHashMap<>();
+            for (int j = 0; j < modelCount; j++) {
+                final MeshModel model = readModel(reader, appKeyIndexes);
+                models.put(model.getModelId(), model);
+            }
+            final Element element = new Element(location, models);
+            element.elementAddress = node.unicastAddress + i;
+            element.name = name;
+            node.mElements.put(element.elementAddress, element);
+        }
+        return node;
+    }
+
+    private static void writeModel(@NonNull final SnapshotWriter writer,
+                                   @NonNull final MeshModel model,
+                                   @NonNull final Map<Integer, Integer> appKeyTable,
+                                   final int appKeyCount) {
+        writer.writeVarInt(model.getModelId());
+
+        final byte[] bitmap = new byte[(appKeyCount + 7) / 8];
+        final List<Integer> unknownKeys = new ArrayList<>();
+        for (Integer keyIndex : model.mBoundAppKeyIndexes) {
+            final Integer position = appKeyTable.get(keyIndex);
+            if (position == null) {
+                unknownKeys.add(keyIndex);
+            } else {
+                bitmap[position >> 3] |= 1 << (position & 0x07);
+            }
+        }
+        writer.writeRawBytes(bitmap);
+        writeIntList(writer, unknownKeys);
+
+        writeIntList(writer, model.subscriptionAddresses);
+        writer.writeVarInt(model.labelUuids.size());
+        for (UUID uuid : model.labelUuids) {
+            writer.writeUuid(uuid);
+        }
+
+        final PublicationSettings settings = model.mPublicationSettings;
+        writer.writeBoolean(settings != null);
+        if (settings != null) {
+            writer.writeVarInt(settings.getPublishAddress());
+            writer.writeUuid(settings.getLabelUUID());
+            writer.writeVarInt(settings.getAppKeyIndex());
+            writer.writeBoolean(settings.getCredentialFlag());
+            writer.writeVarInt(settings.getPublishTtl());
+            writer.writeVarInt(settings.getPublicationSteps());
+            writer.writeVarInt(settings.getPublicationResolution());
+            writer.writeVarInt(settings.getPublishRetransmitCount());
+            writer.writeVarInt(settings.getPublishRetransmitIntervalSteps());
+        }
+        writeIntList(writer, model.sceneNumbers);
+
+        if (model instanceof ConfigurationServerModel) {
+            writeHeartbeat(writer, (ConfigurationServerModel) model);
+        }
+    }
+
+    private static MeshModel readModel(@NonNull final SnapshotReader reader,
+                                       @NonNull final List<Integer> appKeyIndexes) {
+        final int modelId = reader.readVarInt();
+        final MeshModel model = MeshParserUtils.isVendorModel(modelId) ?
+                new VendorModel(modelId) : SigModelParser.getSigModel(modelId);
+
+        final byte[] bitmap = reader.readRawBytes((appKeyIndexes.size() + 7) / 8);
+        for (int i = 0; i < appKeyIndexes.size(); i++) {
+            if ((bitmap[i >> 3] & (1 << (i & 0x07))) != 0) {
+                model.mBoundAppKeyIndexes.add(appKeyIndexes.get(i));
+            }
+        }
+        model.mBoundAppKeyIndexes.addAll(readIntList(reader));
+
+        model.subscriptionAddresses.addAll(readIntList(reader));
+        final int labelCount = reader.readVarInt();
+        for (int i = 0; i < labelCount; i++) {
+            model.labelUuids.add(reader.readUuid());
+        }
+
+        if (reader.readBoolean()) {
+            final int address = reader.readVarInt();
+            final UUID label = reader.readUuid();
+            final int appKeyIndex = reader.readVarInt();
+            final boolean credentialFlag = reader.readBoolean();
+            final int ttl = reader.readVarInt();
+            final int steps = reader.readVarInt();
+            final int resolution = reader.readVarInt();
+            final int retransmitCount = reader.readVarInt();
+            final int retransmitIntervalSteps = reader.readVarInt();
+            model.mPublicationSettings = new PublicationSettings(address, label, appKeyIndex,
+                    credentialFlag, ttl, steps, resolution, retransmitCount, retransmitIntervalSteps);
+        }
+        model.sceneNumbers.addAll(readIntList(reader));
+
+        if (model instanceof ConfigurationServerModel) {
+            readHeartbeat(reader, (ConfigurationServerModel) model);
+        }
+        return model;
+    }
+
+    private static void writeHeartbeat(@NonNull final SnapshotWriter writer,
+                                       @NonNull final ConfigurationServerModel model) {
+        final HeartbeatPublication publication = model.getHeartbeatPublication();
+        writer.writeBoolean(publication != null);
+        if (publication != null) {
+            writer.writeVarInt(publication.getDst());
+            writer.writeByte(publication.getCountLog());
+            writer.writeByte(publication.getPeriodLog());
+            writer.writeVarInt(publication.getTtl());
+            writeFeatures(writer, publication.getFeatures());
+            writer.writeVarInt(publication.getNetKeyIndex());
+        }
+        final HeartbeatSubscription subscription = model.getHeartbeatSubscription();
+        writer.writeBoolean(subscription != null);
+        if (subscription != null) {
+            writer.writeVarInt(subscription.getSrc());
+            writer.writeVarInt(subscription.getDst());
+            writer.writeByte(subscription.getPeriodLog());
+            writer.writeByte(subscription.getCountLog());
+            writer.writeVarInt(subscription.getMinHops());
+            writer.writeVarInt(subscription.getMaxHops());
+        }
+    }
+
+    private static void readHeartbeat(@NonNull final SnapshotReader reader,
+                                      @NonNull final ConfigurationServerModel model) {
+        if (reader.readBoolean()) {
+            final int dst = reader.readVarInt();
+            final byte countLog = (byte) reader.readByte();
+            final byte periodLog = (byte) reader.readByte();
+            final int ttl = reader.readVarInt();
+            final Features features = readFeatures(reader);
+            final int netKeyIndex = reader.readVarInt();
+            model.setHeartbeatPublication(new HeartbeatPublication(dst, countLog, periodLog, ttl, features, netKeyIndex));
+        }
+        if (reader.readBoolean()) {
+            final int src = reader.readVarInt();
+            final int dst = reader.readVarInt();
+            final byte periodLog = (byte) reader.readByte();
+            final byte countLog = (byte) reader.readByte();
+            final int minHops = reader.readVarInt();
+            final int maxHops = reader.readVarInt();
+            model.setHeartbeatSubscription(new HeartbeatSubscription(src, dst, periodLog, countLog, minHops, maxHops));
+        }
+    }
+
+    private static void writeFeatures(@NonNull final SnapshotWriter writer, @Nullable final Features features) {
+        writer.writeBoolean(features != null);
+        if (features != null) {
+            writer.writeByte(features.getFriend());
+            writer.writeByte(features.getLowPower());
+            writer.writeByte(features.getProxy());
+            writer.writeByte(features.getRelay());
+        }
+    }
+
+    @Nullable
+    private static Features readFeatures(@NonNull final SnapshotReader reader) {
+        if (!reader.readBoolean())
+            return null;
+        final int friend = reader.readByte();
+        final int lowPower = reader.readByte();
+        final int proxy = reader.readByte();
+        final int relay = reader.readByte();
+        return new Features(friend, lowPower, proxy, relay);
+    }
+
+    private static void writeNodeKeys(@NonNull final SnapshotWriter writer, @NonNull final List<NodeKey> keys) {
+        writer.writeVarInt(keys.size());
+        for (NodeKey key : keys) {
+            writer.writeVarInt((key.getIndex() << 1) | (key.isUpdated() ? 1 : 0));
+        }
+    }
+
+    private static List<NodeKey> readNodeKeys(@NonNull final SnapshotReader reader) {
+        final int count = reader.readVarInt();
+        final List<NodeKey> keys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final int value = reader.readVarInt();
+            keys.add(new NodeKey(value >>> 1, (value & 0x01) != 0));
+        }
+        return keys;
+    }
+
+    private static void writeIntList(@NonNull final SnapshotWriter writer, @NonNull final List<Integer> values) {
+        writer.writeVarInt(values.size());
+        for (Integer value : values) {
+            writer.writeVarInt(value);
+        }
+    }
+
+    private static List<Integer> readIntList(@NonNull final SnapshotReader reader) {
+        final int count = reader.readVarInt();
+        final List<Integer> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(reader.readVarInt());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,30 @@
+package no.nordicsemi.android.mesh.transport;
+
+
+import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+
+/**
+ * Creates the PrivateBeaconGet message.
+ */
+public class PrivateBeaconGet extends ConfigMessage {
+
+    private static final String TAG = PrivateBeaconGet.class.getSimpleName();
+    private static final int OP_CODE = ConfigMessageOpCodes.PRIVATE_BEACON_GET;
+
+    /**
+     * Constructs PrivateBeaconGet message.
+     */
+    public PrivateBeaconGet() {
+        assembleMessageParameters();
+    }
+
+    @Override
+    public int getOpCode() {
+        return OP_CODE;
+    }
+
+    @Override
+    void assembleMessageParameters() {
+        //Do nothing as PrivateBeaconGet message does not have parameters
+    }
+}
@@ -0,0 +1,56 @@
+package no.nordicsemi.android.mesh.transport;
+
+
+import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+
+/**
+ * Creates the PrivateBeaconSet message.
+ */
+public class PrivateBeaconSet extends ConfigMessage {
+
+    private static final String TAG = PrivateBeaconSet.class.getSimpleName();
+    private static final int OP_CODE = ConfigMessageOpCodes.PRIVATE_BEACON_SET;
+    private final boolean enable;
+    private final Integer randomUpdateIntervalSteps;
+
+    /**
+     * Constructs PrivateBeaconSet message.
+     *
+     * @param enable True to enable sending periodic Mesh Private Beacons or false otherwise
+     */
+    public PrivateBeaconSet(final boolean enable) {
+        this.enable = enable;
+        this.randomUpdateIntervalSteps = null;
+        assembleMessageParameters();
+    }
+
+    /**
+     * Constructs PrivateBeaconSet message.
+     *
+     * @param enable                    True to enable sending periodic Mesh Private Beacons or false otherwise
+     * @param randomUpdateIntervalSteps Interval in 10 second steps at which the random field of the beacon is changed,
+     *                                  0 to change it for every beacon
+     * @throws IllegalArgumentException if the random update interval steps is not in range 0 to 255
+     */
+    public PrivateBeaconSet(final boolean enable, final int randomUpdateIntervalSteps) {
+        if (randomUpdateIntervalSteps < 0 || randomUpdateIntervalSteps > 0xFF)
+            throw new IllegalArgumentException("Random update interval steps must be in range 0 to 255");
+        this.enable = enable;
+        this.randomUpdateIntervalSteps = randomUpdateIntervalSteps;
+        assembleMessageParameters();
+    }
+
+    @Override
+    public int getOpCode() {
+        return OP_CODE;
+    }
+
+    @Override
+    void assembleMessageParameters() {
+        if (randomUpdateIntervalSteps == null) {
+            mParameters = new byte[]{(byte) (enable ? 0x01 : 0x00)};
+        } else {
+            mParameters = new byte[]{(byte) (enable ? 0x01 : 0x00), randomUpdateIntervalSteps.byteValue()};
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package no.nordicsemi.android.mesh.transport;
+
+
+import no.nordicsemi.android.mesh.logger.MeshLogger;
+
+import androidx.annotation.NonNull;
+import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+/**
+ * Creates the PrivateBeaconStatus message.
+ */
+public class PrivateBeaconStatus extends ConfigStatusMessage {
+
+    private static final String TAG = PrivateBeaconStatus.class.getSimpleName();
+    private static final int OP_CODE = ConfigMessageOpCodes.PRIVATE_BEACON_STATUS;
+
+    private boolean enable;
+    private int randomUpdateIntervalSteps;
+
+    /**
+     * Constructs PrivateBeaconStatus message.
+     *
+     * @param message {@link AccessMessage}
+     */
+    public PrivateBeaconStatus(@NonNull final AccessMessage message) {
+        super(message);
+        mParameters = message.getParameters();
+        parseStatusParameters();
+    }
+
+    @Override
+    void parseStatusParameters() {
+        enable = MeshParserUtils.unsignedByteToInt(mParameters[0]) == ProvisionedBaseMeshNode.ENABLED;
+        randomUpdateIntervalSteps = MeshParserUtils.unsignedByteToInt(mParameters[1]);
+        MeshLogger.debug(TAG, "Private Beacon State: " + enable + ", Random Update Interval Steps: " + randomUpdateIntervalSteps);
+    }
+
+    @Override
+    public int getOpCode() {
+        return OP_CODE;
+    }
+
+    /**
+     * Returns true if the Private Beacon State is set to send periodic Mesh Private Beacons or false otherwise.
+     */
+    public boolean isEnable() {
+        return enable;
+    }
+
+    /**
+     * Returns the interval in 10 second steps at which the random field of the beacon is changed.
+     */
+    public int getRandomUpdateIntervalSteps() {
+        return randomUpdateIntervalSteps;
+    }
+}
@@ -492,7 +492,8 @@ public final class ProvisionedMeshNode extends ProvisionedBaseMeshNode {
      *
      * @param configCompositionDataStatus Composition data status object
      */
-    void setCompositionData(
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public void setCompositionData(
             @NonNull final ConfigCompositionDataStatus configCompositionDataStatus) {
         companyIdentifier = configCompositionDataStatus.getCompanyIdentifier();
         productIdentifier = configCompositionDataStatus.getProductIdentifier();
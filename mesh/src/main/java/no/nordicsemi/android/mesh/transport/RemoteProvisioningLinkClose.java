@@ -0,0 +1,44 @@
+package no.nordicsemi.android.mesh.transport;
+
+import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+
+/**
+ * Creates the RemoteProvisioningLinkClose message.
+ */
+@SuppressWarnings("WeakerAccess")
+public class RemoteProvisioningLinkClose extends ConfigMessage {
+
+    public static final int REASON_SUCCESS = 0x00;
+    public static final int REASON_FAIL = 0x02;
+
+    private static final String TAG = RemoteProvisioningLinkClose.class.getSimpleName();
+    private static final int OP_CODE = ConfigMessageOpCodes.REMOTE_PROVISIONING_LINK_CLOSE;
+    private final int reason;
+
+    /**
+     * Constructs RemoteProvisioningLinkClose message.
+     *
+     * @param reason {@link #REASON_SUCCESS} if the device was provisioned or {@link #REASON_FAIL} otherwise
+     * @throws IllegalArgumentException if the reason is not one of the above
+     */
+    public RemoteProvisioningLinkClose(final int reason) {
+        if (reason != REASON_SUCCESS && reason != REASON_FAIL)
+            throw new IllegalArgumentException("Invalid link close reason");
+        this.reason = reason;
+        assembleMessageParameters();
+    }
+
+    @Override
+    public int getOpCode() {
+        return OP_CODE;
+    }
+
+    @Override
+    void assembleMessageParameters() {
+        mParameters = new byte[]{(byte) reason};
+    }
+
+    public int getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,69 @@
+package no.nordicsemi.android.mesh.transport;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+/**
+ * Creates the RemoteProvisioningLinkOpen message, opening a provisioning link from a Remote Provisioning
+ * Server to an unprovisioned device.
+ */
+public class RemoteProvisioningLinkOpen extends ConfigMessage {
+
+    private static final String TAG = RemoteProvisioningLinkOpen.class.getSimpleName();
+    private static final int OP_CODE = ConfigMessageOpCodes.REMOTE_PROVISIONING_LINK_OPEN;
+    private final UUID deviceUuid;
+    private final Integer timeout;
+
+    /**
+     * Constructs RemoteProvisioningLinkOpen message using the link open timeout of the server.
+     *
+     * @param deviceUuid device uuid of the unprovisioned device
+     */
+    public RemoteProvisioningLinkOpen(@NonNull final UUID deviceUuid) {
+        this.deviceUuid = deviceUuid;
+        this.timeout = null;
+        assembleMessageParameters();
+    }
+
+    /**
+     * Constructs RemoteProvisioningLinkOpen message.
+     *
+     * @param deviceUuid device uuid of the unprovisioned device
+     * @param timeout    time in seconds the server tries to open the link, in range 1 to 60
+     * @throws IllegalArgumentException if the timeout is out of range
+     */
+    public RemoteProvisioningLinkOpen(@NonNull final UUID deviceUuid, final int timeout) {
+        if (timeout < 1 || timeout > 60)
+            throw new IllegalArgumentException("Link open timeout must be in range 1 to 60 seconds");
+        this.deviceUuid = deviceUuid;
+        this.timeout = timeout;
+        assembleMessageParameters();
+    }
+
+    @Override
+    public int getOpCode() {
+        return OP_CODE;
+    }
+
+    @Override
+    void assembleMessageParameters() {
+        final ByteBuffer buffer = ByteBuffer.allocate(timeout == null ? 16 : 17);
+        buffer.put(MeshParserUtils.uuidToBytes(deviceUuid));
+        if (timeout != null) {
+            buffer.put(timeout.byteValue());
+        }
+        mParameters = buffer.array();
+    }
+
+    /**
+     * Returns the device uuid of the unprovisioned device.
+     */
+    @NonNull
+    public UUID getDeviceUuid() {
+        return deviceUuid;
+    }
+}
@@ -0,0 +1,60 @@
+package no.nordicsemi.android.mesh.transport;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.logger.MeshLogger;
+import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+/**
+ * Creates the RemoteProvisioningLinkReport message, sent by a Remote Provisioning Server when a link was
+ * opened or closed.
+ */
+@SuppressWarnings("WeakerAccess")
+public class RemoteProvisioningLinkReport extends RemoteProvisioningStatusMessage {
+
+    private static final String TAG = RemoteProvisioningLinkReport.class.getSimpleName();
+    private static final int OP_CODE = ConfigMessageOpCodes.REMOTE_PROVISIONING_LINK_REPORT;
+
+    private int linkState;
+    private Integer reason;
+
+    /**
+     * Constructs RemoteProvisioningLinkReport message.
+     *
+     * @param message {@link AccessMessage}
+     */
+    public RemoteProvisioningLinkReport(@NonNull final AccessMessage message) {
+        super(message);
+        mParameters = message.getParameters();
+        parseStatusParameters();
+    }
+
+    @Override
+    void parseStatusParameters() {
+        setStatusCode(MeshParserUtils.unsignedByteToInt(mParameters[0]));
+        linkState = MeshParserUtils.unsignedByteToInt(mParameters[1]);
+        reason = mParameters.length > 2 ? MeshParserUtils.unsignedByteToInt(mParameters[2]) : null;
+        MeshLogger.debug(TAG, "Status: " + mStatusCodeName + ", Link State: " + linkState + ", Reason: " + reason);
+    }
+
+    @Override
+    public int getOpCode() {
+        return OP_CODE;
+    }
+
+    /**
+     * Returns the link state of the server, one of LINK_STATE_*.
+     */
+    public int getLinkState() {
+        return linkState;
+    }
+
+    /**
+     * Returns the reason the link was closed by the device or null if none was given.
+     */
+    @Nullable
+    public Integer getReason() {
+        return reason;
+    }
+}
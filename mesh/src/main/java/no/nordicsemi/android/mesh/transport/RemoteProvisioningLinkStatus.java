@@ -0,0 +1,49 @@
+package no.nordicsemi.android.mesh.transport;
+
+import androidx.annotation.NonNull;
+import no.nordicsemi.android.mesh.logger.MeshLogger;
+import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+/**
+ * Creates the RemoteProvisioningLinkStatus message, sent by a Remote Provisioning Server in response to
+ * opening or closing a link.
+ */
+@SuppressWarnings("WeakerAccess")
+public class RemoteProvisioningLinkStatus extends RemoteProvisioningStatusMessage {
+
+    private static final String TAG = RemoteProvisioningLinkStatus.class.getSimpleName();
+    private static final int OP_CODE = ConfigMessageOpCodes.REMOTE_PROVISIONING_LINK_STATUS;
+
+    private int linkState;
+
+    /**
+     * Constructs RemoteProvisioningLinkStatus message.
+     *
+     * @param message {@link AccessMessage}
+     */
+    public RemoteProvisioningLinkStatus(@NonNull final AccessMessage message) {
+        super(message);
+        mParameters = message.getParameters();
+        parseStatusParameters();
+    }
+
+    @Override
+    void parseStatusParameters() {
+        setStatusCode(MeshParserUtils.unsignedByteToInt(mParameters[0]));
+        linkState = MeshParserUtils.unsignedByteToInt(mParameters[1]);
+        MeshLogger.debug(TAG, "Status: " + mStatusCodeName + ", Link State: " + linkState);
+    }
+
+    @Override
+    public int getOpCode() {
+        return OP_CODE;
+    }
+
+    /**
+     * Returns the link state of the server, one of LINK_STATE_*.
+     */
+    public int getLinkState() {
+        return linkState;
+    }
+}
@@ -0,0 +1,47 @@
+package no.nordicsemi.android.mesh.transport;
+
+import androidx.annotation.NonNull;
+import no.nordicsemi.android.mesh.logger.MeshLogger;
+import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+/**
+ * Creates the RemoteProvisioningPduOutboundReport message, sent by a Remote Provisioning Server once a
+ * provisioning PDU was delivered to the device.
+ */
+public class RemoteProvisioningPduOutboundReport extends ConfigStatusMessage {
+
+    private static final String TAG = RemoteProvisioningPduOutboundReport.class.getSimpleName();
+    private static final int OP_CODE = ConfigMessageOpCodes.REMOTE_PROVISIONING_PDU_OUTBOUND_REPORT;
+
+    private int outboundPduNumber;
+
+    /**
+     * Constructs RemoteProvisioningPduOutboundReport message.
+     *
+     * @param message {@link AccessMessage}
+     */
+    public RemoteProvisioningPduOutboundReport(@NonNull final AccessMessage message) {
+        super(message);
+        mParameters = message.getParameters();
+        parseStatusParameters();
+    }
+
+    @Override
+    void parseStatusParameters() {
+        outboundPduNumber = MeshParserUtils.unsignedByteToInt(mParameters[0]);
+        MeshLogger.debug(TAG, "Outbound PDU Number: " + outboundPduNumber);
+    }
+
+    @Override
+    public int getOpCode() {
+        return OP_CODE;
+    }
+
+    /**
+     * Returns the number of the provisioning pdu delivered.
+     */
+    public int getOutboundPduNumber() {
+        return outboundPduNumber;
+    }
+}
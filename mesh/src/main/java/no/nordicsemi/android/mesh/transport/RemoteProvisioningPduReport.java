@@ -0,0 +1,60 @@
+package no.nordicsemi.android.mesh.transport;
+
+import java.util.Arrays;
+
+import androidx.annotation.NonNull;
+import no.nordicsemi.android.mesh.logger.MeshLogger;
+import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+/**
+ * Creates the RemoteProvisioningPduReport message, carrying a provisioning PDU received by a Remote
+ * Provisioning Server from the device.
+ */
+public class RemoteProvisioningPduReport extends ConfigStatusMessage {
+
+    private static final String TAG = RemoteProvisioningPduReport.class.getSimpleName();
+    private static final int OP_CODE = ConfigMessageOpCodes.REMOTE_PROVISIONING_PDU_REPORT;
+
+    private int inboundPduNumber;
+    private byte[] provisioningPdu;
+
+    /**
+     * Constructs RemoteProvisioningPduReport message.
+     *
+     * @param message {@link AccessMessage}
+     */
+    public RemoteProvisioningPduReport(@NonNull final AccessMessage message) {
+        super(message);
+        mParameters = message.getParameters();
+        parseStatusParameters();
+    }
+
+    @Override
+    void parseStatusParameters() {
+        inboundPduNumber = MeshParserUtils.unsignedByteToInt(mParameters[0]);
+        provisioningPdu = Arrays.copyOfRange(mParameters, 1, mParameters.length);
+        MeshLogger.debug(TAG, "Inbound PDU Number: " + inboundPduNumber
+                + ", Provisioning PDU: " + MeshParserUtils.bytesToHex(provisioningPdu, false));
+    }
+
+    @Override
+    public int getOpCode() {
+        return OP_CODE;
+    }
+
+    /**
+     * Returns the number of the provisioning pdu on the link.
+     */
+    public int getInboundPduNumber() {
+        return inboundPduNumber;
+    }
+
+    /**
+     * Returns the provisioning pdu starting with the provisioning pdu type.
+     */
+    @NonNull
+    public byte[] getProvisioningPdu() {
+        return provisioningPdu;
+    }
+}
@@ -0,0 +1,60 @@
+package no.nordicsemi.android.mesh.transport;
+
+import java.nio.ByteBuffer;
+
+import androidx.annotation.NonNull;
+import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+
+/**
+ * Creates the RemoteProvisioningPduSend message, carrying a provisioning PDU from the provisioner to the
+ * device through a Remote Provisioning Server.
+ */
+public class RemoteProvisioningPduSend extends ConfigMessage {
+
+    private static final String TAG = RemoteProvisioningPduSend.class.getSimpleName();
+    private static final int OP_CODE = ConfigMessageOpCodes.REMOTE_PROVISIONING_PDU_SEND;
+    private final int outboundPduNumber;
+    private final byte[] provisioningPdu;
+
+    /**
+     * Constructs RemoteProvisioningPduSend message.
+     *
+     * @param outboundPduNumber number of the pdu on the link, in range 0 to 255
+     * @param provisioningPdu   provisioning pdu starting with the provisioning pdu type
+     * @throws IllegalArgumentException if the pdu number is out of range or the pdu is empty
+     */
+    public RemoteProvisioningPduSend(final int outboundPduNumber, @NonNull final byte[] provisioningPdu) {
+        if (outboundPduNumber < 0 || outboundPduNumber > 0xFF)
+            throw new IllegalArgumentException("Outbound PDU number must be in range 0 to 255");
+        if (provisioningPdu.length == 0)
+            throw new IllegalArgumentException("Provisioning PDU cannot be empty");
+        this.outboundPduNumber = outboundPduNumber;
+        this.provisioningPdu = provisioningPdu;
+        assembleMessageParameters();
+    }
+
+    @Override
+    public int getOpCode() {
+        return OP_CODE;
+    }
+
+    @Override
+    void assembleMessageParameters() {
+        mParameters = ByteBuffer.allocate(1 + provisioningPdu.length)
+                .put((byte) outboundPduNumber)
+                .put(provisioningPdu)
+                .array();
+    }
+
+    public int getOutboundPduNumber() {
+        return outboundPduNumber;
+    }
+
+    /**
+     * Returns the provisioning pdu starting with the provisioning pdu type.
+     */
+    @NonNull
+    public byte[] getProvisioningPdu() {
+        return provisioningPdu;
+    }
+}
@@ -0,0 +1,82 @@
+package no.nordicsemi.android.mesh.transport;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.logger.MeshLogger;
+import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+
+/**
+ * Creates the RemoteProvisioningScanReport message, reporting an unprovisioned device found by a
+ * Remote Provisioning Server.
+ */
+@SuppressWarnings("WeakerAccess")
+public class RemoteProvisioningScanReport extends ConfigStatusMessage {
+
+    private static final String TAG = RemoteProvisioningScanReport.class.getSimpleName();
+    private static final int OP_CODE = ConfigMessageOpCodes.REMOTE_PROVISIONING_SCAN_REPORT;
+
+    private int rssi;
+    private UUID deviceUuid;
+    private int oobInformation;
+    private Integer uriHash;
+
+    /**
+     * Constructs RemoteProvisioningScanReport message.
+     *
+     * @param message {@link AccessMessage}
+     */
+    public RemoteProvisioningScanReport(@NonNull final AccessMessage message) {
+        super(message);
+        mParameters = message.getParameters();
+        parseStatusParameters();
+    }
+
+    @Override
+    void parseStatusParameters() {
+        final ByteBuffer buffer = ByteBuffer.wrap(mParameters);
+        rssi = buffer.get();
+        deviceUuid = new UUID(buffer.getLong(), buffer.getLong());
+        oobInformation = buffer.order(ByteOrder.LITTLE_ENDIAN).getShort() & 0xFFFF;
+        uriHash = buffer.remaining() >= 4 ? buffer.getInt() : null;
+        MeshLogger.debug(TAG, "Device: " + deviceUuid + ", RSSI: " + rssi + " dBm, OOB Information: " + oobInformation);
+    }
+
+    @Override
+    public int getOpCode() {
+        return OP_CODE;
+    }
+
+    /**
+     * Returns the signal strength of the device in dBm as received by the server.
+     */
+    public int getRssi() {
+        return rssi;
+    }
+
+    /**
+     * Returns the device uuid of the unprovisioned device.
+     */
+    @NonNull
+    public UUID getDeviceUuid() {
+        return deviceUuid;
+    }
+
+    /**
+     * Returns the OOB information of the unprovisioned device.
+     */
+    public int getOobInformation() {
+        return oobInformation;
+    }
+
+    /**
+     * Returns the hash of the URI advertised by the device or null if the device does not advertise one.
+     */
+    @Nullable
+    public Integer getUriHash() {
+        return uriHash;
+    }
+}
@@ -0,0 +1,56 @@
+package no.nordicsemi.android.mesh.transport;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+/**
+ * Creates the RemoteProvisioningScanStart message, starting a Remote Provisioning Server scanning for
+ * unprovisioned devices.
+ */
+public class RemoteProvisioningScanStart extends ConfigMessage {
+
+    private static final String TAG = RemoteProvisioningScanStart.class.getSimpleName();
+    private static final int OP_CODE = ConfigMessageOpCodes.REMOTE_PROVISIONING_SCAN_START;
+    private final int scannedItemsLimit;
+    private final int timeout;
+    private final UUID deviceUuid;
+
+    /**
+     * Constructs RemoteProvisioningScanStart message.
+     *
+     * @param scannedItemsLimit maximum number of devices reported, 0 for the limit of the server
+     * @param timeout           scan duration in seconds, in range 1 to 255
+     * @param deviceUuid        uuid of the only device to be scanned for or null to scan for all devices
+     * @throws IllegalArgumentException if the limit or the timeout are out of range
+     */
+    public RemoteProvisioningScanStart(final int scannedItemsLimit, final int timeout, @Nullable final UUID deviceUuid) {
+        if (scannedItemsLimit < 0 || scannedItemsLimit > 0xFF)
+            throw new IllegalArgumentException("Scanned items limit must be in range 0 to 255");
+        if (timeout < 1 || timeout > 0xFF)
+            throw new IllegalArgumentException("Timeout must be in range 1 to 255 seconds");
+        this.scannedItemsLimit = scannedItemsLimit;
+        this.timeout = timeout;
+        this.deviceUuid = deviceUuid;
+        assembleMessageParameters();
+    }
+
+    @Override
+    public int getOpCode() {
+        return OP_CODE;
+    }
+
+    @Override
+    void assembleMessageParameters() {
+        final ByteBuffer buffer = ByteBuffer.allocate(deviceUuid == null ? 2 : 18);
+        buffer.put((byte) scannedItemsLimit);
+        buffer.put((byte) timeout);
+        if (deviceUuid != null) {
+            buffer.put(MeshParserUtils.uuidToBytes(deviceUuid));
+        }
+        mParameters = buffer.array();
+    }
+}
@@ -0,0 +1,71 @@
+package no.nordicsemi.android.mesh.transport;
+
+import androidx.annotation.NonNull;
+import no.nordicsemi.android.mesh.logger.MeshLogger;
+import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+/**
+ * Creates the RemoteProvisioningScanStatus message.
+ */
+@SuppressWarnings("WeakerAccess")
+public class RemoteProvisioningScanStatus extends RemoteProvisioningStatusMessage {
+
+    private static final String TAG = RemoteProvisioningScanStatus.class.getSimpleName();
+    private static final int OP_CODE = ConfigMessageOpCodes.REMOTE_PROVISIONING_SCAN_STATUS;
+
+    public static final int SCANNING_STATE_IDLE = 0x00;
+    public static final int SCANNING_STATE_MULTIPLE_DEVICES = 0x01;
+    public static final int SCANNING_STATE_SINGLE_DEVICE = 0x02;
+
+    private int scanningState;
+    private int scannedItemsLimit;
+    private int timeout;
+
+    /**
+     * Constructs RemoteProvisioningScanStatus message.
+     *
+     * @param message {@link AccessMessage}
+     */
+    public RemoteProvisioningScanStatus(@NonNull final AccessMessage message) {
+        super(message);
+        mParameters = message.getParameters();
+        parseStatusParameters();
+    }
+
+    @Override
+    void parseStatusParameters() {
+        setStatusCode(MeshParserUtils.unsignedByteToInt(mParameters[0]));
+        scanningState = MeshParserUtils.unsignedByteToInt(mParameters[1]);
+        scannedItemsLimit = MeshParserUtils.unsignedByteToInt(mParameters[2]);
+        timeout = MeshParserUtils.unsignedByteToInt(mParameters[3]);
+        MeshLogger.debug(TAG, "Status: " + mStatusCodeName + ", Scanning State: " + scanningState
+                + ", Scanned Items Limit: " + scannedItemsLimit + ", Timeout: " + timeout);
+    }
+
+    @Override
+    public int getOpCode() {
+        return OP_CODE;
+    }
+
+    /**
+     * Returns the scanning state of the server, one of SCANNING_STATE_*.
+     */
+    public int getScanningState() {
+        return scanningState;
+    }
+
+    /**
+     * Returns the maximum number of devices reported by the scan.
+     */
+    public int getScannedItemsLimit() {
+        return scannedItemsLimit;
+    }
+
+    /**
+     * Returns the time left of the scan in seconds.
+     */
+    public int getTimeout() {
+        return timeout;
+    }
+}
@@ -72,6 +72,8 @@ abstract class UpperTransportLayer extends AccessLayer {
     private static final int MAXIMUM_TRANSMIC_LENGTH = 8; // bytes
 
     UpperTransportLayerCallbacks mUpperTransportLayerCallbacks;
+    ApplicationKeyIndex mApplicationKeyIndex = new ApplicationKeyIndex();
+    VirtualLabelIndex mVirtualLabelIndex = new VirtualLabelIndex();
 
     /**
      * Creates lower transport pdu
@@ -291,55 +293,57 @@ abstract class UpperTransportLayer extends AccessLayer {
     }
 
     private byte[] decrypt(@NonNull final AccessMessage accessMessage, @NonNull final List<Group> groups, @NonNull List<ApplicationKey> keys, final byte[] nonce, final int transportMicLength) {
-        for (ApplicationKey key : keys) {
-            for (Group group : groups) {
-                if(group.getAddressLabel() != null) {
-                    if (key.getAid() == accessMessage.getAid()) {
-                        try {
-                            return SecureUtils
-                                    .decryptCCM(accessMessage.getUpperTransportPdu(), key.getKey(), nonce, MeshParserUtils.uuidToBytes(group.getAddressLabel()), transportMicLength);
-                        } catch (Exception ex) {
-                            // Retrying decryption
-                        }
-                    }
-                    if (key.getOldAid() == accessMessage.getAid()) {
-
-                        try {
-                            return SecureUtils
-                                    .decryptCCM(accessMessage.getUpperTransportPdu(), key.getOldKey(), nonce, MeshParserUtils.uuidToBytes(group.getAddressLabel()), transportMicLength);
-                        } catch (Exception ex) {
-                            // Retrying decryption
-                        }
-                    }
+        final List<byte[]> labels = mVirtualLabelIndex.getLabels(groups, accessMessage.getDst());
+        if (labels.isEmpty())
+            return null;
+        final List<ApplicationKeyIndex.Candidate> candidates = mApplicationKeyIndex.getCandidates(accessMessage.getNetworkKey().getKeyIndex(),
+                keys, accessMessage.getAid(), accessMessage.getSrc());
+        int attempts = 0;
+        byte[] pdu = null;
+        for (ApplicationKeyIndex.Candidate candidate : candidates) {
+            for (byte[] label : labels) {
+                attempts++;
+                pdu = candidate.decrypt(accessMessage.getUpperTransportPdu(), nonce, label, transportMicLength);
+                if (pdu != null) {
+                    onKeyMatched(accessMessage, candidate);
+                    break;
                 }
             }
+            if (pdu != null)
+                break;
         }
-        return null;
+        mVirtualLabelIndex.addAttempts(attempts);
+        if (attempts > 1) {
+            MeshLogger.verbose(TAG, attempts + " decryption attempts for message to virtual address " +
+                    MeshAddress.formatAddress(accessMessage.getDst(), true));
+        }
+        return pdu;
     }
 
     private byte[] decrypt(@NonNull final AccessMessage accessMessage, @NonNull List<ApplicationKey> keys, final byte[] nonce, final int transportMicLength) {
-        for (ApplicationKey key : keys) {
-            if (key.getAid() == accessMessage.getAid()) {
-                try {
-                    return SecureUtils
-                            .decryptCCM(accessMessage.getUpperTransportPdu(), key.getKey(), nonce, transportMicLength);
-                } catch (Exception ex) {
-                    // Retrying decryption.
-                }
-
-            }
-            if (key.getOldAid() == accessMessage.getAid()) {
-                try {
-                    return SecureUtils
-                            .decryptCCM(accessMessage.getUpperTransportPdu(), key.getKey(), nonce, transportMicLength);
-                } catch (Exception ex) {
-                    // Retrying decryption.
-                }
+        final List<ApplicationKeyIndex.Candidate> candidates = mApplicationKeyIndex.getCandidates(accessMessage.getNetworkKey().getKeyIndex(),
+                keys, accessMessage.getAid(), accessMessage.getSrc());
+        for (ApplicationKeyIndex.Candidate candidate : candidates) {
+            final byte[] pdu = candidate.decrypt(accessMessage.getUpperTransportPdu(), nonce, null, transportMicLength);
+            if (pdu != null) {
+                onKeyMatched(accessMessage, candidate);
+                return pdu;
             }
         }
         return null;
     }
 
+    /**
+     * Sets the application key that decrypted the message and remembers it for the next message from the same source.
+     */
+    private void onKeyMatched(@NonNull final AccessMessage accessMessage, @NonNull final ApplicationKeyIndex.Candidate candidate) {
+        mApplicationKeyIndex.setMatchedKey(accessMessage.getSrc(), candidate.key);
+        accessMessage.setApplicationKey(candidate.key);
+        if (candidate.oldKey) {
+            MeshLogger.verbose(TAG, "Message decrypted using the old key of application key " + candidate.key.getKeyIndex());
+        }
+    }
+
     /**
      * Creates the application nonce
      *
@@ -0,0 +1,116 @@
+package no.nordicsemi.android.mesh.transport;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+import no.nordicsemi.android.mesh.Group;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+/**
+ * Indexes the label UUIDs of the virtual groups by their virtual address, so that only the labels
+ * hashing to the destination of a received message are tried when decrypting it.
+ * <p>
+ * Labels are kept as byte arrays ready to be used as additional data. The index is rebuilt when the
+ * groups, or the address or label of any group, differ from those it was built from. The list itself is
+ * not compared, as the network returns a new unmodifiable view of its groups on each call. The number of decryption
+ * attempts is counted so that collisions between virtual addresses can be observed.
+ * </p>
+ */
+final class VirtualLabelIndex {
+
+    private final Map<Integer, List<byte[]>> labels = new HashMap<>();
+    private final Map<UUID, byte[]> convertedLabels = new HashMap<>();
+    private Group[] indexedGroups = new Group[0];
+    private int[] indexedAddresses = new int[0];
+    private UUID[] indexedLabels = new UUID[0];
+    private long messages;
+    private long attempts;
+
+    /**
+     * Returns the labels, as bytes, of the virtual groups with the given address.
+     *
+     * @param groups  groups of the network
+     * @param address virtual address
+     */
+    @NonNull
+    synchronized List<byte[]> getLabels(@NonNull final List<Group> groups, final int address) {
+        if (!matches(groups)) {
+            rebuild(groups);
+        }
+        final List<byte[]> list = labels.get(address);
+        return list == null ? Collections.<byte[]>emptyList() : list;
+    }
+
+    /**
+     * Records the number of decryption attempts made for a message sent to a virtual address.
+     *
+     * @param count number of attempts
+     */
+    synchronized void addAttempts(final int count) {
+        messages++;
+        attempts += count;
+    }
+
+    /**
+     * Returns the number of messages to virtual addresses that decryption was attempted for.
+     */
+    synchronized long getMessageCount() {
+        return messages;
+    }
+
+    /**
+     * Returns the total number of decryption attempts made for messages to virtual addresses.
+     */
+    synchronized long getAttemptCount() {
+        return attempts;
+    }
+
+    private boolean matches(@NonNull final List<Group> groups) {
+        if (groups.size() != indexedGroups.length)
+            return false;
+        for (int i = 0; i < indexedGroups.length; i++) {
+            final Group group = groups.get(i);
+            final UUID label = group.getAddressLabel();
+            if (group != indexedGroups[i] || group.getAddress() != indexedAddresses[i] ||
+                    (label == null ? indexedLabels[i] != null : !label.equals(indexedLabels[i])))
+                return false;
+        }
+        return true;
+    }
+
+    private void rebuild(@NonNull final List<Group> groups) {
+        // Labels converted for the previous index are reused, those no longer in use are dropped
+        final Map<UUID, byte[]> converted = new HashMap<>(convertedLabels);
+        convertedLabels.clear();
+        labels.clear();
+        indexedGroups = groups.toArray(new Group[0]);
+        indexedAddresses = new int[indexedGroups.length];
+        indexedLabels = new UUID[indexedGroups.length];
+        for (int i = 0; i < indexedGroups.length; i++) {
+            final Group group = indexedGroups[i];
+            final UUID label = group.getAddressLabel();
+            indexedAddresses[i] = group.getAddress();
+            indexedLabels[i] = label;
+            if (label == null)
+                continue;
+            byte[] bytes = converted.get(label);
+            if (bytes == null) {
+                bytes = MeshParserUtils.uuidToBytes(label);
+            }
+            convertedLabels.put(label, bytes);
+            List<byte[]> list = labels.get(group.getAddress());
+            if (list == null) {
+                list = new ArrayList<>(1);
+                labels.put(group.getAddress(), list);
+            }
+            if (!list.contains(bytes)) {
+                list.add(bytes);
+            }
+        }
+    }
+}
@@ -111,6 +111,11 @@ public class SecureUtils {
      * Salt input for beacon key
      */
     private static final byte[] NKBK = "nkbk".getBytes(Charset.forName("US-ASCII"));
+
+    /**
+     * Salt input for private beacon key
+     */
+    private static final byte[] NKPK = "nkpk".getBytes(Charset.forName("US-ASCII"));
     /**
      * Salt input for identity key
      */
@@ -339,6 +344,8 @@ public class SecureUtils {
      * @return hash value
      */
     public static byte[] calculateBeaconKey(final byte[] n) {
+        if (n == null)
+            return null;
         final byte[] salt = calculateSalt(NKBK);
         ByteBuffer buffer = ByteBuffer.allocate(ID128.length + 1);
         buffer.put(ID128);
@@ -347,6 +354,23 @@ public class SecureUtils {
         return calculateK1(n, salt, p);
     }
 
+    /**
+     * Calculates the private beacon key
+     *
+     * @param n network key
+     * @return hash value
+     */
+    public static byte[] calculatePrivateBeaconKey(final byte[] n) {
+        if (n == null)
+            return null;
+        final byte[] salt = calculateSalt(NKPK);
+        ByteBuffer buffer = ByteBuffer.allocate(ID128.length + 1);
+        buffer.put(ID128);
+        buffer.put((byte) 0x01);
+        final byte[] p = buffer.array();
+        return calculateK1(n, salt, p);
+    }
+
     /**
      * Calculates the authentication value of secure network beacon
      *
@@ -359,12 +383,26 @@ public class SecureUtils {
                                                            final int flags,
                                                            @NonNull final byte[] networkId,
                                                            final int ivIndex) {
+        return calculateBeaconAuthValue(calculateBeaconKey(n), flags, networkId, ivIndex);
+    }
+
+    /**
+     * Calculates the authentication value of secure network beacon using a precomputed beacon key
+     *
+     * @param beaconKey beacon key derived from the network key
+     * @param flags     flags
+     * @param networkId network id of the network
+     * @param ivIndex   ivindex of the network
+     */
+    public static byte[] calculateBeaconAuthValue(@NonNull final byte[] beaconKey,
+                                                  final int flags,
+                                                  @NonNull final byte[] networkId,
+                                                  final int ivIndex) {
         final int inputLength = 1 + networkId.length + 4;
         final ByteBuffer pBuffer = ByteBuffer.allocate(inputLength);
         pBuffer.put((byte) flags);
         pBuffer.put(networkId);
         pBuffer.putInt(ivIndex);
-        final byte[] beaconKey = calculateBeaconKey(n);
         return calculateCMAC(pBuffer.array(), beaconKey);
     }
 
@@ -0,0 +1,148 @@
+package no.nordicsemi.android.mesh.utils;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+/**
+ * Reads values written by {@link SnapshotWriter} from a {@link ByteBuffer}, which may be a
+ * memory mapped file.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public final class SnapshotReader {
+
+    private final ByteBuffer buffer;
+
+    /**
+     * Constructs a snapshot reader reading from the current position of the given buffer.
+     *
+     * @param buffer buffer to read from
+     */
+    public SnapshotReader(@NonNull final ByteBuffer buffer) {
+        this.buffer = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Reads a single unsigned byte.
+     */
+    public int readByte() {
+        return buffer.get() & 0xFF;
+    }
+
+    /**
+     * Reads a boolean written as a single byte.
+     */
+    public boolean readBoolean() {
+        return buffer.get() != 0;
+    }
+
+    /**
+     * Reads an unsigned 32-bit varint.
+     *
+     * @throws IllegalArgumentException if the varint is malformed
+     */
+    public int readVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            final byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IllegalArgumentException("Malformed varint in mesh network snapshot");
+    }
+
+    /**
+     * Reads an unsigned 64-bit varint.
+     *
+     * @throws IllegalArgumentException if the varint is malformed
+     */
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            final byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IllegalArgumentException("Malformed varint in mesh network snapshot");
+    }
+
+    /**
+     * Reads a nullable integer written with {@link SnapshotWriter#writeNullableVarInt(Integer)}.
+     */
+    @Nullable
+    public Integer readNullableVarInt() {
+        final int value = readVarInt();
+        return value == 0 ? null : value - 1;
+    }
+
+    /**
+     * Reads a length prefixed byte array.
+     */
+    @Nullable
+    public byte[] readBytes() {
+        final int length = readVarInt();
+        if (length == 0)
+            return null;
+        return readRawBytes(length - 1);
+    }
+
+    /**
+     * Reads the given number of bytes.
+     *
+     * @param length number of bytes
+     */
+    @NonNull
+    public byte[] readRawBytes(final int length) {
+        if (length < 0 || length > buffer.remaining())
+            throw new BufferUnderflowException();
+        final byte[] value = new byte[length];
+        buffer.get(value);
+        return value;
+    }
+
+    /**
+     * Reads a length prefixed UTF-8 string.
+     */
+    @Nullable
+    public String readString() {
+        final byte[] value = readBytes();
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a nullable UUID.
+     */
+    @Nullable
+    public UUID readUuid() {
+        if (!readBoolean())
+            return null;
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * Reads a UUID string written with {@link SnapshotWriter#writeUuidString(String)}.
+     */
+    @Nullable
+    public String readUuidString() {
+        if (readBoolean()) {
+            return new UUID(buffer.getLong(), buffer.getLong()).toString().toUpperCase(Locale.US);
+        }
+        return readString();
+    }
+
+    /**
+     * Returns the number of bytes remaining.
+     */
+    public int remaining() {
+        return buffer.remaining();
+    }
+}
@@ -0,0 +1,208 @@
+package no.nordicsemi.android.mesh.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+/**
+ * Growable byte buffer used to write the compact binary snapshot of a mesh network.
+ * <p>
+ * Integers are written as unsigned LEB128 varints, so 16-bit addresses and 12-bit key indexes
+ * take at most 3 and 2 bytes respectively. Nullable values are prefixed with a presence marker.
+ * </p>
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public final class SnapshotWriter {
+
+    private byte[] buf;
+    private int size;
+
+    /**
+     * Constructs a new snapshot writer.
+     */
+    public SnapshotWriter() {
+        this(1024);
+    }
+
+    /**
+     * Constructs a new snapshot writer with the given initial buffer size.
+     *
+     * @param initialSize initial buffer size in bytes
+     */
+    public SnapshotWriter(final int initialSize) {
+        buf = new byte[Math.max(16, initialSize)];
+    }
+
+    private void ensureCapacity(final int extra) {
+        if (size + extra > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length << 1, size + extra));
+        }
+    }
+
+    /**
+     * Writes a single byte.
+     *
+     * @param value byte value
+     */
+    public void writeByte(final int value) {
+        ensureCapacity(1);
+        buf[size++] = (byte) value;
+    }
+
+    /**
+     * Writes a boolean as a single byte.
+     *
+     * @param value boolean value
+     */
+    public void writeBoolean(final boolean value) {
+        writeByte(value ? 1 : 0);
+    }
+
+    /**
+     * Writes an unsigned 32-bit varint.
+     *
+     * @param value value, treated as unsigned
+     */
+    public void writeVarInt(int value) {
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            buf[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf[size++] = (byte) value;
+    }
+
+    /**
+     * Writes an unsigned 64-bit varint.
+     *
+     * @param value value, treated as unsigned
+     */
+    public void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buf[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf[size++] = (byte) value;
+    }
+
+    /**
+     * Writes a nullable integer, where null is encoded as 0 and any other value as value + 1.
+     *
+     * @param value nullable value
+     */
+    public void writeNullableVarInt(@Nullable final Integer value) {
+        writeVarInt(value == null ? 0 : value + 1);
+    }
+
+    /**
+     * Writes a length prefixed byte array, where null is encoded with a length of 0.
+     *
+     * @param value nullable byte array
+     */
+    public void writeBytes(@Nullable final byte[] value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        writeVarInt(value.length + 1);
+        writeRawBytes(value);
+    }
+
+    /**
+     * Writes the bytes as they are without a length prefix.
+     *
+     * @param value byte array
+     */
+    public void writeRawBytes(@NonNull final byte[] value) {
+        ensureCapacity(value.length);
+        System.arraycopy(value, 0, buf, size, value.length);
+        size += value.length;
+    }
+
+    /**
+     * Writes a length prefixed UTF-8 string.
+     *
+     * @param value nullable string
+     */
+    public void writeString(@Nullable final String value) {
+        writeBytes(value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes a nullable UUID as 16 raw bytes.
+     *
+     * @param uuid nullable uuid
+     */
+    public void writeUuid(@Nullable final UUID uuid) {
+        if (uuid == null) {
+            writeBoolean(false);
+            return;
+        }
+        writeBoolean(true);
+        writeLong(uuid.getMostSignificantBits());
+        writeLong(uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Writes a UUID string. Upper case UUIDs in the canonical format used by the library are
+     * stored as 16 raw bytes, anything else is stored as it is.
+     *
+     * @param uuid uuid string
+     */
+    public void writeUuidString(@NonNull final String uuid) {
+        UUID value = null;
+        try {
+            value = UUID.fromString(uuid);
+            if (!value.toString().toUpperCase(Locale.US).equals(uuid)) {
+                value = null;
+            }
+        } catch (IllegalArgumentException ignored) {
+            // Not a canonical uuid, will be written as a string
+        }
+        if (value != null) {
+            writeUuid(value);
+        } else {
+            writeBoolean(false);
+            writeString(uuid);
+        }
+    }
+
+    private void writeLong(final long value) {
+        ensureCapacity(8);
+        for (int i = 7; i >= 0; i--) {
+            buf[size++] = (byte) (value >>> (i * 8));
+        }
+    }
+
+    /**
+     * Returns the number of bytes written so far.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a copy of the bytes written so far.
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buf, size);
+    }
+
+    /**
+     * Writes the bytes written so far to the given output stream.
+     *
+     * @param outputStream output stream
+     * @throws IOException if writing to the stream fails
+     */
+    public void writeTo(@NonNull final OutputStream outputStream) throws IOException {
+        outputStream.write(buf, 0, size);
+    }
+}
@@ -0,0 +1,71 @@
+package no.nordicsemi.android.mesh;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AddressAllocationTest {
+
+    private final ImportExportUtils importExportUtils = new ImportExportUtils();
+
+    @Test
+    public void testNextAvailableUnicastAddress() {
+        final MeshNetwork network = importNetwork(10);
+        final Provisioner provisioner = network.getSelectedProvisioner();
+        // The last node uses 0x0014 and 0x0015
+        assertEquals(0x0016, network.nextAvailableUnicastAddress(2, provisioner));
+        assertEquals(Arrays.asList(0x0016, 0x0019, 0x001C, 0x001F),
+                network.nextAvailableUnicastAddresses(3, 4, provisioner));
+
+        // Addresses of a removed node stay excluded for the current IV Index
+        assertTrue(network.deleteNode(network.getNode(0x0004)));
+        assertEquals(0x0016, network.nextAvailableUnicastAddress(2, provisioner));
+
+        network.setNetworkExclusions(new HashMap<>());
+        assertEquals(0x0004, network.nextAvailableUnicastAddress(2, provisioner));
+        assertEquals(0x0016, network.nextAvailableUnicastAddress(3, provisioner));
+    }
+
+    @Test
+    public void testExcludedAddressesAreSkipped() {
+        final MeshNetwork network = importNetwork(1);
+        final Provisioner provisioner = network.getSelectedProvisioner();
+        provisioner.setAllocatedUnicastRanges(Collections.singletonList(new AllocatedUnicastRange(0x6FFE, 0x7003)));
+        // 0x7000 and 0x7001 are excluded by the test network
+        assertEquals(Arrays.asList(0x6FFE, 0x7002), network.nextAvailableUnicastAddresses(2, 3, provisioner));
+    }
+
+    @Test
+    public void testNextAvailableGroupAddressAndSceneNumber() {
+        final MeshNetwork network = importNetwork(1);
+        final Provisioner provisioner = network.getSelectedProvisioner();
+        assertEquals(Integer.valueOf(0xC001), network.nextAvailableGroupAddress(provisioner));
+        assertTrue(network.addGroup(network.createGroup(provisioner, "Bedroom")));
+        assertEquals(Integer.valueOf(0xC002), network.nextAvailableGroupAddress(provisioner));
+
+        assertEquals(Integer.valueOf(0x0002), network.nextAvailableSceneNumber(provisioner));
+        assertTrue(network.addScene(network.createScene(provisioner, "Morning")));
+        assertEquals(Integer.valueOf(0x0003), network.nextAvailableSceneNumber(provisioner));
+    }
+
+    @Test
+    public void testRepeatedLookupsReuseTheIndex() {
+        final MeshNetwork network = importNetwork(100);
+        final Provisioner provisioner = network.getSelectedProvisioner();
+        // The first call builds the index, the following ones reuse it
+        assertEquals(2 * 100 + 2, network.nextAvailableUnicastAddress(1, provisioner));
+        assertEquals(2 * 100 + 2, network.nextAvailableUnicastAddress(1, provisioner));
+        assertEquals(Arrays.asList(2 * 100 + 2, 2 * 100 + 3), network.nextAvailableUnicastAddresses(1, 2, provisioner));
+    }
+
+    private MeshNetwork importNetwork(final int nodeCount) {
+        final MeshNetwork network = importExportUtils.importNetwork(TestMeshNetworks.buildNetworkJson(nodeCount));
+        network.getProvisioners().get(0).setLastSelected(true);
+        return network;
+    }
+}
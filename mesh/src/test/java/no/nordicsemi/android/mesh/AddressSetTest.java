@@ -0,0 +1,60 @@
+package no.nordicsemi.android.mesh;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AddressSetTest {
+
+    @Test
+    public void testAdjacentAndOverlappingIntervalsAreMerged() {
+        final AddressSet set = new AddressSet();
+        set.add(0x0001, 0x0002);
+        set.add(0x0005, 0x0006);
+        set.add(0x0003, 0x0004);
+        assertEquals(1, set.intervalCount());
+
+        set.add(0x0010, 0x0020);
+        set.add(0x0008, 0x0018);
+        assertEquals(2, set.intervalCount());
+        assertTrue(set.contains(0x0008));
+        assertTrue(set.contains(0x0020));
+        assertFalse(set.contains(0x0007));
+        assertFalse(set.contains(0x0021));
+    }
+
+    @Test
+    public void testRemoveSplitsIntervals() {
+        final AddressSet set = new AddressSet();
+        set.add(0x0001, 0x0010);
+        set.remove(0x0004, 0x0005);
+        assertEquals(2, set.intervalCount());
+        assertTrue(set.contains(0x0003));
+        assertFalse(set.contains(0x0004));
+        assertFalse(set.contains(0x0005));
+        assertTrue(set.contains(0x0006));
+
+        set.add(0x0020, 0x0030);
+        set.remove(0x0002, 0x0025);
+        assertEquals(2, set.intervalCount());
+        assertTrue(set.contains(0x0001));
+        assertFalse(set.intersects(0x0002, 0x0025));
+        assertTrue(set.contains(0x0026));
+    }
+
+    @Test
+    public void testNextFree() {
+        final AddressSet set = new AddressSet();
+        assertEquals(0x0001, set.nextFree(0x0001, 0x7FFF, 4));
+
+        set.add(0x0001, 0x0004);
+        set.add(0x0007, 0x0008);
+        assertEquals(0x0005, set.nextFree(0x0001, 0x7FFF, 2));
+        assertEquals(0x0009, set.nextFree(0x0001, 0x7FFF, 3));
+        assertEquals(0x0006, set.nextFree(0x0006, 0x7FFF, 1));
+        assertEquals(-1, set.nextFree(0x0001, 0x000A, 3));
+        assertEquals(0x0009, set.nextFree(0x0001, 0x000B, 3));
+    }
+}
@@ -0,0 +1,171 @@
+package no.nordicsemi.android.mesh;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import no.nordicsemi.android.mesh.transport.AccessMessage;
+import no.nordicsemi.android.mesh.transport.ConfigCompositionDataStatus;
+import no.nordicsemi.android.mesh.transport.Element;
+import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class CompositionDataCrawlerTest {
+
+    // Page 0, CID 0x0059, PID 0x0001, VID 0x0002, CRPL 0x0028, two elements
+    private static final String COMPOSITION_DATA = "0200" + "5900" + "0100" + "0200" + "2800" + "0300" +
+            "0000" + "03" + "00" + "0000" + "0200" + "0010" +
+            "0100" + "01" + "01" + "0010" + "59000100";
+
+    private final ImportExportUtils importExportUtils = new ImportExportUtils();
+    private final List<Integer> received = new ArrayList<>();
+    private final List<Integer> reused = new ArrayList<>();
+    private final List<Integer> failed = new ArrayList<>();
+    private final List<Integer> progress = new ArrayList<>();
+    private final CompositionDataCrawler.Callbacks callbacks = new CompositionDataCrawler.Callbacks() {
+        @Override
+        public void onCompositionDataReceived(@NonNull final ProvisionedMeshNode node,
+                                              @NonNull final ConfigCompositionDataStatus status,
+                                              final boolean fromCache) {
+            (fromCache ? reused : received).add(node.getUnicastAddress());
+        }
+
+        @Override
+        public void onCompositionDataFailed(@NonNull final ProvisionedMeshNode node) {
+            failed.add(node.getUnicastAddress());
+        }
+
+        @Override
+        public void onProgress(final int completed, final int total) {
+            progress.add(completed);
+        }
+    };
+
+    @Test
+    public void testRequestsAreLimitedToTheConcurrency() {
+        final MeshNetwork network = importNetwork(3);
+        final CompositionDataCrawler crawler = new CompositionDataCrawler(callbacks);
+        crawler.setMaxConcurrency(2);
+        final ProvisionedMeshNode first = node(network, 0x0002);
+        first.setCompanyIdentifier(null);
+        crawler.add(first);
+        crawler.add(node(network, 0x0004));
+        crawler.add(node(network, 0x0006));
+
+        // Nodes with the same identifiers wait for the first one of them
+        final List<Integer> requests = crawler.nextRequests(0);
+        assertEquals(2, requests.size());
+        assertEquals(0x0002, (int) requests.get(0));
+        assertEquals(0x0004, (int) requests.get(1));
+        assertTrue(crawler.nextRequests(10).isEmpty());
+        assertFalse(crawler.isComplete());
+    }
+
+    @Test
+    public void testNodesWithTheSameIdentifiersShareCompositionData() {
+        final MeshNetwork network = importNetwork(3);
+        final CompositionDataCrawler crawler = new CompositionDataCrawler(callbacks);
+        for (int address = 0x0002; address <= 0x0006; address += 2) {
+            crawler.add(node(network, address));
+        }
+
+        final List<Integer> requests = crawler.nextRequests(0);
+        assertEquals(1, requests.size());
+        assertEquals(0x0002, (int) requests.get(0));
+        assertFalse(crawler.onMessageReceived(compositionData(0x0004)));
+        assertTrue(crawler.onMessageReceived(compositionData(0x0002)));
+
+        assertTrue(crawler.nextRequests(10).isEmpty());
+        assertTrue(crawler.isComplete());
+        assertEquals(1, crawler.getReceived());
+        assertEquals(2, crawler.getReused());
+        assertEquals(1, crawler.getSentMessages());
+        assertEquals(1f, crawler.getCoverage(), 0);
+        assertEquals(0x0002, (int) received.get(0));
+        assertEquals(0x0004, (int) reused.get(0));
+        assertEquals(0x0006, (int) reused.get(1));
+
+        // Each node gets elements of its own at its own addresses
+        final ProvisionedMeshNode node = node(network, 0x0006);
+        assertEquals(2, node.getNumberOfElements());
+        assertTrue(node.getElements().containsKey(0x0006));
+        assertTrue(node.getElements().containsKey(0x0007));
+        final Element element = node.getElements().get(0x0006);
+        assertNotSame(element, node(network, 0x0004).getElements().get(0x0004));
+    }
+
+    @Test
+    public void testRequestsAreRetriedBeforeTheNodeFails() {
+        final MeshNetwork network = importNetwork(1);
+        final CompositionDataCrawler crawler = new CompositionDataCrawler(callbacks);
+        crawler.setTimeout(1000);
+        crawler.add(node(network, 0x0002));
+
+        assertEquals(1, crawler.nextRequests(0).size());
+        assertEquals(1000, crawler.getNextTimeout());
+        assertEquals(0, crawler.nextRequests(500).size());
+        assertEquals(1, crawler.nextRequests(1000).size());
+        assertEquals(1, crawler.nextRequests(2000).size());
+        assertEquals(0, crawler.nextRequests(3000).size());
+        assertTrue(crawler.isComplete());
+        assertEquals(1, crawler.getFailed());
+        assertEquals(0f, crawler.getCoverage(), 0);
+        assertEquals(3, crawler.getSentMessages());
+        assertEquals(0x0002, (int) failed.get(0));
+        assertEquals(Long.MAX_VALUE, crawler.getNextTimeout());
+    }
+
+    @Test
+    public void testProgressIsReported() {
+        final MeshNetwork network = importNetwork(2);
+        final CompositionDataCrawler crawler = new CompositionDataCrawler(callbacks);
+        crawler.add(node(network, 0x0002));
+        crawler.add(node(network, 0x0004));
+        crawler.nextRequests(0);
+        crawler.onMessageReceived(compositionData(0x0002));
+        crawler.nextRequests(10);
+
+        assertEquals(2, progress.size());
+        assertEquals(1, (int) progress.get(0));
+        assertEquals(2, (int) progress.get(1));
+        assertEquals(2, crawler.getCompleted());
+        assertEquals(2, crawler.getTotal());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidConcurrency() {
+        new CompositionDataCrawler(null).setMaxConcurrency(0);
+    }
+
+    private static ConfigCompositionDataStatus compositionData(final int src) {
+        final byte[] accessPdu = MeshParserUtils.toByteArray(COMPOSITION_DATA);
+        final AccessMessage message = new AccessMessage();
+        message.setSrc(src);
+        message.setOpCode(0x02);
+        message.setAccessPdu(accessPdu);
+        message.setParameters(accessPdu);
+        return new ConfigCompositionDataStatus(message);
+    }
+
+    private static ProvisionedMeshNode node(final MeshNetwork network, final int address) {
+        // The elements of the provisioner node overlap the first node of the test network
+        for (ProvisionedMeshNode node : network.getNodes()) {
+            if (node.getUnicastAddress() == address)
+                return node;
+        }
+        throw new AssertionError("No node at " + address);
+    }
+
+    private MeshNetwork importNetwork(final int nodeCount) {
+        final MeshNetwork network = importExportUtils.importNetwork(TestMeshNetworks.buildNetworkJson(nodeCount));
+        network.getProvisioners().get(0).setLastSelected(true);
+        return network;
+    }
+}
@@ -0,0 +1,148 @@
+package no.nordicsemi.android.mesh;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import no.nordicsemi.android.mesh.transport.AccessMessage;
+import no.nordicsemi.android.mesh.transport.ConfigModelAppBind;
+import no.nordicsemi.android.mesh.transport.ConfigModelAppStatus;
+import no.nordicsemi.android.mesh.transport.ConfigModelSubscriptionAdd;
+import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ConfigurationPipelineTest {
+
+    private static final int GENERIC_ON_OFF_SERVER = 0x1000;
+
+    private final ImportExportUtils importExportUtils = new ImportExportUtils();
+    private final List<Integer> configured = new ArrayList<>();
+    private final List<String> failures = new ArrayList<>();
+    private final ConfigurationPipeline.Callbacks callbacks = new ConfigurationPipeline.Callbacks() {
+        @Override
+        public void onNodeConfigured(@NonNull final ProvisionedMeshNode node) {
+            configured.add(node.getUnicastAddress());
+        }
+
+        @Override
+        public void onNodeConfigurationFailed(@NonNull final ProvisionedMeshNode node, @NonNull final String reason) {
+            failures.add(reason);
+        }
+    };
+
+    @Test
+    public void testOnlyMissingConfigurationIsSent() {
+        final MeshNetwork network = importNetwork(1);
+        final ConfigurationPipeline pipeline = new ConfigurationPipeline(network, template(), callbacks);
+        // The primary element already has both, the secondary element has neither
+        final List<ConfigurationPipeline.Step> steps = pipeline.diff(node(network, 0x0002));
+        assertEquals(2, steps.size());
+        assertTrue(steps.get(0).message instanceof ConfigModelAppBind);
+        assertTrue(steps.get(1).message instanceof ConfigModelSubscriptionAdd);
+    }
+
+    @Test
+    public void testNodesAreConfiguredInParallel() {
+        final MeshNetwork network = importNetwork(3);
+        final ConfigurationPipeline pipeline = new ConfigurationPipeline(network, template(), callbacks);
+        pipeline.setMaxConcurrency(2);
+        for (int address = 0x0002; address <= 0x0006; address += 2) {
+            pipeline.add(node(network, address));
+        }
+
+        List<ConfigurationPipeline.Request> requests = pipeline.nextRequests(0);
+        assertEquals(2, requests.size());
+        assertEquals(0x0002, requests.get(0).address);
+        assertEquals(0x0004, requests.get(1).address);
+
+        // A response releases the node's slot for its next message, ahead of the node still waiting
+        assertTrue(pipeline.onMessageReceived(appStatus(0x0002, 0x00)));
+        assertFalse(pipeline.onMessageReceived(appStatus(0x0002, 0x00)));
+        requests = pipeline.nextRequests(10);
+        assertEquals(1, requests.size());
+        assertEquals(0x0002, requests.get(0).address);
+        assertTrue(requests.get(0).message instanceof ConfigModelSubscriptionAdd);
+        assertEquals(3, pipeline.getRemaining());
+    }
+
+    @Test
+    public void testMessagesAreRetriedBeforeTheNodeFails() {
+        final MeshNetwork network = importNetwork(1);
+        final ConfigurationPipeline pipeline = new ConfigurationPipeline(network, template(), callbacks);
+        pipeline.setTimeout(1000);
+        pipeline.add(node(network, 0x0002));
+
+        assertEquals(1, pipeline.nextRequests(0).size());
+        assertEquals(1000, pipeline.getNextTimeout());
+        assertEquals(0, pipeline.nextRequests(500).size());
+        assertEquals(1, pipeline.nextRequests(1000).size());
+        assertEquals(1, pipeline.nextRequests(2000).size());
+        assertEquals(0, pipeline.nextRequests(3000).size());
+        assertTrue(pipeline.isComplete());
+        assertEquals(1, pipeline.getFailed());
+        assertEquals(1, failures.size());
+        assertEquals(3, pipeline.getSentMessages());
+    }
+
+    @Test
+    public void testErrorStatusFailsTheNode() {
+        final MeshNetwork network = importNetwork(1);
+        final ConfigurationPipeline pipeline = new ConfigurationPipeline(network, template(), callbacks);
+        pipeline.add(node(network, 0x0002));
+        pipeline.nextRequests(0);
+
+        // Invalid Model
+        assertTrue(pipeline.onMessageReceived(appStatus(0x0002, 0x02)));
+        assertTrue(pipeline.isComplete());
+        assertEquals(1, failures.size());
+        assertTrue(configured.isEmpty());
+    }
+
+    @Test
+    public void testConfiguredNodeIsReported() {
+        final MeshNetwork network = importNetwork(1);
+        final ConfigurationTemplate template = new ConfigurationTemplate.Builder()
+                .bindAppKey(GENERIC_ON_OFF_SERVER, 1)
+                .build();
+        final ConfigurationPipeline pipeline = new ConfigurationPipeline(network, template, callbacks);
+        pipeline.add(node(network, 0x0002));
+        assertTrue(pipeline.nextRequests(0).isEmpty());
+        assertEquals(1, configured.size());
+        assertTrue(pipeline.isComplete());
+    }
+
+    private static ConfigurationTemplate template() {
+        return new ConfigurationTemplate.Builder()
+                .bindAppKey(GENERIC_ON_OFF_SERVER, 0)
+                .subscribe(GENERIC_ON_OFF_SERVER, 0xC000)
+                .build();
+    }
+
+    private static ConfigModelAppStatus appStatus(final int src, final int statusCode) {
+        final AccessMessage message = new AccessMessage();
+        message.setSrc(src);
+        message.setParameters(MeshParserUtils.toByteArray(String.format("%02X", statusCode) + "0300" + "0000" + "0010"));
+        return new ConfigModelAppStatus(message);
+    }
+
+    private static ProvisionedMeshNode node(final MeshNetwork network, final int address) {
+        // The elements of the provisioner node overlap the first node of the test network
+        for (ProvisionedMeshNode node : network.getNodes()) {
+            if (node.getUnicastAddress() == address)
+                return node;
+        }
+        throw new AssertionError("No node at " + address);
+    }
+
+    private MeshNetwork importNetwork(final int nodeCount) {
+        final MeshNetwork network = importExportUtils.importNetwork(TestMeshNetworks.buildNetworkJson(nodeCount));
+        network.getProvisioners().get(0).setLastSelected(true);
+        return network;
+    }
+}
@@ -0,0 +1,141 @@
+package no.nordicsemi.android.mesh;
+
+import com.google.gson.JsonParseException;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import no.nordicsemi.android.mesh.transport.MeshModel;
+import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ImportExportUtilsTest {
+
+    private final ImportExportUtils importExportUtils = new ImportExportUtils();
+
+    @Test
+    public void testStreamingImportMatchesStringImport() throws Exception {
+        final String json = TestMeshNetworks.buildNetworkJson(25);
+        final MeshNetwork expected = importExportUtils.importNetwork(json);
+        final MeshNetwork actual = importExportUtils.importNetwork(toStream(json));
+
+        assertEquals(expected.getNodes().size(), actual.getNodes().size());
+        assertEquals(importExportUtils.export(expected, false), importExportUtils.export(actual, false));
+        assertEquals(expected.getMeshUUID(), actual.getNodes().get(0).getMeshUuid());
+    }
+
+    @Test
+    public void testStreamingImportRejectsInvalidDatabase() throws Exception {
+        try {
+            importExportUtils.importNetwork(toStream("{\"meshName\":\"Invalid\",\"nodes\":[]}"));
+            fail("Configuration database without mandatory fields must be rejected");
+        } catch (JsonParseException ignored) {
+        }
+    }
+
+    @Test
+    public void testStreamingExportOfAllMatchesFullExport() throws Exception {
+        final MeshNetwork network = importExportUtils.importNetwork(TestMeshNetworks.buildNetworkJson(10));
+        network.setPartial(true);
+        final String expected = importExportUtils.export(network, true);
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        importExportUtils.export(network,
+                new NetworkKeysConfig.ExportAll().build(),
+                new ApplicationKeysConfig.ExportAll().build(),
+                new NodesConfig.ExportWithDeviceKey().build(),
+                new ProvisionersConfig.ExportAll().build(),
+                new GroupsConfig.ExportAll().build(),
+                new ScenesConfig.ExportAll().build(),
+                outputStream);
+
+        assertEquals(expected, outputStream.toString("UTF-8"));
+    }
+
+    @Test
+    public void testFilteredExportDoesNotModifyNetwork() throws Exception {
+        final MeshNetwork network = importExportUtils.importNetwork(TestMeshNetworks.buildNetworkJson(4));
+        final String before = importExportUtils.export(network, false);
+        final ProvisionedMeshNode withDeviceKey = network.getNodes().get(1);
+        final ProvisionedMeshNode withoutDeviceKey = network.getNodes().get(2);
+        final byte[] deviceKey = withoutDeviceKey.getDeviceKey().clone();
+
+        final String json = importExportUtils.export(network,
+                new NetworkKeysConfig.ExportAll().build(),
+                new ApplicationKeysConfig.ExportSome(Collections.singletonList(network.getAppKeys().get(1))).build(),
+                new NodesConfig.ExportSome(Collections.singletonList(withDeviceKey), Collections.singletonList(withoutDeviceKey)).build(),
+                new ProvisionersConfig.ExportAll().build(),
+                new GroupsConfig.ExportSome(Collections.singletonList(network.getGroups().get(0))).build(),
+                new ScenesConfig.ExportAll().build());
+        assertNotNull(json);
+
+        // The live network must be left untouched by the export
+        assertArrayEquals(deviceKey, withoutDeviceKey.getDeviceKey());
+        assertEquals(before, importExportUtils.export(network, false));
+
+        final MeshNetwork exported = importExportUtils.importNetwork(json);
+        assertTrue(exported.isPartial());
+        assertEquals(1, exported.getAppKeys().size());
+        assertEquals(1, exported.getGroups().size());
+        // Both selected nodes and the provisioner node
+        assertEquals(3, exported.getNodes().size());
+        assertEquals(0, exported.getNode(withoutDeviceKey.getUuid()).getDeviceKey().length);
+        assertArrayEquals(withDeviceKey.getDeviceKey(), exported.getNode(withDeviceKey.getUuid()).getDeviceKey());
+
+        final ProvisionedMeshNode node = exported.getNode(withDeviceKey.getUuid());
+        final MeshModel primary = node.getElements().get(node.getUnicastAddress()).getMeshModels().get(0x1000);
+        assertEquals(Collections.singletonList(1), primary.getBoundAppKeyIndexes());
+        assertEquals(Collections.singletonList(0xC000), primary.getSubscribedAddresses());
+        // Publication used an application key that was not exported
+        assertNull(primary.getPublicationSettings());
+        final MeshModel secondary = node.getElements().get(node.getUnicastAddress() + 1).getMeshModels().get(0x1000);
+        assertFalse(secondary.getSubscribedAddresses().contains(0xC001));
+    }
+
+    @Test
+    public void testStreamingPartialExportMatchesStringExport() throws Exception {
+        final MeshNetwork network = importExportUtils.importNetwork(TestMeshNetworks.buildNetworkJson(10));
+        final String before = importExportUtils.export(network, false);
+
+        final String json = importExportUtils.export(network,
+                new NetworkKeysConfig.ExportAll().build(),
+                new ApplicationKeysConfig.ExportAll().build(),
+                new NodesConfig.ExportWithoutDeviceKey().build(),
+                new ProvisionersConfig.ExportAll().build(),
+                new GroupsConfig.ExportRelated().build(),
+                new ScenesConfig.ExportAll().build());
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        importExportUtils.export(network,
+                new NetworkKeysConfig.ExportAll().build(),
+                new ApplicationKeysConfig.ExportAll().build(),
+                new NodesConfig.ExportWithoutDeviceKey().build(),
+                new ProvisionersConfig.ExportAll().build(),
+                new GroupsConfig.ExportRelated().build(),
+                new ScenesConfig.ExportAll().build(),
+                outputStream);
+
+        assertEquals(json, outputStream.toString("UTF-8"));
+        assertEquals(before, importExportUtils.export(network, false));
+        assertEquals(11, importExportUtils.importNetwork(json).getNodes().size());
+    }
+
+    private static InputStream toStream(final String json) {
+        return toStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InputStream toStream(final byte[] json) {
+        return new ByteArrayInputStream(json);
+    }
+}
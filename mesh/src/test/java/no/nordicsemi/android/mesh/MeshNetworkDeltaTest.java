@@ -0,0 +1,156 @@
+package no.nordicsemi.android.mesh;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import no.nordicsemi.android.mesh.transport.AccessMessage;
+import no.nordicsemi.android.mesh.transport.ConfigDefaultTtlStatus;
+import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MeshNetworkDeltaTest {
+
+    private final ImportExportUtils importExportUtils = new ImportExportUtils();
+
+    @Test
+    public void testChangesSinceSyncTokenArePropagated() throws Exception {
+        final MeshNetwork source = importNetwork(20);
+        final MeshNetwork target = importNetwork(20);
+        final String syncToken = source.changeLog.getSyncToken();
+
+        final Group group = source.createGroup(source.getSelectedProvisioner(), 0xC010, "Hallway");
+        assertTrue(source.addGroup(group));
+        final Scene scene = source.getScenes().get(0);
+        scene.addresses.clear();
+        assertTrue(source.removeScene(scene));
+        assertTrue(source.updateNodeName(source.getNode(0x0004), "Desk lamp"));
+
+        final byte[] delta = exportDelta(source, syncToken);
+        final MeshNetworkDelta imported = importDelta(delta);
+        assertEquals(3, imported.merge(target));
+        assertEquals(source.changeLog.getSyncToken(), imported.syncToken);
+
+        assertNotNull(target.getGroup(0xC010));
+        assertEquals("Hallway", target.getGroup(0xC010).getName());
+        assertTrue(target.getScenes().isEmpty());
+        assertEquals("Desk lamp", target.getNode(0x0004).getNodeName());
+
+        final int fullSize = importExportUtils.export(source, false).getBytes(StandardCharsets.UTF_8).length;
+        assertTrue("Delta must be much smaller than the full export", delta.length * 10 < fullSize);
+
+        // Nothing changed since the returned token
+        assertEquals(0, importDelta(exportDelta(source, imported.syncToken)).changes.size());
+    }
+
+    @Test
+    public void testNewerChangeWins() throws Exception {
+        final MeshNetwork first = importNetwork(4);
+        final MeshNetwork second = importNetwork(4);
+
+        first.updateNodeName(first.getNode(0x0004), "First");
+        second.updateNodeName(second.getNode(0x0004), "Second");
+        second.updateNodeName(second.getNode(0x0004), "Second again");
+
+        final MeshNetworkDelta fromFirst = importDelta(exportDelta(first, null));
+        final MeshNetworkDelta fromSecond = importDelta(exportDelta(second, null));
+
+        // The stale change of the first provisioner is skipped
+        assertEquals(0, fromFirst.merge(second));
+        assertEquals("Second again", second.getNode(0x0004).getNodeName());
+
+        assertEquals(1, fromSecond.merge(first));
+        assertEquals("Second again", first.getNode(0x0004).getNodeName());
+
+        // Applying the same delta again has no effect
+        assertEquals(0, fromSecond.merge(first));
+    }
+
+    @Test
+    public void testNodeSettingsArePropagated() throws Exception {
+        final MeshNetwork source = importNetwork(4);
+        final MeshNetwork target = importNetwork(4);
+        final String syncToken = source.changeLog.getSyncToken();
+
+        // Config Default TTL Status with TTL 17 received from the node
+        final AccessMessage message = new AccessMessage();
+        message.setSrc(0x0004);
+        message.setParameters(new byte[]{0x11});
+        final ConfigDefaultTtlStatus status = new ConfigDefaultTtlStatus(message);
+        final ProvisionedMeshNode node = source.getNode(0x0004);
+        node.setTtl(status.getTtl());
+        assertTrue(MeshManagerApi.isConfigurationChange(status));
+        source.changeLog.record(node, false);
+
+        assertEquals(1, importDelta(exportDelta(source, syncToken)).merge(target));
+        assertEquals(Integer.valueOf(17), target.getNode(0x0004).getTtl());
+    }
+
+    @Test
+    public void testChangeLogSurvivesRestart() throws Exception {
+        final MeshNetwork local = importNetwork(2);
+        final MeshNetwork peer = importNetwork(2);
+        final String syncToken = local.changeLog.getSyncToken();
+        final Scene scene = local.getScenes().get(0);
+        scene.addresses.clear();
+        assertTrue(local.removeScene(scene));
+
+        // Stored with the network and loaded again
+        local.setChangeLog(MeshTypeConverters.fromJsonToChangeLog(MeshTypeConverters.changeLogToJson(local.changeLog)));
+        assertEquals(syncToken.substring(0, syncToken.indexOf(':')), local.changeLog.getEpoch());
+        assertEquals(1, local.changeLog.getChangesSince(syncToken).size());
+
+        // The tombstone keeps the peer's copy of the scene from bringing it back
+        assertEquals(0, importDelta(exportDelta(peer, null)).merge(local));
+        assertTrue(local.getScenes().isEmpty());
+    }
+
+    @Test
+    public void testNodeWithTakenUnicastAddressIsRejected() throws Exception {
+        final MeshNetwork target = importNetwork(2);
+        final String original = target.getNode(0x0004).getUuid();
+        final MeshNetwork other = importExportUtils.importNetwork(TestMeshNetworks.buildNetworkJson(2)
+                .replace("\"UUID\":\"00000000000000000000000000000002\"", "\"UUID\":\"000000000000000000000000000000FF\""));
+
+        assertEquals(0, importDelta(exportDelta(other, null)).merge(target));
+        assertEquals(original, target.getNode(0x0004).getUuid());
+        assertEquals(3, target.getNodes().size());
+    }
+
+    @Test
+    public void testDeltaOfDifferentNetworkIsRejected() throws Exception {
+        final MeshNetwork target = importNetwork(1);
+        final MeshNetwork other = importExportUtils.importNetwork(TestMeshNetworks.buildNetworkJson(1)
+                .replace(TestMeshNetworks.MESH_UUID.replace("-", ""), "00000000000000000000000000000000"));
+        try {
+            importDelta(exportDelta(other, null)).merge(target);
+            throw new AssertionError("Delta of a different network must be rejected");
+        } catch (IllegalArgumentException ignored) {
+        }
+        assertFalse(target.getNodes().isEmpty());
+        assertNull(target.changeLog.getChangesSince(other.changeLog.getSyncToken()));
+    }
+
+    private MeshNetwork importNetwork(final int nodeCount) {
+        final MeshNetwork network = importExportUtils.importNetwork(TestMeshNetworks.buildNetworkJson(nodeCount));
+        network.getProvisioners().get(0).setLastSelected(true);
+        return network;
+    }
+
+    private byte[] exportDelta(final MeshNetwork network, final String syncToken) throws Exception {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        importExportUtils.exportDelta(network, syncToken, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private MeshNetworkDelta importDelta(final byte[] delta) throws Exception {
+        return importExportUtils.importDelta(new ByteArrayInputStream(delta));
+    }
+}
@@ -0,0 +1,92 @@
+package no.nordicsemi.android.mesh;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MeshNetworkSnapshotTest {
+
+    private final ImportExportUtils importExportUtils = new ImportExportUtils();
+
+    @Test
+    public void testRoundTripMatchesJsonExport() {
+        final MeshNetwork network = importExportUtils.importNetwork(TestMeshNetworks.buildNetworkJson(10));
+        assertNotNull(network);
+        network.setPartial(false);
+
+        final MeshNetwork restored = MeshNetworkSnapshot.read(ByteBuffer.wrap(MeshNetworkSnapshot.write(network)));
+        restored.setPartial(false);
+
+        assertEquals(importExportUtils.export(network, false), importExportUtils.export(restored, false));
+        assertEquals(network.ivIndex, restored.ivIndex);
+        assertEquals(network.unicastAddress, restored.unicastAddress);
+    }
+
+    @Test
+    public void testRoundTripThroughMappedFile() throws Exception {
+        final MeshNetwork network = importExportUtils.importNetwork(TestMeshNetworks.buildNetworkJson(3));
+        final File file = File.createTempFile("mesh", ".snapshot");
+        try {
+            MeshNetworkSnapshot.write(network, file);
+            final MeshNetwork restored = MeshNetworkSnapshot.read(file);
+            assertEquals(importExportUtils.export(network, false), importExportUtils.export(restored, false));
+        } finally {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testRestoreKeepsLaterIvIndexAndSequenceNumbers() {
+        final MeshNetwork stored = importExportUtils.importNetwork(TestMeshNetworks.buildNetworkJson(2));
+        stored.ivIndex = new IvIndex(5, false, null);
+        stored.getNode(0x0004).setSequenceNumber(200);
+
+        // Snapshot taken after the next IV Update
+        final MeshNetwork network = importExportUtils.importNetwork(TestMeshNetworks.buildNetworkJson(2));
+        network.ivIndex = new IvIndex(6, true, null);
+        network.getNode(0x0004).setSequenceNumber(100);
+        MeshNetwork restored = MeshNetworkSnapshot.read(ByteBuffer.wrap(MeshNetworkSnapshot.write(network)));
+        MeshManagerApi.mergeStoredNetwork(restored, stored, stored.getNodes());
+        assertEquals(6, restored.ivIndex.getIvIndex());
+        assertTrue(restored.ivIndex.isIvUpdateActive());
+        assertEquals(200, restored.getNode(0x0004).getSequenceNumber());
+
+        // Snapshot taken before the stored IV Update completed
+        network.ivIndex = new IvIndex(5, true, null);
+        stored.ivIndex = new IvIndex(5, false, null);
+        restored = MeshNetworkSnapshot.read(ByteBuffer.wrap(MeshNetworkSnapshot.write(network)));
+        MeshManagerApi.mergeStoredNetwork(restored, stored, stored.getNodes());
+        assertEquals(5, restored.ivIndex.getIvIndex());
+        assertFalse(restored.ivIndex.isIvUpdateActive());
+    }
+
+    @Test
+    public void testInvalidSnapshotIsRejected() {
+        final byte[] snapshot = MeshNetworkSnapshot.write(importExportUtils.importNetwork(TestMeshNetworks.buildNetworkJson(1)));
+        snapshot[0] = 0x00;
+        try {
+            MeshNetworkSnapshot.read(ByteBuffer.wrap(snapshot));
+            fail("Snapshot with an invalid header must be rejected");
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void testSnapshotIsSmallerThanJson() {
+        final MeshNetwork network = importExportUtils.importNetwork(TestMeshNetworks.buildNetworkJson(100));
+        final int jsonSize = importExportUtils.export(network, false).getBytes(StandardCharsets.UTF_8).length;
+        final byte[] snapshot = MeshNetworkSnapshot.write(network);
+
+        assertEquals(101, MeshNetworkSnapshot.read(ByteBuffer.wrap(snapshot)).getNodes().size());
+        assertTrue("Snapshot must be at least 4 times smaller than json", snapshot.length * 4 < jsonSize);
+    }
+}
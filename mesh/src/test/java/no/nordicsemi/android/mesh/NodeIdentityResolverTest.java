@@ -0,0 +1,79 @@
+package no.nordicsemi.android.mesh;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.SecureUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class NodeIdentityResolverTest {
+
+    private final ImportExportUtils importExportUtils = new ImportExportUtils();
+
+    @Test
+    public void testResolve() {
+        final MeshNetwork network = importExportUtils.importNetwork(TestMeshNetworks.buildNetworkJson(10));
+        final NetworkKey networkKey = network.getNetKeys().get(0);
+        final NodeIdentityResolver resolver = new NodeIdentityResolver();
+        final byte[] random = random(1);
+
+        final byte[] hash = SecureUtils.calculateHash(networkKey.getIdentityKey(), random, MeshAddress.addressIntToBytes(0x0008));
+        assertEquals(Integer.valueOf(0x0008), resolver.resolve(network.netKeys, network.nodes, hash, random));
+        assertTrue(resolver.matches(network.netKeys, 0x0008, hash, random));
+        assertFalse(resolver.matches(network.netKeys, 0x000A, hash, random));
+        // The hash of an unknown address or another random is not resolved
+        final byte[] unknown = SecureUtils.calculateHash(networkKey.getIdentityKey(), random, MeshAddress.addressIntToBytes(0x0100));
+        assertNull(resolver.resolve(network.netKeys, network.nodes, unknown, random));
+        assertNull(resolver.resolve(network.netKeys, network.nodes, hash, random(2)));
+    }
+
+    @Test
+    public void testResolveFollowsKeyAndNodeChanges() {
+        final MeshNetwork network = importExportUtils.importNetwork(TestMeshNetworks.buildNetworkJson(2));
+        final NetworkKey networkKey = network.getNetKeys().get(0);
+        final NodeIdentityResolver resolver = new NodeIdentityResolver();
+        final byte[] random = random(3);
+        final byte[] oldIdentityKey = networkKey.getIdentityKey();
+        final byte[] hash = SecureUtils.calculateHash(oldIdentityKey, random, MeshAddress.addressIntToBytes(0x0004));
+        assertEquals(Integer.valueOf(0x0004), resolver.resolve(network.netKeys, network.nodes, hash, random));
+
+        // During the key refresh procedure nodes may advertise using the old identity key
+        networkKey.distributeKey(SecureUtils.generateRandomNumber());
+        assertEquals(Integer.valueOf(0x0004), resolver.resolve(network.netKeys, network.nodes, hash, random));
+        networkKey.setOldKey(null);
+        assertNull(resolver.resolve(network.netKeys, network.nodes, hash, random));
+
+        // A previously unresolved advertisement is resolved once the node is added
+        final byte[] newHash = SecureUtils.calculateHash(networkKey.getIdentityKey(), random, MeshAddress.addressIntToBytes(0x0004));
+        network.nodes.remove(network.getNode(0x0004));
+        assertNull(resolver.resolve(network.netKeys, network.nodes, newHash, random));
+        final MeshNetwork other = importExportUtils.importNetwork(TestMeshNetworks.buildNetworkJson(2));
+        network.nodes.add(other.getNode(0x0004));
+        assertEquals(Integer.valueOf(0x0004), resolver.resolve(network.netKeys, network.nodes, newHash, random));
+    }
+
+    @Test
+    public void testResolveLastNode() {
+        final MeshNetwork network = importExportUtils.importNetwork(TestMeshNetworks.buildNetworkJson(100));
+        final NetworkKey networkKey = network.getNetKeys().get(0);
+        final NodeIdentityResolver resolver = new NodeIdentityResolver();
+        final byte[] random = random(4);
+        final byte[] hash = SecureUtils.calculateHash(networkKey.getIdentityKey(), random, MeshAddress.addressIntToBytes(2 * 100));
+
+        // Repeated scan results of the same node resolve to the same address
+        assertEquals(Integer.valueOf(2 * 100), resolver.resolve(network.netKeys, network.nodes, hash, random));
+        assertEquals(Integer.valueOf(2 * 100), resolver.resolve(network.netKeys, network.nodes, hash, random));
+    }
+
+    private static byte[] random(final int seed) {
+        final byte[] random = new byte[8];
+        Arrays.fill(random, (byte) seed);
+        return random;
+    }
+}
@@ -0,0 +1,76 @@
+package no.nordicsemi.android.mesh;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+import no.nordicsemi.android.mesh.utils.SecureUtils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PrivateBeaconTest {
+
+    private static final byte[] NET_KEY = MeshParserUtils.toByteArray("F7A2A44F8E8A8029064F173DDC1E2B00");
+    private static final byte[] OTHER_NET_KEY = MeshParserUtils.toByteArray("7DD7364CD842AD18C17C2B820C84C3D6");
+
+    @Test
+    public void testPrivateBeaconKey() {
+        // Sample data from Mesh Protocol specification, 8.2.7 Private beacon key
+        assertArrayEquals(MeshParserUtils.toByteArray("6BE76842460B2D3A5850D4698409F1BB"),
+                new NetworkKey(0, NET_KEY).getPrivateBeaconKey());
+    }
+
+    @Test
+    public void testAuthenticate() {
+        // Sample data from Mesh Protocol specification, 8.4.6.1 Private beacon with IV Update in progress
+        final NetworkKey networkKey = new NetworkKey(0, NET_KEY);
+        final NetworkKey otherKey = new NetworkKey(1, OTHER_NET_KEY);
+        final PrivateBeacon beacon = new PrivateBeacon(MeshParserUtils.toByteArray("02435F18F85CF78A3121F58478A561E488E7CBF3174F022A514741"));
+
+        assertNull(beacon.authenticate(Collections.singletonList(otherKey)));
+        assertSame(networkKey, beacon.authenticate(Arrays.asList(otherKey, networkKey)));
+        assertFalse(beacon.isSecuredWithOldKey());
+        assertEquals(0x1010ABCD, beacon.getIvIndex().getIvIndex());
+        assertTrue(beacon.getIvIndex().isIvUpdateActive());
+        assertFalse(beacon.isKeyRefreshActive());
+    }
+
+    @Test
+    public void testAuthenticateDuringKeyRefresh() {
+        final NetworkKey networkKey = new NetworkKey(0, OTHER_NET_KEY);
+        networkKey.distributeKey(NET_KEY);
+
+        final PrivateBeacon oldBeacon = createBeacon(OTHER_NET_KEY, 0x01, 0x00000005);
+        assertSame(networkKey, oldBeacon.authenticate(Collections.singletonList(networkKey)));
+        assertTrue(oldBeacon.isSecuredWithOldKey());
+        assertTrue(oldBeacon.isKeyRefreshActive());
+        assertEquals(5, oldBeacon.getIvIndex().getIvIndex());
+
+        final PrivateBeacon newBeacon = createBeacon(NET_KEY, 0x00, 0x00000006);
+        assertSame(networkKey, newBeacon.authenticate(Collections.singletonList(networkKey)));
+        assertFalse(newBeacon.isSecuredWithOldKey());
+        assertFalse(newBeacon.isKeyRefreshActive());
+        assertEquals(6, newBeacon.getIvIndex().getIvIndex());
+
+        // A modified beacon is not authenticated
+        final byte[] data = createBeacon(NET_KEY, 0x00, 0x00000006).beaconData.clone();
+        data[14] ^= 0x01;
+        assertNull(new PrivateBeacon(data).authenticate(Collections.singletonList(networkKey)));
+    }
+
+    private static PrivateBeacon createBeacon(final byte[] netKey, final int flags, final int ivIndex) {
+        final byte[] random = Arrays.copyOf(SecureUtils.generateRandomNumber(), 13);
+        final byte[] privateBeaconData = ByteBuffer.allocate(5).put((byte) flags).putInt(ivIndex).array();
+        final byte[] obfuscated = SecureUtils.encryptCCM(privateBeaconData, SecureUtils.calculatePrivateBeaconKey(netKey), random, 8);
+        return new PrivateBeacon(ByteBuffer.allocate(PrivateBeacon.BEACON_DATA_LENGTH)
+                .put((byte) PrivateBeacon.PRIVATE_BEACON).put(random).put(obfuscated).array());
+    }
+}
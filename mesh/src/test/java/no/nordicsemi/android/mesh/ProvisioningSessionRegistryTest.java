@@ -0,0 +1,115 @@
+package no.nordicsemi.android.mesh;
+
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ProvisioningSessionRegistryTest {
+
+    private static final long SECOND = 1000000000L;
+
+    private final ImportExportUtils importExportUtils = new ImportExportUtils();
+
+    @Test
+    public void testParallelSessionsGetDistinctAddressesFromBlocks() {
+        final MeshNetwork network = importNetwork(10);
+        final Provisioner provisioner = network.getSelectedProvisioner();
+        final ProvisioningSessionRegistry registry = new ProvisioningSessionRegistry();
+        registry.setBlockSize(4);
+
+        final ProvisioningSession first = open(registry, 0);
+        final ProvisioningSession second = open(registry, 0);
+        final ProvisioningSession third = open(registry, 0);
+        // The last node of the test network uses 0x0014 and 0x0015
+        assertEquals(0x0016, registry.assignUnicastAddress(first, 2, network, provisioner));
+        assertEquals(0x0018, registry.assignUnicastAddress(second, 2, network, provisioner));
+        assertEquals(0x0018, registry.assignUnicastAddress(second, 2, network, provisioner));
+        // The first block is used up, the next one starts after it
+        assertEquals(0x001A, registry.assignUnicastAddress(third, 1, network, provisioner));
+        assertTrue(registry.getReserved().contains(0x001D));
+        assertEquals(0x001E, network.nextAvailableUnicastAddresses(1, 1, provisioner, registry.getReserved()).get(0).intValue());
+
+        // The address of a failed session goes to the next session
+        registry.onFailed(second.getDeviceUuid(), 2 * SECOND);
+        assertEquals(0x0018, registry.assignUnicastAddress(open(registry, SECOND), 1, network, provisioner));
+
+        // The address of a provisioned device is no longer reserved
+        registry.onProvisioned(first.getDeviceUuid(), 3 * SECOND);
+        assertFalse(registry.getReserved().contains(0x0016));
+        assertTrue(registry.getReserved().contains(0x0018));
+    }
+
+    @Test
+    public void testReservedAddressesAreReleasedWhenAllSessionsAreClosed() {
+        final MeshNetwork network = importNetwork(1);
+        final ProvisioningSessionRegistry registry = new ProvisioningSessionRegistry();
+        final ProvisioningSession session = open(registry, 0);
+        final int address = registry.assignUnicastAddress(session, 3, network, network.getSelectedProvisioner());
+        assertTrue(registry.getReserved().contains(address + ProvisioningSessionRegistry.DEFAULT_BLOCK_SIZE - 1));
+
+        registry.close(session.getDeviceUuid());
+        assertEquals(0, registry.getReserved().intervalCount());
+    }
+
+    @Test
+    public void testSingleDeviceProvisioningSkipsReservedBlock() {
+        final MeshNetwork network = importNetwork(10);
+        final Provisioner provisioner = network.getSelectedProvisioner();
+        final ProvisioningSessionRegistry registry = new ProvisioningSessionRegistry();
+        // As done by MeshManagerApi when the network is loaded
+        network.reservedUnicastAddresses = registry.getReserved();
+        registry.setBlockSize(4);
+
+        assertEquals(0x0016, registry.assignUnicastAddress(open(registry, 0), 1, network, provisioner));
+        // A device provisioned without a session gets an address after the block held by the session
+        assertEquals(0x001A, network.nextAvailableUnicastAddress(2, provisioner));
+        assertEquals(0x001A, network.nextAvailableUnicastAddresses(2, 1, provisioner).get(0).intValue());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDeviceCannotHaveTwoActiveSessions() {
+        final ProvisioningSessionRegistry registry = new ProvisioningSessionRegistry();
+        final ProvisioningSession session = open(registry, 0);
+        registry.open(new ProvisioningSession(session.getDeviceUuid(), new MeshProvisioningHandler(null, null, null), 23, 0));
+    }
+
+    @Test
+    public void testThroughput() {
+        final ProvisioningSessionRegistry registry = new ProvisioningSessionRegistry();
+        final ProvisioningSession first = open(registry, 0);
+        final ProvisioningSession second = open(registry, 0);
+        final ProvisioningSession third = open(registry, 10 * SECOND);
+
+        registry.onProvisioned(first.getDeviceUuid(), 20 * SECOND);
+        registry.onProvisioned(second.getDeviceUuid(), 30 * SECOND);
+        ProvisioningThroughput throughput = registry.getThroughput(60 * SECOND);
+        assertEquals(1, throughput.getActiveSessions());
+        assertEquals(2, throughput.getDevicesPerMinute(), 0.001);
+        assertEquals(25 * SECOND, throughput.getAverageDuration());
+
+        registry.onFailed(third.getDeviceUuid(), 40 * SECOND);
+        throughput = registry.getThroughput(100 * SECOND);
+        assertEquals(0, throughput.getActiveSessions());
+        assertEquals(1, throughput.getFailed());
+        // The elapsed time stops with the last session
+        assertEquals(40 * SECOND, throughput.getElapsed());
+        assertEquals(3, throughput.getDevicesPerMinute(), 0.001);
+    }
+
+    private static ProvisioningSession open(final ProvisioningSessionRegistry registry, final long now) {
+        final ProvisioningSession session = new ProvisioningSession(UUID.randomUUID(),
+                new MeshProvisioningHandler(null, null, null), 23, now);
+        registry.open(session);
+        return session;
+    }
+
+    private MeshNetwork importNetwork(final int nodeCount) {
+        final MeshNetwork network = importExportUtils.importNetwork(TestMeshNetworks.buildNetworkJson(nodeCount));
+        network.getProvisioners().get(0).setLastSelected(true);
+        return network;
+    }
+}
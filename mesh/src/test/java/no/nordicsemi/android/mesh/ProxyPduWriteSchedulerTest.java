@@ -0,0 +1,47 @@
+package no.nordicsemi.android.mesh;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ProxyPduWriteSchedulerTest {
+
+    @Test
+    public void testPdusAreSegmentedOnce() {
+        final ProxyPduWriteScheduler scheduler = new ProxyPduWriteScheduler();
+        final byte[] shortPdu = MeshParserUtils.toByteArray("000102");
+        final byte[] longPdu = MeshParserUtils.toByteArray("00" + "0102030405060708090A0B0C0D0E0F101112131415");
+        final List<byte[]> frames = scheduler.schedule(20, Arrays.asList(shortPdu, longPdu));
+
+        assertEquals(2, frames.size());
+        assertSame(shortPdu, frames.get(0));
+        assertArrayEquals(MeshParserUtils.toByteArray("40" + "0102030405060708090A0B0C0D0E0F10111213" + "C01415"), frames.get(1));
+        // The frame list is reused by the next batch
+        assertSame(frames, scheduler.schedule(20, Collections.singletonList(shortPdu)));
+        assertEquals(1, frames.size());
+    }
+
+    @Test
+    public void testWrittenPduRate() {
+        final ProxyPduWriteScheduler scheduler = new ProxyPduWriteScheduler();
+        scheduler.onPduWritten(1_000_000_000L);
+        assertEquals(0, scheduler.getPdusPerSecond(), 0);
+        for (int i = 1; i <= 50; i++) {
+            scheduler.onPduWritten(1_000_000_000L + i * 10_000_000L);
+        }
+        assertEquals(51, scheduler.getWrittenPdus());
+        assertEquals(100, scheduler.getPdusPerSecond(), 0.001);
+
+        scheduler.resetStatistics();
+        assertEquals(0, scheduler.getWrittenPdus());
+        assertEquals(0, scheduler.getPdusPerSecond(), 0);
+    }
+}
@@ -0,0 +1,70 @@
+package no.nordicsemi.android.mesh;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import no.nordicsemi.android.mesh.utils.MeshAddress;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ProxyRouterTest {
+
+    private static final Runnable NO_OP = new Runnable() {
+        @Override
+        public void run() {
+        }
+    };
+
+    @Test
+    public void testDefaultConnectionIsUsedWhenNoneIsOpen() {
+        final ProxyRouter router = new ProxyRouter(NO_OP);
+        assertEquals(MeshManagerApi.DEFAULT_PROXY_CONNECTION, router.route(0x0002).getId());
+        assertEquals(1, router.getConnections().size());
+    }
+
+    @Test
+    public void testUnicastIsRoutedViaTheConnectionItWasLearnedFrom() {
+        final ProxyRouter router = new ProxyRouter(NO_OP);
+        final ProxyConnection first = router.open(1);
+        final ProxyConnection second = router.open(2);
+        router.learn(0x0010, second);
+        // Group addresses are never learned
+        router.learn(0xC000, first);
+
+        assertSame(second, router.route(0x0010));
+        assertSame(first, router.route(0x0011));
+
+        router.close(2);
+        assertSame(first, router.route(0x0010));
+        assertNull(router.get(2));
+    }
+
+    @Test
+    public void testUnknownDestinationsAreBalanced() {
+        final ProxyRouter router = new ProxyRouter(NO_OP);
+        final ProxyConnection first = router.open(1);
+        final ProxyConnection second = router.open(2);
+        first.schedule(20, Collections.singletonList(new byte[]{0x00, 0x01}));
+
+        assertSame(second, router.route(0xC000));
+        second.schedule(20, Collections.singletonList(new byte[]{0x00, 0x01}));
+        second.schedule(20, Collections.singletonList(new byte[]{0x00, 0x01}));
+        assertSame(first, router.route(0xC000));
+
+        second.onPduWritten(0);
+        second.onPduWritten(1);
+        assertSame(second, router.route(0xC000));
+    }
+
+    @Test
+    public void testProxyConfigurationConnection() {
+        final ProxyRouter router = new ProxyRouter(NO_OP);
+        router.open(1);
+        final ProxyConnection second = router.open(2);
+        router.setProxyConfigurationConnection(2);
+        assertSame(second, router.route(MeshAddress.UNASSIGNED_ADDRESS));
+    }
+}
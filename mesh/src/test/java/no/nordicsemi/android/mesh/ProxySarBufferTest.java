@@ -0,0 +1,49 @@
+package no.nordicsemi.android.mesh;
+
+import org.junit.Test;
+
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ProxySarBufferTest {
+
+    @Test
+    public void testSegmentsAreAppendedInPlace() {
+        final ProxySarBuffer buffer = new ProxySarBuffer();
+        final byte[] start = MeshParserUtils.toByteArray("4001020304");
+        final byte[] end = MeshParserUtils.toByteArray("C00506");
+        buffer.append(start, 0, start.length);
+        buffer.set(0, (byte) 0x00);
+        buffer.append(end, 1, end.length - 1);
+        assertEquals(7, buffer.getLength());
+        assertArrayEquals(MeshParserUtils.toByteArray("00010203040506"), buffer.toByteArray());
+    }
+
+    @Test
+    public void testBufferGrowsAndIsReused() {
+        final ProxySarBuffer buffer = new ProxySarBuffer();
+        final byte[] segment = new byte[20];
+        for (int i = 0; i < 10; i++) {
+            segment[0] = (byte) i;
+            buffer.append(segment, 0, segment.length);
+        }
+        assertEquals(200, buffer.getLength());
+        assertEquals(256, buffer.getCapacity());
+        assertEquals(9, buffer.toByteArray()[180]);
+
+        buffer.reset();
+        assertTrue(buffer.isEmpty());
+        buffer.append(segment, 0, segment.length);
+        // The capacity is kept for the next pdu
+        assertEquals(256, buffer.getCapacity());
+        assertEquals(20, buffer.toByteArray().length);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSetOutsideOfBufferedData() {
+        new ProxySarBuffer().set(0, (byte) 0x00);
+    }
+}
@@ -0,0 +1,203 @@
+package no.nordicsemi.android.mesh;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.transport.AccessMessage;
+import no.nordicsemi.android.mesh.transport.MeshMessage;
+import no.nordicsemi.android.mesh.transport.RemoteProvisioningLinkClose;
+import no.nordicsemi.android.mesh.transport.RemoteProvisioningLinkOpen;
+import no.nordicsemi.android.mesh.transport.RemoteProvisioningLinkReport;
+import no.nordicsemi.android.mesh.transport.RemoteProvisioningLinkStatus;
+import no.nordicsemi.android.mesh.transport.RemoteProvisioningPduOutboundReport;
+import no.nordicsemi.android.mesh.transport.RemoteProvisioningPduReport;
+import no.nordicsemi.android.mesh.transport.RemoteProvisioningPduSend;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RemoteProvisionerTest {
+
+    private static final int SERVER = 0x0002;
+    private static final int OTHER_SERVER = 0x0004;
+    private static final UUID DEVICE = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID OTHER_DEVICE = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    private final List<MeshMessage> sent = new ArrayList<>();
+    private final List<Integer> destinations = new ArrayList<>();
+    private final List<String> events = new ArrayList<>();
+    private final List<byte[]> received = new ArrayList<>();
+    private RemoteProvisioner provisioner;
+
+    @Before
+    public void setUp() {
+        provisioner = new RemoteProvisioner(new RemoteProvisioner.Callbacks() {
+            @Override
+            public void sendMessage(final int serverAddress, @NonNull final MeshMessage message) {
+                destinations.add(serverAddress);
+                sent.add(message);
+            }
+
+            @Override
+            public void onLinkOpened(@NonNull final UUID deviceUuid) {
+                events.add("opened");
+            }
+
+            @Override
+            public void onPduDelivered(@NonNull final UUID deviceUuid) {
+                events.add("delivered");
+            }
+
+            @Override
+            public void onPduReceived(@NonNull final UUID deviceUuid, @NonNull final byte[] provisioningPdu) {
+                received.add(provisioningPdu);
+            }
+
+            @Override
+            public void onLinkClosed(@NonNull final UUID deviceUuid, @Nullable final String reason) {
+                events.add("closed " + reason);
+            }
+        });
+        provisioner.setTimeout(1000);
+    }
+
+    @Test
+    public void testOneLinkPerServer() {
+        provisioner.openLink(SERVER, DEVICE, 0);
+        assertTrue(sent.get(0) instanceof RemoteProvisioningLinkOpen);
+        assertEquals(DEVICE, ((RemoteProvisioningLinkOpen) sent.get(0)).getDeviceUuid());
+        try {
+            provisioner.openLink(SERVER, OTHER_DEVICE, 0);
+            fail("A server holds a single link");
+        } catch (IllegalArgumentException expected) {
+            // Expected
+        }
+        provisioner.openLink(OTHER_SERVER, OTHER_DEVICE, 0);
+        assertEquals(2, provisioner.getLinkCount());
+        assertEquals(OTHER_SERVER, (int) destinations.get(1));
+    }
+
+    @Test
+    public void testPdusAreSentOneAtATime() {
+        openLink();
+        provisioner.sendPdu(DEVICE, new byte[]{0x00, 0x05}, 0);
+        provisioner.sendPdu(DEVICE, new byte[]{0x02, 0x00}, 0);
+        assertEquals(2, sent.size());
+        final RemoteProvisioningPduSend first = (RemoteProvisioningPduSend) sent.get(1);
+        assertEquals(1, first.getOutboundPduNumber());
+        assertArrayEquals(new byte[]{0x00, 0x05}, first.getProvisioningPdu());
+
+        // A report of another pdu does not release the link
+        assertTrue(provisioner.onMessageReceived(outboundReport(SERVER, 2), 10));
+        assertEquals(2, sent.size());
+        assertTrue(provisioner.onMessageReceived(outboundReport(SERVER, 1), 10));
+        assertEquals("delivered", events.get(1));
+        assertEquals(3, sent.size());
+        assertEquals(2, ((RemoteProvisioningPduSend) sent.get(2)).getOutboundPduNumber());
+    }
+
+    @Test
+    public void testDuplicateReportsAreDropped() {
+        openLink();
+        provisioner.onMessageReceived(pduReport(SERVER, "0101"), 0);
+        provisioner.onMessageReceived(pduReport(SERVER, "0101"), 0);
+        provisioner.onMessageReceived(pduReport(SERVER, "020300"), 0);
+        assertEquals(2, received.size());
+        assertArrayEquals(new byte[]{0x01}, received.get(0));
+        assertArrayEquals(new byte[]{0x03, 0x00}, received.get(1));
+        assertFalse(provisioner.onMessageReceived(pduReport(OTHER_SERVER, "0101"), 0));
+    }
+
+    @Test
+    public void testUnansweredLinkOpenGivesUpTheLink() {
+        provisioner.openLink(SERVER, DEVICE, 0);
+        assertEquals(1000, provisioner.getNextTimeout());
+        provisioner.onTimeout(500);
+        assertEquals(1, sent.size());
+        provisioner.onTimeout(1000);
+        provisioner.onTimeout(2000);
+        assertEquals(3, sent.size());
+        provisioner.onTimeout(3000);
+        assertFalse(provisioner.hasLink(DEVICE));
+        assertTrue(events.get(0).startsWith("closed No response"));
+        assertEquals(Long.MAX_VALUE, provisioner.getNextTimeout());
+    }
+
+    @Test
+    public void testLinkClosedByClient() {
+        openLink();
+        provisioner.closeLink(DEVICE, true, 0);
+        final MeshMessage close = sent.get(sent.size() - 1);
+        assertTrue(close instanceof RemoteProvisioningLinkClose);
+        assertEquals(RemoteProvisioningLinkClose.REASON_SUCCESS, ((RemoteProvisioningLinkClose) close).getReason());
+        assertTrue(provisioner.onMessageReceived(linkStatus(SERVER, "0004"), 0));
+        assertFalse(provisioner.hasLink(DEVICE));
+        assertEquals("closed null", events.get(1));
+    }
+
+    @Test
+    public void testLinkClosedByDevice() {
+        openLink();
+        // Link Closed by Device, Idle
+        assertTrue(provisioner.onMessageReceived(linkReport(SERVER, "0600"), 0));
+        assertFalse(provisioner.hasLink(DEVICE));
+        assertEquals("closed Link Closed by Device", events.get(1));
+        try {
+            provisioner.sendPdu(DEVICE, new byte[]{0x00}, 0);
+            fail("The device has no link");
+        } catch (IllegalArgumentException expected) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testLinkOpenFailure() {
+        provisioner.openLink(SERVER, DEVICE, 0);
+        // Link Cannot Open
+        assertTrue(provisioner.onMessageReceived(linkStatus(SERVER, "0400"), 0));
+        assertFalse(provisioner.hasLink(DEVICE));
+        assertEquals("closed Link Cannot Open", events.get(0));
+        assertFalse(provisioner.onMessageReceived(linkStatus(SERVER, "0000"), 0));
+    }
+
+    private void openLink() {
+        provisioner.openLink(SERVER, DEVICE, 0);
+        provisioner.onMessageReceived(linkStatus(SERVER, "0001"), 0);
+        provisioner.onMessageReceived(linkReport(SERVER, "0002"), 0);
+        assertEquals("opened", events.get(0));
+        assertEquals(Long.MAX_VALUE, provisioner.getNextTimeout());
+    }
+
+    private static AccessMessage accessMessage(final int src, final String parameters) {
+        final AccessMessage message = new AccessMessage();
+        message.setSrc(src);
+        message.setParameters(MeshParserUtils.toByteArray(parameters));
+        return message;
+    }
+
+    private static RemoteProvisioningLinkStatus linkStatus(final int src, final String parameters) {
+        return new RemoteProvisioningLinkStatus(accessMessage(src, parameters));
+    }
+
+    private static RemoteProvisioningLinkReport linkReport(final int src, final String parameters) {
+        return new RemoteProvisioningLinkReport(accessMessage(src, parameters));
+    }
+
+    private static RemoteProvisioningPduOutboundReport outboundReport(final int src, final int number) {
+        return new RemoteProvisioningPduOutboundReport(accessMessage(src, String.format("%02X", number)));
+    }
+
+    private static RemoteProvisioningPduReport pduReport(final int src, final String parameters) {
+        return new RemoteProvisioningPduReport(accessMessage(src, parameters));
+    }
+}
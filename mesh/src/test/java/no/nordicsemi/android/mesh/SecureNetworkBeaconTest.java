@@ -2,11 +2,19 @@ package no.nordicsemi.android.mesh;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
 
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+import no.nordicsemi.android.mesh.utils.SecureUtils;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -238,4 +246,54 @@ public class SecureNetworkBeaconTest {
         assertTrue(result4);
         assertTrue(result5);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAuthenticate() {
+        // Sample data from Mesh Profile specification, 8.4.1 Secure Network beacon
+        final NetworkKey networkKey = new NetworkKey(0, MeshParserUtils.toByteArray("7DD7364CD842AD18C17C2B820C84C3D6"));
+        final NetworkKey otherKey = new NetworkKey(1, MeshParserUtils.toByteArray("F7A2A44F8E8A8029064F173DDC1E2B00"));
+        final SecureNetworkBeacon snb = new SecureNetworkBeacon(MeshParserUtils.toByteArray("01003ECAFF672F673370123456788EA261582F364F6F"));
+
+        assertSame(networkKey, snb.authenticate(Arrays.asList(otherKey, networkKey)));
+        assertNull(snb.authenticate(Collections.singletonList(otherKey)));
+
+        // A beacon with a matching network id but an invalid authentication value is discarded
+        final SecureNetworkBeacon forged = new SecureNetworkBeacon(MeshParserUtils.toByteArray("01003ECAFF672F673370123456788EA261582F364F60"));
+        assertNull(forged.authenticate(Collections.singletonList(networkKey)));
+    }
+
+    @Test
+    public void testAuthenticateDuringKeyRefresh() {
+        final byte[] oldKey = MeshParserUtils.toByteArray("7DD7364CD842AD18C17C2B820C84C3D6");
+        final NetworkKey networkKey = new NetworkKey(0, oldKey);
+        networkKey.distributeKey(MeshParserUtils.toByteArray("F7A2A44F8E8A8029064F173DDC1E2B00"));
+
+        // Beacons secured with either the old or the new key are accepted
+        final SecureNetworkBeacon oldBeacon = new SecureNetworkBeacon(MeshParserUtils.toByteArray("01003ECAFF672F673370123456788EA261582F364F6F"));
+        assertSame(networkKey, oldBeacon.authenticate(Collections.singletonList(networkKey)));
+        final SecureNetworkBeacon newBeacon = createBeacon(networkKey.getKey(), 0x12345678);
+        assertSame(networkKey, newBeacon.authenticate(Collections.singletonList(networkKey)));
+
+        // The derived values follow the key
+        networkKey.setKey(oldKey);
+        assertNull(newBeacon.authenticate(Collections.singletonList(networkKey)));
+    }
+
+    @Test
+    public void testAuthenticateWithManySubnets() {
+        final List<NetworkKey> networkKeys = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            networkKeys.add(new NetworkKey(i, SecureUtils.generateRandomNumber()));
+        }
+
+        for (int ivIndex = 0; ivIndex < 3; ivIndex++) {
+            assertSame(networkKeys.get(9), createBeacon(networkKeys.get(9).getKey(), ivIndex).authenticate(networkKeys));
+            assertSame(networkKeys.get(0), createBeacon(networkKeys.get(0).getKey(), ivIndex).authenticate(networkKeys));
+        }
+        assertNull(createBeacon(SecureUtils.generateRandomNumber(), 0).authenticate(networkKeys));
+    }
+
+    private static SecureNetworkBeacon createBeacon(final byte[] n, final int ivIndex) {
+        return new SecureNetworkBeacon(SecureUtils.calculateSecureNetworkBeacon(n, 1, 0, SecureUtils.calculateK3(n), ivIndex));
+    }
+}
@@ -0,0 +1,77 @@
+package no.nordicsemi.android.mesh;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import no.nordicsemi.android.mesh.transport.Element;
+import no.nordicsemi.android.mesh.transport.MeshModel;
+import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SubscriptionIndexTest {
+
+    private final ImportExportUtils importExportUtils = new ImportExportUtils();
+
+    @Test
+    public void testGroupMembers() {
+        final MeshNetwork network = importExportUtils.importNetwork(TestMeshNetworks.buildNetworkJson(4));
+        final Group kitchen = network.getGroup(0xC000);
+        final ProvisionedMeshNode node = network.getNode(0x0004);
+        final Element primary = node.getElements().get(0x0004);
+
+        // The provisioner node and 4 nodes subscribe with a model on the primary element
+        final List<Element> elements = network.getElements(kitchen);
+        assertEquals(5, elements.size());
+        assertTrue(elements.contains(primary));
+        final List<MeshModel> models = network.getModels(kitchen);
+        assertEquals(5, models.size());
+        assertTrue(models.contains(primary.getMeshModels().get(0x1000)));
+
+        final Group virtual = network.getGroups().get(1);
+        assertEquals(5, network.getModels(virtual).size());
+
+        assertTrue(network.deleteNode(node));
+        assertEquals(4, network.getElements(kitchen).size());
+        assertFalse(network.getElements(kitchen).contains(primary));
+        assertEquals(0, network.getModels(new Group(0xC0FF, network.getMeshUUID())).size());
+    }
+
+    @Test
+    public void testIndexFollowsReplacedNodes() {
+        final MeshNetwork network = importExportUtils.importNetwork(TestMeshNetworks.buildNetworkJson(2));
+        final Group kitchen = network.getGroup(0xC000);
+        assertEquals(3, network.getModels(kitchen).size());
+
+        // Replacing a node, as done when a status message is received, re-indexes it
+        final MeshNetwork other = importExportUtils.importNetwork(TestMeshNetworks.buildNetworkJson(2));
+        final ProvisionedMeshNode replacement = other.getNode(0x0004);
+        network.nodes.set(network.nodes.indexOf(network.getNode(0x0004)), replacement);
+        network.notifyNodeUpdated(replacement);
+        final MeshModel model = replacement.getElements().get(0x0004).getMeshModels().get(0x1000);
+        int found = 0;
+        for (MeshModel subscriber : network.getModels(kitchen)) {
+            if (subscriber == model)
+                found++;
+        }
+        assertEquals(1, found);
+        assertEquals(3, network.getModels(kitchen).size());
+        assertSame(network.getNode(0x0004), replacement);
+    }
+
+    @Test
+    public void testRepeatedLookupsReuseTheIndex() {
+        final MeshNetwork network = importExportUtils.importNetwork(TestMeshNetworks.buildNetworkJson(100));
+        final Group kitchen = network.getGroup(0xC000);
+        final Group secondary = new Group(0xC001, network.getMeshUUID());
+
+        assertEquals(101, network.getModels(kitchen).size());
+        assertEquals(101, network.getElements(secondary).size());
+        assertEquals(101, network.getElements(secondary).size());
+        assertEquals(101, network.getElements(kitchen).size());
+    }
+}
@@ -0,0 +1,88 @@
+package no.nordicsemi.android.mesh;
+
+import java.util.Locale;
+
+/**
+ * Builds synthetic Mesh Provisioning/Configuration Database json documents for tests.
+ */
+final class TestMeshNetworks {
+
+    static final String MESH_UUID = "3F1E1D2C-4B5A-4978-8695-A4B3C2D1E0F0";
+    static final String PROVISIONER_UUID = "70CF7C97-32A3-45B6-9149-4810D2E9CBF4";
+    static final String LABEL_UUID = "0073E7E4D8B9440FAF8415DF4C56C0E1";
+
+    private TestMeshNetworks() {
+    }
+
+    /**
+     * Builds a network containing the provisioner node and the given number of two element nodes.
+     */
+    static String buildNetworkJson(final int nodeCount) {
+        final StringBuilder nodes = new StringBuilder();
+        nodes.append(node(PROVISIONER_UUID.replace("-", ""), 0x0001, false));
+        int address = 0x0002;
+        for (int i = 0; i < nodeCount; i++) {
+            nodes.append(',').append(node(String.format(Locale.US, "%032X", i + 1), address, i % 2 == 0));
+            address += 2;
+        }
+        return "{" +
+                "\"$schema\":\"http://json-schema.org/draft-04/schema#\"," +
+                "\"id\":\"https://www.bluetooth.com/specifications/specs/mesh-cdb-1-0-1-schema.json#\"," +
+                "\"version\":\"1.0.1\"," +
+                "\"meshUUID\":\"" + MESH_UUID.replace("-", "") + "\"," +
+                "\"meshName\":\"Snapshot Network\"," +
+                "\"timestamp\":\"2023-05-04T10:20:30+00:00\"," +
+                "\"partial\":false," +
+                "\"netKeys\":[{\"name\":\"Network Key 1\",\"index\":0,\"key\":\"7DD7364CD842AD18C17C2B820C84C3D6\"," +
+                "\"phase\":0,\"minSecurity\":\"secure\",\"timestamp\":\"2023-05-04T10:20:30+00:00\"}]," +
+                "\"appKeys\":[" +
+                "{\"name\":\"Application Key 1\",\"index\":0,\"boundNetKey\":0,\"key\":\"63964771734FBD76E3B40519D1D94A48\"}," +
+                "{\"name\":\"Application Key 2\",\"index\":1,\"boundNetKey\":0,\"key\":\"63964771734FBD76E3B40519D1D94A49\"}]," +
+                "\"provisioners\":[{\"provisionerName\":\"Provisioner\",\"UUID\":\"" + PROVISIONER_UUID + "\"," +
+                "\"allocatedUnicastRange\":[{\"lowAddress\":\"0001\",\"highAddress\":\"7FFF\"}]," +
+                "\"allocatedGroupRange\":[{\"lowAddress\":\"C000\",\"highAddress\":\"CC9A\"}]," +
+                "\"allocatedSceneRange\":[{\"firstScene\":\"0001\",\"lastScene\":\"3333\"}]}]," +
+                "\"nodes\":[" + nodes + "]," +
+                "\"groups\":[" +
+                "{\"name\":\"Kitchen\",\"address\":\"C000\",\"parentAddress\":\"0000\"}," +
+                "{\"name\":\"Virtual\",\"address\":\"" + LABEL_UUID + "\",\"parentAddress\":\"C000\"}]," +
+                "\"scenes\":[{\"name\":\"Evening\",\"addresses\":[\"0002\",\"0004\"],\"number\":\"0001\"}]," +
+                "\"networkExclusions\":[{\"ivIndex\":0,\"addresses\":[\"7000\",\"7001\"]}]" +
+                "}";
+    }
+
+    private static String node(final String uuid, final int address, final boolean withHeartbeat) {
+        final String primary = String.format(Locale.US, "%04X", address);
+        return "{" +
+                "\"UUID\":\"" + uuid + "\"," +
+                "\"name\":\"Node " + primary + "\"," +
+                "\"deviceKey\":\"9D6DD0E96EB25DC19A40ED9914F8F03F\"," +
+                "\"unicastAddress\":\"" + primary + "\"," +
+                "\"security\":\"secure\"," +
+                "\"configComplete\":true," +
+                "\"cid\":\"0059\",\"pid\":\"0001\",\"vid\":\"0002\",\"crpl\":\"0028\"," +
+                "\"features\":{\"friend\":2,\"lowPower\":2,\"proxy\":1,\"relay\":0}," +
+                "\"secureNetworkBeacon\":true," +
+                "\"defaultTTL\":5," +
+                "\"networkTransmit\":{\"count\":2,\"interval\":20}," +
+                "\"relayRetransmit\":{\"count\":1,\"interval\":20}," +
+                "\"netKeys\":[{\"index\":0,\"updated\":false}]," +
+                "\"appKeys\":[{\"index\":0,\"updated\":false},{\"index\":1,\"updated\":false}]," +
+                "\"elements\":[" +
+                "{\"name\":\"Primary\",\"index\":0,\"location\":\"0000\",\"models\":[" +
+                "{\"modelId\":\"0000\",\"bind\":[],\"subscribe\":[]}," +
+                "{\"modelId\":\"0002\",\"bind\":[],\"subscribe\":[]}," +
+                "{\"modelId\":\"1000\",\"bind\":[0,1],\"subscribe\":[\"C000\",\"" + LABEL_UUID + "\"]," +
+                "\"publish\":{\"address\":\"C000\",\"index\":0,\"ttl\":5," +
+                "\"period\":{\"numberOfSteps\":1,\"resolution\":1000}," +
+                "\"retransmit\":{\"count\":1,\"interval\":100},\"credentials\":0}}]}," +
+                "{\"name\":\"Secondary\",\"index\":1,\"location\":\"0001\",\"models\":[" +
+                "{\"modelId\":\"1000\",\"bind\":[1],\"subscribe\":[\"C001\"]}," +
+                "{\"modelId\":\"00590001\",\"bind\":[0],\"subscribe\":[]}]}]," +
+                "\"excluded\":false" +
+                (withHeartbeat ? "," +
+                        "\"heartbeatPub\":{\"address\":\"C000\",\"period\":16,\"ttl\":5,\"index\":0,\"features\":[\"relay\"]}," +
+                        "\"heartbeatSub\":{\"destination\":\"" + primary + "\",\"source\":\"0001\"}" : "") +
+                "}";
+    }
+}
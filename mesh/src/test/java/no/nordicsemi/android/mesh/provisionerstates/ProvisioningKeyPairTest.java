@@ -0,0 +1,100 @@
+package no.nordicsemi.android.mesh.provisionerstates;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.spongycastle.jce.provider.BouncyCastleProvider;
+
+import java.security.Security;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+public class ProvisioningKeyPairTest {
+
+    private static final Executor INLINE = new Executor() {
+        @Override
+        public void execute(final Runnable command) {
+            command.run();
+        }
+    };
+
+    private static boolean addedSpongyCastle;
+
+    @BeforeClass
+    public static void addSpongyCastle() {
+        if (Security.getProvider("SC") == null) {
+            addedSpongyCastle = Security.addProvider(new BouncyCastleProvider()) != -1;
+        }
+    }
+
+    @AfterClass
+    public static void removeSpongyCastle() {
+        if (addedSpongyCastle) {
+            Security.removeProvider("SC");
+        }
+    }
+
+    @Test
+    public void testSharedSecretsMatch() throws Exception {
+        final ProvisioningKeyPair provisioner = ProvisioningKeyPair.generate(false);
+        final ProvisioningKeyPair provisionee = ProvisioningKeyPair.generate(false);
+        assertFalse(provisioner.isPlatformKeyPair());
+        assertEquals(64, provisioner.getPublicKeyXY().length);
+
+        final byte[] secret = provisioner.generateSharedSecret(provisionee.getPublicKeyXY());
+        assertEquals(32, secret.length);
+        assertArrayEquals(secret, provisionee.generateSharedSecret(provisioner.getPublicKeyXY()));
+    }
+
+    @Test
+    public void testPlatformSharedSecretMatchesSpongyCastle() throws Exception {
+        final ProvisioningKeyPair platform = ProvisioningKeyPair.generate(true);
+        final ProvisioningKeyPair spongyCastle = ProvisioningKeyPair.generate(false);
+        assertArrayEquals(platform.generateSharedSecret(spongyCastle.getPublicKeyXY()),
+                spongyCastle.generateSharedSecret(platform.getPublicKeyXY()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPointNotOnCurveIsRejected() throws Exception {
+        final byte[] xy = ProvisioningKeyPair.generate(false).getPublicKeyXY().clone();
+        xy[63] ^= 0x01;
+        ProvisioningKeyPair.generate(true).generateSharedSecret(xy);
+    }
+
+    @Test
+    public void testPoolIsRefilledAfterTake() throws Exception {
+        final ProvisioningKeyPairPool pool = new ProvisioningKeyPairPool(2, INLINE, false);
+        assertEquals(2, pool.getAvailable());
+
+        final ProvisioningKeyPair first = pool.take();
+        assertEquals(2, pool.getAvailable());
+        assertNotSame(first, pool.take());
+
+        pool.setSize(0);
+        assertEquals(0, pool.getAvailable());
+        assertEquals(64, pool.take().getPublicKeyXY().length);
+        assertEquals(0, pool.getAvailable());
+    }
+
+    @Test
+    public void testPublicKeyIsRejectedWithoutKeyPair() throws Exception {
+        final UnprovisionedMeshNode node = new UnprovisionedMeshNode(UUID.randomUUID());
+        final ProvisioningPublicKeyState state = new ProvisioningPublicKeyState(node, null, null, null);
+        final byte[] xy = ProvisioningKeyPair.generate(false).getPublicKeyXY();
+        node.setProvisioneePublicKeyXY(xy);
+        // No key pair has been obtained for the provisioner
+        assertFalse(state.parseData(xy));
+        assertNull(node.getSharedECDHSecret());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativePoolSizeIsRejected() {
+        new ProvisioningKeyPairPool(-1, INLINE, false);
+    }
+}
@@ -0,0 +1,35 @@
+package no.nordicsemi.android.mesh.sensorutils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import no.nordicsemi.android.mesh.utils.SensorFormat;
+
+public class DevicePropertyTest {
+
+    @Test
+    public void testKnownPropertiesAreInterned() {
+        Assert.assertSame(DeviceProperty.PRESENT_AMBIENT_TEMPERATURE, DeviceProperty.from((short) 0x004F));
+        Assert.assertSame(DeviceProperty.MOTION_SENSED, DeviceProperty.from(SensorFormat.FORMAT_A, (short) 0x0042));
+        Assert.assertEquals("Present Ambient Temperature", DeviceProperty.getPropertyName(DeviceProperty.from((short) 0x004F)));
+    }
+
+    @Test
+    public void testCustomProperty() {
+        final DeviceProperty custom = DeviceProperty.from((short) 0x1234);
+        Assert.assertEquals(0x1234, custom.getPropertyId());
+        Assert.assertEquals(custom, DeviceProperty.from((short) 0x1234));
+        Assert.assertEquals("Custom Device Property", DeviceProperty.getPropertyName(custom));
+        Assert.assertEquals(0, DeviceProperty.getCharacteristicLength(custom));
+        Assert.assertTrue(DeviceProperty.getCharacteristic(custom, new byte[]{1, 2}, 0, 2) instanceof UnknownCharacteristic);
+    }
+
+    @Test
+    public void testCharacteristicLength() {
+        Assert.assertEquals(1, DeviceProperty.getCharacteristicLength(DeviceProperty.PRESENT_AMBIENT_TEMPERATURE));
+        Assert.assertEquals(3, DeviceProperty.getCharacteristicLength(DeviceProperty.PRESENT_AMBIENT_LIGHT_LEVEL));
+        Assert.assertEquals(36, DeviceProperty.getCharacteristicLength(DeviceProperty.DEVICE_MANUFACTURER_NAME));
+        // Known property without a characteristic decoder
+        Assert.assertEquals(0, DeviceProperty.getCharacteristicLength(DeviceProperty.AVERAGE_INPUT_CURRENT));
+    }
+}
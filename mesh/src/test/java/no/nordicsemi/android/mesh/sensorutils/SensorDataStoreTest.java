@@ -0,0 +1,123 @@
+package no.nordicsemi.android.mesh.sensorutils;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import no.nordicsemi.android.mesh.transport.AccessMessage;
+import no.nordicsemi.android.mesh.transport.SensorStatus;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class SensorDataStoreTest {
+
+    private static final long MINUTE = 60 * 1000L;
+
+    @Test
+    public void testSensorStatusIsStoredPerElementAndProperty() {
+        final AccessMessage message = new AccessMessage();
+        message.setSrc(0x0005);
+        // Present Ambient Temperature 20°C, People Count 5
+        message.setParameters(MeshParserUtils.toByteArray("E00928" + "82090500"));
+        final SensorDataStore store = new SensorDataStore();
+        store.add(new SensorStatus(message), 1000);
+
+        final SensorTimeSeries temperature = store.getSeries(0x0005, DeviceProperty.PRESENT_AMBIENT_TEMPERATURE);
+        assertNotNull(temperature);
+        assertEquals(1, temperature.size());
+        assertEquals(1000, temperature.getTimestamp(0));
+        assertEquals(20.0, temperature.getValue(0), 0);
+        assertEquals(2, store.getSeries(0x0005).size());
+        assertNull(store.getSeries(0x0006, DeviceProperty.PRESENT_AMBIENT_TEMPERATURE));
+
+        store.remove(0x0004, 2);
+        assertEquals(0, store.getSeries(0x0005).size());
+    }
+
+    @Test
+    public void testValuesWithInvalidLengthAreSkipped() {
+        final AccessMessage message = new AccessMessage();
+        message.setSrc(0x0005);
+        // Present Ambient Light Level of 1 byte, Present Ambient Temperature 20°C, truncated People Count
+        message.setParameters(MeshParserUtils.toByteArray("C00910" + "E00928" + "820905"));
+        final SensorDataStore store = new SensorDataStore();
+        store.add(new SensorStatus(message), 1000);
+
+        assertNull(store.getSeries(0x0005, DeviceProperty.PRESENT_AMBIENT_LIGHT_LEVEL));
+        assertNull(store.getSeries(0x0005, DeviceProperty.PEOPLE_COUNT));
+        final SensorTimeSeries temperature = store.getSeries(0x0005, DeviceProperty.PRESENT_AMBIENT_TEMPERATURE);
+        assertNotNull(temperature);
+        assertEquals(20.0, temperature.getValue(0), 0);
+    }
+
+    @Test
+    public void testRetention() {
+        final SensorDataStore store = new SensorDataStore(20, new long[]{MINUTE}, 3);
+        for (int i = 0; i < 50; i++) {
+            store.add(0x0002, DeviceProperty.PEOPLE_COUNT, i * 10 * 1000L, i);
+        }
+        final SensorTimeSeries series = store.getSeries(0x0002, DeviceProperty.PEOPLE_COUNT);
+        assertNotNull(series);
+        assertEquals(20, series.size());
+        assertEquals(30, series.getValue(0), 0);
+        assertEquals(49, series.getValue(19), 0);
+
+        final SensorRollup rollup = series.getRollup(0);
+        assertEquals(3, rollup.size());
+        assertEquals(6 * MINUTE, rollup.getTimestamp(0));
+        assertEquals(8 * MINUTE, rollup.getTimestamp(2));
+        // Samples 48 and 49 fall in the last minute
+        assertEquals(2, rollup.getCount(2));
+    }
+
+    @Test
+    public void testRollups() {
+        final SensorDataStore store = new SensorDataStore(4, new long[]{MINUTE, 10 * MINUTE}, 10);
+        store.add(0x0002, DeviceProperty.PRESENT_AMBIENT_TEMPERATURE, 0, 10);
+        store.add(0x0002, DeviceProperty.PRESENT_AMBIENT_TEMPERATURE, 30 * 1000L, 20);
+        store.add(0x0002, DeviceProperty.PRESENT_AMBIENT_TEMPERATURE, MINUTE, 40);
+        // Out of order sample of the first minute
+        store.add(0x0002, DeviceProperty.PRESENT_AMBIENT_TEMPERATURE, 45 * 1000L, 0);
+
+        final SensorTimeSeries series = store.getSeries(0x0002, DeviceProperty.PRESENT_AMBIENT_TEMPERATURE);
+        assertNotNull(series);
+        final SensorRollup minutes = series.getRollup(0);
+        assertEquals(2, minutes.size());
+        assertEquals(0, minutes.getMin(0), 0);
+        assertEquals(20, minutes.getMax(0), 0);
+        assertEquals(10, minutes.getAverage(0), 0);
+        assertEquals(3, minutes.getCount(0));
+        assertEquals(40, minutes.getAverage(1), 0);
+
+        final SensorRollup tenMinutes = series.getRollup(1);
+        assertEquals(1, tenMinutes.size());
+        assertEquals(17.5, tenMinutes.getAverage(0), 0);
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        final SensorDataStore store = new SensorDataStore(4, new long[]{MINUTE}, 10);
+        for (int i = 0; i < 6; i++) {
+            store.add(0x0003, DeviceProperty.MOTION_SENSED, i * 30 * 1000L, i);
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        store.save(out);
+
+        final SensorDataStore restored = new SensorDataStore(4, new long[]{MINUTE, 10 * MINUTE}, 10);
+        restored.load(new ByteArrayInputStream(out.toByteArray()));
+        final SensorTimeSeries series = restored.getSeries(0x0003, DeviceProperty.MOTION_SENSED);
+        assertNotNull(series);
+        assertEquals(4, series.size());
+        assertEquals(2, series.getValue(0), 0);
+        // The one minute rollup is restored with all samples
+        assertEquals(3, series.getRollup(0).size());
+        assertEquals(0.5, series.getRollup(0).getAverage(0), 0);
+        // The new ten minute rollup is rebuilt from the retained samples only
+        assertEquals(4, series.getRollup(1).getCount(0));
+    }
+}
@@ -0,0 +1,114 @@
+package no.nordicsemi.android.mesh.sensorutils;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import no.nordicsemi.android.mesh.ApplicationKey;
+import no.nordicsemi.android.mesh.transport.AccessMessage;
+import no.nordicsemi.android.mesh.transport.SensorCadenceStatus;
+import no.nordicsemi.android.mesh.transport.SensorStatus;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class SensorPollingSchedulerTest {
+
+    private static final ApplicationKey APP_KEY = new ApplicationKey(MeshParserUtils.hexToInt("0456"), MeshParserUtils.toByteArray("63964771734fbd76e3b40519d1d94a48"));
+
+    private static AccessMessage createMessage(final int src, final String parameters) {
+        final AccessMessage message = new AccessMessage();
+        message.setSrc(src);
+        message.setParameters(MeshParserUtils.toByteArray(parameters));
+        return message;
+    }
+
+    @Test
+    public void testOnlyDuePropertiesArePolled() {
+        final SensorPollingScheduler scheduler = new SensorPollingScheduler();
+        scheduler.setAirtimeBudget(10);
+        // Let the budget fill up before the sensors are added
+        scheduler.poll(0);
+        scheduler.addSensor(0x0002, APP_KEY, DeviceProperty.PRESENT_AMBIENT_TEMPERATURE, 10000, 1000);
+        scheduler.addSensor(0x0002, APP_KEY, DeviceProperty.MOTION_SENSED, 30000, 1000);
+        scheduler.addSensor(0x0003, APP_KEY, DeviceProperty.PEOPLE_COUNT, 10000, 1000);
+
+        // Each property is read with a Sensor Get of its own
+        final List<SensorPollingScheduler.Poll> polls = scheduler.poll(1000);
+        assertEquals(3, polls.size());
+        for (SensorPollingScheduler.Poll poll : polls) {
+            assertNotNull(poll.message.getParameters());
+        }
+        assertEquals(0, scheduler.poll(6000).size());
+        assertEquals(11000, scheduler.getNextPollTime());
+
+        // Motion Sensed is not due yet and is not read along with the temperature
+        final List<SensorPollingScheduler.Poll> next = scheduler.poll(11000);
+        assertEquals(2, next.size());
+        for (SensorPollingScheduler.Poll poll : next) {
+            if (poll.address == 0x0002) {
+                assertArrayEquals(MeshParserUtils.toByteArray("4F00"), poll.message.getParameters());
+            }
+        }
+    }
+
+    @Test
+    public void testValuesWithInvalidLengthAreIgnored() {
+        final SensorPollingScheduler scheduler = new SensorPollingScheduler();
+        scheduler.addSensor(0x0002, APP_KEY, DeviceProperty.PRESENT_AMBIENT_LIGHT_LEVEL, 10000, 0);
+        scheduler.addSensor(0x0002, APP_KEY, DeviceProperty.PEOPLE_COUNT, 10000, 0);
+        // Present Ambient Light Level of 1 byte and a truncated People Count
+        scheduler.onSensorStatus(new SensorStatus(createMessage(0x0002, "C00910" + "820905")), 0);
+        assertEquals(10000, scheduler.getInterval(0x0002, DeviceProperty.PRESENT_AMBIENT_LIGHT_LEVEL));
+        assertEquals(10000, scheduler.getInterval(0x0002, DeviceProperty.PEOPLE_COUNT));
+    }
+
+    @Test
+    public void testAirtimeBudget() {
+        final SensorPollingScheduler scheduler = new SensorPollingScheduler();
+        scheduler.setAirtimeBudget(2);
+        for (int address = 1; address <= 5; address++) {
+            scheduler.addSensor(address, APP_KEY, DeviceProperty.PEOPLE_COUNT, 60000, 0);
+        }
+        assertEquals(2, scheduler.poll(0).size());
+        assertEquals(500, scheduler.getNextPollTime());
+        assertEquals(1, scheduler.poll(500).size());
+        assertEquals(2, scheduler.poll(1500).size());
+        assertEquals(0, scheduler.poll(2000).size());
+        assertEquals(5, scheduler.getSentMessages());
+    }
+
+    @Test
+    public void testUnchangedValuesBackOff() {
+        final SensorPollingScheduler scheduler = new SensorPollingScheduler();
+        scheduler.addSensor(0x0002, APP_KEY, DeviceProperty.PRESENT_AMBIENT_TEMPERATURE, 10000, 0);
+        final SensorStatus status = new SensorStatus(createMessage(0x0002, "E00928"));
+        scheduler.onSensorStatus(status, 0);
+        assertEquals(10000, scheduler.getInterval(0x0002, DeviceProperty.PRESENT_AMBIENT_TEMPERATURE));
+        scheduler.onSensorStatus(status, 10000);
+        assertEquals(20000, scheduler.getInterval(0x0002, DeviceProperty.PRESENT_AMBIENT_TEMPERATURE));
+        scheduler.onSensorStatus(status, 30000);
+        scheduler.onSensorStatus(status, 70000);
+        assertEquals(10000 * SensorPollingScheduler.MAX_BACKOFF, scheduler.getInterval(0x0002, DeviceProperty.PRESENT_AMBIENT_TEMPERATURE));
+    }
+
+    @Test
+    public void testCadence() {
+        final SensorPollingScheduler scheduler = new SensorPollingScheduler();
+        scheduler.addSensor(0x0002, APP_KEY, DeviceProperty.PRESENT_AMBIENT_TEMPERATURE, 60000, 0);
+        // Period divisor 2, delta down and up 2°C, status min interval 1 ms, fast cadence from 20°C to 30°C,
+        // laid out as parsed by SensorCadenceStatus
+        final SensorCadenceStatus cadence = new SensorCadenceStatus(createMessage(0x0002, "4F00" + "0200" + "0404" + "00" + "283C" + "000000"));
+        scheduler.onCadenceStatus(0x0002, cadence.getCadence());
+
+        // 25°C is within the fast cadence range
+        scheduler.onSensorStatus(new SensorStatus(createMessage(0x0002, "E00932")), 0);
+        assertEquals(15000, scheduler.getInterval(0x0002, DeviceProperty.PRESENT_AMBIENT_TEMPERATURE));
+
+        // 31°C 15 s later, a change of 2°C is expected within 5 s
+        scheduler.onSensorStatus(new SensorStatus(createMessage(0x0002, "E0093E")), 15000);
+        assertEquals(5000, scheduler.getInterval(0x0002, DeviceProperty.PRESENT_AMBIENT_TEMPERATURE));
+    }
+}
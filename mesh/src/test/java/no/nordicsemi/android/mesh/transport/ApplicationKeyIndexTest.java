@@ -0,0 +1,104 @@
+package no.nordicsemi.android.mesh.transport;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import no.nordicsemi.android.mesh.ApplicationKey;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+import no.nordicsemi.android.mesh.utils.SecureUtils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ApplicationKeyIndexTest {
+
+    private static final byte[] NONCE = MeshParserUtils.toByteArray("010007080d1234973612345677");
+    private static final byte[] ACCESS_PDU = MeshParserUtils.toByteArray("800300563412");
+
+    @Test
+    public void testOnlyKeysWithMatchingAidAreCandidates() {
+        final ApplicationKey first = new ApplicationKey(0, key(1));
+        final ApplicationKey second = new ApplicationKey(1, keyWithAid(first.getAid() ^ 0x01));
+        final ApplicationKeyIndex index = new ApplicationKeyIndex();
+
+        final List<ApplicationKeyIndex.Candidate> candidates = index.getCandidates(0, Arrays.asList(first, second), first.getAid(), 0x0002);
+        assertEquals(1, candidates.size());
+        assertSame(first, candidates.get(0).key);
+
+        final byte[] encrypted = SecureUtils.encryptCCM(ACCESS_PDU, first.getKey(), NONCE, 4);
+        assertArrayEquals(ACCESS_PDU, candidates.get(0).decrypt(encrypted, NONCE, null, 4));
+        // A different key fails authentication without throwing
+        final ApplicationKeyIndex.Candidate other = index.getCandidates(0, Arrays.asList(first, second), second.getAid(), 0x0002).get(0);
+        assertNull(other.decrypt(encrypted, NONCE, null, 4));
+    }
+
+    @Test
+    public void testOldKeyIsTriedDuringKeyRefresh() {
+        final byte[] oldKey = key(2);
+        final ApplicationKey key = new ApplicationKey(0, oldKey);
+        key.setOldKey(oldKey);
+        key.setKey(keyWithAid(key.getOldAid() ^ 0x01));
+        final ApplicationKeyIndex index = new ApplicationKeyIndex();
+
+        final List<ApplicationKeyIndex.Candidate> candidates = index.getCandidates(0, Arrays.asList(key), key.getOldAid(), 0x0002);
+        assertEquals(1, candidates.size());
+        assertTrue(candidates.get(0).oldKey);
+        final byte[] encrypted = SecureUtils.encryptCCM(ACCESS_PDU, oldKey, NONCE, 4);
+        assertArrayEquals(ACCESS_PDU, candidates.get(0).decrypt(encrypted, NONCE, null, 4));
+    }
+
+    @Test
+    public void testKeyWithoutOldKeyIsNotMatchedByAidZero() {
+        final ApplicationKey key = new ApplicationKey(0, keyWithAid(0x15));
+        final ApplicationKeyIndex index = new ApplicationKeyIndex();
+        assertTrue(index.getCandidates(0, Arrays.asList(key), 0x00, 0x0002).isEmpty());
+    }
+
+    @Test
+    public void testLastMatchedKeyIsTriedFirst() {
+        final ApplicationKey first = new ApplicationKey(0, key(3));
+        final ApplicationKey second = new ApplicationKey(1, keyWithAid(first.getAid()));
+        final List<ApplicationKey> keys = Arrays.asList(first, second);
+        final ApplicationKeyIndex index = new ApplicationKeyIndex();
+
+        assertSame(first, index.getCandidates(0, keys, first.getAid(), 0x0002).get(0).key);
+        index.setMatchedKey(0x0002, second);
+        assertSame(second, index.getCandidates(0, keys, first.getAid(), 0x0002).get(0).key);
+        assertSame(first, index.getCandidates(0, keys, first.getAid(), 0x0003).get(0).key);
+    }
+
+    @Test
+    public void testIndexFollowsKeyChanges() {
+        final ApplicationKey first = new ApplicationKey(0, key(4));
+        final List<ApplicationKey> keys = new ArrayList<>(Arrays.asList(first));
+        final ApplicationKeyIndex index = new ApplicationKeyIndex();
+        assertEquals(1, index.getCandidates(0, keys, first.getAid(), 0x0002).size());
+
+        keys.add(new ApplicationKey(1, keyWithAid(first.getAid())));
+        assertEquals(2, index.getCandidates(0, keys, first.getAid(), 0x0002).size());
+
+        final int aid = first.getAid();
+        first.setKey(keyWithAid(aid ^ 0x01));
+        assertEquals(1, index.getCandidates(0, keys, aid, 0x0002).size());
+        assertEquals(1, index.getCandidates(0, keys, aid ^ 0x01, 0x0002).size());
+    }
+
+    private static byte[] key(final int seed) {
+        return ByteBuffer.allocate(16).putInt(0x5A5A5A5A).putInt(seed).array();
+    }
+
+    private static byte[] keyWithAid(final int aid) {
+        for (int seed = 1000; ; seed++) {
+            final byte[] key = key(seed);
+            if (SecureUtils.calculateK4(key) == aid)
+                return key;
+        }
+    }
+}
@@ -35,6 +35,7 @@ import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Configuration message tests
@@ -113,4 +114,25 @@ public class ConfigMessageTests {
         final ConfigNetKeyList configNetKeyList = new ConfigNetKeyList(message);
         assertArrayEquals(keyIndexes.toArray(), configNetKeyList.getKeyIndexes().toArray());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void createPrivateBeaconSet() {
+        final PrivateBeaconSet privateBeaconSet = new PrivateBeaconSet(true, 0x3C);
+        final ByteBuffer buffer = ByteBuffer.allocate(privateBeaconSet.getParameters().length + 2);
+        buffer.putShort((short) privateBeaconSet.getOpCode());
+        buffer.put(privateBeaconSet.getParameters());
+        assertEquals("8061013C", MeshParserUtils.bytesToHex(buffer.array(), false));
+        assertEquals("00", MeshParserUtils.bytesToHex(new PrivateBeaconSet(false).getParameters(), false));
+    }
+
+    @Test
+    public void parsePrivateBeaconStatus() {
+        final AccessMessage message = new AccessMessage();
+        message.setOpCode(MeshParserUtils.hexToInt("8062"));
+        message.setParameters(MeshParserUtils.toByteArray("01FF"));
+
+        final PrivateBeaconStatus status = new PrivateBeaconStatus(message);
+        assertTrue(status.isEnable());
+        assertEquals(0xFF, status.getRandomUpdateIntervalSteps());
+    }
+}
@@ -0,0 +1,134 @@
+package no.nordicsemi.android.mesh.transport;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import no.nordicsemi.android.mesh.ApplicationKey;
+import no.nordicsemi.android.mesh.sensorutils.DeviceProperty;
+import no.nordicsemi.android.mesh.sensorutils.SensorSeriesReader;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SensorSeriesReaderTest {
+
+    private static final ApplicationKey APP_KEY = new ApplicationKey(MeshParserUtils.hexToInt("0456"), MeshParserUtils.toByteArray("63964771734fbd76e3b40519d1d94a48"));
+
+    private static AccessMessage createMessage(final String parameters) {
+        final AccessMessage message = new AccessMessage();
+        message.setSrc(0x0002);
+        message.setParameters(MeshParserUtils.toByteArray(parameters));
+        return message;
+    }
+
+    private static SensorSeriesReader createReader(final long columnWidth) {
+        return new SensorSeriesReader(APP_KEY, DeviceProperty.PRESENT_AMBIENT_TEMPERATURE, columnWidth, 1);
+    }
+
+    @Test
+    public void testRangeIsPagedOnePageAtATime() {
+        final SensorSeriesReader reader = createReader(10);
+        // Three one octet values per column, two columns fit an unsegmented status
+        assertEquals(2, reader.getColumnsPerPage());
+        reader.request(0, 99);
+
+        List<MeshMessage> requests = reader.nextRequests(0);
+        assertEquals(1, requests.size());
+        assertArrayEquals(MeshParserUtils.toByteArray("4F000013"), requests.get(0).getParameters());
+        assertEquals(0, reader.nextRequests(0).size());
+
+        assertTrue(reader.onSeriesStatus(new SensorSeriesStatus(createMessage("4F00" + "0A0A07" + "000A05"))));
+        requests = reader.nextRequests(0);
+        assertEquals(1, requests.size());
+        assertArrayEquals(MeshParserUtils.toByteArray("4F001427"), requests.get(0).getParameters());
+        assertTrue(reader.onSeriesStatus(new SensorSeriesStatus(createMessage("4F00" + "140A08" + "1E0A09"))));
+        assertEquals(4, reader.getColumnCount());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i * 10, reader.getRawX(i));
+        }
+        assertEquals(5, reader.getRawY(0));
+        assertEquals(9, reader.getRawY(3));
+        assertEquals(2, reader.getFirstColumn(15));
+
+        assertEquals(1, reader.nextRequests(0).size());
+        assertFalse(reader.isComplete());
+    }
+
+    @Test
+    public void testEmptyStatusAnswersTheOutstandingPage() {
+        final SensorSeriesReader reader = createReader(10);
+        reader.request(0, 19);
+        reader.request(60, 79);
+        reader.requestColumn(50);
+
+        // The column is requested along with the first page, the second page waits
+        List<MeshMessage> requests = reader.nextRequests(0);
+        assertEquals(2, requests.size());
+        assertArrayEquals(MeshParserUtils.toByteArray("4F000013"), requests.get(0).getParameters());
+        assertTrue(requests.get(1) instanceof SensorColumnGet);
+
+        assertTrue(reader.onSeriesStatus(new SensorSeriesStatus(createMessage("4F00"))));
+        assertTrue(reader.isRead(19));
+        assertFalse(reader.isRead(50));
+        assertFalse(reader.isRead(60));
+
+        requests = reader.nextRequests(0);
+        assertEquals(1, requests.size());
+        assertArrayEquals(MeshParserUtils.toByteArray("4F003C4F"), requests.get(0).getParameters());
+    }
+
+    @Test
+    public void testReadRangesAreCached() {
+        final SensorSeriesReader reader = createReader(10);
+        reader.request(0, 19);
+        reader.nextRequests(0);
+        // No columns in the range
+        assertTrue(reader.onSeriesStatus(new SensorSeriesStatus(createMessage("4F00"))));
+        assertTrue(reader.isComplete());
+        assertTrue(reader.isRead(19));
+        assertFalse(reader.isRead(20));
+
+        reader.request(10, 39);
+        reader.requestColumn(5);
+        reader.requestColumn(50);
+        final List<MeshMessage> requests = reader.nextRequests(0);
+        assertEquals(2, requests.size());
+        assertArrayEquals(MeshParserUtils.toByteArray("4F001427"), requests.get(0).getParameters());
+        assertTrue(requests.get(1) instanceof SensorColumnGet);
+
+        assertTrue(reader.onColumnStatus(new SensorColumnStatus(createMessage("4F00" + "320A03"))));
+        assertEquals(1, reader.getColumnCount());
+        assertEquals(50, reader.getRawX(0));
+        assertEquals(10, reader.getColumnWidth(0));
+    }
+
+    @Test
+    public void testColumnWidthIsLearned() {
+        final SensorSeriesReader reader = createReader(20);
+        reader.setMaxConcurrency(1);
+        reader.request(0, 99);
+        assertArrayEquals(MeshParserUtils.toByteArray("4F000027"), reader.nextRequests(0).get(0).getParameters());
+        reader.onSeriesStatus(new SensorSeriesStatus(createMessage("4F00" + "000501" + "050502")));
+        // The next page covers two columns of the width received
+        assertArrayEquals(MeshParserUtils.toByteArray("4F002831"), reader.nextRequests(0).get(0).getParameters());
+    }
+
+    @Test
+    public void testRequestsAreRetriedAndGivenUp() {
+        final SensorSeriesReader reader = createReader(10);
+        reader.setTimeout(100);
+        reader.request(0, 19);
+        assertEquals(1, reader.nextRequests(0).size());
+        assertEquals(0, reader.nextRequests(50).size());
+        for (int i = 1; i <= SensorSeriesReader.MAX_RETRIES; i++) {
+            assertEquals(1, reader.nextRequests(i * 100).size());
+        }
+        assertEquals(0, reader.nextRequests((SensorSeriesReader.MAX_RETRIES + 1) * 100).size());
+        assertTrue(reader.isComplete());
+        assertFalse(reader.isRead(0));
+    }
+}
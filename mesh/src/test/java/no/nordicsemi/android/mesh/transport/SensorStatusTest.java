@@ -0,0 +1,117 @@
+package no.nordicsemi.android.mesh.transport;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import no.nordicsemi.android.mesh.sensorutils.DeviceProperty;
+import no.nordicsemi.android.mesh.sensorutils.MarshalledSensorData;
+import no.nordicsemi.android.mesh.sensorutils.SensorDataReader;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+import no.nordicsemi.android.mesh.utils.SensorFormat;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SensorStatusTest {
+
+    // Present Ambient Temperature 20°C, Motion Sensed 50%, Present Ambient Light Level 100 lux, People Count 5
+    private static final String PARAMETERS = "E00928" + "400864" + "C40910270" + "0" + "82090500";
+
+    private static SensorStatus createStatus(final String parameters) {
+        final AccessMessage message = new AccessMessage();
+        message.setParameters(MeshParserUtils.toByteArray(parameters));
+        return new SensorStatus(message);
+    }
+
+    @Test
+    public void testReaderIteratesInPlace() {
+        final SensorDataReader reader = createStatus(PARAMETERS).getSensorDataReader();
+
+        assertTrue(reader.next());
+        assertSame(DeviceProperty.PRESENT_AMBIENT_TEMPERATURE, reader.getDeviceProperty());
+        assertEquals(SensorFormat.FORMAT_A, reader.getFormat());
+        assertEquals(2, reader.getOffset());
+        assertEquals(1, reader.getLength());
+        assertEquals(20.0f, (Float) reader.getCharacteristic().getValue(), 0);
+
+        assertTrue(reader.next());
+        assertSame(DeviceProperty.MOTION_SENSED, reader.getDeviceProperty());
+        assertTrue(reader.next());
+        assertSame(DeviceProperty.PRESENT_AMBIENT_LIGHT_LEVEL, reader.getDeviceProperty());
+        assertEquals(10000, reader.getUnsignedValue());
+        assertTrue(reader.next());
+        assertSame(DeviceProperty.PEOPLE_COUNT, reader.getDeviceProperty());
+        assertEquals(5, reader.getSignedValue());
+        assertFalse(reader.next());
+
+        assertTrue(reader.find(DeviceProperty.MOTION_SENSED));
+        assertEquals(0x64, reader.getUnsignedValue());
+        assertFalse(reader.find(DeviceProperty.PRESENCE_DETECTED));
+    }
+
+    @Test
+    public void testSignedValue() {
+        // Present Ambient Temperature -10°C
+        final SensorDataReader reader = createStatus("E009EC").getSensorDataReader();
+        assertTrue(reader.next());
+        assertEquals(-20, reader.getSignedValue());
+        assertEquals(0xEC, reader.getUnsignedValue());
+    }
+
+    @Test
+    public void testFormatBLength() {
+        final SensorDataReader reader = createStatus("FF0000" + "050000AABB").getSensorDataReader();
+        assertTrue(reader.next());
+        assertEquals(SensorFormat.FORMAT_B, reader.getFormat());
+        assertEquals(0, reader.getLength());
+        assertTrue(reader.next());
+        assertEquals(2, reader.getLength());
+        assertEquals(0xBBAA, reader.getUnsignedValue());
+        assertFalse(reader.next());
+    }
+
+    @Test
+    public void testFormatBPropertyId() {
+        // Property ID 0x0123 of 2 bytes, which does not fit in one octet
+        final SensorDataReader reader = createStatus("052301" + "AABB").getSensorDataReader();
+        assertTrue(reader.next());
+        assertEquals(SensorFormat.FORMAT_B, reader.getFormat());
+        assertEquals(0x0123, reader.getPropertyId());
+        assertEquals(0x0123, reader.getDeviceProperty().getPropertyId());
+        assertEquals(0xBBAA, reader.getUnsignedValue());
+        assertFalse(reader.next());
+    }
+
+    @Test
+    public void testMarshalledSensorDataIsKept() {
+        final SensorStatus status = createStatus(PARAMETERS);
+        final ArrayList<MarshalledSensorData> data = status.getMarshalledSensorData();
+        assertEquals(4, data.size());
+        assertSame(data, status.getMarshalledSensorData());
+        assertSame(DeviceProperty.PRESENT_AMBIENT_LIGHT_LEVEL, data.get(2).getMarshalledPropertyId().getPropertyId());
+        assertEquals(3, data.get(2).getMarshalledPropertyId().getLength());
+        assertArrayEquals(new byte[]{0x10, 0x27, 0x00}, data.get(2).getRawValues());
+    }
+
+    @Test
+    public void testReaderMatchesMarshalledSensorData() {
+        final StringBuilder parameters = new StringBuilder();
+        for (int i = 0; i < 4; i++) {
+            parameters.append(PARAMETERS);
+        }
+        final SensorStatus status = createStatus(parameters.toString());
+        final ArrayList<MarshalledSensorData> data = status.getMarshalledSensorData();
+        assertEquals(16, data.size());
+
+        final SensorDataReader reader = status.getSensorDataReader();
+        for (MarshalledSensorData sensorData : data) {
+            assertTrue(reader.next());
+            assertSame(sensorData.getMarshalledPropertyId().getPropertyId(), reader.getDeviceProperty());
+        }
+        assertFalse(reader.next());
+    }
+}
@@ -0,0 +1,85 @@
+package no.nordicsemi.android.mesh.transport;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import no.nordicsemi.android.mesh.Group;
+import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class VirtualLabelIndexTest {
+
+    private static final String MESH_UUID = "2C8A7C3B-4B6F-4E5A-9F3C-0C56A9B1D2E3";
+    private static final UUID KITCHEN = UUID.fromString("0073E7E4-D8B9-440F-AF84-15DF4C56C0E1");
+    private static final UUID BEDROOM = UUID.fromString("F4A0D5D3-8C1E-4D5C-9C69-7B1E9F6B3A20");
+
+    @Test
+    public void testOnlyLabelsOfTheAddressAreReturned() {
+        final List<Group> groups = new ArrayList<>(Arrays.asList(
+                new Group(0xC000, MESH_UUID),
+                new Group(KITCHEN, MeshAddress.UNASSIGNED_ADDRESS, MESH_UUID),
+                new Group(BEDROOM, MeshAddress.UNASSIGNED_ADDRESS, MESH_UUID)));
+        final VirtualLabelIndex index = new VirtualLabelIndex();
+
+        final List<byte[]> labels = index.getLabels(groups, MeshAddress.generateVirtualAddress(KITCHEN));
+        assertEquals(1, labels.size());
+        assertArrayEquals(MeshParserUtils.uuidToBytes(KITCHEN), labels.get(0));
+        // Labels are converted once
+        assertSame(labels.get(0), index.getLabels(groups, MeshAddress.generateVirtualAddress(KITCHEN)).get(0));
+        assertTrue(index.getLabels(groups, 0xC000).isEmpty());
+    }
+
+    @Test
+    public void testIndexFollowsGroupChanges() {
+        final Group group = new Group(KITCHEN, MeshAddress.UNASSIGNED_ADDRESS, MESH_UUID);
+        final List<Group> groups = new ArrayList<>(Arrays.asList(group));
+        final VirtualLabelIndex index = new VirtualLabelIndex();
+        final int kitchen = MeshAddress.generateVirtualAddress(KITCHEN);
+        final int bedroom = MeshAddress.generateVirtualAddress(BEDROOM);
+        assertEquals(1, index.getLabels(groups, kitchen).size());
+
+        group.setAddressLabel(BEDROOM);
+        assertTrue(index.getLabels(groups, kitchen).isEmpty());
+        assertEquals(1, index.getLabels(groups, bedroom).size());
+
+        // A second group with the same label does not add another attempt
+        groups.add(new Group(BEDROOM, MeshAddress.UNASSIGNED_ADDRESS, MESH_UUID));
+        assertEquals(1, index.getLabels(groups, bedroom).size());
+    }
+
+    @Test
+    public void testIndexIsKeptForNewViewsOfTheSameGroups() {
+        final List<Group> groups = new ArrayList<>(Arrays.asList(
+                new Group(KITCHEN, MeshAddress.UNASSIGNED_ADDRESS, MESH_UUID),
+                new Group(BEDROOM, MeshAddress.UNASSIGNED_ADDRESS, MESH_UUID)));
+        final VirtualLabelIndex index = new VirtualLabelIndex();
+        final int kitchen = MeshAddress.generateVirtualAddress(KITCHEN);
+
+        // The network returns a new unmodifiable view on each call, the index must not be rebuilt for it
+        final List<byte[]> labels = index.getLabels(Collections.unmodifiableList(groups), kitchen);
+        assertSame(labels, index.getLabels(Collections.unmodifiableList(groups), kitchen));
+
+        groups.get(1).setAddressLabel(KITCHEN);
+        assertNotSame(labels, index.getLabels(Collections.unmodifiableList(groups), kitchen));
+    }
+
+    @Test
+    public void testAttemptsAreCounted() {
+        final VirtualLabelIndex index = new VirtualLabelIndex();
+        index.addAttempts(1);
+        index.addAttempts(3);
+        assertEquals(2, index.getMessageCount());
+        assertEquals(4, index.getAttemptCount());
+    }
+}